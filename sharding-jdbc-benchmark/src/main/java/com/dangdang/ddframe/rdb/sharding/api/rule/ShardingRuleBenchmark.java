@@ -0,0 +1,95 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.api.rule;
+
+import com.dangdang.ddframe.rdb.sharding.fixture.BenchmarkShardingRule;
+import com.google.common.base.Optional;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分片规则查找性能测试.
+ * 
+ * <p>
+ * 查找目标配置在 {@code fillerTableCount} 张填充表之后, 每张表 {@value BenchmarkShardingRule#DATA_SOURCE_COUNT} x {@value BenchmarkShardingRule#TABLE_COUNT} 个数据分片节点.
+ * 使用 {@code java -jar target/benchmarks.jar ShardingRuleBenchmark} 运行.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ShardingRuleBenchmark {
+    
+    private static final String DATA_SOURCE = "ds_" + (BenchmarkShardingRule.DATA_SOURCE_COUNT - 1);
+    
+    private static final String ACTUAL_TABLE = "t_order_" + (BenchmarkShardingRule.TABLE_COUNT - 1);
+    
+    @Param({"0", "300"})
+    private int fillerTableCount;
+    
+    private ShardingRule shardingRule;
+    
+    private TableRule tableRule;
+    
+    private BindingTableRule bindingTableRule;
+    
+    @Setup
+    public void setUp() {
+        shardingRule = BenchmarkShardingRule.create(fillerTableCount);
+        tableRule = shardingRule.getTableRule("t_order");
+        bindingTableRule = shardingRule.findBindingTableRule("t_order").get();
+    }
+    
+    @Benchmark
+    public Optional<TableRule> tryFindTableRule() {
+        return shardingRule.tryFindTableRule("t_order");
+    }
+    
+    @Benchmark
+    public Optional<BindingTableRule> findBindingTableRule() {
+        return shardingRule.findBindingTableRule("t_order");
+    }
+    
+    @Benchmark
+    public Collection<DataNode> getActualDataNodes() {
+        return tableRule.getActualDataNodes(DATA_SOURCE, Collections.singletonList(ACTUAL_TABLE));
+    }
+    
+    @Benchmark
+    public String getBindingActualTable() {
+        return bindingTableRule.getBindingActualTable(DATA_SOURCE, "t_order_item", ACTUAL_TABLE);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.api.strategy;
+
+import com.dangdang.ddframe.rdb.sharding.api.ShardingValue;
+import com.dangdang.ddframe.rdb.sharding.api.strategy.common.ConsistentHashShardingAlgorithm;
+import com.dangdang.ddframe.rdb.sharding.api.strategy.common.JumpHashShardingAlgorithm;
+import com.dangdang.ddframe.rdb.sharding.api.strategy.table.TableShardingStrategy;
+import com.dangdang.ddframe.rdb.sharding.config.common.internal.algorithm.ClosureTableShardingAlgorithm;
+import com.dangdang.ddframe.rdb.sharding.fixture.BenchmarkShardingRule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分片算法性能测试.
+ * 
+ * <p>
+ * 对比内置的哈希分片算法与行内表达式分片算法, 分片目标为 {@value BenchmarkShardingRule#TABLE_COUNT} 张表.
+ * {@code inline} 为可编译的行内表达式, {@code groovy} 为只能由Groovy闭包求值的行内表达式.
+ * 使用 {@code java -jar target/benchmarks.jar ShardingAlgorithmBenchmark} 运行.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ShardingAlgorithmBenchmark {
+    
+    private static final int IN_VALUE_COUNT = 16;
+    
+    @Param({"jump", "consistent", "inline", "groovy"})
+    private String algorithm;
+    
+    private TableShardingStrategy tableShardingStrategy;
+    
+    private Collection<String> availableTargetNames;
+    
+    private Collection<ShardingValue<?>> equalShardingValues;
+    
+    private Collection<ShardingValue<?>> inShardingValues;
+    
+    @Setup
+    public void setUp() {
+        tableShardingStrategy = createTableShardingStrategy();
+        List<String> targetNames = new ArrayList<>(BenchmarkShardingRule.TABLE_COUNT);
+        for (int i = 0; i < BenchmarkShardingRule.TABLE_COUNT; i++) {
+            targetNames.add("t_order_" + i);
+        }
+        availableTargetNames = Collections.unmodifiableList(targetNames);
+        equalShardingValues = Collections.<ShardingValue<?>>singletonList(new ShardingValue<>("t_order", "order_id", 1000L));
+        List<Long> values = new ArrayList<>(IN_VALUE_COUNT);
+        for (long i = 0; i < IN_VALUE_COUNT; i++) {
+            values.add(1000L + i * 7);
+        }
+        inShardingValues = Collections.<ShardingValue<?>>singletonList(new ShardingValue<>("t_order", "order_id", values));
+    }
+    
+    private TableShardingStrategy createTableShardingStrategy() {
+        switch (algorithm) {
+            case "jump":
+                return new TableShardingStrategy("order_id", new JumpHashShardingAlgorithm<Long>());
+            case "consistent":
+                return new TableShardingStrategy("order_id", new ConsistentHashShardingAlgorithm<Long>());
+            case "inline":
+                return new TableShardingStrategy(Collections.singletonList("order_id"), new ClosureTableShardingAlgorithm("t_order_${order_id.longValue() % " + BenchmarkShardingRule.TABLE_COUNT + "}", "benchmark"));
+            case "groovy":
+                return new TableShardingStrategy(Collections.singletonList("order_id"), new ClosureTableShardingAlgorithm("t_order_${(order_id.longValue() + 1) % " + BenchmarkShardingRule.TABLE_COUNT + "}", "benchmark"));
+            default:
+                throw new UnsupportedOperationException(algorithm);
+        }
+    }
+    
+    @Benchmark
+    public Collection<String> doEqualSharding() {
+        return tableShardingStrategy.doStaticSharding(availableTargetNames, equalShardingValues);
+    }
+    
+    @Benchmark
+    public Collection<String> doInSharding() {
+        return tableShardingStrategy.doStaticSharding(availableTargetNames, inShardingValues);
+    }
+}
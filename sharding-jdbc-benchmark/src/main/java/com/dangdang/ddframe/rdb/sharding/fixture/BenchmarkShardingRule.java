@@ -0,0 +1,115 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.fixture;
+
+import com.dangdang.ddframe.rdb.sharding.api.rule.BindingTableRule;
+import com.dangdang.ddframe.rdb.sharding.api.rule.DataSourceRule;
+import com.dangdang.ddframe.rdb.sharding.api.rule.ShardingRule;
+import com.dangdang.ddframe.rdb.sharding.api.rule.TableRule;
+import com.dangdang.ddframe.rdb.sharding.api.strategy.database.DatabaseShardingStrategy;
+import com.dangdang.ddframe.rdb.sharding.api.strategy.table.TableShardingStrategy;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 性能测试使用的分片规则.
+ * 
+ * <p>
+ * 共 {@value #DATA_SOURCE_COUNT} 个数据源, 每个数据源 {@value #TABLE_COUNT} 张表.
+ * {@code t_order} 按 {@code user_id} 分库, 按 {@code order_id} 分表, 与 {@code t_order_item} 互为绑定表;
+ * {@code t_user} 按 {@code user_id} 分库分表, 与 {@code t_order} 关联时产生笛卡尔积路由.
+ * 路由过程不会访问数据源, 因此数据源均为空.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class BenchmarkShardingRule {
+    
+    /**
+     * 数据源数量.
+     */
+    public static final int DATA_SOURCE_COUNT = 16;
+    
+    /**
+     * 每个数据源中的分表数量.
+     */
+    public static final int TABLE_COUNT = 64;
+    
+    /**
+     * 创建分片规则.
+     * 
+     * @return 分片规则
+     */
+    public static ShardingRule create() {
+        return create(0);
+    }
+    
+    /**
+     * 创建包含填充表的分片规则.
+     * 
+     * <p>
+     * 填充表两两互为绑定表, 配置在 {@code t_order} 等表之前, 用于观察表规则数量对查找的影响.
+     * </p>
+     * 
+     * @param fillerTableCount 填充表数量
+     * @return 分片规则
+     */
+    public static ShardingRule create(final int fillerTableCount) {
+        Map<String, DataSource> dataSourceMap = new LinkedHashMap<>(DATA_SOURCE_COUNT, 1);
+        for (int i = 0; i < DATA_SOURCE_COUNT; i++) {
+            dataSourceMap.put("ds_" + i, null);
+        }
+        DataSourceRule dataSourceRule = new DataSourceRule(dataSourceMap);
+        List<TableRule> tableRules = new ArrayList<>(fillerTableCount + 3);
+        List<BindingTableRule> bindingTableRules = new ArrayList<>(fillerTableCount / 2 + 1);
+        for (int i = 0; i < fillerTableCount; i++) {
+            tableRules.add(createTableRule(dataSourceRule, "t_filler_" + i, "order_id"));
+            if (1 == i % 2) {
+                bindingTableRules.add(new BindingTableRule(Arrays.asList(tableRules.get(i - 1), tableRules.get(i))));
+            }
+        }
+        TableRule orderTableRule = createTableRule(dataSourceRule, "t_order", "order_id");
+        TableRule orderItemTableRule = createTableRule(dataSourceRule, "t_order_item", "order_id");
+        TableRule userTableRule = createTableRule(dataSourceRule, "t_user", "user_id");
+        tableRules.addAll(Arrays.asList(orderTableRule, orderItemTableRule, userTableRule));
+        bindingTableRules.add(new BindingTableRule(Arrays.asList(orderTableRule, orderItemTableRule)));
+        return ShardingRule.builder().dataSourceRule(dataSourceRule).tableRules(tableRules).bindingTableRules(bindingTableRules)
+                .databaseShardingStrategy(new DatabaseShardingStrategy("user_id", new ModuloShardingAlgorithm())).build();
+    }
+    
+    private static TableRule createTableRule(final DataSourceRule dataSourceRule, final String logicTable, final String tableShardingColumn) {
+        return TableRule.builder(logicTable).actualTables(getActualTables(logicTable)).dataSourceRule(dataSourceRule)
+                .tableShardingStrategy(new TableShardingStrategy(tableShardingColumn, new ModuloShardingAlgorithm())).build();
+    }
+    
+    private static List<String> getActualTables(final String logicTable) {
+        List<String> result = new ArrayList<>(TABLE_COUNT);
+        for (int i = 0; i < TABLE_COUNT; i++) {
+            result.add(logicTable + "_" + i);
+        }
+        return result;
+    }
+}
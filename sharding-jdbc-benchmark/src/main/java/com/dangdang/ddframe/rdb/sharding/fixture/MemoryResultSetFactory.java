@@ -0,0 +1,101 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.fixture;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.List;
+
+/**
+ * 内存结果集工厂.
+ * 
+ * <p>
+ * 仅实现归并引擎使用到的游标移动, 按序号取值和元数据方法, 其余方法均抛出 {@code UnsupportedOperationException}.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class MemoryResultSetFactory {
+    
+    /**
+     * 创建内存结果集.
+     * 
+     * @param columnLabels 列名称
+     * @param rows 数据行
+     * @return 内存结果集
+     */
+    public static ResultSet newInstance(final List<String> columnLabels, final List<Object[]> rows) {
+        ResultSetMetaData metaData = (ResultSetMetaData) Proxy.newProxyInstance(
+                MemoryResultSetFactory.class.getClassLoader(), new Class[] {ResultSetMetaData.class}, new MetaDataHandler(columnLabels));
+        return (ResultSet) Proxy.newProxyInstance(MemoryResultSetFactory.class.getClassLoader(), new Class[] {ResultSet.class}, new ResultSetHandler(metaData, rows));
+    }
+    
+    @RequiredArgsConstructor
+    private static final class ResultSetHandler implements InvocationHandler {
+        
+        private final ResultSetMetaData metaData;
+        
+        private final List<Object[]> rows;
+        
+        private int cursor = -1;
+        
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) {
+            switch (method.getName()) {
+                case "next":
+                    return ++cursor < rows.size();
+                case "getObject":
+                    return rows.get(cursor)[(Integer) args[0] - 1];
+                case "getMetaData":
+                    return metaData;
+                case "wasNull":
+                    return false;
+                case "close":
+                    return null;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        }
+    }
+    
+    @RequiredArgsConstructor
+    private static final class MetaDataHandler implements InvocationHandler {
+        
+        private final List<String> columnLabels;
+        
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) {
+            switch (method.getName()) {
+                case "getColumnCount":
+                    return columnLabels.size();
+                case "getColumnLabel":
+                    return columnLabels.get((Integer) args[0] - 1);
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.fixture;
+
+import com.dangdang.ddframe.rdb.sharding.api.ShardingValue;
+import com.dangdang.ddframe.rdb.sharding.api.strategy.database.SingleKeyDatabaseShardingAlgorithm;
+import com.dangdang.ddframe.rdb.sharding.api.strategy.table.SingleKeyTableShardingAlgorithm;
+import com.google.common.collect.Range;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+
+/**
+ * 取模分片算法.
+ * 
+ * <p>
+ * 目标名称以 {@code _分片序号} 结尾, 分片序号为分片值对目标数量取模.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public final class ModuloShardingAlgorithm implements SingleKeyDatabaseShardingAlgorithm<Integer>, SingleKeyTableShardingAlgorithm<Integer> {
+    
+    @Override
+    public String doEqualSharding(final Collection<String> availableTargetNames, final ShardingValue<Integer> shardingValue) {
+        String suffix = getSuffix(availableTargetNames, shardingValue.getValue());
+        for (String each : availableTargetNames) {
+            if (each.endsWith(suffix)) {
+                return each;
+            }
+        }
+        throw new UnsupportedOperationException();
+    }
+    
+    @Override
+    public Collection<String> doInSharding(final Collection<String> availableTargetNames, final ShardingValue<Integer> shardingValue) {
+        Collection<String> result = new LinkedHashSet<>(availableTargetNames.size());
+        for (Integer value : shardingValue.getValues()) {
+            String suffix = getSuffix(availableTargetNames, value);
+            for (String each : availableTargetNames) {
+                if (each.endsWith(suffix)) {
+                    result.add(each);
+                }
+            }
+        }
+        return result;
+    }
+    
+    @Override
+    public Collection<String> doBetweenSharding(final Collection<String> availableTargetNames, final ShardingValue<Integer> shardingValue) {
+        Collection<String> result = new LinkedHashSet<>(availableTargetNames.size());
+        Range<Integer> range = shardingValue.getValueRange();
+        for (Integer i = range.lowerEndpoint(); i <= range.upperEndpoint() && result.size() < availableTargetNames.size(); i++) {
+            String suffix = getSuffix(availableTargetNames, i);
+            for (String each : availableTargetNames) {
+                if (each.endsWith(suffix)) {
+                    result.add(each);
+                }
+            }
+        }
+        return result;
+    }
+    
+    private String getSuffix(final Collection<String> availableTargetNames, final int value) {
+        return "_" + value % availableTargetNames.size();
+    }
+}
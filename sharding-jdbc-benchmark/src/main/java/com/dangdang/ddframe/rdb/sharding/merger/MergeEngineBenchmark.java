@@ -0,0 +1,161 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.merger;
+
+import com.dangdang.ddframe.rdb.sharding.constant.DatabaseType;
+import com.dangdang.ddframe.rdb.sharding.fixture.BenchmarkShardingRule;
+import com.dangdang.ddframe.rdb.sharding.fixture.MemoryResultSetFactory;
+import com.dangdang.ddframe.rdb.sharding.merger.groupby.GroupByMemoryResultSetMerger;
+import com.dangdang.ddframe.rdb.sharding.merger.groupby.GroupByStreamResultSetMerger;
+import com.dangdang.ddframe.rdb.sharding.merger.iterator.IteratorStreamResultSetMerger;
+import com.dangdang.ddframe.rdb.sharding.merger.limit.LimitDecoratorResultSetMerger;
+import com.dangdang.ddframe.rdb.sharding.merger.orderby.OrderByStreamResultSetMerger;
+import com.dangdang.ddframe.rdb.sharding.parsing.SQLParsingEngine;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.dql.select.SelectStatement;
+import com.google.common.base.Preconditions;
+import lombok.RequiredArgsConstructor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分片结果集归并引擎性能测试.
+ * 
+ * <p>
+ * 每种SQL形态对应一种 {@link ResultSetMerger} 实现, 分片结果集为内存结果集, 每个结果集 {@value #ROW_COUNT} 行并已按排序项有序.
+ * 一次调用完成归并并遍历全部归并结果. 使用 {@code java -jar target/benchmarks.jar MergeEngineBenchmark} 运行.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MergeEngineBenchmark {
+    
+    private static final int ROW_COUNT = 64;
+    
+    @Param
+    private Shape shape;
+    
+    @Param({"" + BenchmarkShardingRule.DATA_SOURCE_COUNT, "" + BenchmarkShardingRule.DATA_SOURCE_COUNT * BenchmarkShardingRule.TABLE_COUNT})
+    private int resultSetCount;
+    
+    private SelectStatement selectStatement;
+    
+    private List<List<Object[]>> shardRows;
+    
+    private List<ResultSet> resultSets;
+    
+    @Setup
+    public void setUp() throws SQLException {
+        selectStatement = (SelectStatement) new SQLParsingEngine(DatabaseType.MySQL, shape.sql, BenchmarkShardingRule.create()).parse();
+        shardRows = new ArrayList<>(resultSetCount);
+        for (int i = 0; i < resultSetCount; i++) {
+            List<Object[]> rows = new ArrayList<>(ROW_COUNT);
+            for (int j = 0; j < ROW_COUNT; j++) {
+                rows.add(shape.newRow(i, j, resultSetCount));
+            }
+            shardRows.add(rows);
+        }
+        resetResultSets();
+        Class<? extends ResultSetMerger> mergerClass = new MergeEngine(DatabaseType.MySQL, resultSets, selectStatement).merge().getClass();
+        Preconditions.checkState(shape.mergerClass == mergerClass, "Merger of %s is %s.", shape, mergerClass.getSimpleName());
+    }
+    
+    @Setup(Level.Invocation)
+    public void resetResultSets() {
+        resultSets = new ArrayList<>(resultSetCount);
+        for (List<Object[]> each : shardRows) {
+            resultSets.add(MemoryResultSetFactory.newInstance(shape.columnLabels, each));
+        }
+    }
+    
+    @Benchmark
+    public void merge(final Blackhole blackhole) throws SQLException {
+        ResultSetMerger resultSetMerger = new MergeEngine(DatabaseType.MySQL, resultSets, selectStatement).merge();
+        while (resultSetMerger.next()) {
+            blackhole.consume(resultSetMerger.getValue(1, Object.class));
+        }
+    }
+    
+    /**
+     * SQL形态.
+     */
+    @RequiredArgsConstructor
+    public enum Shape {
+        
+        ITERATOR("SELECT order_id, user_id, status FROM t_order", Arrays.asList("order_id", "user_id", "status"), IteratorStreamResultSetMerger.class),
+        
+        ORDER_BY("SELECT order_id, user_id, status FROM t_order ORDER BY order_id", Arrays.asList("order_id", "user_id", "status"), OrderByStreamResultSetMerger.class),
+        
+        GROUP_BY_STREAM("SELECT user_id, SUM(order_id) AS order_sum FROM t_order GROUP BY user_id ORDER BY user_id", 
+                Arrays.asList("user_id", "order_sum"), GroupByStreamResultSetMerger.class),
+        
+        GROUP_BY_MEMORY("SELECT user_id, SUM(order_id) AS order_sum FROM t_order GROUP BY user_id ORDER BY order_sum DESC", 
+                Arrays.asList("user_id", "order_sum"), GroupByMemoryResultSetMerger.class),
+        
+        LIMIT("SELECT order_id, user_id, status FROM t_order ORDER BY order_id LIMIT 100, 10", Arrays.asList("order_id", "user_id", "status"), LimitDecoratorResultSetMerger.class);
+        
+        private final String sql;
+        
+        private final List<String> columnLabels;
+        
+        private final Class<? extends ResultSetMerger> mergerClass;
+        
+        private Object[] newRow(final int shard, final int row, final int resultSetCount) {
+            Object[] result = new Object[columnLabels.size()];
+            for (int i = 0; i < result.length; i++) {
+                switch (columnLabels.get(i)) {
+                    case "order_id":
+                        result[i] = row * resultSetCount + shard;
+                        break;
+                    case "user_id":
+                        result[i] = row;
+                        break;
+                    case "order_sum":
+                        result[i] = row * resultSetCount + shard;
+                        break;
+                    default:
+                        result[i] = "INIT";
+                }
+            }
+            return result;
+        }
+    }
+}
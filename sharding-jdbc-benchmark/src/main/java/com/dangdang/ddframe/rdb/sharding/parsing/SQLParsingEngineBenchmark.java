@@ -0,0 +1,96 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.parsing;
+
+import com.dangdang.ddframe.rdb.sharding.api.rule.ShardingRule;
+import com.dangdang.ddframe.rdb.sharding.constant.DatabaseType;
+import com.dangdang.ddframe.rdb.sharding.fixture.BenchmarkShardingRule;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.SQLStatement;
+import lombok.RequiredArgsConstructor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SQL解析引擎性能测试.
+ * 
+ * <p>
+ * 按数据库类型和SQL形态组合测试, SQL只使用各数据库通用的语法. 使用 {@code java -jar target/benchmarks.jar SQLParsingEngineBenchmark} 运行.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SQLParsingEngineBenchmark {
+    
+    @Param({"MySQL", "Oracle", "SQLServer", "PostgreSQL"})
+    private DatabaseType databaseType;
+    
+    @Param
+    private Shape shape;
+    
+    private ShardingRule shardingRule;
+    
+    @Setup
+    public void setUp() {
+        shardingRule = BenchmarkShardingRule.create();
+    }
+    
+    @Benchmark
+    public SQLStatement parse() {
+        return new SQLParsingEngine(databaseType, shape.sql, shardingRule).parse();
+    }
+    
+    /**
+     * SQL形态.
+     */
+    @RequiredArgsConstructor
+    public enum Shape {
+        
+        POINT_SELECT("SELECT order_id, user_id, status FROM t_order WHERE user_id = ? AND order_id = ?"),
+        
+        RANGE_SELECT("SELECT o.order_id, o.user_id, o.status FROM t_order o WHERE o.user_id IN (?, ?, ?) AND o.order_id BETWEEN ? AND ? ORDER BY o.order_id DESC"),
+        
+        AGGREGATION_SELECT("SELECT user_id, COUNT(order_id) AS order_count, AVG(order_id) AS order_avg FROM t_order WHERE status = ? GROUP BY user_id ORDER BY order_count DESC"),
+        
+        BINDING_SELECT("SELECT i.item_id, o.status FROM t_order o JOIN t_order_item i ON o.order_id = i.order_id WHERE o.user_id = ? AND o.order_id IN (?, ?, ?, ?)"),
+        
+        INSERT("INSERT INTO t_order (order_id, user_id, status) VALUES (?, ?, ?)"),
+        
+        UPDATE("UPDATE t_order SET status = ? WHERE user_id = ? AND order_id = ?"),
+        
+        DELETE("DELETE FROM t_order WHERE user_id = ? AND order_id = ?");
+        
+        private final String sql;
+    }
+}
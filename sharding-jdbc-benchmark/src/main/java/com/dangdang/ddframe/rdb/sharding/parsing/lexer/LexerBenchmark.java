@@ -0,0 +1,82 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+
+package com.dangdang.ddframe.rdb.sharding.parsing.lexer;
+
+import com.dangdang.ddframe.rdb.sharding.parsing.lexer.dialect.mysql.MySQLLexer;
+import com.dangdang.ddframe.rdb.sharding.parsing.lexer.token.Assist;
+import com.google.common.base.Preconditions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 词法解析器性能测试.
+ * 
+ * <p>
+ * 结果按单个词法标记计算. 使用 {@code java -jar target/benchmarks.jar LexerBenchmark -prof gc} 运行,
+ * {@code gc.alloc.rate.norm} 即为每个词法标记的内存分配字节数.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LexerBenchmark {
+    
+    private static final String SQL = "SELECT o.order_id, o.user_id, i.item_id, i.status FROM t_order o /* hint */ JOIN t_order_item i ON o.order_id = i.order_id "
+            + "WHERE o.user_id = ? AND o.order_id IN (?, ?, ?) AND i.status <> 'closed' ORDER BY o.order_id DESC LIMIT ?, ?";
+    
+    private static final int TOKEN_COUNT = 65;
+    
+    @Setup
+    public void setUp() {
+        Lexer lexer = new MySQLLexer(SQL);
+        int count = 0;
+        do {
+            lexer.nextToken();
+            count++;
+        } while (Assist.END != lexer.getCurrentToken().getType());
+        Preconditions.checkState(TOKEN_COUNT == count, "Token count of benchmark SQL is %s.", count);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(TOKEN_COUNT)
+    public void nextToken(final Blackhole blackhole) {
+        Lexer lexer = new MySQLLexer(SQL);
+        do {
+            lexer.nextToken();
+            blackhole.consume(lexer.getCurrentToken());
+        } while (Assist.END != lexer.getCurrentToken().getType());
+    }
+}
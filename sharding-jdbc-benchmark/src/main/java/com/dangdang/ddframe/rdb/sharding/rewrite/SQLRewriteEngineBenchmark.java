@@ -0,0 +1,112 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.rewrite;
+
+import com.dangdang.ddframe.rdb.sharding.api.rule.ShardingRule;
+import com.dangdang.ddframe.rdb.sharding.api.rule.TableRule;
+import com.dangdang.ddframe.rdb.sharding.constant.DatabaseType;
+import com.dangdang.ddframe.rdb.sharding.fixture.BenchmarkShardingRule;
+import com.dangdang.ddframe.rdb.sharding.parsing.SQLParsingEngine;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.SQLStatement;
+import com.dangdang.ddframe.rdb.sharding.routing.type.TableUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SQL重写引擎性能测试.
+ * 
+ * <p>
+ * {@code rewrite} 测试单次SQL改写, {@code generateSQL} 和 {@code generateSQLs} 按单个路由表单元计算, 一次调用为全部 {@value #TABLE_UNIT_COUNT} 个路由表单元生成真实SQL, 后者为批量生成.
+ * 使用 {@code java -jar target/benchmarks.jar SQLRewriteEngineBenchmark} 运行.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SQLRewriteEngineBenchmark {
+    
+    private static final int TABLE_UNIT_COUNT = BenchmarkShardingRule.DATA_SOURCE_COUNT * BenchmarkShardingRule.TABLE_COUNT;
+    
+    @Param({
+        "SELECT order_id, user_id, status FROM t_order WHERE status = ?", 
+        "SELECT o.user_id, AVG(o.order_id) AS order_avg FROM t_order o WHERE o.status = ? GROUP BY o.user_id ORDER BY o.user_id LIMIT 10, 20", 
+        "SELECT i.item_id, o.status FROM t_order o JOIN t_order_item i ON o.order_id = i.order_id WHERE o.status = ? ORDER BY i.item_id"})
+    private String sql;
+    
+    private ShardingRule shardingRule;
+    
+    private SQLStatement sqlStatement;
+    
+    private SQLBuilder sqlBuilder;
+    
+    private List<TableUnit> tableUnits;
+    
+    @Setup
+    public void setUp() {
+        shardingRule = BenchmarkShardingRule.create();
+        sqlStatement = new SQLParsingEngine(DatabaseType.MySQL, sql, shardingRule).parse();
+        sqlBuilder = rewrite();
+        TableRule tableRule = shardingRule.getTableRule("t_order");
+        tableUnits = new ArrayList<>(TABLE_UNIT_COUNT);
+        for (String each : tableRule.getActualDatasourceNames()) {
+            for (String actualTable : tableRule.getActualTableNames(each)) {
+                tableUnits.add(new TableUnit(each, "t_order", actualTable));
+            }
+        }
+    }
+    
+    @Benchmark
+    public SQLBuilder rewrite() {
+        return new SQLRewriteEngine(shardingRule, sql, sqlStatement).rewrite(true);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(TABLE_UNIT_COUNT)
+    public void generateSQL(final Blackhole blackhole) {
+        SQLRewriteEngine rewriteEngine = new SQLRewriteEngine(shardingRule, sql, sqlStatement);
+        for (TableUnit each : tableUnits) {
+            blackhole.consume(rewriteEngine.generateSQL(each, sqlBuilder));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(TABLE_UNIT_COUNT)
+    public List<String> generateSQLs() {
+        return new SQLRewriteEngine(shardingRule, sql, sqlStatement).generateSQLs(tableUnits, rewrite());
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.routing.router;
+
+import com.dangdang.ddframe.rdb.sharding.constant.DatabaseType;
+import com.dangdang.ddframe.rdb.sharding.fixture.BenchmarkShardingRule;
+import com.dangdang.ddframe.rdb.sharding.jdbc.core.ShardingContext;
+import com.dangdang.ddframe.rdb.sharding.parsing.cache.SQLParsingCache;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.SQLStatement;
+import com.dangdang.ddframe.rdb.sharding.routing.SQLRouteResult;
+import com.dangdang.ddframe.rdb.sharding.routing.cache.SQLRouteCache;
+import com.google.common.base.Preconditions;
+import lombok.RequiredArgsConstructor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 需要解析的SQL路由器性能测试.
+ * 
+ * <p>
+ * 使用 {@link BenchmarkShardingRule} 的分片规则, 覆盖单表, 绑定表和笛卡尔积路由.
+ * 路由包含SQL改写和生成每个执行单元的真实SQL, 解析结果在准备阶段生成, 每次路由使用其副本.
+ * {@code routeCacheSize} 为0时每次计算分片, 否则命中路由结果缓存.
+ * 使用 {@code java -jar target/benchmarks.jar ParsingSQLRouterBenchmark} 运行.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParsingSQLRouterBenchmark {
+    
+    @Param
+    private Scenario scenario;
+    
+    @Param({"0", "1024"})
+    private int routeCacheSize;
+    
+    private ParsingSQLRouter sqlRouter;
+    
+    private SQLStatement sqlStatement;
+    
+    @Setup
+    public void setUp() {
+        sqlRouter = new ParsingSQLRouter(new ShardingContext(BenchmarkShardingRule.create(), DatabaseType.MySQL, null, false, new SQLParsingCache(0), new SQLRouteCache(routeCacheSize)));
+        sqlStatement = sqlRouter.parse(scenario.sql, scenario.parameters.size());
+        int executionUnitCount = route().getExecutionUnits().size();
+        Preconditions.checkState(scenario.executionUnitCount == executionUnitCount, "Execution unit count of %s is %s.", scenario, executionUnitCount);
+    }
+    
+    @Benchmark
+    public SQLRouteResult route() {
+        return sqlRouter.route(scenario.sql, scenario.parameters, sqlStatement.copy());
+    }
+    
+    /**
+     * 路由场景.
+     */
+    @RequiredArgsConstructor
+    public enum Scenario {
+        
+        SIMPLE("SELECT order_id, user_id, status FROM t_order WHERE user_id = ? AND order_id = ?", Arrays.<Object>asList(10, 1000), 1),
+        
+        SIMPLE_FULL_ROUTE("SELECT order_id, user_id, status FROM t_order WHERE status = ?", Arrays.<Object>asList("INIT"), 
+                BenchmarkShardingRule.DATA_SOURCE_COUNT * BenchmarkShardingRule.TABLE_COUNT),
+        
+        BINDING("SELECT i.item_id, o.status FROM t_order o JOIN t_order_item i ON o.order_id = i.order_id WHERE o.user_id = ? AND o.order_id IN (?, ?, ?, ?)", 
+                Arrays.<Object>asList(10, 1000, 1001, 1002, 1003), 4),
+        
+        CARTESIAN("SELECT o.order_id, u.user_name FROM t_order o JOIN t_user u ON o.user_id = u.user_id WHERE o.user_id = ? AND u.user_id = ? AND o.order_id IN (?, ?, ?, ?)", 
+                Arrays.<Object>asList(10, 10, 1000, 1001, 1002, 1003), 4),
+        
+        INSERT("INSERT INTO t_order (order_id, user_id, status) VALUES (?, ?, ?)", Arrays.<Object>asList(1000, 10, "INIT"), 1);
+        
+        private final String sql;
+        
+        private final List<Object> parameters;
+        
+        private final int executionUnitCount;
+    }
+}
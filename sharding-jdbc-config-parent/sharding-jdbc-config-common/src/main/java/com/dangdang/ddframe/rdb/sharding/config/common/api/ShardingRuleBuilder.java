@@ -21,6 +21,9 @@ import com.dangdang.ddframe.rdb.sharding.api.rule.BindingTableRule;
 import com.dangdang.ddframe.rdb.sharding.api.rule.DataSourceRule;
 import com.dangdang.ddframe.rdb.sharding.api.rule.ShardingRule;
 import com.dangdang.ddframe.rdb.sharding.api.rule.TableRule;
+import com.dangdang.ddframe.rdb.sharding.api.strategy.common.AbstractHashShardingAlgorithm;
+import com.dangdang.ddframe.rdb.sharding.api.strategy.common.ConsistentHashShardingAlgorithm;
+import com.dangdang.ddframe.rdb.sharding.api.strategy.common.JumpHashShardingAlgorithm;
 import com.dangdang.ddframe.rdb.sharding.api.strategy.database.DatabaseShardingStrategy;
 import com.dangdang.ddframe.rdb.sharding.api.strategy.database.MultipleKeysDatabaseShardingAlgorithm;
 import com.dangdang.ddframe.rdb.sharding.api.strategy.database.SingleKeyDatabaseShardingAlgorithm;
@@ -34,6 +37,7 @@ import com.dangdang.ddframe.rdb.sharding.config.common.api.config.StrategyConfig
 import com.dangdang.ddframe.rdb.sharding.config.common.api.config.TableRuleConfig;
 import com.dangdang.ddframe.rdb.sharding.config.common.internal.algorithm.ClosureDatabaseShardingAlgorithm;
 import com.dangdang.ddframe.rdb.sharding.config.common.internal.algorithm.ClosureTableShardingAlgorithm;
+import com.dangdang.ddframe.rdb.sharding.config.common.internal.algorithm.LongRangeShardingAlgorithm;
 import com.dangdang.ddframe.rdb.sharding.config.common.internal.parser.InlineParser;
 import com.dangdang.ddframe.rdb.sharding.keygen.KeyGenerator;
 import com.dangdang.ddframe.rdb.sharding.routing.strategy.MultipleKeysShardingAlgorithm;
@@ -92,7 +96,7 @@ public final class ShardingRuleBuilder {
         if (!Strings.isNullOrEmpty(shardingRuleConfig.getKeyGeneratorClass())) {
             shardingRuleBuilder.keyGenerator(loadClass(shardingRuleConfig.getKeyGeneratorClass(), KeyGenerator.class));
         }
-        return shardingRuleBuilder.tableRules(tableRules).bindingTableRules(buildBindingTableRules(tableRules))
+        return shardingRuleBuilder.tableRules(tableRules).bindingTableRules(buildBindingTableRules(tableRules)).broadcastTables(shardingRuleConfig.getBroadcastTables())
                 .databaseShardingStrategy(buildShardingStrategy(shardingRuleConfig.getDefaultDatabaseStrategy(), DatabaseShardingStrategy.class))
                 .tableShardingStrategy(buildShardingStrategy(shardingRuleConfig.getDefaultTableStrategy(), TableShardingStrategy.class)).build();
     }
@@ -161,10 +165,15 @@ public final class ShardingRuleBuilder {
         if (null == config) {
             return null;
         }
-        Preconditions.checkArgument(Strings.isNullOrEmpty(config.getAlgorithmExpression()) && !Strings.isNullOrEmpty(config.getAlgorithmClassName())
-                || !Strings.isNullOrEmpty(config.getAlgorithmExpression()) && Strings.isNullOrEmpty(config.getAlgorithmClassName()));
+        Preconditions.checkArgument(1 == countNotEmpty(config.getAlgorithmClassName(), config.getAlgorithmExpression(), config.getAlgorithmRanges(), config.getAlgorithmHash()));
         Preconditions.checkState(returnClass.isAssignableFrom(DatabaseShardingStrategy.class) || returnClass.isAssignableFrom(TableShardingStrategy.class), "Sharding-JDBC: returnClass is illegal");
         List<String> shardingColumns = new InlineParser(config.getShardingColumns()).split();
+        if (!Strings.isNullOrEmpty(config.getAlgorithmRanges())) {
+            return buildShardingAlgorithmRanges(shardingColumns, config.getAlgorithmRanges(), returnClass);
+        }
+        if (!Strings.isNullOrEmpty(config.getAlgorithmHash())) {
+            return buildShardingAlgorithmHash(shardingColumns, config.getAlgorithmHash(), returnClass);
+        }
         if (Strings.isNullOrEmpty(config.getAlgorithmClassName())) {
             return buildShardingAlgorithmExpression(shardingColumns, config.getAlgorithmExpression(), returnClass);
         }
@@ -177,6 +186,47 @@ public final class ShardingRuleBuilder {
                 : (T) new TableShardingStrategy(shardingColumns, new ClosureTableShardingAlgorithm(algorithmExpression, logRoot));
     }
     
+    private int countNotEmpty(final String... values) {
+        int result = 0;
+        for (String each : values) {
+            if (!Strings.isNullOrEmpty(each)) {
+                result++;
+            }
+        }
+        return result;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private <T extends ShardingStrategy> T buildShardingAlgorithmRanges(final List<String> shardingColumns, final String algorithmRanges, final Class<T> returnClass) {
+        Preconditions.checkArgument(1 == shardingColumns.size(), "Sharding-JDBC: algorithmRanges must have only ONE sharding column");
+        return returnClass.isAssignableFrom(DatabaseShardingStrategy.class) ? (T) new DatabaseShardingStrategy(shardingColumns.get(0), new LongRangeShardingAlgorithm(algorithmRanges))
+                : (T) new TableShardingStrategy(shardingColumns.get(0), new LongRangeShardingAlgorithm(algorithmRanges));
+    }
+    
+    @SuppressWarnings("unchecked")
+    private <T extends ShardingStrategy> T buildShardingAlgorithmHash(final List<String> shardingColumns, final String algorithmHash, final Class<T> returnClass) {
+        Preconditions.checkArgument(1 == shardingColumns.size(), "Sharding-JDBC: algorithmHash must have only ONE sharding column");
+        AbstractHashShardingAlgorithm<?> shardingAlgorithm = createHashShardingAlgorithm(algorithmHash.trim());
+        return returnClass.isAssignableFrom(DatabaseShardingStrategy.class) ? (T) new DatabaseShardingStrategy(shardingColumns.get(0), shardingAlgorithm)
+                : (T) new TableShardingStrategy(shardingColumns.get(0), shardingAlgorithm);
+    }
+    
+    private AbstractHashShardingAlgorithm<?> createHashShardingAlgorithm(final String algorithmHash) {
+        if ("jump".equalsIgnoreCase(algorithmHash)) {
+            return new JumpHashShardingAlgorithm<>();
+        }
+        if ("consistent".equalsIgnoreCase(algorithmHash)) {
+            return new ConsistentHashShardingAlgorithm<>();
+        }
+        Preconditions.checkArgument(algorithmHash.toLowerCase().startsWith("consistent:"), "Sharding-JDBC: algorithmHash '%s' is illegal, should be 'jump' or 'consistent[:virtualNodeCount]'", algorithmHash);
+        String virtualNodeCount = algorithmHash.substring("consistent:".length()).trim();
+        try {
+            return new ConsistentHashShardingAlgorithm<>(Integer.parseInt(virtualNodeCount));
+        } catch (final NumberFormatException ex) {
+            throw new IllegalArgumentException(String.format("Sharding-JDBC: virtual node count '%s' is not an integer", virtualNodeCount), ex);
+        }
+    }
+    
     @SuppressWarnings("unchecked")
     private <T extends ShardingStrategy> T buildShardingAlgorithmClassName(final List<String> shardingColumns, final String algorithmClassName, final Class<T> returnClass) {
         ShardingAlgorithm shardingAlgorithm;
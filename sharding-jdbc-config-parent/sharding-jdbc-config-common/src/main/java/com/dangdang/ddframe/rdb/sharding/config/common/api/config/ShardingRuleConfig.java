@@ -51,6 +51,11 @@ public class ShardingRuleConfig {
     //绑定表规则配置
     private List<BindingTableRuleConfig> bindingTables = new ArrayList<>();
 
+    /**
+     * 广播表名称
+     */
+    private List<String> broadcastTables = new ArrayList<>();
+
 
     private StrategyConfig defaultDatabaseStrategy;
     
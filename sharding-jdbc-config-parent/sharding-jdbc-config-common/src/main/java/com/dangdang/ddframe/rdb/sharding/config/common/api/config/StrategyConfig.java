@@ -37,4 +37,10 @@ public class StrategyConfig {
 
     //分片表达式 (inline)
     private String algorithmExpression;
+
+    //分片区间 (下界=分片目标)
+    private String algorithmRanges;
+
+    //哈希分片算法 (jump 或 consistent[:虚拟节点数])
+    private String algorithmHash;
 }
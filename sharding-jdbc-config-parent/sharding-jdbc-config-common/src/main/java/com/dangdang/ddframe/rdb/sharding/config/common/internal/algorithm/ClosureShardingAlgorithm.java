@@ -20,6 +20,7 @@ package com.dangdang.ddframe.rdb.sharding.config.common.internal.algorithm;
 import com.dangdang.ddframe.rdb.sharding.api.ShardingValue;
 import com.dangdang.ddframe.rdb.sharding.routing.strategy.MultipleKeysShardingAlgorithm;
 import com.google.common.base.Joiner;
+import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.google.common.collect.Sets;
@@ -31,6 +32,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
@@ -43,23 +45,28 @@ public class ClosureShardingAlgorithm implements MultipleKeysShardingAlgorithm {
     
     private final Closure<?> closureTemplate;
     
+    private final Optional<CompiledInlineExpression> compiledExpression;
+    
     public ClosureShardingAlgorithm(final String expression, final String logRoot) {
         Preconditions.checkArgument(!Strings.isNullOrEmpty(expression));
         Preconditions.checkArgument(!Strings.isNullOrEmpty(logRoot));
         Binding binding = new Binding();
         binding.setVariable("log", LoggerFactory.getLogger(Joiner.on(".").join("com.dangdang.ddframe.rdb.sharding.configFile", logRoot.trim())));
         closureTemplate = (Closure) new GroovyShell(binding).evaluate(Joiner.on("").join("{it -> \"", expression.trim(), "\"}"));
+        compiledExpression = CompiledInlineExpression.compile(expression.trim());
     }
     
     @Override
     public Collection<String> doSharding(final Collection<String> availableTargetNames, final Collection<ShardingValue<?>> shardingValues) {
         List<Set<Comparable>> valuesDim = new ArrayList<>();
         List<String> columnNames = new ArrayList<>(shardingValues.size());
+        List<Comparable> singleValues = new ArrayList<>(shardingValues.size());
         for (ShardingValue<?> each : shardingValues) {
             columnNames.add(each.getColumnName());
             switch (each.getType()) {
                 case SINGLE:
-                    valuesDim.add(Sets.newHashSet((Comparable) each.getValue()));
+                    valuesDim.add(Collections.<Comparable>singleton(each.getValue()));
+                    singleValues.add(each.getValue());
                     break;
                 case LIST:
                     valuesDim.add(Sets.<Comparable>newHashSet(each.getValues()));
@@ -70,14 +77,28 @@ public class ClosureShardingAlgorithm implements MultipleKeysShardingAlgorithm {
                     throw new UnsupportedOperationException(each.getType().name());
             }
         }
+        // 全部为单值时只有一种组合, 无需计算笛卡尔积
+        if (singleValues.size() == valuesDim.size()) {
+            return Collections.singletonList(evaluate(columnNames, singleValues));
+        }
         Set<List<Comparable>> cartesianValues = Sets.cartesianProduct(valuesDim);
         List<String> result = new ArrayList<>(cartesianValues.size());
         for (List<Comparable> each : cartesianValues) {
-            result.add(cloneClosure(columnNames, each).call().toString());
+            result.add(evaluate(columnNames, each));
         }
         return result;
     }
     
+    private String evaluate(final List<String> columnNames, final List<Comparable> values) {
+        if (compiledExpression.isPresent()) {
+            Optional<String> result = compiledExpression.get().evaluate(columnNames, values);
+            if (result.isPresent()) {
+                return result.get();
+            }
+        }
+        return cloneClosure(columnNames, values).call().toString();
+    }
+    
     private Closure<?> cloneClosure(final List<String> columnNames, final List<Comparable> values) {
         Closure<?> result = closureTemplate.rehydrate(new Expando(), null, null);
         result.setResolveStrategy(Closure.DELEGATE_ONLY);
@@ -0,0 +1,142 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.config.common.internal.algorithm;
+
+import com.google.common.base.Optional;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 编译后的行内分片表达式.
+ * 
+ * <p>
+ * 仅支持常见的表达式形式, 如{@code t_${id}}, {@code t_${id.toString()}}, {@code t_${id.longValue()}}和{@code t_${id.longValue() % 16}}, 
+ * 求值结果与Groovy闭包一致. 无法编译的表达式仍使用Groovy闭包求值.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+final class CompiledInlineExpression {
+    
+    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("([A-Za-z_][A-Za-z0-9_]*)(?:\\s*\\.\\s*(longValue|toString)\\s*\\(\\s*\\))?(?:\\s*%\\s*([1-9][0-9]{0,17}))?");
+    
+    private static final Set<String> RESERVED_NAMES = new HashSet<>(Arrays.asList("it", "log", "this", "super", "owner", "delegate", "null", "true", "false", "new", "in", "as"));
+    
+    private final String[] literals;
+    
+    private final Placeholder[] placeholders;
+    
+    /**
+     * 编译行内分片表达式.
+     * 
+     * @param expression 行内分片表达式
+     * @return 编译后的表达式, 不支持的表达式返回空
+     */
+    static Optional<CompiledInlineExpression> compile(final String expression) {
+        List<String> literals = new ArrayList<>();
+        List<Placeholder> placeholders = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int start = expression.indexOf("${", position);
+            String literal = expression.substring(position, -1 == start ? expression.length() : start);
+            if (!isPlainLiteral(literal)) {
+                return Optional.absent();
+            }
+            literals.add(literal);
+            if (-1 == start) {
+                break;
+            }
+            int end = expression.indexOf('}', start);
+            if (-1 == end) {
+                return Optional.absent();
+            }
+            Optional<Placeholder> placeholder = compilePlaceholder(expression.substring(start + 2, end).trim());
+            if (!placeholder.isPresent()) {
+                return Optional.absent();
+            }
+            placeholders.add(placeholder.get());
+            position = end + 1;
+        }
+        return Optional.of(new CompiledInlineExpression(literals.toArray(new String[literals.size()]), placeholders.toArray(new Placeholder[placeholders.size()])));
+    }
+    
+    private static boolean isPlainLiteral(final String literal) {
+        return -1 == literal.indexOf('$') && -1 == literal.indexOf('"') && -1 == literal.indexOf('\\') && -1 == literal.indexOf('{') && -1 == literal.indexOf('}');
+    }
+    
+    private static Optional<Placeholder> compilePlaceholder(final String body) {
+        Matcher matcher = PLACEHOLDER_PATTERN.matcher(body);
+        if (!matcher.matches() || RESERVED_NAMES.contains(matcher.group(1))) {
+            return Optional.absent();
+        }
+        boolean longValue = "longValue".equals(matcher.group(2));
+        if (null != matcher.group(3) && !longValue) {
+            return Optional.absent();
+        }
+        return Optional.of(new Placeholder(matcher.group(1), longValue, null == matcher.group(3) ? 0L : Long.parseLong(matcher.group(3))));
+    }
+    
+    /**
+     * 求值.
+     * 
+     * @param columnNames 分片列名称集合
+     * @param values 与分片列对应的分片值集合
+     * @return 求值结果, 表达式引用的变量不是分片列时返回空
+     */
+    Optional<String> evaluate(final List<String> columnNames, final List<? extends Comparable> values) {
+        ShardingValueWrapper[] wrappers = new ShardingValueWrapper[values.size()];
+        for (int i = 0; i < wrappers.length; i++) {
+            wrappers[i] = new ShardingValueWrapper(values.get(i));
+        }
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < placeholders.length; i++) {
+            int index = columnNames.indexOf(placeholders[i].variableName);
+            if (-1 == index) {
+                return Optional.absent();
+            }
+            result.append(literals[i]).append(placeholders[i].evaluate(wrappers[index]));
+        }
+        return Optional.of(result.append(literals[placeholders.length]).toString());
+    }
+    
+    @RequiredArgsConstructor
+    private static final class Placeholder {
+        
+        private final String variableName;
+        
+        private final boolean longValue;
+        
+        private final long modulus;
+        
+        private String evaluate(final ShardingValueWrapper value) {
+            if (!longValue) {
+                return value.toString();
+            }
+            return String.valueOf(0L == modulus ? value.longValue() : value.longValue() % modulus);
+        }
+    }
+}
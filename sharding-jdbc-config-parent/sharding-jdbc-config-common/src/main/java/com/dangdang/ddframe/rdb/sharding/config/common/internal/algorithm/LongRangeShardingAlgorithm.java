@@ -0,0 +1,60 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.config.common.internal.algorithm;
+
+import com.dangdang.ddframe.rdb.sharding.api.strategy.common.RangeShardingAlgorithm;
+import com.google.common.base.Splitter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * 基于配置的long型区间分片算法.
+ * 
+ * <p>
+ * 区间配置格式为{@code 下界=分片目标}, 多个区间以逗号分隔, 例如: {@code 0=t_order_0, 1000=t_order_1, 2000=t_order_2}.
+ * 分片值按{@link ShardingValueWrapper#longValue()}转换为long型后比较.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public final class LongRangeShardingAlgorithm extends RangeShardingAlgorithm<Long> {
+    
+    public LongRangeShardingAlgorithm(final String algorithmRanges) {
+        super(parseLowerBounds(algorithmRanges));
+    }
+    
+    private static Map<Long, String> parseLowerBounds(final String algorithmRanges) {
+        Map<String, String> ranges = Splitter.on(',').trimResults().omitEmptyStrings().withKeyValueSeparator(Splitter.on('=').trimResults()).split(algorithmRanges);
+        Map<Long, String> result = new LinkedHashMap<>(ranges.size(), 1);
+        for (Entry<String, String> entry : ranges.entrySet()) {
+            try {
+                result.put(Long.parseLong(entry.getKey()), entry.getValue());
+            } catch (final NumberFormatException ex) {
+                throw new IllegalArgumentException(String.format("Sharding-JDBC: range lower bound '%s' is not a long value", entry.getKey()), ex);
+            }
+        }
+        return result;
+    }
+    
+    @Override
+    protected Long convert(final Comparable<?> value) {
+        return new ShardingValueWrapper(value).longValue();
+    }
+}
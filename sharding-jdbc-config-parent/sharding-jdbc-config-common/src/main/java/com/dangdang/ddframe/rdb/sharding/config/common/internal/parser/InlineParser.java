@@ -18,9 +18,9 @@
 package com.dangdang.ddframe.rdb.sharding.config.common.internal.parser;
 
 import com.google.common.base.Function;
+import com.google.common.base.Optional;
 import com.google.common.base.Splitter;
 import com.google.common.collect.Collections2;
-import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import groovy.lang.GString;
 import groovy.lang.GroovyShell;
@@ -28,8 +28,12 @@ import lombok.RequiredArgsConstructor;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * 行内配置解析器.
@@ -42,6 +46,8 @@ public final class InlineParser {
     
     private static final char SPLITTER = ',';
     
+    private static final Pattern INT_RANGE_PATTERN = Pattern.compile("\\s*(0|[1-9][0-9]{0,8})\\s*\\.\\.\\s*(0|[1-9][0-9]{0,8})\\s*");
+    
     private final String inlineExpression;
     
     /**
@@ -55,25 +61,80 @@ public final class InlineParser {
     
     /**
      * 分隔并求inline表达式值.
+     * 
+     * <p>
+     * 普通字符串和仅包含整数范围(如{@code ${0..7}})的表达式直接求值, 其余表达式使用Groovy求值.
+     * </p>
      *
      * @return 求值后的配置集合
      */
     public List<String> evaluate() {
-        final GroovyShell shell = new GroovyShell();
-        return flattenSegments(Lists.transform(splitWithInlineExpression(), new Function<String, Object>() {
-            
-            @Override
-            public Object apply(final String input) {
-                StringBuilder expression = new StringBuilder(input);
-                if (!input.startsWith("\"")) {
-                    expression.insert(0, "\"");
-                }
-                if (!input.endsWith("\"")) {
-                    expression.append("\"");
-                }
-                return shell.evaluate(expression.toString());
+        List<String> result = new ArrayList<>();
+        GroovyShell shell = null;
+        for (String each : splitWithInlineExpression()) {
+            Optional<List<String>> segments = evaluateWithoutGroovy(each);
+            if (segments.isPresent()) {
+                result.addAll(segments.get());
+                continue;
+            }
+            if (null == shell) {
+                shell = new GroovyShell();
+            }
+            StringBuilder expression = new StringBuilder(each);
+            if (!each.startsWith("\"")) {
+                expression.insert(0, "\"");
+            }
+            if (!each.endsWith("\"")) {
+                expression.append("\"");
             }
-        }));
+            result.addAll(flattenSegment(shell.evaluate(expression.toString())));
+        }
+        return result;
+    }
+    
+    private Optional<List<String>> evaluateWithoutGroovy(final String segment) {
+        List<String> literals = new ArrayList<>();
+        List<Set<String>> cartesianValues = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int start = segment.indexOf("${", position);
+            String literal = segment.substring(position, -1 == start ? segment.length() : start);
+            if (!isPlainLiteral(literal)) {
+                return Optional.absent();
+            }
+            literals.add(literal);
+            if (-1 == start) {
+                break;
+            }
+            int end = segment.indexOf('}', start);
+            if (-1 == end) {
+                return Optional.absent();
+            }
+            Matcher matcher = INT_RANGE_PATTERN.matcher(segment.substring(start + 2, end));
+            if (!matcher.matches()) {
+                return Optional.absent();
+            }
+            int from = Integer.parseInt(matcher.group(1));
+            int to = Integer.parseInt(matcher.group(2));
+            Set<String> values = new HashSet<>();
+            for (int i = Math.min(from, to); i <= Math.max(from, to); i++) {
+                values.add(String.valueOf(i));
+            }
+            cartesianValues.add(values);
+            position = end + 1;
+        }
+        if (cartesianValues.isEmpty()) {
+            return Optional.of(Collections.singletonList(segment));
+        }
+        List<String> result = new ArrayList<>();
+        for (List<String> each : Sets.cartesianProduct(cartesianValues)) {
+            result.add(assemblySegment(each, literals.toArray(new String[literals.size()])));
+        }
+        return Optional.of(result);
+    }
+    
+    private boolean isPlainLiteral(final String literal) {
+        return -1 == literal.indexOf('$') && -1 == literal.indexOf('"') && -1 == literal.indexOf('\\') && -1 == literal.indexOf('{') && -1 == literal.indexOf('}');
     }
     
     List<String> splitWithInlineExpression() {
@@ -114,31 +175,23 @@ public final class InlineParser {
         return result;
     }
     
-    private List<String> flattenSegments(final List<Object> segments) {
-        List<String> result = new ArrayList<>();
-        for (Object each : segments) {
-            if (each instanceof GString) {
-                result.addAll(assemblyCartesianSegments((GString) each));
-            } else {
-                result.add(each.toString());
-            }
-        }
-        return result;
+    private List<String> flattenSegment(final Object segment) {
+        return segment instanceof GString ? assemblyCartesianSegments((GString) segment) : Collections.singletonList(segment.toString());
     }
     
     private List<String> assemblyCartesianSegments(final GString segment) {
         Set<List<String>> cartesianValues = getCartesianValues(segment);
         List<String> result = new ArrayList<>(cartesianValues.size());
         for (List<String> each : cartesianValues) {
-            result.add(assemblySegment(each, segment));
+            result.add(assemblySegment(each, segment.getStrings()));
         }
         return result;
     }
     
-    private String assemblySegment(final List<String> cartesianValue, final GString segment) {
+    private String assemblySegment(final List<String> cartesianValue, final String[] strings) {
         StringBuilder result = new StringBuilder();
-        for (int i = 0; i < segment.getStrings().length; i++) {
-            result.append(segment.getStrings()[i]);
+        for (int i = 0; i < strings.length; i++) {
+            result.append(strings[i]);
             if (i < cartesianValue.size()) {
                 result.append(cartesianValue.get(i));
             }
@@ -17,10 +17,12 @@
 
 package com.dangdang.ddframe.rdb.sharding.config.common.api;
 
+import com.dangdang.ddframe.rdb.sharding.api.ShardingValue;
 import com.dangdang.ddframe.rdb.sharding.api.rule.BindingTableRule;
 import com.dangdang.ddframe.rdb.sharding.api.rule.DataNode;
 import com.dangdang.ddframe.rdb.sharding.api.rule.ShardingRule;
 import com.dangdang.ddframe.rdb.sharding.api.rule.TableRule;
+import com.dangdang.ddframe.rdb.sharding.api.strategy.table.TableShardingStrategy;
 import com.dangdang.ddframe.rdb.sharding.config.common.api.config.GenerateKeyColumnConfig;
 import com.dangdang.ddframe.rdb.sharding.config.common.api.config.BindingTableRuleConfig;
 import com.dangdang.ddframe.rdb.sharding.config.common.api.config.ShardingRuleConfig;
@@ -31,10 +33,12 @@ import com.dangdang.ddframe.rdb.sharding.config.common.fixture.IncrementKeyGener
 import com.dangdang.ddframe.rdb.sharding.config.common.internal.fixture.MultiAlgorithm;
 import com.dangdang.ddframe.rdb.sharding.config.common.internal.fixture.SingleAlgorithm;
 import com.google.common.base.Joiner;
+import com.google.common.collect.Range;
 import org.junit.Test;
 
 import javax.sql.DataSource;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -141,6 +145,66 @@ public final class ShardingRuleBuilderTest {
         assertThat(actual.getTableShardingStrategy().getShardingColumns().iterator().next(), is("oid"));
     }
     
+    @Test(expected = IllegalArgumentException.class)
+    public void assertBuildFailureWhenBothAlgorithmClassAndRangesConfigured() {
+        ShardingRuleConfig shardingRuleConfig = new ShardingRuleConfig();
+        shardingRuleConfig.setDataSource(createDataSourceMap());
+        shardingRuleConfig.setTables(createTableRuleConfigMap());
+        StrategyConfig strategyConfig = getTableStrategyConfigForAlgorithmClass();
+        strategyConfig.setAlgorithmRanges("0=t_order_0, 1000=t_order_1");
+        shardingRuleConfig.setDefaultTableStrategy(strategyConfig);
+        new ShardingRuleBuilder(shardingRuleConfig).build();
+    }
+    
+    @Test
+    public void assertBuildWithAlgorithmRanges() {
+        ShardingRuleConfig shardingRuleConfig = new ShardingRuleConfig();
+        shardingRuleConfig.setDataSource(createDataSourceMap());
+        shardingRuleConfig.setTables(createTableRuleConfigMap());
+        StrategyConfig strategyConfig = new StrategyConfig();
+        strategyConfig.setShardingColumns("oid");
+        strategyConfig.setAlgorithmRanges("0=t_order_0, 1000=t_order_1");
+        shardingRuleConfig.setDefaultTableStrategy(strategyConfig);
+        TableShardingStrategy actual = new ShardingRuleBuilder(shardingRuleConfig).build().getTableShardingStrategy();
+        assertThat(actual.getShardingColumns().iterator().next(), is("oid"));
+        assertThat(actual.doStaticSharding(Arrays.asList("t_order_0", "t_order_1"), 
+                Collections.<ShardingValue<?>>singletonList(new ShardingValue<>("t_order", "oid", Range.closed(500, 600)))), is((Collection<String>) Collections.singleton("t_order_0")));
+        assertThat(actual.doStaticSharding(Arrays.asList("t_order_0", "t_order_1"), 
+                Collections.<ShardingValue<?>>singletonList(new ShardingValue<>("t_order", "oid", Range.closed(500, 1500)))).size(), is(2));
+    }
+    
+    @Test
+    public void assertBuildWithAlgorithmHash() {
+        ShardingRuleConfig shardingRuleConfig = new ShardingRuleConfig();
+        shardingRuleConfig.setDataSource(createDataSourceMap());
+        shardingRuleConfig.setTables(createTableRuleConfigMap());
+        StrategyConfig databaseStrategyConfig = new StrategyConfig();
+        databaseStrategyConfig.setShardingColumns("uid");
+        databaseStrategyConfig.setAlgorithmHash("consistent:100");
+        shardingRuleConfig.setDefaultDatabaseStrategy(databaseStrategyConfig);
+        StrategyConfig tableStrategyConfig = new StrategyConfig();
+        tableStrategyConfig.setShardingColumns("oid");
+        tableStrategyConfig.setAlgorithmHash("jump");
+        shardingRuleConfig.setDefaultTableStrategy(tableStrategyConfig);
+        ShardingRule actual = new ShardingRuleBuilder(shardingRuleConfig).build();
+        assertThat(actual.getDatabaseShardingStrategy().doStaticSharding(Arrays.asList("ds_0", "ds_1"), 
+                Collections.<ShardingValue<?>>singletonList(new ShardingValue<>("t_order", "uid", 1))).size(), is(1));
+        assertThat(actual.getTableShardingStrategy().doStaticSharding(Arrays.asList("t_order_0", "t_order_1"), 
+                Collections.<ShardingValue<?>>singletonList(new ShardingValue<>("t_order", "oid", Range.closed(500, 600)))).size(), is(2));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void assertBuildWithIllegalAlgorithmHash() {
+        ShardingRuleConfig shardingRuleConfig = new ShardingRuleConfig();
+        shardingRuleConfig.setDataSource(createDataSourceMap());
+        shardingRuleConfig.setTables(createTableRuleConfigMap());
+        StrategyConfig strategyConfig = new StrategyConfig();
+        strategyConfig.setShardingColumns("oid");
+        strategyConfig.setAlgorithmHash("mod");
+        shardingRuleConfig.setDefaultTableStrategy(strategyConfig);
+        new ShardingRuleBuilder(shardingRuleConfig).build();
+    }
+    
     private Map<String, DataSource> createDataSourceMap() {
         Map<String, DataSource> result = new HashMap<>(2);
         result.put("ds_0", null);
@@ -0,0 +1,89 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.config.common.internal.algorithm;
+
+import com.dangdang.ddframe.rdb.sharding.api.ShardingValue;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public final class CompiledInlineExpressionTest {
+    
+    @Test
+    public void assertCompileSupportedExpressions() {
+        assertTrue(CompiledInlineExpression.compile("t_order").isPresent());
+        assertTrue(CompiledInlineExpression.compile("t_order_${order_id}").isPresent());
+        assertTrue(CompiledInlineExpression.compile("t_order_${order_id.toString()}").isPresent());
+        assertTrue(CompiledInlineExpression.compile("t_order_${ order_id.longValue() % 16 }").isPresent());
+        assertTrue(CompiledInlineExpression.compile("ds_${user_id.longValue() % 2}.t_order_${order_id.longValue() % 4}").isPresent());
+    }
+    
+    @Test
+    public void assertCompileUnsupportedExpressions() {
+        assertFalse(CompiledInlineExpression.compile("t_order_${order_id % 16}").isPresent());
+        assertFalse(CompiledInlineExpression.compile("t_order_${order_id.toString() % 16}").isPresent());
+        assertFalse(CompiledInlineExpression.compile("t_order_${log.info(order_id.toString()); order_id.longValue() % 2}").isPresent());
+        assertFalse(CompiledInlineExpression.compile("t_order_${it}").isPresent());
+        assertFalse(CompiledInlineExpression.compile("t_order_${order_id").isPresent());
+        assertFalse(CompiledInlineExpression.compile("t_\"order\"_${order_id}").isPresent());
+        assertFalse(CompiledInlineExpression.compile("t_order_$order_id").isPresent());
+    }
+    
+    @Test
+    public void assertEvaluateWithUnknownVariable() {
+        assertFalse(CompiledInlineExpression.compile("t_order_${user_id}").get().evaluate(Collections.singletonList("order_id"), Collections.singletonList(1)).isPresent());
+    }
+    
+    @Test
+    public void assertEvaluateSameAsClosure() {
+        assertSameAsClosure("t_order", new ShardingValue<>("t_order", "order_id", 10));
+        assertSameAsClosure("t_order_${order_id}", new ShardingValue<>("t_order", "order_id", 10));
+        assertSameAsClosure("t_order_${order_id}", new ShardingValue<>("t_order", "order_id", "abc"));
+        assertSameAsClosure("t_order_${order_id.toString()}", new ShardingValue<>("t_order", "order_id", 10L));
+        assertSameAsClosure("t_order_${order_id.longValue()}", new ShardingValue<>("t_order", "order_id", "25"));
+        assertSameAsClosure("t_order_${order_id.longValue() % 16}", new ShardingValue<>("t_order", "order_id", 1000L));
+        assertSameAsClosure("t_order_${order_id.longValue() % 16}", new ShardingValue<>("t_order", "order_id", -17));
+        assertSameAsClosure("t_order_${order_id.longValue() % 16}", new ShardingValue<>("t_order", "order_id", 33.5D));
+        assertSameAsClosure("t_order_${order_id.longValue() % 7}", new ShardingValue<>("t_order", "order_id", new Date(1234567890123L)));
+        assertSameAsClosure("ds_${user_id.longValue() % 2}_t_order_${order_id.longValue() % 4}", 
+                new ShardingValue<>("t_order", "user_id", 11), new ShardingValue<>("t_order", "order_id", 1002));
+    }
+    
+    private void assertSameAsClosure(final String expression, final ShardingValue<?>... shardingValues) {
+        Collection<ShardingValue<?>> values = Arrays.<ShardingValue<?>>asList(shardingValues);
+        ClosureShardingAlgorithm closureShardingAlgorithm = new ClosureShardingAlgorithm(expression, "test");
+        Object[] expected = new GroovyOnlyShardingAlgorithm(expression).doSharding(Collections.<String>emptyList(), values).toArray();
+        assertThat(closureShardingAlgorithm.doSharding(Collections.<String>emptyList(), values).toArray(), is(expected));
+    }
+    
+    private static final class GroovyOnlyShardingAlgorithm extends ClosureShardingAlgorithm {
+        
+        GroovyOnlyShardingAlgorithm(final String expression) {
+            // 在表达式尾部加入空的Groovy片段, 使其无法编译, 从而强制使用Groovy闭包求值
+            super(expression + "${''}", "test");
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.config.common.internal.algorithm;
+
+import com.dangdang.ddframe.rdb.sharding.api.ShardingValue;
+import com.google.common.collect.Range;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public final class LongRangeShardingAlgorithmTest {
+    
+    private final LongRangeShardingAlgorithm longRangeShardingAlgorithm = new LongRangeShardingAlgorithm(" 2000 = t_order_2, 0=t_order_0 , 1000=t_order_1 ");
+    
+    private final Collection<String> targets = Arrays.asList("t_order_0", "t_order_1", "t_order_2");
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void assertNewWithIllegalLowerBound() {
+        new LongRangeShardingAlgorithm("a=t_order_0");
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void assertNewWithoutSeparator() {
+        new LongRangeShardingAlgorithm("t_order_0");
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    public void assertDoEqualShardingWithDifferentValueTypes() {
+        assertThat(longRangeShardingAlgorithm.doEqualSharding(targets, (ShardingValue) new ShardingValue<>("t_order", "order_id", 1500)), is("t_order_1"));
+        assertThat(longRangeShardingAlgorithm.doEqualSharding(targets, (ShardingValue) new ShardingValue<>("t_order", "order_id", "2500")), is("t_order_2"));
+        assertThat(longRangeShardingAlgorithm.doEqualSharding(targets, (ShardingValue) new ShardingValue<>("t_order", "order_id", new Date(999L))), is("t_order_0"));
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    public void assertDoBetweenSharding() {
+        assertThat(new ArrayList<String>(longRangeShardingAlgorithm.doBetweenSharding(targets, (ShardingValue) new ShardingValue<>("t_order", "order_id", Range.closed(1500, 2000)))), 
+                is(Arrays.asList("t_order_1", "t_order_2")));
+        assertTrue(longRangeShardingAlgorithm.doBetweenSharding(targets, (ShardingValue) new ShardingValue<>("t_order", "order_id", Range.closed(-10, -1))).isEmpty());
+    }
+}
@@ -44,6 +44,14 @@ public final class InlineParserTest {
         assertThat(new InlineParser(" t_${[\"new${1+2}\",'old']}_order_${1..2} ").evaluate(), hasItems("t_new3_order_1", "t_new3_order_2", "t_old_order_1", "t_old_order_2"));
     }
     
+    @Test
+    public void testEvaluateIntRangeSameAsGroovy() {
+        assertThat(new InlineParser("ds_${0..1}.t_order_${0..15}").evaluate(), is(new InlineParser("ds_${0..1}.t_order_${0..15}${''}").evaluate()));
+        assertThat(new InlineParser("t_order_${ 3 .. 1 }").evaluate(), is(new InlineParser("t_order_${3..1}${''}").evaluate()));
+        assertThat(new InlineParser("t_order_${0..7}_item").evaluate(), is(Arrays.asList("t_order_0_item", "t_order_1_item", "t_order_2_item", "t_order_3_item", 
+                "t_order_4_item", "t_order_5_item", "t_order_6_item", "t_order_7_item")));
+    }
+    
     @Test
     public void testSplitWithInlineExpressionForOneRegularValue() {
         assertThat(new InlineParser("order").splitWithInlineExpression(), is(Collections.singletonList("order")));
@@ -44,6 +44,8 @@ public final class ShardingJdbcDataSourceBeanDefinitionParserTag {
     
     public static final String BINDING_TABLE_RULE_TAG = "binding-table-rule";
     
+    public static final String BROADCAST_TABLES_ATTRIBUTE = "broadcast-tables";
+    
     public static final String LOGIC_TABLE_ATTRIBUTE = "logic-table";
     
     public static final String LOGIC_TABLES_ATTRIBUTE = "logic-tables";
@@ -33,4 +33,8 @@ public final class ShardingJdbcStrategyBeanDefinitionParserTag {
     public static final String ALGORITHM_CLASS_ATTRIBUTE = "algorithm-class";
     
     public static final String ALGORITHM_EXPRESSION_ATTRIBUTE = "algorithm-expression";
+    
+    public static final String ALGORITHM_RANGES_ATTRIBUTE = "algorithm-ranges";
+    
+    public static final String ALGORITHM_HASH_ATTRIBUTE = "algorithm-hash";
 }
@@ -67,12 +67,20 @@ public class ShardingJdbcDataSourceBeanDefinitionParser extends AbstractBeanDefi
         parseDefaultDataSource(factory, shardingRuleElement);
         factory.addPropertyValue("tables", parseTableRulesConfig(shardingRuleElement));
         factory.addPropertyValue("bindingTables", parseBindingTablesConfig(shardingRuleElement));
+        parseBroadcastTables(factory, shardingRuleElement);
         factory.addPropertyValue("defaultDatabaseStrategy", parseDefaultDatabaseStrategyConfig(shardingRuleElement));
         factory.addPropertyValue("defaultTableStrategy", parseDefaultTableStrategyConfig(shardingRuleElement));
         parseKeyGenerator(factory, shardingRuleElement);
         return factory.getBeanDefinition();
     }
     
+    private void parseBroadcastTables(final BeanDefinitionBuilder factory, final Element element) {
+        String broadcastTables = element.getAttribute(ShardingJdbcDataSourceBeanDefinitionParserTag.BROADCAST_TABLES_ATTRIBUTE);
+        if (!Strings.isNullOrEmpty(broadcastTables)) {
+            factory.addPropertyValue("broadcastTables", Splitter.on(",").trimResults().omitEmptyStrings().splitToList(broadcastTables));
+        }
+    }
+    
     private void parseKeyGenerator(final BeanDefinitionBuilder factory, final Element element) {
         String keyGeneratorClass = element.getAttribute(ShardingJdbcDataSourceBeanDefinitionParserTag.KEY_GENERATOR_CLASS);
         if (!Strings.isNullOrEmpty(keyGeneratorClass)) {
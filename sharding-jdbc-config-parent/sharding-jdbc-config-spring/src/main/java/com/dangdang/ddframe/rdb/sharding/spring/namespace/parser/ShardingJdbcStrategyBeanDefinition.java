@@ -38,6 +38,8 @@ public class ShardingJdbcStrategyBeanDefinition {
         factory.addPropertyValue("shardingColumns", element.getAttribute(ShardingJdbcStrategyBeanDefinitionParserTag.SHARDING_COLUMNS_ATTRIBUTE));
         factory.addPropertyValue("algorithmClassName", element.getAttribute(ShardingJdbcStrategyBeanDefinitionParserTag.ALGORITHM_CLASS_ATTRIBUTE));
         factory.addPropertyValue("algorithmExpression", element.getAttribute(ShardingJdbcStrategyBeanDefinitionParserTag.ALGORITHM_EXPRESSION_ATTRIBUTE));
+        factory.addPropertyValue("algorithmRanges", element.getAttribute(ShardingJdbcStrategyBeanDefinitionParserTag.ALGORITHM_RANGES_ATTRIBUTE));
+        factory.addPropertyValue("algorithmHash", element.getAttribute(ShardingJdbcStrategyBeanDefinitionParserTag.ALGORITHM_HASH_ATTRIBUTE));
         return factory.getBeanDefinition();
     }
 }
@@ -41,6 +41,7 @@ import static org.hamcrest.CoreMatchers.hasItems;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsCollectionContaining.hasItem;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 @Slf4j
@@ -53,6 +54,7 @@ public class YamlShardingDataSourceTest {
         assertThat(shardingRule.getBindingTableRules().size(), is(1));
         assertThat(Arrays.asList(shardingRule.getTableRules().toArray()), hasItems(shardingRule.getBindingTableRules().iterator().next().getTableRules().toArray()));
         assertThat(shardingRule.getDataSourceRule().getDefaultDataSourceName(), is("db0"));
+        assertTrue(shardingRule.isBroadcastTable("t_region"));
     }
     
     @Test
@@ -20,6 +20,7 @@ package com.dangdang.ddframe.rdb.sharding.api;
 import com.google.common.collect.Range;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
 
@@ -38,6 +39,7 @@ import java.util.Collections;
  */
 @AllArgsConstructor(access = AccessLevel.PRIVATE)
 @Getter
+@EqualsAndHashCode
 @ToString
 public final class ShardingValue<T extends Comparable<?>> {
 
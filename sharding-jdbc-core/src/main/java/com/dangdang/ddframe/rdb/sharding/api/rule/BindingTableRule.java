@@ -72,7 +72,7 @@ public final class BindingTableRule {
                 break;
             }
         }
-        Preconditions.checkState(-1 != index, String.format("Actual table [%s].[%s] is not in table config", dataSource, otherActualTable));
+        Preconditions.checkState(-1 != index, "Actual table [%s].[%s] is not in table config", dataSource, otherActualTable);
         // 计算 logicTable 在其 TableRule 的 第index 的 真实表
         for (TableRule each : tableRules) {
             if (each.getLogicTable().equalsIgnoreCase(logicTable)) {
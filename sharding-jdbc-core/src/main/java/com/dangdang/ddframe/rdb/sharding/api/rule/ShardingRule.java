@@ -26,6 +26,8 @@ import com.dangdang.ddframe.rdb.sharding.keygen.DefaultKeyGenerator;
 import com.dangdang.ddframe.rdb.sharding.keygen.KeyGenerator;
 import com.dangdang.ddframe.rdb.sharding.keygen.KeyGeneratorFactory;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.condition.Column;
+import com.dangdang.ddframe.rdb.sharding.routing.strategy.OpenRangeShardingAlgorithm;
+import com.dangdang.ddframe.rdb.sharding.routing.strategy.ShardingStrategy;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import lombok.AccessLevel;
@@ -37,7 +39,9 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * 分库分表规则配置对象.
@@ -76,6 +80,12 @@ public final class ShardingRule {
      * 分表策略
      */
     private final TableShardingStrategy tableShardingStrategy;
+    /**
+     * 广播表
+     * 在每个数据源中均存在完整副本的表, 例如地区、币种等字典表.
+     * 读操作路由至任一数据源, 或与关联的分片表路由至同一数据源; 写操作路由至全部数据源.
+     */
+    private final Collection<String> broadcastTables;
     /**
      * 默认主键生成器
      */
@@ -86,6 +96,21 @@ public final class ShardingRule {
      */
     @Getter(AccessLevel.NONE)
     private final KeyGenerator defaultGenerator;
+    /**
+     * 小写的逻辑表名称与表规则的映射
+     */
+    @Getter(AccessLevel.NONE)
+    private final Map<String, TableRule> tableRuleMap;
+    /**
+     * 小写的逻辑表名称与绑定表规则的映射
+     */
+    @Getter(AccessLevel.NONE)
+    private final Map<String, BindingTableRule> bindingTableRuleMap;
+    /**
+     * 小写的广播表名称集合
+     */
+    @Getter(AccessLevel.NONE)
+    private final Set<String> broadcastTableNames;
 
     /**
      * 全属性构造器.
@@ -106,6 +131,29 @@ public final class ShardingRule {
     public ShardingRule(
             final DataSourceRule dataSourceRule, final Collection<TableRule> tableRules, final Collection<BindingTableRule> bindingTableRules,
             final DatabaseShardingStrategy databaseShardingStrategy, final TableShardingStrategy tableShardingStrategy, final KeyGenerator keyGenerator) {
+        this(dataSourceRule, tableRules, bindingTableRules, Collections.<String>emptyList(), databaseShardingStrategy, tableShardingStrategy, keyGenerator);
+    }
+    
+    /**
+     * 全属性构造器.
+     *
+     * <p>用于Spring非命名空间的配置.</p>
+     *
+     * <p>未来将改为private权限, 不在对外公开, 不建议使用非Spring命名空间的配置.</p>
+     *
+     * @deprecated 未来将改为private权限, 不在对外公开, 不建议使用非Spring命名空间的配置.
+     * @param dataSourceRule 数据源配置规则
+     * @param tableRules 表配置规则
+     * @param bindingTableRules 绑定表配置规则
+     * @param broadcastTables 广播表名称集合
+     * @param databaseShardingStrategy 默认分库策略
+     * @param tableShardingStrategy 默认分表策略
+     * @param keyGenerator 默认主键生成器
+     */
+    @Deprecated
+    public ShardingRule(
+            final DataSourceRule dataSourceRule, final Collection<TableRule> tableRules, final Collection<BindingTableRule> bindingTableRules, final Collection<String> broadcastTables,
+            final DatabaseShardingStrategy databaseShardingStrategy, final TableShardingStrategy tableShardingStrategy, final KeyGenerator keyGenerator) {
         Preconditions.checkNotNull(dataSourceRule);
         this.dataSourceRule = dataSourceRule;
         this.tableRules = null == tableRules ? Collections.<TableRule>emptyList() : tableRules;
@@ -122,6 +170,42 @@ public final class ShardingRule {
                 Collections.<String>emptyList(), new NoneTableShardingAlgorithm()) : tableShardingStrategy;
         this.keyGenerator = keyGenerator;
         defaultGenerator = KeyGeneratorFactory.createKeyGenerator(DefaultKeyGenerator.class);
+        tableRuleMap = buildTableRuleMap(this.tableRules);
+        bindingTableRuleMap = buildBindingTableRuleMap(this.bindingTableRules);
+        this.broadcastTables = null == broadcastTables ? Collections.<String>emptyList() : broadcastTables;
+        broadcastTableNames = buildBroadcastTableNames(this.broadcastTables, tableRuleMap);
+    }
+    
+    private static Map<String, TableRule> buildTableRuleMap(final Collection<TableRule> tableRules) {
+        Map<String, TableRule> result = new HashMap<>(tableRules.size(), 1);
+        for (TableRule each : tableRules) {
+            String logicTable = each.getLogicTable().toLowerCase();
+            if (!result.containsKey(logicTable)) {
+                result.put(logicTable, each);
+            }
+        }
+        return result;
+    }
+    
+    private static Map<String, BindingTableRule> buildBindingTableRuleMap(final Collection<BindingTableRule> bindingTableRules) {
+        Map<String, BindingTableRule> result = new HashMap<>();
+        for (BindingTableRule each : bindingTableRules) {
+            for (String logicTable : each.getAllLogicTables()) {
+                if (!result.containsKey(logicTable.toLowerCase())) {
+                    result.put(logicTable.toLowerCase(), each);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static Set<String> buildBroadcastTableNames(final Collection<String> broadcastTables, final Map<String, TableRule> tableRuleMap) {
+        Set<String> result = new HashSet<>(broadcastTables.size());
+        for (String each : broadcastTables) {
+            Preconditions.checkArgument(!tableRuleMap.containsKey(each.toLowerCase()), "Broadcast table '%s' cannot have table rule.", each);
+            result.add(each.toLowerCase());
+        }
+        return result;
     }
 
     /**
@@ -140,12 +224,7 @@ public final class ShardingRule {
      * @return 该逻辑表的分片规则
      */
     public Optional<TableRule> tryFindTableRule(final String logicTableName) {
-        for (TableRule each : tableRules) {
-            if (each.getLogicTable().equalsIgnoreCase(logicTableName)) {
-                return Optional.of(each);
-            }
-        }
-        return Optional.absent();
+        return null == logicTableName ? Optional.<TableRule>absent() : Optional.fromNullable(tableRuleMap.get(logicTableName.toLowerCase()));
     }
 
     /**
@@ -259,12 +338,35 @@ public final class ShardingRule {
      * @return binding表配置的逻辑表名称集合
      */
     public Optional<BindingTableRule> findBindingTableRule(final String logicTable) {
-        for (BindingTableRule each : bindingTableRules) {
-            if (each.hasLogicTable(logicTable)) {
-                return Optional.of(each);
+        return null == logicTable ? Optional.<BindingTableRule>absent() : Optional.fromNullable(bindingTableRuleMap.get(logicTable.toLowerCase()));
+    }
+
+    /**
+     * 判断是否为广播表.
+     *
+     * @param logicTable 逻辑表名称
+     * @return 是否为广播表
+     */
+    public boolean isBroadcastTable(final String logicTable) {
+        return null != logicTable && broadcastTableNames.contains(logicTable.toLowerCase());
+    }
+    
+    /**
+     * 判断逻辑表名称集合是否全部为广播表.
+     *
+     * @param logicTables 逻辑表名称集合
+     * @return 是否全部为广播表
+     */
+    public boolean isAllBroadcastTables(final Collection<String> logicTables) {
+        if (logicTables.isEmpty() || broadcastTableNames.isEmpty()) {
+            return false;
+        }
+        for (String each : logicTables) {
+            if (!isBroadcastTable(each)) {
+                return false;
             }
         }
-        return Optional.absent();
+        return true;
     }
 
     /**
@@ -277,18 +379,31 @@ public final class ShardingRule {
         if (databaseShardingStrategy.getShardingColumns().contains(column.getName()) || tableShardingStrategy.getShardingColumns().contains(column.getName())) {
             return true;
         }
-        for (TableRule each : tableRules) {
-            if (!each.getLogicTable().equalsIgnoreCase(column.getTableName())) {
-                continue;
-            }
-            if (null != each.getDatabaseShardingStrategy() && each.getDatabaseShardingStrategy().getShardingColumns().contains(column.getName())) {
-                return true;
-            }
-            if (null != each.getTableShardingStrategy() && each.getTableShardingStrategy().getShardingColumns().contains(column.getName())) {
-                return true;
-            }
+        Optional<TableRule> tableRule = tryFindTableRule(column.getTableName());
+        if (!tableRule.isPresent()) {
+            return false;
+        }
+        if (null != tableRule.get().getDatabaseShardingStrategy() && tableRule.get().getDatabaseShardingStrategy().getShardingColumns().contains(column.getName())) {
+            return true;
         }
-        return false;
+        return null != tableRule.get().getTableShardingStrategy() && tableRule.get().getTableShardingStrategy().getShardingColumns().contains(column.getName());
+    }
+
+    /**
+     * 判断分片列是否可以使用比较运算符构造的区间条件路由.
+     *
+     * @param column 列对象
+     * @return 作用于该列的分片算法实现{@link OpenRangeShardingAlgorithm}时返回true
+     */
+    public boolean isOpenRangeShardingColumn(final Column column) {
+        Optional<TableRule> tableRule = tryFindTableRule(column.getTableName());
+        ShardingStrategy databaseStrategy = tableRule.isPresent() ? getDatabaseShardingStrategy(tableRule.get()) : databaseShardingStrategy;
+        ShardingStrategy tableStrategy = tableRule.isPresent() ? getTableShardingStrategy(tableRule.get()) : tableShardingStrategy;
+        return isOpenRangeShardingColumn(databaseStrategy, column) || isOpenRangeShardingColumn(tableStrategy, column);
+    }
+
+    private boolean isOpenRangeShardingColumn(final ShardingStrategy strategy, final Column column) {
+        return null != strategy && strategy.isOpenRangeSupported() && strategy.getShardingColumns().contains(column.getName());
     }
 
     /**
@@ -298,12 +413,8 @@ public final class ShardingRule {
      * @return 自增列名称
      */
     public Optional<String> getGenerateKeyColumn(final String tableName) {
-        for (TableRule each : tableRules) {
-            if (each.getLogicTable().equalsIgnoreCase(tableName)) {
-                return Optional.fromNullable(each.getGenerateKeyColumn());
-            }
-        }
-        return Optional.absent();
+        Optional<TableRule> tableRule = tryFindTableRule(tableName);
+        return tableRule.isPresent() ? Optional.fromNullable(tableRule.get().getGenerateKeyColumn()) : Optional.<String>absent();
     }
 
     /**
@@ -344,6 +455,10 @@ public final class ShardingRule {
          * 绑定表配置规则
          */
         private Collection<BindingTableRule> bindingTableRules;
+        /**
+         * 广播表
+         */
+        private Collection<String> broadcastTables;
         /**
          * 默认分库策略
          */
@@ -390,6 +505,17 @@ public final class ShardingRule {
             return this;
         }
 
+        /**
+         * 构建广播表.
+         *
+         * @param broadcastTables 广播表名称集合
+         * @return 分片规则配置对象构建器
+         */
+        public ShardingRuleBuilder broadcastTables(final Collection<String> broadcastTables) {
+            this.broadcastTables = broadcastTables;
+            return this;
+        }
+
         /**
          * 构建默认分库策略.
          *
@@ -433,7 +559,7 @@ public final class ShardingRule {
             if (null != keyGeneratorClass) {
                 keyGenerator = KeyGeneratorFactory.createKeyGenerator(keyGeneratorClass);
             }
-            return new ShardingRule(dataSourceRule, tableRules, bindingTableRules, databaseShardingStrategy, tableShardingStrategy, keyGenerator);
+            return new ShardingRule(dataSourceRule, tableRules, bindingTableRules, broadcastTables, databaseShardingStrategy, tableShardingStrategy, keyGenerator);
         }
     }
 }
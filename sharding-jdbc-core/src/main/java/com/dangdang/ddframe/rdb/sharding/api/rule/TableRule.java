@@ -22,6 +22,7 @@ import com.dangdang.ddframe.rdb.sharding.api.strategy.table.TableShardingStrateg
 import com.dangdang.ddframe.rdb.sharding.keygen.KeyGenerator;
 import com.dangdang.ddframe.rdb.sharding.keygen.KeyGeneratorFactory;
 import com.google.common.base.Preconditions;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.ToString;
@@ -29,8 +30,15 @@ import lombok.ToString;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 /**
  * 表规则配置对象.
@@ -59,7 +67,7 @@ import java.util.List;
  * @author zhangliang
  */
 @Getter
-@ToString
+@ToString(exclude = {"actualDatasourceNames", "actualTableNamesMap", "actualTableIndexMap", "lowerCaseActualTableIndexMap"})
 public final class TableRule {
 
     /**
@@ -101,6 +109,26 @@ public final class TableRule {
      * 主键生成器
      */
     private final KeyGenerator keyGenerator;
+    /**
+     * 真实数据源名称集合
+     */
+    @Getter(AccessLevel.NONE)
+    private final Collection<String> actualDatasourceNames;
+    /**
+     * 数据源名称与真实表名称集合的映射
+     */
+    @Getter(AccessLevel.NONE)
+    private final Map<String, Collection<String>> actualTableNamesMap;
+    /**
+     * 数据源名称与(真实表名称, 数据分片节点下标)的映射
+     */
+    @Getter(AccessLevel.NONE)
+    private final Map<String, Map<String, Integer>> actualTableIndexMap;
+    /**
+     * 小写的数据源名称与(小写的真实表名称, 数据分片节点下标)的映射
+     */
+    @Getter(AccessLevel.NONE)
+    private final Map<String, Map<String, Integer>> lowerCaseActualTableIndexMap;
     
     /**
      * 全属性构造器.
@@ -129,15 +157,21 @@ public final class TableRule {
         this.dynamic = dynamic;
         this.databaseShardingStrategy = databaseShardingStrategy;
         this.tableShardingStrategy = tableShardingStrategy;
+        List<DataNode> dataNodes;
         if (dynamic) { // 动态表的分库分表数据单元
             Preconditions.checkNotNull(dataSourceRule);
-            this.actualTables = generateDataNodes(dataSourceRule);
+            dataNodes = generateDataNodes(dataSourceRule, dataSourceNames);
         } else if (null == actualTables || actualTables.isEmpty()) { // 静态表的分库分表数据单元
             Preconditions.checkNotNull(dataSourceRule);
-            this.actualTables = generateDataNodes(Collections.singletonList(logicTable), dataSourceRule, dataSourceNames);
+            dataNodes = generateDataNodes(Collections.singletonList(logicTable), dataSourceRule, dataSourceNames);
         } else { // 静态表的分库分表数据单元
-            this.actualTables = generateDataNodes(actualTables, dataSourceRule, dataSourceNames);
+            dataNodes = generateDataNodes(actualTables, dataSourceRule, dataSourceNames);
         }
+        this.actualTables = Collections.unmodifiableList(dataNodes);
+        actualDatasourceNames = buildActualDatasourceNames(dataNodes);
+        actualTableNamesMap = buildActualTableNamesMap(dataNodes);
+        actualTableIndexMap = buildActualTableIndexMap(dataNodes, false);
+        lowerCaseActualTableIndexMap = buildActualTableIndexMap(dataNodes, true);
         this.generateKeyColumn = generateKeyColumn;
         this.keyGenerator = keyGenerator;
     }
@@ -156,10 +190,11 @@ public final class TableRule {
      * 创建动态数据分片节点
      *
      * @param dataSourceRule 数据源配置对象
+     * @param actualDataSourceNames 数据源名称集合, 为空时使用全部数据源
      * @return 动态数据分片节点
      */
-    private List<DataNode> generateDataNodes(final DataSourceRule dataSourceRule) {
-        Collection<String> dataSourceNames = dataSourceRule.getDataSourceNames();
+    private List<DataNode> generateDataNodes(final DataSourceRule dataSourceRule, final Collection<String> actualDataSourceNames) {
+        Collection<String> dataSourceNames = getDataSourceNames(dataSourceRule, actualDataSourceNames);
         List<DataNode> result = new ArrayList<>(dataSourceNames.size());
         for (String each : dataSourceNames) {
             result.add(new DynamicDataNode(each));
@@ -207,6 +242,50 @@ public final class TableRule {
         return actualDataSourceNames;
     }
     
+    private static Collection<String> buildActualDatasourceNames(final List<DataNode> dataNodes) {
+        Set<String> result = new LinkedHashSet<>(dataNodes.size());
+        for (DataNode each : dataNodes) {
+            result.add(each.getDataSourceName());
+        }
+        return Collections.unmodifiableSet(result);
+    }
+    
+    private static Map<String, Collection<String>> buildActualTableNamesMap(final List<DataNode> dataNodes) {
+        Map<String, Set<String>> actualTableNamesMap = new LinkedHashMap<>();
+        for (DataNode each : dataNodes) {
+            Set<String> actualTableNames = actualTableNamesMap.get(each.getDataSourceName());
+            if (null == actualTableNames) {
+                actualTableNames = new LinkedHashSet<>();
+                actualTableNamesMap.put(each.getDataSourceName(), actualTableNames);
+            }
+            actualTableNames.add(each.getTableName());
+        }
+        Map<String, Collection<String>> result = new HashMap<>(actualTableNamesMap.size(), 1);
+        for (Entry<String, Set<String>> entry : actualTableNamesMap.entrySet()) {
+            result.put(entry.getKey(), Collections.unmodifiableSet(entry.getValue()));
+        }
+        return result;
+    }
+    
+    private static Map<String, Map<String, Integer>> buildActualTableIndexMap(final List<DataNode> dataNodes, final boolean lowerCase) {
+        Map<String, Map<String, Integer>> result = new HashMap<>();
+        int index = 0;
+        for (DataNode each : dataNodes) {
+            String dataSourceName = lowerCase ? each.getDataSourceName().toLowerCase() : each.getDataSourceName();
+            Map<String, Integer> tableIndexes = result.get(dataSourceName);
+            if (null == tableIndexes) {
+                tableIndexes = new HashMap<>();
+                result.put(dataSourceName, tableIndexes);
+            }
+            String tableName = lowerCase ? each.getTableName().toLowerCase() : each.getTableName();
+            if (!tableIndexes.containsKey(tableName)) {
+                tableIndexes.put(tableName, index);
+            }
+            index++;
+        }
+        return result;
+    }
+    
     /**
      * 根据数据源名称过滤获取真实数据单元.
      *
@@ -227,53 +306,48 @@ public final class TableRule {
     }
     
     private Collection<DataNode> getStaticDataNodes(final String targetDataSource, final Collection<String> targetTables) {
-        Collection<DataNode> result = new LinkedHashSet<>(actualTables.size());
-        for (DataNode each : actualTables) {
-            if (targetDataSource.equals(each.getDataSourceName()) && targetTables.contains(each.getTableName())) {
-                result.add(each);
+        Map<String, Integer> tableIndexes = actualTableIndexMap.get(targetDataSource);
+        if (null == tableIndexes) {
+            return new LinkedHashSet<>();
+        }
+        // 按数据分片节点的配置顺序输出, 数据源名称和真实表名称均区分大小写
+        SortedMap<Integer, DataNode> dataNodes = new TreeMap<>();
+        for (String each : targetTables) {
+            Integer index = tableIndexes.get(each);
+            if (null != index) {
+                dataNodes.put(index, actualTables.get(index));
             }
         }
-        return result;
+        return new LinkedHashSet<>(dataNodes.values());
     }
     
     /**
      * 获取真实数据源.
      *
-     * @return 真实表名称
+     * @return 真实数据源名称集合的副本
      */
     public Collection<String> getActualDatasourceNames() {
-        Collection<String> result = new LinkedHashSet<>(actualTables.size());
-        for (DataNode each : actualTables) {
-            result.add(each.getDataSourceName());
-        }
-        return result;
+        return new LinkedHashSet<>(actualDatasourceNames);
     }
     
     /**
      * 根据数据源名称过滤获取真实表名称.
      *
      * @param targetDataSource 数据源名称
-     * @return 真实表名称
+     * @return 真实表名称集合的副本
      */
     public Collection<String> getActualTableNames(final String targetDataSource) {
-        Collection<String> result = new LinkedHashSet<>(actualTables.size());
-        for (DataNode each : actualTables) {
-            if (targetDataSource.equals(each.getDataSourceName())) {
-                result.add(each.getTableName());
-            }
-        }
-        return result;
+        Collection<String> result = actualTableNamesMap.get(targetDataSource);
+        return null == result ? new LinkedHashSet<String>() : new LinkedHashSet<>(result);
     }
     
     int findActualTableIndex(final String dataSourceName, final String actualTableName) {
-        int result = 0;
-        for (DataNode each : actualTables) {
-            if (each.getDataSourceName().equalsIgnoreCase(dataSourceName) && each.getTableName().equalsIgnoreCase(actualTableName)) {
-                return result;
-            }
-            result++;
+        Map<String, Integer> tableIndexes = lowerCaseActualTableIndexMap.get(dataSourceName.toLowerCase());
+        if (null == tableIndexes) {
+            return -1;
         }
-        return -1;
+        Integer result = tableIndexes.get(actualTableName.toLowerCase());
+        return null == result ? -1 : result;
     }
     
     /**
@@ -0,0 +1,197 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.api.strategy.common;
+
+import com.dangdang.ddframe.rdb.sharding.api.ShardingValue;
+import com.dangdang.ddframe.rdb.sharding.api.strategy.database.SingleKeyDatabaseShardingAlgorithm;
+import com.dangdang.ddframe.rdb.sharding.api.strategy.table.SingleKeyTableShardingAlgorithm;
+import com.google.common.base.Preconditions;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 基于哈希的分片算法基类.
+ * 
+ * <p>
+ * 分片目标集合首次使用时转换为数组并预先计算定位所需的数据, 之后按分片目标集合缓存.
+ * {@code =}只做一次哈希和一次定位, 不产生临时对象; {@code IN}对所有分片值批量定位后一次性生成结果.
+ * 哈希无法保持分片值的顺序, {@code BETWEEN}路由至全部分片目标.
+ * </p>
+ * 
+ * <p>
+ * 整数类型的分片值按long值哈希, 因此{@code Integer}和{@code Long}类型的相同数值会路由至相同的分片目标.
+ * 不支持动态表.
+ * </p>
+ * 
+ * @param <T> 片键类型
+ * 
+ * @author zhangliang
+ */
+public abstract class AbstractHashShardingAlgorithm<T extends Comparable<?>> implements SingleKeyDatabaseShardingAlgorithm<T>, SingleKeyTableShardingAlgorithm<T> {
+    
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    
+    private static final long FNV_PRIME = 0x100000001b3L;
+    
+    private final ConcurrentMap<Collection<String>, CachedHashTargets> hashTargetsCache = new ConcurrentHashMap<>();
+    
+    private volatile CachedHashTargets lastHashTargets;
+    
+    @Override
+    public final String doEqualSharding(final Collection<String> availableTargetNames, final ShardingValue<T> shardingValue) {
+        HashTargets hashTargets = getHashTargets(availableTargetNames);
+        return hashTargets.getTargetNames()[hashTargets.locate(hash(shardingValue.getValue()))];
+    }
+    
+    @Override
+    public final Collection<String> doInSharding(final Collection<String> availableTargetNames, final ShardingValue<T> shardingValue) {
+        HashTargets hashTargets = getHashTargets(availableTargetNames);
+        String[] targetNames = hashTargets.getTargetNames();
+        boolean[] hits = new boolean[targetNames.length];
+        int hitCount = 0;
+        for (T each : shardingValue.getValues()) {
+            int index = hashTargets.locate(hash(each));
+            if (!hits[index]) {
+                hits[index] = true;
+                hitCount++;
+                if (targetNames.length == hitCount) {
+                    break;
+                }
+            }
+        }
+        Collection<String> result = new ArrayList<>(hitCount);
+        for (int i = 0; i < targetNames.length; i++) {
+            if (hits[i]) {
+                result.add(targetNames[i]);
+            }
+        }
+        return result;
+    }
+    
+    @Override
+    public final Collection<String> doBetweenSharding(final Collection<String> availableTargetNames, final ShardingValue<T> shardingValue) {
+        checkStaticTargets(availableTargetNames);
+        return new ArrayList<>(availableTargetNames);
+    }
+    
+    /**
+     * 根据分片目标创建哈希定位数据.
+     * 
+     * @param targetNames 分片目标名称数组, 顺序与可用分片目标集合的迭代顺序一致
+     * @return 哈希定位数据
+     */
+    protected abstract HashTargets createHashTargets(String[] targetNames);
+    
+    private HashTargets getHashTargets(final Collection<String> availableTargetNames) {
+        CachedHashTargets result = lastHashTargets;
+        // 分片目标集合来自分片规则, 不会变化, 按引用命中时无需查找缓存
+        if (null != result && result.getAvailableTargetNames() == availableTargetNames) {
+            return result.getHashTargets();
+        }
+        result = hashTargetsCache.get(availableTargetNames);
+        if (null == result) {
+            checkStaticTargets(availableTargetNames);
+            result = new CachedHashTargets(availableTargetNames, createHashTargets(availableTargetNames.toArray(new String[availableTargetNames.size()])));
+            CachedHashTargets existed = hashTargetsCache.putIfAbsent(availableTargetNames, result);
+            if (null != existed) {
+                result = existed;
+            }
+        }
+        lastHashTargets = result;
+        return result.getHashTargets();
+    }
+    
+    private void checkStaticTargets(final Collection<String> availableTargetNames) {
+        Preconditions.checkState(!availableTargetNames.isEmpty(), "Hash sharding algorithm does not support dynamic table.");
+    }
+    
+    /**
+     * 计算分片值的64位哈希值.
+     * 
+     * @param value 分片值
+     * @return 哈希值
+     */
+    protected static long hash(final Object value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte || value instanceof BigInteger) {
+            return mix(((Number) value).longValue());
+        }
+        if (value instanceof CharSequence) {
+            return mix(hash((CharSequence) value));
+        }
+        return mix(value.hashCode());
+    }
+    
+    private static long hash(final CharSequence value) {
+        long result = FNV_OFFSET_BASIS;
+        for (int i = 0; i < value.length(); i++) {
+            result ^= value.charAt(i);
+            result *= FNV_PRIME;
+        }
+        return result;
+    }
+    
+    /**
+     * 打散哈希值的位分布.
+     * 
+     * @param value 原始值
+     * @return 打散后的值
+     */
+    protected static long mix(final long value) {
+        long result = value;
+        result ^= result >>> 33;
+        result *= 0xff51afd7ed558ccdL;
+        result ^= result >>> 33;
+        result *= 0xc4ceb9fe1a85ec53L;
+        result ^= result >>> 33;
+        return result;
+    }
+    
+    /**
+     * 预先计算的哈希定位数据.
+     */
+    @RequiredArgsConstructor(access = AccessLevel.PROTECTED)
+    @Getter(AccessLevel.PROTECTED)
+    protected abstract static class HashTargets {
+        
+        private final String[] targetNames;
+        
+        /**
+         * 根据哈希值定位分片目标.
+         * 
+         * @param hash 哈希值
+         * @return 分片目标在{@code targetNames}中的下标
+         */
+        protected abstract int locate(long hash);
+    }
+    
+    @RequiredArgsConstructor
+    @Getter
+    private static final class CachedHashTargets {
+        
+        private final Collection<String> availableTargetNames;
+        
+        private final HashTargets hashTargets;
+    }
+}
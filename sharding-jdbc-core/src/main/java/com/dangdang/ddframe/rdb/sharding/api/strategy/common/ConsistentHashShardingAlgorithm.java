@@ -0,0 +1,99 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.api.strategy.common;
+
+import com.google.common.base.Preconditions;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.Map.Entry;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * 基于虚拟节点哈希环的一致性哈希分片算法.
+ * 
+ * <p>
+ * 每个分片目标按名称在哈希环上放置{@code virtualNodeCount}个虚拟节点, 分片值路由至哈希环上顺时针方向的第一个虚拟节点.
+ * 虚拟节点的位置只与分片目标名称有关, 增加或删除任意分片目标时, 只有约{@code 1/n}的分片值需要迁移.
+ * 哈希环预先排序为数组, 定位使用二分查找, 复杂度为O(log(n * virtualNodeCount)).
+ * </p>
+ * 
+ * @param <T> 片键类型
+ * 
+ * @author zhangliang
+ */
+public final class ConsistentHashShardingAlgorithm<T extends Comparable<?>> extends AbstractHashShardingAlgorithm<T> {
+    
+    /**
+     * 默认的每个分片目标的虚拟节点数量.
+     */
+    public static final int DEFAULT_VIRTUAL_NODE_COUNT = 160;
+    
+    private static final long VIRTUAL_NODE_STEP = 0x9e3779b97f4a7c15L;
+    
+    @Getter
+    private final int virtualNodeCount;
+    
+    public ConsistentHashShardingAlgorithm() {
+        this(DEFAULT_VIRTUAL_NODE_COUNT);
+    }
+    
+    public ConsistentHashShardingAlgorithm(final int virtualNodeCount) {
+        Preconditions.checkArgument(virtualNodeCount > 0, "Virtual node count must be positive.");
+        this.virtualNodeCount = virtualNodeCount;
+    }
+    
+    @Override
+    protected HashTargets createHashTargets(final String[] targetNames) {
+        SortedMap<Long, Integer> ring = new TreeMap<>();
+        for (int i = 0; i < targetNames.length; i++) {
+            long targetHash = hash(targetNames[i]);
+            for (int j = 0; j < virtualNodeCount; j++) {
+                Long position = mix(targetHash + j * VIRTUAL_NODE_STEP);
+                // 位置冲突时保留名称较小的分片目标, 使哈希环与分片目标的配置顺序无关
+                Integer existed = ring.get(position);
+                if (null == existed || targetNames[i].compareTo(targetNames[existed]) < 0) {
+                    ring.put(position, i);
+                }
+            }
+        }
+        final long[] positions = new long[ring.size()];
+        final int[] indexes = new int[ring.size()];
+        int count = 0;
+        for (Entry<Long, Integer> entry : ring.entrySet()) {
+            positions[count] = entry.getKey();
+            indexes[count] = entry.getValue();
+            count++;
+        }
+        return new HashTargets(targetNames) {
+            
+            @Override
+            protected int locate(final long hash) {
+                int position = Arrays.binarySearch(positions, hash);
+                if (position < 0) {
+                    position = -position - 1;
+                    if (positions.length == position) {
+                        position = 0;
+                    }
+                }
+                return indexes[position];
+            }
+        };
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.api.strategy.common;
+
+/**
+ * 基于Jump Consistent Hash的分片算法.
+ * 
+ * <p>
+ * 分片目标按配置顺序编号, 不需要额外的存储空间. 在分片目标集合末尾追加分片目标时, 只有约{@code 1/n}的分片值需要迁移至新的分片目标.
+ * 删除或调整中间的分片目标会导致大量数据迁移, 此类场景请使用{@link ConsistentHashShardingAlgorithm}.
+ * </p>
+ * 
+ * @param <T> 片键类型
+ * 
+ * @author zhangliang
+ */
+public final class JumpHashShardingAlgorithm<T extends Comparable<?>> extends AbstractHashShardingAlgorithm<T> {
+    
+    @Override
+    protected HashTargets createHashTargets(final String[] targetNames) {
+        final int bucketCount = targetNames.length;
+        return new HashTargets(targetNames) {
+            
+            @Override
+            protected int locate(final long hash) {
+                return jumpConsistentHash(hash, bucketCount);
+            }
+        };
+    }
+    
+    static int jumpConsistentHash(final long key, final int bucketCount) {
+        long hash = key;
+        long bucket = -1;
+        long next = 0;
+        while (next < bucketCount) {
+            bucket = next;
+            hash = hash * 2862933555777941757L + 1;
+            next = (long) ((bucket + 1) * ((double) (1L << 31) / (double) ((hash >>> 33) + 1)));
+        }
+        return (int) bucket;
+    }
+}
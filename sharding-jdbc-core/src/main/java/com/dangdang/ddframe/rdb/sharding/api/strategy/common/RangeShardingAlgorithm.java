@@ -0,0 +1,142 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.api.strategy.common;
+
+import com.dangdang.ddframe.rdb.sharding.api.ShardingValue;
+import com.dangdang.ddframe.rdb.sharding.api.strategy.database.SingleKeyDatabaseShardingAlgorithm;
+import com.dangdang.ddframe.rdb.sharding.api.strategy.table.SingleKeyTableShardingAlgorithm;
+import com.dangdang.ddframe.rdb.sharding.routing.strategy.OpenRangeShardingAlgorithm;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.BoundType;
+import com.google.common.collect.Range;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * 基于区间的分片算法.
+ * 
+ * <p>
+ * 每个分片目标对应一个左闭右开的区间, 区间由分片目标的下界确定, 上界为下一个分片目标的下界, 最后一个分片目标的区间无上界.
+ * 下界按顺序索引, {@code =}和{@code IN}通过二分查找定位分片目标, {@code BETWEEN}只遍历与查询区间相交的分片目标, 
+ * 复杂度为O(log n + k), 与分片目标总数无关. {@code >=}, {@code <}等单侧区间条件同样按区间路由.
+ * </p>
+ * 
+ * <p>
+ * 例如: 下界为{@code 0 -> t_order_0, 1000 -> t_order_1, 2000 -> t_order_2}时, 
+ * {@code order_id BETWEEN 500 AND 1500}路由至{@code t_order_0, t_order_1}.
+ * </p>
+ * 
+ * @param <T> 片键类型
+ * 
+ * @author zhangliang
+ */
+public class RangeShardingAlgorithm<T extends Comparable<?>> implements SingleKeyDatabaseShardingAlgorithm<T>, SingleKeyTableShardingAlgorithm<T>, OpenRangeShardingAlgorithm {
+    
+    private final NavigableMap<T, String> lowerBounds;
+    
+    /**
+     * 构造区间分片算法.
+     * 
+     * @param lowerBounds 分片目标区间下界与分片目标名称的映射
+     */
+    public RangeShardingAlgorithm(final Map<T, String> lowerBounds) {
+        Preconditions.checkArgument(!lowerBounds.isEmpty(), "Range sharding algorithm must contain at least one range.");
+        this.lowerBounds = new TreeMap<>(lowerBounds);
+    }
+    
+    @Override
+    public final String doEqualSharding(final Collection<String> availableTargetNames, final ShardingValue<T> shardingValue) {
+        String result = findTargetName(shardingValue.getValue());
+        Preconditions.checkState(isAvailable(availableTargetNames, result), "Range sharding target '%s' is not available.", result);
+        return result;
+    }
+    
+    @Override
+    public final Collection<String> doInSharding(final Collection<String> availableTargetNames, final ShardingValue<T> shardingValue) {
+        Collection<String> result = new LinkedHashSet<>(shardingValue.getValues().size());
+        for (T each : shardingValue.getValues()) {
+            String targetName = findTargetName(each);
+            if (isAvailable(availableTargetNames, targetName)) {
+                result.add(targetName);
+            }
+        }
+        return result;
+    }
+    
+    @Override
+    public final Collection<String> doBetweenSharding(final Collection<String> availableTargetNames, final ShardingValue<T> shardingValue) {
+        Range<T> range = convertRange(shardingValue.getValueRange());
+        NavigableMap<T, String> candidates = lowerBounds;
+        if (range.hasUpperBound()) {
+            candidates = candidates.headMap(range.upperEndpoint(), BoundType.CLOSED == range.upperBoundType());
+        }
+        if (range.hasLowerBound()) {
+            T floorKey = candidates.floorKey(range.lowerEndpoint());
+            if (null != floorKey) {
+                candidates = candidates.tailMap(floorKey, true);
+            }
+        }
+        Collection<String> result = new LinkedHashSet<>(candidates.size());
+        for (String each : candidates.values()) {
+            if (isAvailable(availableTargetNames, each)) {
+                result.add(each);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * 转换分片值, 使其与区间下界的类型可以比较.
+     * 
+     * @param value 分片值
+     * @return 转换后的分片值
+     */
+    @SuppressWarnings("unchecked")
+    protected T convert(final Comparable<?> value) {
+        return (T) value;
+    }
+    
+    private String findTargetName(final T value) {
+        Entry<T, String> result = lowerBounds.floorEntry(convert(value));
+        Preconditions.checkState(null != result, "Sharding value '%s' is less than the lower bound of all ranges.", value);
+        return result.getValue();
+    }
+    
+    private Range<T> convertRange(final Range<T> range) {
+        if (range.hasLowerBound() && range.hasUpperBound()) {
+            return Range.range(convert(range.lowerEndpoint()), range.lowerBoundType(), convert(range.upperEndpoint()), range.upperBoundType());
+        }
+        if (range.hasLowerBound()) {
+            return Range.downTo(convert(range.lowerEndpoint()), range.lowerBoundType());
+        }
+        if (range.hasUpperBound()) {
+            return Range.upTo(convert(range.upperEndpoint()), range.upperBoundType());
+        }
+        return range;
+    }
+    
+    private boolean isAvailable(final Collection<String> availableTargetNames, final String targetName) {
+        // 动态表没有可用的分片目标集合, 不做过滤
+        return availableTargetNames.isEmpty() || availableTargetNames.contains(targetName);
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.api.strategy.table;
+
+import com.dangdang.ddframe.rdb.sharding.api.ShardingValue;
+import com.dangdang.ddframe.rdb.sharding.routing.strategy.NonCacheableShardingAlgorithm;
+import com.dangdang.ddframe.rdb.sharding.routing.strategy.OpenRangeShardingAlgorithm;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.collect.BoundType;
+import com.google.common.collect.Range;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.TimeZone;
+
+/**
+ * 按时间分桶的分表算法.
+ * 
+ * <p>
+ * 真实表名为表名前缀加时间桶的起始时间, 例如: 按天分表时为{@code t_log_20170101}, 按周分表时为该周周一的日期, 按月分表时为{@code t_log_201701}.
+ * 配合动态表使用时无需配置真实表, 根据分片值计算出需要访问的真实表.
+ * </p>
+ * 
+ * <p>
+ * {@code BETWEEN}, {@code >=}, {@code <}等区间条件只路由至区间覆盖的时间桶.
+ * 区间缺少下界时从{@code earliest}开始, 缺少上界时到当前时间为止; 此时若路由的真实表超过{@code maxFanOut}张, 将抛出异常, 避免全表扫描.
+ * 分片值支持{@link Date}, 表示毫秒时间戳的整数以及{@code yyyy-MM-dd}, {@code yyyy-MM-dd HH:mm:ss}格式的字符串.
+ * 路由结果依赖当前时间, 因此不使用路由结果缓存.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public final class TimeBucketTableShardingAlgorithm implements SingleKeyTableShardingAlgorithm<Comparable<?>>, OpenRangeShardingAlgorithm, NonCacheableShardingAlgorithm {
+    
+    private static final String DATE_PATTERN = "yyyy-MM-dd";
+    
+    private static final String DATE_TIME_PATTERN = "yyyy-MM-dd HH:mm:ss";
+    
+    @Getter
+    private final String tablePrefix;
+    
+    @Getter
+    private final TimeBucket timeBucket;
+    
+    private final long earliest;
+    
+    @Getter
+    private final int maxFanOut;
+    
+    private final TimeZone timeZone;
+    
+    /**
+     * 构造按时间分桶的分表算法.
+     * 
+     * @param tablePrefix 真实表名前缀
+     * @param timeBucket 时间桶
+     * @param earliest 最早的数据时间, 早于该时间的时间桶不会被路由
+     * @param maxFanOut 区间缺少边界时允许路由的最大真实表数量
+     */
+    public TimeBucketTableShardingAlgorithm(final String tablePrefix, final TimeBucket timeBucket, final Date earliest, final int maxFanOut) {
+        this(tablePrefix, timeBucket, earliest, maxFanOut, TimeZone.getDefault());
+    }
+    
+    public TimeBucketTableShardingAlgorithm(final String tablePrefix, final TimeBucket timeBucket, final Date earliest, final int maxFanOut, final TimeZone timeZone) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(tablePrefix), "Table prefix is required.");
+        Preconditions.checkNotNull(timeBucket);
+        Preconditions.checkNotNull(earliest);
+        Preconditions.checkArgument(maxFanOut > 0, "Max fan out must be positive.");
+        this.tablePrefix = tablePrefix;
+        this.timeBucket = timeBucket;
+        this.earliest = earliest.getTime();
+        this.maxFanOut = maxFanOut;
+        this.timeZone = timeZone;
+    }
+    
+    @Override
+    public String doEqualSharding(final Collection<String> availableTargetNames, final ShardingValue<Comparable<?>> shardingValue) {
+        String result = getTableName(floor(toMillis(shardingValue.getValue())));
+        Preconditions.checkState(isAvailable(availableTargetNames, result), "Time bucket table '%s' is not available.", result);
+        return result;
+    }
+    
+    @Override
+    public Collection<String> doInSharding(final Collection<String> availableTargetNames, final ShardingValue<Comparable<?>> shardingValue) {
+        Collection<String> result = new LinkedHashSet<>(shardingValue.getValues().size());
+        for (Comparable<?> each : shardingValue.getValues()) {
+            String tableName = getTableName(floor(toMillis(each)));
+            if (isAvailable(availableTargetNames, tableName)) {
+                result.add(tableName);
+            }
+        }
+        return result;
+    }
+    
+    @Override
+    public Collection<String> doBetweenSharding(final Collection<String> availableTargetNames, final ShardingValue<Comparable<?>> shardingValue) {
+        Range<Comparable<?>> range = shardingValue.getValueRange();
+        // 下界大于上界的区间不会命中数据, 仅路由至下界所在的时间桶
+        if (range.isEmpty()) {
+            String tableName = getTableName(floor(toMillis(range.lowerEndpoint())));
+            return isAvailable(availableTargetNames, tableName) ? Collections.singletonList(tableName) : Collections.<String>emptyList();
+        }
+        boolean bounded = range.hasLowerBound() && range.hasUpperBound();
+        long lower = range.hasLowerBound() ? Math.max(toMillis(range.lowerEndpoint()), earliest) : earliest;
+        long upper = range.hasUpperBound() ? toMillis(range.upperEndpoint()) : System.currentTimeMillis();
+        Collection<String> result = new LinkedHashSet<>();
+        Calendar bucket = floor(lower);
+        Calendar lastBucket = floor(upper);
+        // 上界为开区间且恰好是时间桶的起始时间时, 不包含该时间桶
+        if (range.hasUpperBound() && BoundType.OPEN == range.upperBoundType() && lastBucket.getTimeInMillis() == upper) {
+            timeBucket.add(lastBucket, -1);
+        }
+        int count = 0;
+        while (!bucket.after(lastBucket)) {
+            Preconditions.checkState(bounded || count++ < maxFanOut, 
+                    "Time bucket sharding of column '%s' routes to more than %s tables, please add range condition.", shardingValue.getColumnName(), maxFanOut);
+            String tableName = getTableName(bucket);
+            if (isAvailable(availableTargetNames, tableName)) {
+                result.add(tableName);
+            }
+            timeBucket.add(bucket, 1);
+        }
+        return result;
+    }
+    
+    private long toMillis(final Comparable<?> value) {
+        if (value instanceof Date) {
+            return ((Date) value).getTime();
+        }
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof String) {
+            return parse((String) value);
+        }
+        throw new IllegalArgumentException(String.format("Time bucket sharding value '%s' is not a date.", value));
+    }
+    
+    private long parse(final String value) {
+        SimpleDateFormat dateFormat = new SimpleDateFormat(value.trim().length() > DATE_PATTERN.length() ? DATE_TIME_PATTERN : DATE_PATTERN);
+        dateFormat.setLenient(false);
+        dateFormat.setTimeZone(timeZone);
+        try {
+            return dateFormat.parse(value.trim()).getTime();
+        } catch (final ParseException ex) {
+            throw new IllegalArgumentException(String.format("Time bucket sharding value '%s' is not a date.", value), ex);
+        }
+    }
+    
+    private Calendar floor(final long millis) {
+        Calendar result = Calendar.getInstance(timeZone);
+        result.setTimeInMillis(millis);
+        result.set(Calendar.HOUR_OF_DAY, 0);
+        result.set(Calendar.MINUTE, 0);
+        result.set(Calendar.SECOND, 0);
+        result.set(Calendar.MILLISECOND, 0);
+        timeBucket.floor(result);
+        return result;
+    }
+    
+    private String getTableName(final Calendar bucket) {
+        StringBuilder result = new StringBuilder(tablePrefix.length() + 8).append(tablePrefix).append(bucket.get(Calendar.YEAR));
+        appendTwoDigits(result, bucket.get(Calendar.MONTH) + 1);
+        if (TimeBucket.MONTH != timeBucket) {
+            appendTwoDigits(result, bucket.get(Calendar.DAY_OF_MONTH));
+        }
+        return result.toString();
+    }
+    
+    private void appendTwoDigits(final StringBuilder builder, final int value) {
+        if (value < 10) {
+            builder.append('0');
+        }
+        builder.append(value);
+    }
+    
+    private boolean isAvailable(final Collection<String> availableTargetNames, final String targetName) {
+        // 动态表没有可用的分片目标集合, 不做过滤
+        return availableTargetNames.isEmpty() || availableTargetNames.contains(targetName);
+    }
+    
+    /**
+     * 时间桶.
+     */
+    @RequiredArgsConstructor
+    public enum TimeBucket {
+        
+        DAY(Calendar.DAY_OF_MONTH, 1), 
+        WEEK(Calendar.DAY_OF_MONTH, 7), 
+        MONTH(Calendar.MONTH, 1);
+        
+        private final int field;
+        
+        private final int amount;
+        
+        private void floor(final Calendar calendar) {
+            if (WEEK == this) {
+                // 以周一作为一周的开始
+                calendar.add(Calendar.DAY_OF_MONTH, -((calendar.get(Calendar.DAY_OF_WEEK) + 5) % 7));
+            } else if (MONTH == this) {
+                calendar.set(Calendar.DAY_OF_MONTH, 1);
+            }
+        }
+        
+        private void add(final Calendar calendar, final int count) {
+            calendar.add(field, amount * count);
+        }
+    }
+}
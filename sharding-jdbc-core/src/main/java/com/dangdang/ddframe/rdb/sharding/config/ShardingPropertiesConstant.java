@@ -65,7 +65,111 @@ public enum ShardingPropertiesConstant {
      * 默认值: CPU核数
      * </p>
      */
-    EXECUTOR_SIZE("executor.size", String.valueOf(Runtime.getRuntime().availableProcessors()), int.class);
+    EXECUTOR_SIZE("executor.size", String.valueOf(Runtime.getRuntime().availableProcessors()), int.class),
+    
+    /**
+     * 工作线程模式.
+     * 
+     * <p>
+     * PLATFORM: 固定大小的线程池; VIRTUAL: 每个执行单元使用一个虚拟线程, JVM不支持时退化为PLATFORM.
+     * 默认值: PLATFORM
+     * </p>
+     */
+    EXECUTOR_MODE("executor.mode", "PLATFORM", String.class),
+    
+    /**
+     * 工作线程池队列长度.
+     * 
+     * <p>
+     * 小于等于0时不限制. VIRTUAL模式下无队列, 该配置无效.
+     * 默认值: 0
+     * </p>
+     */
+    EXECUTOR_QUEUE_SIZE("executor.queue.size", "0", int.class),
+    
+    /**
+     * 单个数据源同时进入工作线程池(排队及执行中)的SQL执行单元数量上限.
+     * 
+     * <p>
+     * 小于等于0时不限制.
+     * 默认值: 0
+     * </p>
+     */
+    EXECUTOR_MAX_CONCURRENCY_PER_DATASOURCE("executor.max.concurrency.per.datasource", "0", int.class),
+    
+    /**
+     * SQL执行单元无法进入工作线程池时的拒绝策略.
+     * 
+     * <p>
+     * ABORT: 快速失败; CALLER_RUNS: 由调用线程执行.
+     * 默认值: ABORT
+     * </p>
+     */
+    EXECUTOR_REJECTED_POLICY("executor.rejected.policy", "ABORT", String.class),
+    
+    /**
+     * 每次查询单个数据源允许使用的最大连接数.
+     * 
+     * <p>
+     * 同一数据源的执行单元数量不超过该值时, 每个执行单元独占一个连接并行执行, 结果集流式归并;
+     * 超过该值时使用该数量的连接, 同一连接上的执行单元串行执行, 查询结果加载至内存.
+     * 非自动提交模式下固定使用一个连接.
+     * 小于1时不限制连接模式, 同一数据源的执行单元共享一个连接, 结果集流式归并.
+     * 默认值: 0
+     * </p>
+     */
+    MAX_CONNECTIONS_SIZE_PER_QUERY("max.connections.size.per.query", "0", int.class),
+    
+    /**
+     * SQL解析结果缓存条数.
+     * 
+     * <p>
+     * 同一数据源内的所有连接和语句共享, 超过条数时按最近最少使用淘汰. 小于等于0时关闭缓存.
+     * 默认值: 1024
+     * </p>
+     */
+    PARSING_CACHE_SIZE("parsing.cache.size", "1024", int.class),
+    
+    /**
+     * SQL路由结果缓存条数.
+     * 
+     * <p>
+     * 以逻辑表和分片值为键缓存路由结果, 超过条数时按最近最少使用淘汰. 小于等于0时关闭缓存.
+     * 分片结果不只由分片值决定的分片算法需实现NonCacheableShardingAlgorithm.
+     * 默认值: 0
+     * </p>
+     */
+    ROUTE_CACHE_SIZE("route.cache.size", "0", int.class),
+    
+    /**
+     * 启动时预热的逻辑SQL.
+     * 
+     * <p>
+     * 每行一条SQL, 数据源启动时并行解析并填充SQL解析结果缓存.
+     * 默认值: 空
+     * </p>
+     */
+    WARMUP_SQL("warmup.sql", "", String.class),
+    
+    /**
+     * 启动时预热的逻辑SQL文件.
+     * 
+     * <p>
+     * 文件系统路径或类路径, 文件内容格式与warmup.sql相同.
+     * 默认值: 空
+     * </p>
+     */
+    WARMUP_SQL_FILE("warmup.sql.file", "", String.class),
+    
+    /**
+     * 是否异步预热逻辑SQL.
+     * 
+     * <p>
+     * 开启时数据源启动不等待预热完成, 关闭时预热完成后数据源才启动完成.
+     * 默认值: 开启
+     * </p>
+     */
+    WARMUP_ASYNC("warmup.async", Boolean.TRUE.toString(), boolean.class);
     
     private final String key;
     
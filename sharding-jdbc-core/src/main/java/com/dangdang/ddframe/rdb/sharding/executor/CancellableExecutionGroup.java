@@ -0,0 +1,294 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.executor;
+
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * 可取消的执行单元组.
+ * 
+ * <p>
+ * 任一执行单元失败, 或已完成执行单元的结果满足提前终止条件时, 最终结果已确定,
+ * 此时中断未完成执行单元的任务并调用其{@code Statement.cancel()}, 不再等待其完成.
+ * 被取消的执行单元在其执行线程退出后关闭语句对象, 尽早释放数据库游标和连接上的锁.
+ * </p>
+ * 
+ * @param <T> 返回值类型
+ * 
+ * @author zhangliang
+ */
+@Slf4j
+final class CancellableExecutionGroup<T> {
+    
+    private final List<? extends BaseStatementUnit> baseStatementUnits;
+    
+    private final Optional<ExecuteTerminationCondition<T>> terminationCondition;
+    
+    private final List<ListenableFuture<T>> futures;
+    
+    private final boolean[] completed;
+    
+    private final boolean[] cancelled;
+    
+    private final boolean[] succeeded;
+    
+    private final List<T> results;
+    
+    private boolean terminated;
+    
+    private Exception failure;
+    
+    CancellableExecutionGroup(final List<? extends BaseStatementUnit> baseStatementUnits, final Optional<ExecuteTerminationCondition<T>> terminationCondition) {
+        this.baseStatementUnits = baseStatementUnits;
+        this.terminationCondition = terminationCondition;
+        futures = new ArrayList<>(Collections.<ListenableFuture<T>>nCopies(baseStatementUnits.size(), null));
+        completed = new boolean[baseStatementUnits.size()];
+        cancelled = new boolean[baseStatementUnits.size()];
+        succeeded = new boolean[baseStatementUnits.size()];
+        results = new ArrayList<>(Collections.<T>nCopies(baseStatementUnits.size(), null));
+    }
+    
+    /**
+     * 登记异步执行的任务, 任务异常结束时记录失败.
+     * 
+     * <p>
+     * 成功的结果已由执行线程调用{@link #complete(int, Object)}累计, 此处不再重复处理.
+     * </p>
+     * 
+     * @param index 执行单元序号
+     * @param future 异步任务
+     */
+    void register(final int index, final ListenableFuture<T> future) {
+        synchronized (this) {
+            futures.set(index, future);
+        }
+        Futures.addCallback(future, new FutureCallback<T>() {
+            
+            @Override
+            public void onSuccess(final T result) {
+            }
+            
+            @Override
+            public void onFailure(final Throwable throwable) {
+                if (!(throwable instanceof CancellationException)) {
+                    fail(index, new ExecutionException(throwable));
+                }
+            }
+        }, MoreExecutors.directExecutor());
+    }
+    
+    /**
+     * 累计执行单元的结果, 满足提前终止条件时取消其余执行单元.
+     * 
+     * @param index 执行单元序号
+     * @param result 执行结果
+     */
+    void complete(final int index, final T result) {
+        List<Integer> cancelIndexes;
+        synchronized (this) {
+            if (cancelled[index] || completed[index]) {
+                return;
+            }
+            completed[index] = true;
+            succeeded[index] = true;
+            results.set(index, result);
+            if (terminated || null != failure || !terminationCondition.isPresent() || !terminationCondition.get().isSatisfied(result)) {
+                return;
+            }
+            terminated = true;
+            cancelIndexes = markOutstandingCancelled();
+        }
+        cancel(cancelIndexes);
+    }
+    
+    /**
+     * 记录执行单元的失败并取消其余执行单元.
+     * 
+     * @param index 执行单元序号
+     * @param ex 异常
+     */
+    void fail(final int index, final Exception ex) {
+        List<Integer> cancelIndexes;
+        synchronized (this) {
+            if (cancelled[index] || terminated || null != failure) {
+                return;
+            }
+            completed[index] = true;
+            failure = ex;
+            cancelIndexes = markOutstandingCancelled();
+        }
+        cancel(cancelIndexes);
+    }
+    
+    /**
+     * 记录执行单元被忽略的失败.
+     * 
+     * <p>
+     * 不抛出异常时执行单元的失败仅记录日志, 不取消其余执行单元, 但该执行单元不计为成功完成.
+     * </p>
+     * 
+     * @param index 执行单元序号
+     */
+    synchronized void ignoreFailure(final int index) {
+        if (!cancelled[index]) {
+            completed[index] = true;
+        }
+    }
+    
+    /**
+     * 取消全部未完成的执行单元.
+     */
+    void cancelAll() {
+        List<Integer> cancelIndexes;
+        synchronized (this) {
+            cancelIndexes = markOutstandingCancelled();
+        }
+        cancel(cancelIndexes);
+    }
+    
+    /**
+     * 截止时间已到时取消全部未完成的执行单元.
+     * 
+     * @return 未能成功完成的执行单元所在的数据源名称
+     */
+    Collection<String> expire() {
+        Collection<String> result = new LinkedHashSet<>();
+        List<Integer> cancelIndexes;
+        synchronized (this) {
+            for (int i = 0; i < baseStatementUnits.size(); i++) {
+                if (!succeeded[i]) {
+                    result.add(baseStatementUnits.get(i).getSqlExecutionUnit().getDataSource());
+                }
+            }
+            cancelIndexes = markOutstandingCancelled();
+        }
+        cancel(cancelIndexes);
+        return result;
+    }
+    
+    private List<Integer> markOutstandingCancelled() {
+        List<Integer> result = new LinkedList<>();
+        for (int i = 0; i < baseStatementUnits.size(); i++) {
+            if (!completed[i] && !cancelled[i]) {
+                cancelled[i] = true;
+                result.add(i);
+            }
+        }
+        return result;
+    }
+    
+    private void cancel(final List<Integer> cancelIndexes) {
+        for (int each : cancelIndexes) {
+            ListenableFuture<T> future;
+            synchronized (this) {
+                future = futures.get(each);
+            }
+            if (null != future) {
+                future.cancel(true);
+            }
+            try {
+                baseStatementUnits.get(each).getStatement().cancel();
+            } catch (final SQLException ex) {
+                log.debug("Cancel statement on data source '{}' failure.", baseStatementUnits.get(each).getSqlExecutionUnit().getDataSource(), ex);
+            }
+        }
+    }
+    
+    /**
+     * 判断执行单元是否已被取消.
+     * 
+     * @param index 执行单元序号
+     * @return 是否已被取消
+     */
+    synchronized boolean isCancelled(final int index) {
+        return cancelled[index];
+    }
+    
+    /**
+     * 执行单元的执行线程退出后调用, 关闭已被取消的执行单元的语句对象.
+     * 
+     * @param index 执行单元序号
+     */
+    void releaseIfCancelled(final int index) {
+        if (!isCancelled(index)) {
+            return;
+        }
+        Statement statement = baseStatementUnits.get(index).getStatement();
+        try {
+            statement.close();
+        } catch (final SQLException ex) {
+            log.debug("Close cancelled statement on data source '{}' failure.", baseStatementUnits.get(index).getSqlExecutionUnit().getDataSource(), ex);
+        }
+    }
+    
+    /**
+     * 获取导致取消的失败.
+     * 
+     * @return 失败异常
+     */
+    synchronized Optional<Exception> getFailure() {
+        return Optional.fromNullable(failure);
+    }
+    
+    /**
+     * 获取已成功完成的执行单元的结果.
+     * 
+     * @return 已成功完成的执行单元的结果, 与执行单元顺序一致
+     */
+    synchronized List<T> getSucceededResults() {
+        List<T> result = new LinkedList<>();
+        for (int i = 0; i < results.size(); i++) {
+            if (succeeded[i]) {
+                result.add(results.get(i));
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * 过滤被取消的执行单元的结果.
+     * 
+     * @param outputs 与执行单元顺序一致的结果
+     * @return 未被取消的执行单元的结果
+     */
+    synchronized List<T> filterCancelled(final List<T> outputs) {
+        List<T> result = new LinkedList<>();
+        for (int i = 0; i < outputs.size(); i++) {
+            if (!cancelled[i]) {
+                result.add(outputs.get(i));
+            }
+        }
+        return result;
+    }
+}
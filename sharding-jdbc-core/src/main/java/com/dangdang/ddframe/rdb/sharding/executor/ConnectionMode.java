@@ -0,0 +1,90 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.executor;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 连接模式.
+ * 
+ * @author zhangliang
+ */
+public enum ConnectionMode {
+    
+    /**
+     * 内存限制模式.
+     * 
+     * <p>
+     * 同一数据源的每个执行单元独占一个连接, 并行执行, 结果集流式归并.
+     * </p>
+     */
+    MEMORY_STRICTLY,
+    
+    /**
+     * 连接限制模式.
+     * 
+     * <p>
+     * 同一数据源的执行单元共享有限的连接, 同一连接上的执行单元串行执行, 结果集加载至内存后释放连接供下一个执行单元使用.
+     * </p>
+     */
+    CONNECTION_STRICTLY;
+    
+    /**
+     * 根据每次查询单个数据源允许使用的最大连接数和执行单元数量决定连接模式.
+     * 
+     * @param maxConnectionsSizePerQuery 每次查询单个数据源允许使用的最大连接数
+     * @param executionUnitSize 该数据源的执行单元数量
+     * @return 连接模式
+     */
+    public static ConnectionMode decide(final int maxConnectionsSizePerQuery, final int executionUnitSize) {
+        return executionUnitSize > maxConnectionsSizePerQuery ? CONNECTION_STRICTLY : MEMORY_STRICTLY;
+    }
+    
+    /**
+     * 根据执行单元分配到的连接决定各执行单元的连接模式.
+     * 
+     * <p>
+     * 与其他执行单元共享连接的执行单元为连接限制模式.
+     * 每次查询单个数据源允许使用的最大连接数小于1时不限制连接, 全部执行单元为内存限制模式.
+     * </p>
+     * 
+     * @param maxConnectionsSizePerQuery 每次查询单个数据源允许使用的最大连接数
+     * @param routedConnections 与执行单元顺序一致的连接列表
+     * @return 与执行单元顺序一致的连接模式列表
+     */
+    public static List<ConnectionMode> decide(final int maxConnectionsSizePerQuery, final List<Connection> routedConnections) {
+        if (maxConnectionsSizePerQuery < 1) {
+            return new ArrayList<>(Collections.nCopies(routedConnections.size(), MEMORY_STRICTLY));
+        }
+        Map<Connection, Integer> connectionCounts = new IdentityHashMap<>(routedConnections.size());
+        for (Connection each : routedConnections) {
+            Integer count = connectionCounts.get(each);
+            connectionCounts.put(each, null == count ? 1 : count + 1);
+        }
+        List<ConnectionMode> result = new ArrayList<>(routedConnections.size());
+        for (Connection each : routedConnections) {
+            result.add(connectionCounts.get(each) > 1 ? CONNECTION_STRICTLY : MEMORY_STRICTLY);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.executor;
+
+import lombok.Getter;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 数据源隔离舱.
+ * 
+ * <p>
+ * 限制单个数据源同时进入线程池(排队及执行中)的执行单元数量, 避免某个数据源变慢时占满线程池和队列, 拖慢其他数据源.
+ * 同时统计该数据源的排队数量, 执行数量和拒绝次数.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public final class DataSourceBulkhead {
+    
+    @Getter
+    private final String dataSourceName;
+    
+    @Getter
+    private final int maxConcurrency;
+    
+    private final Semaphore permits;
+    
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    
+    private final AtomicInteger activeCount = new AtomicInteger();
+    
+    private final AtomicLong rejectedCount = new AtomicLong();
+    
+    /**
+     * 构造数据源隔离舱.
+     * 
+     * @param dataSourceName 数据源名称
+     * @param maxConcurrency 最大并发数, 小于等于0表示不限制
+     */
+    public DataSourceBulkhead(final String dataSourceName, final int maxConcurrency) {
+        this.dataSourceName = dataSourceName;
+        this.maxConcurrency = maxConcurrency;
+        permits = maxConcurrency > 0 ? new Semaphore(maxConcurrency) : null;
+    }
+    
+    /**
+     * 尝试为执行单元申请进入线程池的许可, 不等待.
+     * 
+     * @return 是否申请成功
+     */
+    public boolean tryAcquire() {
+        if (null != permits && !permits.tryAcquire()) {
+            rejectedCount.incrementAndGet();
+            return false;
+        }
+        queueDepth.incrementAndGet();
+        return true;
+    }
+    
+    /**
+     * 执行单元未能进入线程池时归还许可.
+     */
+    public void release() {
+        queueDepth.decrementAndGet();
+        releasePermit();
+    }
+    
+    /**
+     * 执行单元开始执行.
+     */
+    public void start() {
+        queueDepth.decrementAndGet();
+        activeCount.incrementAndGet();
+    }
+    
+    /**
+     * 执行单元执行完毕并归还许可.
+     */
+    public void finish() {
+        activeCount.decrementAndGet();
+        releasePermit();
+    }
+    
+    private void releasePermit() {
+        if (null != permits) {
+            permits.release();
+        }
+    }
+    
+    /**
+     * 获取已进入线程池但尚未开始执行的执行单元数量.
+     * 
+     * @return 排队数量
+     */
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+    
+    /**
+     * 获取线程池中正在执行的执行单元数量.
+     * 
+     * @return 执行数量
+     */
+    public int getActiveCount() {
+        return activeCount.get();
+    }
+    
+    /**
+     * 获取因并发数达到上限而被拒绝的次数.
+     * 
+     * @return 拒绝次数
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.executor;
+
+/**
+ * 执行提前终止条件.
+ * 
+ * <p>
+ * 用于已完成执行单元的结果足以确定最终结果的场景, 条件满足时取消其余未完成的执行单元.
+ * 同一次执行中按执行单元完成的顺序串行调用, 实现类无需处理并发.
+ * </p>
+ * 
+ * @param <T> 返回值类型
+ * 
+ * @author zhangliang
+ */
+public interface ExecuteTerminationCondition<T> {
+    
+    /**
+     * 累计已完成执行单元的结果, 并判断是否可以提前终止.
+     * 
+     * @param result 已完成执行单元的结果
+     * @return 是否可以提前终止
+     */
+    boolean isSatisfied(T result);
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.executor;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 执行截止时间.
+ * 
+ * <p>
+ * 由逻辑语句对象的查询超时时间换算而来, 是一次分片执行的整体时限.
+ * 执行单元开始执行前将剩余时间设置为实际语句对象的查询超时时间, 等待执行结果的时间同样不超过剩余时间.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ExecutionDeadline {
+    
+    /**
+     * 无截止时间.
+     */
+    public static final ExecutionDeadline NONE = new ExecutionDeadline(false, 0L);
+    
+    @Getter
+    private final boolean present;
+    
+    private final long deadlineNanos;
+    
+    /**
+     * 根据查询超时时间创建执行截止时间.
+     * 
+     * @param queryTimeoutSeconds 查询超时秒数, 小于等于0表示不限制
+     * @return 执行截止时间
+     */
+    public static ExecutionDeadline fromQueryTimeout(final int queryTimeoutSeconds) {
+        return queryTimeoutSeconds > 0 ? new ExecutionDeadline(true, System.nanoTime() + TimeUnit.SECONDS.toNanos(queryTimeoutSeconds)) : NONE;
+    }
+    
+    /**
+     * 获取剩余纳秒数.
+     * 
+     * @return 剩余纳秒数, 已过期时为0
+     */
+    public long getRemainingNanos() {
+        return Math.max(0L, deadlineNanos - System.nanoTime());
+    }
+    
+    /**
+     * 判断是否已过截止时间.
+     * 
+     * @return 是否已过截止时间
+     */
+    public boolean isExpired() {
+        return present && 0L == getRemainingNanos();
+    }
+    
+    /**
+     * 获取下发至实际语句对象的查询超时秒数.
+     * 
+     * <p>
+     * JDBC的查询超时以秒为单位且0表示不限制, 因此剩余时间向上取整且至少为1秒, 亚秒级精度由执行引擎保证.
+     * </p>
+     * 
+     * @return 查询超时秒数
+     */
+    public int getRemainingQueryTimeout() {
+        long remainingNanos = getRemainingNanos();
+        long seconds = TimeUnit.NANOSECONDS.toSeconds(remainingNanos + TimeUnit.SECONDS.toNanos(1L) - 1L);
+        return (int) Math.max(1L, seconds);
+    }
+}
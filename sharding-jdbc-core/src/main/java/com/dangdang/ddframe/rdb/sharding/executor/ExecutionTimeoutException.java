@@ -0,0 +1,48 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.executor;
+
+import com.dangdang.ddframe.rdb.sharding.exception.ShardingJdbcException;
+import lombok.Getter;
+
+import java.util.Collection;
+
+/**
+ * 执行超时异常.
+ * 
+ * <p>
+ * 分片执行未能在截止时间前完成时抛出, 未完成的执行单元已被取消.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public final class ExecutionTimeoutException extends ShardingJdbcException {
+    
+    private static final long serialVersionUID = 4628712532106571534L;
+    
+    /**
+     * 未能在截止时间前完成的数据源名称.
+     */
+    @Getter
+    private final Collection<String> dataSourceNames;
+    
+    public ExecutionTimeoutException(final Collection<String> dataSourceNames) {
+        super("Execution deadline exceeded, data sources %s did not finish in time.", dataSourceNames);
+        this.dataSourceNames = dataSourceNames;
+    }
+}
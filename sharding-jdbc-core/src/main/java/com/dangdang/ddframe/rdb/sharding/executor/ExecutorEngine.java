@@ -31,25 +31,41 @@ import com.dangdang.ddframe.rdb.sharding.executor.type.statement.StatementUnit;
 import com.dangdang.ddframe.rdb.sharding.util.EventBusInstance;
 import com.google.common.base.Optional;
 import com.google.common.collect.Lists;
+import com.google.common.collect.MapMaker;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * SQL执行引擎.
@@ -70,17 +86,83 @@ import java.util.concurrent.TimeUnit;
 @Slf4j
 public final class ExecutorEngine implements AutoCloseable {
     
+    /**
+     * 同一连接上的执行单元需互斥执行. 使用显式锁而非synchronized, 避免虚拟线程阻塞在JDBC I/O上时占住载体线程.
+     */
+    private static final ConcurrentMap<Connection, Lock> CONNECTION_LOCKS = new MapMaker().weakKeys().makeMap();
+    
     private final ListeningExecutorService executorService;
     
+    @Getter
+    private final ExecutorMode executorMode;
+    
+    private final int maxConcurrencyPerDataSource;
+    
+    private final ExecutorRejectedPolicy rejectedPolicy;
+    
+    private final ConcurrentMap<String, DataSourceBulkhead> bulkheads = new ConcurrentHashMap<>();
+    
+    /**
+     * 线程池可容纳(执行中及排队)的执行单元数量, 提交前一次性预留, 执行完毕后归还. 不限制队列长度时为null.
+     */
+    private final Semaphore executorPermits;
+    
     public ExecutorEngine(final int executorSize) {
-        executorService = MoreExecutors.listeningDecorator(new ThreadPoolExecutor(
-                executorSize, executorSize, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(),
-                //#setNameFormat() 并发编程时，一定要对线程名字做下定义，这样排查问题会方便很多
-                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("ShardingJDBC-%d").build()));
+        this(executorSize, ExecutorMode.PLATFORM);
+    }
+    
+    public ExecutorEngine(final int executorSize, final ExecutorMode executorMode) {
+        this(executorSize, executorMode, 0, 0, ExecutorRejectedPolicy.ABORT);
+    }
+    
+    /**
+     * 构造SQL执行引擎.
+     * 
+     * @param executorSize 工作线程数量
+     * @param executorMode 工作线程模式
+     * @param queueSize 线程池队列长度, 小于等于0表示不限制, VIRTUAL模式下无队列
+     * @param maxConcurrencyPerDataSource 单个数据源同时进入线程池的执行单元数量上限, 小于等于0表示不限制
+     * @param rejectedPolicy 执行单元无法进入线程池时的拒绝策略
+     */
+    public ExecutorEngine(final int executorSize, final ExecutorMode executorMode, final int queueSize, final int maxConcurrencyPerDataSource, final ExecutorRejectedPolicy rejectedPolicy) {
+        this.maxConcurrencyPerDataSource = maxConcurrencyPerDataSource;
+        this.rejectedPolicy = rejectedPolicy;
+        Optional<ExecutorService> virtualExecutorService = ExecutorMode.VIRTUAL == executorMode ? createVirtualExecutorService() : Optional.<ExecutorService>absent();
+        if (virtualExecutorService.isPresent()) {
+            executorService = MoreExecutors.listeningDecorator(virtualExecutorService.get());
+            this.executorMode = ExecutorMode.VIRTUAL;
+            executorPermits = null;
+        } else {
+            executorService = MoreExecutors.listeningDecorator(new ThreadPoolExecutor(
+                    executorSize, executorSize, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(),
+                    //#setNameFormat() 并发编程时，一定要对线程名字做下定义，这样排查问题会方便很多
+                    new ThreadFactoryBuilder().setDaemon(true).setNameFormat("ShardingJDBC-%d").build(), 
+                    ExecutorRejectedPolicy.CALLER_RUNS == rejectedPolicy ? new ThreadPoolExecutor.CallerRunsPolicy() : new ThreadPoolExecutor.AbortPolicy()));
+            this.executorMode = ExecutorMode.PLATFORM;
+            executorPermits = queueSize > 0 ? new Semaphore(executorSize + queueSize) : null;
+        }
         //，应用关闭时，等待所有任务全部完成再关闭。默认配置等待时间为 60 秒，建议将等待时间做成可配的。
         MoreExecutors.addDelayedShutdownHook(executorService, 60, TimeUnit.SECONDS); // TODO 疑问：会执行到么？数据
     }
     
+    /**
+     * 通过反射创建虚拟线程执行器, 以便在Java 7/8上编译和运行.
+     * 
+     * @return 虚拟线程执行器, JVM不支持虚拟线程时为空
+     */
+    private static Optional<ExecutorService> createVirtualExecutorService() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return Optional.of((ExecutorService) method.invoke(null));
+        } catch (final NoSuchMethodException ex) {
+            log.warn("Virtual threads are not supported by current JVM, fall back to executor mode PLATFORM.");
+            return Optional.absent();
+        } catch (final IllegalAccessException | InvocationTargetException ex) {
+            log.warn("Can not create virtual thread executor, fall back to executor mode PLATFORM.", ex);
+            return Optional.absent();
+        }
+    }
+    
     /**
      * 执行Statement.
      *
@@ -91,7 +173,23 @@ public final class ExecutorEngine implements AutoCloseable {
      * @return 执行结果
      */
     public <T> List<T> executeStatement(final SQLType sqlType, final Collection<StatementUnit> statementUnits, final ExecuteCallback<T> executeCallback) {
-        return execute(sqlType, statementUnits, Collections.<List<Object>>emptyList(), executeCallback);
+        return execute(sqlType, statementUnits, Collections.<List<Object>>emptyList(), executeCallback, Optional.<ExecuteTerminationCondition<T>>absent(), ExecutionDeadline.NONE);
+    }
+    
+    /**
+     * 在截止时间内执行Statement, 满足提前终止条件时取消其余未完成的执行单元.
+     *
+     * @param sqlType SQL类型
+     * @param statementUnits 语句对象执行单元集合
+     * @param executeCallback 执行回调函数
+     * @param terminationCondition 提前终止条件
+     * @param executionDeadline 执行截止时间
+     * @param <T> 返回值类型
+     * @return 未被取消的执行单元的执行结果
+     */
+    public <T> List<T> executeStatement(final SQLType sqlType, final Collection<StatementUnit> statementUnits, final ExecuteCallback<T> executeCallback, 
+                                        final Optional<ExecuteTerminationCondition<T>> terminationCondition, final ExecutionDeadline executionDeadline) {
+        return execute(sqlType, statementUnits, Collections.<List<Object>>emptyList(), executeCallback, terminationCondition, executionDeadline);
     }
     
     /**
@@ -109,7 +207,25 @@ public final class ExecutorEngine implements AutoCloseable {
         /**
          *     // preparedStatementUnits就是前面路由分析结果：执行SQL select o.* from t_order o where o.user_id=10时，只需在ds_jdbc_0这个数据源中的t_order_0和t_order_1两个实际表中执行即可；
          */
-        return execute(sqlType, preparedStatementUnits, Collections.singletonList(parameters), executeCallback);
+        return execute(sqlType, preparedStatementUnits, Collections.singletonList(parameters), executeCallback, Optional.<ExecuteTerminationCondition<T>>absent(), ExecutionDeadline.NONE);
+    }
+    
+    /**
+     * 在截止时间内执行PreparedStatement, 满足提前终止条件时取消其余未完成的执行单元.
+     *
+     * @param sqlType SQL类型
+     * @param preparedStatementUnits 语句对象执行单元集合
+     * @param parameters 参数列表
+     * @param executeCallback 执行回调函数
+     * @param terminationCondition 提前终止条件
+     * @param executionDeadline 执行截止时间
+     * @param <T> 返回值类型
+     * @return 未被取消的执行单元的执行结果
+     */
+    public <T> List<T> executePreparedStatement(final SQLType sqlType, final Collection<PreparedStatementUnit> preparedStatementUnits, final List<Object> parameters, 
+                                                final ExecuteCallback<T> executeCallback, final Optional<ExecuteTerminationCondition<T>> terminationCondition, 
+                                                final ExecutionDeadline executionDeadline) {
+        return execute(sqlType, preparedStatementUnits, Collections.singletonList(parameters), executeCallback, terminationCondition, executionDeadline);
     }
     
     /**
@@ -123,92 +239,325 @@ public final class ExecutorEngine implements AutoCloseable {
      */
     public List<int[]> executeBatch(
             final SQLType sqlType, final Collection<BatchPreparedStatementUnit> batchPreparedStatementUnits, final List<List<Object>> parameterSets, final ExecuteCallback<int[]> executeCallback) {
-        return execute(sqlType, batchPreparedStatementUnits, parameterSets, executeCallback);
+        return executeBatch(sqlType, batchPreparedStatementUnits, parameterSets, executeCallback, ExecutionDeadline.NONE);
+    }
+    
+    /**
+     * 在截止时间内执行Batch.
+     *
+     * @param sqlType SQL类型
+     * @param batchPreparedStatementUnits 语句对象执行单元集合
+     * @param parameterSets 参数列表集
+     * @param executeCallback 执行回调函数
+     * @param executionDeadline 执行截止时间
+     * @return 执行结果
+     */
+    public List<int[]> executeBatch(final SQLType sqlType, final Collection<BatchPreparedStatementUnit> batchPreparedStatementUnits, final List<List<Object>> parameterSets, 
+                                    final ExecuteCallback<int[]> executeCallback, final ExecutionDeadline executionDeadline) {
+        return execute(sqlType, batchPreparedStatementUnits, parameterSets, executeCallback, Optional.<ExecuteTerminationCondition<int[]>>absent(), executionDeadline);
+    }
+
+    /**
+     * 并行执行任务并等待全部完成.
+     *
+     * <p>
+     * 用于不需要数据库连接的任务, 例如数据源启动时的SQL预热.
+     * </p>
+     *
+     * @param tasks 任务集合
+     * @param <T> 返回值类型
+     * @return 执行结果, 与任务顺序一致
+     */
+    public <T> List<T> execute(final Collection<? extends Callable<T>> tasks) {
+        try {
+            return submit(tasks).get();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ShardingJdbcException(ex);
+        } catch (final ExecutionException ex) {
+            throw new ShardingJdbcException(ex);
+        }
+    }
+    
+    /**
+     * 并行提交任务, 不等待任务完成.
+     *
+     * @param tasks 任务集合
+     * @param <T> 返回值类型
+     * @return 全部任务的执行结果, 与任务顺序一致
+     */
+    public <T> ListenableFuture<List<T>> submit(final Collection<? extends Callable<T>> tasks) {
+        List<ListenableFuture<T>> futures = new ArrayList<>(tasks.size());
+        for (Callable<T> each : tasks) {
+            futures.add(executorService.submit(each));
+        }
+        return Futures.allAsList(futures);
     }
 
     /**
      * 执行
      *
+     * <p>
+     * 任一执行单元失败或满足提前终止条件时, 取消其余未完成的执行单元, 不再等待其完成.
+     * 设置了截止时间时, 等待结果的时间不超过剩余时间, 到期后取消未完成的执行单元并抛出{@link ExecutionTimeoutException};
+     * 不抛出异常时仅记录超时, 返回已成功完成的执行单元的结果.
+     * </p>
+     *
      * @param sqlType SQL 类型
      * @param baseStatementUnits 语句对象执行单元集合
      * @param parameterSets 参数列表集
      * @param executeCallback 执行回调函数
+     * @param terminationCondition 提前终止条件
+     * @param executionDeadline 执行截止时间
      * @param <T> 返回值类型
      * @return 执行结果
      */
-    private  <T> List<T> execute(
-            final SQLType sqlType, final Collection<? extends BaseStatementUnit> baseStatementUnits, final List<List<Object>> parameterSets, final ExecuteCallback<T> executeCallback) {
+    private  <T> List<T> execute(final SQLType sqlType, final Collection<? extends BaseStatementUnit> baseStatementUnits, final List<List<Object>> parameterSets, 
+                                 final ExecuteCallback<T> executeCallback, final Optional<ExecuteTerminationCondition<T>> terminationCondition, final ExecutionDeadline executionDeadline) {
         if (baseStatementUnits.isEmpty()) {
             return Collections.emptyList();
         }
-        Iterator<? extends BaseStatementUnit> iterator = baseStatementUnits.iterator();
+        List<BaseStatementUnit> inputs = Lists.<BaseStatementUnit>newArrayList(baseStatementUnits);
+        CancellableExecutionGroup<T> executionGroup = new CancellableExecutionGroup<>(inputs, terminationCondition);
         //第一个任务分离出来
-        BaseStatementUnit firstInput = iterator.next();
-        // 第二个任务开始所有 SQL任务 提交线程池【异步】执行任务
-        ListenableFuture<List<T>> restFutures = asyncExecute(sqlType, Lists.newArrayList(iterator), parameterSets, executeCallback);
-        T firstOutput;
-        List<T> restOutputs;
+        BaseStatementUnit firstInput = inputs.get(0);
+        List<BaseStatementUnit> restInputs = inputs.subList(1, inputs.size());
+        // 第二个任务开始所有 SQL任务 提交线程池【异步】执行任务, 未能进入线程池的任务为null, 由调用线程执行
+        List<ListenableFuture<T>> restFutures = asyncExecute(sqlType, restInputs, parameterSets, executeCallback, executionGroup, executionDeadline);
+        List<T> outputs = new ArrayList<>(inputs.size());
         try {
             /**
              *  第一个任务【同步】执行任务 [猜测是不是考虑到分库分表后只需路由到一个数据源中的一个表的SQL执行性能问题，优化这种SQL执行为同步执行？
              *  分库分表后，面向用户的API占用了99%的请求量，而这些API对应的SQL 99%只需要在一个数据源上的一个实际表执行即可，例如根据订单表根据user_id分库分表后，查询用户的订单信息这种场景]
              */
-            firstOutput = syncExecute(sqlType, firstInput, parameterSets, executeCallback);
+            outputs.add(syncExecute(sqlType, 0, firstInput, parameterSets, executeCallback, executionGroup, executionDeadline));
+            for (int i = 0; i < restFutures.size(); i++) {
+                if (null == restFutures.get(i)) {
+                    restFutures.set(i, Futures.immediateFuture(syncExecute(sqlType, i + 1, restInputs.get(i), parameterSets, executeCallback, executionGroup, executionDeadline)));
+                }
+            }
             // 等待第二个任务开始所有 SQL任务完成
             /**
-             * 我们注意下 Futures.allAsList(result); 和 restOutputs = restFutures.get();
-             * 神器 Guava 简化并发编程 的好处就提现出来了。
-             * ListenableFuture#get() 当所有任务都成功时，返回所有任务执行结果；
-             * 当任何一个任务失败时，马上抛出异常，无需等待其他任务执行完成。
+             * 任一任务失败或满足提前终止条件时, 未完成的任务均已被取消, successfulAsList 立即返回, 无需等待被取消的任务执行完成.
              */
-            restOutputs = restFutures.get();
+            ListenableFuture<List<T>> restOutputs = Futures.successfulAsList(restFutures);
+            outputs.addAll(executionDeadline.isPresent() ? restOutputs.get(executionDeadline.getRemainingNanos(), TimeUnit.NANOSECONDS) : restOutputs.get());
+            Optional<Exception> failure = executionGroup.getFailure();
+            if (failure.isPresent()) {
+                throw failure.get();
+            }
             //CHECKSTYLE:OFF
         } catch (final Exception ex) {
             //CHECKSTYLE:ON
+            if (executionDeadline.isExpired()) {
+                ExecutionTimeoutException timeoutException = createTimeoutException(executionGroup, ex);
+                if (ExecutorExceptionHandler.isExceptionThrown()) {
+                    throw timeoutException;
+                }
+                // 不抛出异常时仅记录超时, 返回已成功完成的执行单元的结果
+                ExecutorExceptionHandler.handleException(timeoutException);
+                return executionGroup.getSucceededResults();
+            }
+            executionGroup.cancelAll();
             ExecutorExceptionHandler.handleException(ex);
             return null;
         }
-        // 返回结果
-        List<T> result = Lists.newLinkedList(restOutputs);
-        //将第一个任务同步执行结果与其他任务异步执行结果合并就是最终的结果
-        result.add(0, firstOutput);
+        //将第一个任务同步执行结果与其他任务异步执行结果合并就是最终的结果, 被取消的任务不返回结果
+        return executionGroup.filterCancelled(outputs);
+    }
+    
+    private ExecutionTimeoutException createTimeoutException(final CancellableExecutionGroup<?> executionGroup, final Exception cause) {
+        ExecutionTimeoutException result = new ExecutionTimeoutException(executionGroup.expire());
+        if (!(cause instanceof TimeoutException)) {
+            result.initCause(cause);
+        }
         return result;
     }
-
-    private <T> ListenableFuture<List<T>> asyncExecute(
-            final SQLType sqlType, final Collection<BaseStatementUnit> baseStatementUnits, final List<List<Object>> parameterSets, final ExecuteCallback<T> executeCallback) {
+    
+    private <T> List<ListenableFuture<T>> asyncExecute(final SQLType sqlType, final List<BaseStatementUnit> baseStatementUnits, final List<List<Object>> parameterSets, 
+                                                       final ExecuteCallback<T> executeCallback, final CancellableExecutionGroup<T> executionGroup, final ExecutionDeadline executionDeadline) {
+        List<DataSourceBulkhead> admittedBulkheads = admit(baseStatementUnits);
         List<ListenableFuture<T>> result = new ArrayList<>(baseStatementUnits.size());
         final boolean isExceptionThrown = ExecutorExceptionHandler.isExceptionThrown();
         final Map<String, Object> dataMap = ExecutorDataMap.getDataMap();
-        for (final BaseStatementUnit each : baseStatementUnits) {
-            // 提交线程池【异步】执行任务
-            result.add(executorService.submit(new Callable<T>() {
-
+        for (int i = 0; i < baseStatementUnits.size(); i++) {
+            final int index = i + 1;
+            final BaseStatementUnit each = baseStatementUnits.get(i);
+            final DataSourceBulkhead bulkhead = admittedBulkheads.get(i);
+            if (null == bulkhead) {
+                result.add(null);
+                continue;
+            }
+            final AtomicBoolean started = new AtomicBoolean();
+            final ListenableFuture<T> future;
+            try {
+                // 提交线程池【异步】执行任务
+                future = executorService.submit(new Callable<T>() {
+                    
+                    @Override
+                    public T call() throws Exception {
+                        if (!started.compareAndSet(false, true)) {
+                            return null;
+                        }
+                        bulkhead.start();
+                        try {
+                            return executeInternal(sqlType, index, each, parameterSets, executeCallback, isExceptionThrown, dataMap, executionGroup, executionDeadline);
+                        } finally {
+                            executionGroup.releaseIfCancelled(index);
+                            bulkhead.finish();
+                            releaseExecutorPermit();
+                        }
+                    }
+                });
+            } catch (final RejectedExecutionException ex) {
+                // 已预留线程池容量, 仅在线程池关闭时被拒绝. 之前的执行单元已提交, 由调用线程执行该单元, 避免只执行部分单元
+                log.warn("Executor rejected SQL execution on data source '{}', execute it in caller thread.", bulkhead.getDataSourceName());
+                bulkhead.release();
+                releaseExecutorPermit();
+                result.add(null);
+                continue;
+            }
+            // 任务开始执行前被取消时归还许可
+            future.addListener(new Runnable() {
+                
                 @Override
-                public T call() throws Exception {
-                    return executeInternal(sqlType, each, parameterSets, executeCallback, isExceptionThrown, dataMap);
+                public void run() {
+                    if (future.isCancelled() && started.compareAndSet(false, true)) {
+                        bulkhead.release();
+                        releaseExecutorPermit();
+                    }
                 }
-            }));
+            }, MoreExecutors.directExecutor());
+            executionGroup.register(index, future);
+            result.add(future);
         }
-        // 返回 ListenableFuture
-        return Futures.allAsList(result);
+        return result;
     }
-
-    private <T> T syncExecute(final SQLType sqlType, final BaseStatementUnit baseStatementUnit, final List<List<Object>> parameterSets, final ExecuteCallback<T> executeCallback) throws Exception {
+    
+    /**
+     * 为执行单元申请进入线程池的许可.
+     * 
+     * <p>
+     * ABORT策略下任一数据源并发数或线程池容量达到上限时归还已申请的许可并快速失败, 保证不会只执行部分单元;
+     * CALLER_RUNS策略下未申请到许可的执行单元由调用线程执行.
+     * </p>
+     * 
+     * @param baseStatementUnits 语句对象执行单元集合
+     * @return 与执行单元一一对应的数据源隔离舱, 未申请到许可的位置为null
+     */
+    private List<DataSourceBulkhead> admit(final List<BaseStatementUnit> baseStatementUnits) {
+        List<DataSourceBulkhead> result = new ArrayList<>(baseStatementUnits.size());
+        for (BaseStatementUnit each : baseStatementUnits) {
+            DataSourceBulkhead bulkhead = getBulkhead(each.getSqlExecutionUnit().getDataSource());
+            if (bulkhead.tryAcquire()) {
+                result.add(bulkhead);
+                continue;
+            }
+            if (ExecutorRejectedPolicy.CALLER_RUNS == rejectedPolicy) {
+                result.add(null);
+                continue;
+            }
+            for (DataSourceBulkhead admitted : result) {
+                admitted.release();
+            }
+            throw new ShardingJdbcException("Too many concurrent executions on data source '%s', max concurrency is %s.", bulkhead.getDataSourceName(), bulkhead.getMaxConcurrency());
+        }
+        reserveExecutorPermits(result);
+        return result;
+    }
+    
+    private void reserveExecutorPermits(final List<DataSourceBulkhead> admittedBulkheads) {
+        if (null == executorPermits) {
+            return;
+        }
+        if (ExecutorRejectedPolicy.CALLER_RUNS == rejectedPolicy) {
+            for (int i = 0; i < admittedBulkheads.size(); i++) {
+                if (null != admittedBulkheads.get(i) && !executorPermits.tryAcquire()) {
+                    admittedBulkheads.get(i).release();
+                    admittedBulkheads.set(i, null);
+                }
+            }
+            return;
+        }
+        int count = 0;
+        for (DataSourceBulkhead each : admittedBulkheads) {
+            if (null != each) {
+                count++;
+            }
+        }
+        if (!executorPermits.tryAcquire(count)) {
+            for (DataSourceBulkhead each : admittedBulkheads) {
+                each.release();
+            }
+            throw new ShardingJdbcException("Executor queue is full, reject %s SQL executions.", count);
+        }
+    }
+    
+    private void releaseExecutorPermit() {
+        if (null != executorPermits) {
+            executorPermits.release();
+        }
+    }
+    
+    private DataSourceBulkhead getBulkhead(final String dataSourceName) {
+        DataSourceBulkhead result = bulkheads.get(dataSourceName);
+        if (null != result) {
+            return result;
+        }
+        DataSourceBulkhead bulkhead = new DataSourceBulkhead(dataSourceName, maxConcurrencyPerDataSource);
+        result = bulkheads.putIfAbsent(dataSourceName, bulkhead);
+        return null == result ? bulkhead : result;
+    }
+    
+    /**
+     * 获取各数据源的隔离舱统计, 包括排队数量, 执行数量和拒绝次数.
+     * 
+     * @return 以数据源名称为键的隔离舱
+     */
+    public Map<String, DataSourceBulkhead> getBulkheads() {
+        return Collections.unmodifiableMap(bulkheads);
+    }
+    
+    private <T> T syncExecute(final SQLType sqlType, final int index, final BaseStatementUnit baseStatementUnit, final List<List<Object>> parameterSets, 
+                              final ExecuteCallback<T> executeCallback, final CancellableExecutionGroup<T> executionGroup, final ExecutionDeadline executionDeadline) throws Exception {
         // 【同步】执行任务
-        return executeInternal(sqlType, baseStatementUnit, parameterSets, executeCallback, ExecutorExceptionHandler.isExceptionThrown(), ExecutorDataMap.getDataMap());
+        try {
+            return executeInternal(sqlType, index, baseStatementUnit, parameterSets, executeCallback, ExecutorExceptionHandler.isExceptionThrown(), ExecutorDataMap.getDataMap(), executionGroup, executionDeadline);
+            //CHECKSTYLE:OFF
+        } catch (final Exception ex) {
+            //CHECKSTYLE:ON
+            // 被其他执行单元取消导致的异常无需处理
+            if (executionGroup.isCancelled(index)) {
+                return null;
+            }
+            executionGroup.fail(index, ex);
+            throw ex;
+        } finally {
+            executionGroup.releaseIfCancelled(index);
+        }
     }
     
-    private <T> T executeInternal(final SQLType sqlType, final BaseStatementUnit baseStatementUnit, final List<List<Object>> parameterSets, final ExecuteCallback<T> executeCallback, 
-                          final boolean isExceptionThrown, final Map<String, Object> dataMap) throws Exception {
+    private <T> T executeInternal(final SQLType sqlType, final int index, final BaseStatementUnit baseStatementUnit, final List<List<Object>> parameterSets, final ExecuteCallback<T> executeCallback, 
+                                  final boolean isExceptionThrown, final Map<String, Object> dataMap, final CancellableExecutionGroup<T> executionGroup, 
+                                  final ExecutionDeadline executionDeadline) throws Exception {
         /**
          * ：MySQL、Oracle 的 Connection 实现是线程安全的。
          * 数据库连接池实现的 Connection 不一定是线程安全，例如 Druid 的线程池 Connection 非线程安全
          */
-        synchronized (baseStatementUnit.getStatement().getConnection()) { // 可能拿到相同的 Connection，同步避免冲突
-
-//            System.out.println(baseStatementUnit.getStatement().getConnection() + "\t" + baseStatementUnit.getSqlExecutionUnit().getSql());
-
+        Lock lock = getConnectionLock(baseStatementUnit.getStatement().getConnection()); // 可能拿到相同的 Connection，同步避免冲突
+        lock(lock, baseStatementUnit, executionDeadline);
+        try {
+            // 等待连接期间已被取消的执行单元无需执行
+            if (executionGroup.isCancelled(index)) {
+                return null;
+            }
+            // 将剩余时间下发为实际语句对象的查询超时时间
+            if (executionDeadline.isPresent()) {
+                if (executionDeadline.isExpired()) {
+                    throw new SQLTimeoutException(String.format("Execution deadline exceeded before executing on data source '%s'.", baseStatementUnit.getSqlExecutionUnit().getDataSource()));
+                }
+                baseStatementUnit.getStatement().setQueryTimeout(executionDeadline.getRemainingQueryTimeout());
+            }
             T result;
             ExecutorExceptionHandler.setExceptionThrown(isExceptionThrown);
             ExecutorDataMap.setDataMap(dataMap);
@@ -229,12 +578,33 @@ public final class ExecutorEngine implements AutoCloseable {
                 // 执行回调函数 StatementExecutor，PreparedStatementExecutor，BatchPreparedStatementExecutor 通过传递执行回调函数( ExecuteCallback )实现给 ExecutorEngine 实现并行执行。
                 result = executeCallback.execute(baseStatementUnit);
             } catch (final SQLException ex) {
+                // 被取消的执行单元抛出的异常不视为执行失败, 但仍需发布 EXECUTE_FAILURE 与 BEFORE_EXECUTE 配对
+                boolean cancelled = executionGroup.isCancelled(index);
+                // 截止时间已过时驱动抛出的超时异常不论是否抛出异常均按执行超时处理
+                boolean expired = !cancelled && executionDeadline.isExpired();
                 // EventBus 发布 EventExecutionType.EXECUTE_FAILURE
                 for (AbstractExecutionEvent each : events) {
-                    each.setEventExecutionType(EventExecutionType.EXECUTE_FAILURE);
-                    each.setException(Optional.of(ex));
-                    EventBusInstance.getInstance().post(each);
-                    ExecutorExceptionHandler.handleException(ex); // TODO 疑问：如果多个任务，只发一个执行异常么？
+                    postExecuteFailureEvent(each, ex);
+                    if (!cancelled && !expired) {
+                        ExecutorExceptionHandler.handleException(ex); // TODO 疑问：如果多个任务，只发一个执行异常么？
+                    }
+                }
+                if (expired) {
+                    throw ex;
+                }
+                if (!cancelled) {
+                    executionGroup.ignoreFailure(index);
+                }
+                return null;
+                //CHECKSTYLE:OFF
+            } catch (final Exception ex) {
+                //CHECKSTYLE:ON
+                // 被取消的执行单元可能因线程中断抛出非SQL异常
+                if (!executionGroup.isCancelled(index)) {
+                    throw ex;
+                }
+                for (AbstractExecutionEvent each : events) {
+                    postExecuteFailureEvent(each, new SQLException(ex));
                 }
                 return null;
             }
@@ -243,16 +613,45 @@ public final class ExecutorEngine implements AutoCloseable {
                 each.setEventExecutionType(EventExecutionType.EXECUTE_SUCCESS);
                 EventBusInstance.getInstance().post(each);
             }
+            executionGroup.complete(index, result);
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void postExecuteFailureEvent(final AbstractExecutionEvent event, final SQLException ex) {
+        event.setEventExecutionType(EventExecutionType.EXECUTE_FAILURE);
+        event.setException(Optional.of(ex));
+        EventBusInstance.getInstance().post(event);
+    }
+    
+    private void lock(final Lock lock, final BaseStatementUnit baseStatementUnit, final ExecutionDeadline executionDeadline) throws SQLException, InterruptedException {
+        if (!executionDeadline.isPresent()) {
+            lock.lock();
+            return;
+        }
+        if (!lock.tryLock(executionDeadline.getRemainingNanos(), TimeUnit.NANOSECONDS)) {
+            throw new SQLTimeoutException(String.format("Execution deadline exceeded while waiting for connection of data source '%s'.", baseStatementUnit.getSqlExecutionUnit().getDataSource()));
+        }
+    }
+    
+    private Lock getConnectionLock(final Connection connection) {
+        Lock result = CONNECTION_LOCKS.get(connection);
+        if (null != result) {
             return result;
         }
+        Lock lock = new ReentrantLock();
+        result = CONNECTION_LOCKS.putIfAbsent(connection, lock);
+        return null == result ? lock : result;
     }
     
     private AbstractExecutionEvent getExecutionEvent(final SQLType sqlType, final BaseStatementUnit baseStatementUnit, final List<Object> parameters) {
         AbstractExecutionEvent result;
         if (SQLType.DQL == sqlType) {
-            result = new DQLExecutionEvent(baseStatementUnit.getSqlExecutionUnit().getDataSource(), baseStatementUnit.getSqlExecutionUnit().getSql(), parameters);
+            result = new DQLExecutionEvent(baseStatementUnit.getSqlExecutionUnit().getDataSource(), baseStatementUnit.getSqlExecutionUnit().getSql(), baseStatementUnit.getSqlExecutionUnit().getActualParameters(parameters));
         } else {
-            result = new DMLExecutionEvent(baseStatementUnit.getSqlExecutionUnit().getDataSource(), baseStatementUnit.getSqlExecutionUnit().getSql(), parameters);
+            result = new DMLExecutionEvent(baseStatementUnit.getSqlExecutionUnit().getDataSource(), baseStatementUnit.getSqlExecutionUnit().getSql(), baseStatementUnit.getSqlExecutionUnit().getActualParameters(parameters));
         }
         return result;
     }
@@ -0,0 +1,56 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.executor;
+
+/**
+ * SQL执行引擎的线程模式.
+ * 
+ * @author zhangliang
+ */
+public enum ExecutorMode {
+    
+    /**
+     * 固定大小的平台线程池, 线程数量由executor.size决定.
+     */
+    PLATFORM,
+    
+    /**
+     * 每个执行单元使用一个虚拟线程.
+     * 
+     * <p>
+     * 执行单元阻塞在JDBC I/O上时不占用平台线程, 多分片并行执行的总耗时接近最慢分片的耗时.
+     * 当前JVM不支持虚拟线程时退化为PLATFORM.
+     * </p>
+     */
+    VIRTUAL;
+    
+    /**
+     * 根据名称获取线程模式, 忽略大小写.
+     * 
+     * @param name 线程模式名称
+     * @return 线程模式
+     */
+    public static ExecutorMode valueFrom(final String name) {
+        for (ExecutorMode each : ExecutorMode.values()) {
+            if (each.name().equalsIgnoreCase(name.trim())) {
+                return each;
+            }
+        }
+        throw new IllegalArgumentException(String.format("Unsupported executor mode '%s'.", name));
+    }
+}
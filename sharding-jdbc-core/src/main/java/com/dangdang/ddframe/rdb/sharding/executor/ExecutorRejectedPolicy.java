@@ -0,0 +1,55 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.executor;
+
+/**
+ * 执行单元无法进入线程池时的拒绝策略.
+ * 
+ * <p>
+ * 数据源并发数达到上限或线程池队列已满时触发.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public enum ExecutorRejectedPolicy {
+    
+    /**
+     * 快速失败, 抛出异常.
+     */
+    ABORT,
+    
+    /**
+     * 由调用线程执行, 不占用线程池和队列.
+     */
+    CALLER_RUNS;
+    
+    /**
+     * 根据名称获取拒绝策略, 忽略大小写.
+     * 
+     * @param name 拒绝策略名称
+     * @return 拒绝策略
+     */
+    public static ExecutorRejectedPolicy valueFrom(final String name) {
+        for (ExecutorRejectedPolicy each : ExecutorRejectedPolicy.values()) {
+            if (each.name().equalsIgnoreCase(name.trim())) {
+                return each;
+            }
+        }
+        throw new IllegalArgumentException(String.format("Unsupported executor rejected policy '%s'.", name));
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.executor;
+
+import com.dangdang.ddframe.rdb.sharding.jdbc.core.resultset.ShardingResultSet;
+import com.dangdang.ddframe.rdb.sharding.merger.iterator.IteratorMemoryResultSetMerger;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.limit.Limit;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.dql.select.SelectStatement;
+import com.google.common.base.Optional;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 分页查询的提前终止条件.
+ * 
+ * <p>
+ * 无分组, 聚合和排序的分页查询按结果集顺序迭代归并, 已完成执行单元的行数之和达到分页所需行数时最终结果已确定, 其余执行单元可以取消.
+ * 为获取行数, 各执行单元的结果集需加载至内存, 因此仅用于多个执行单元且分页所需行数不超过一万行的查询,
+ * 其他查询仍流式归并.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class LimitTerminationCondition implements ExecuteTerminationCondition<ResultSet> {
+    
+    private static final int MAX_REQUIRED_ROW_COUNT = 10000;
+    
+    private final long requiredRowCount;
+    
+    private final Map<ResultSet, Integer> rowCounts = new ConcurrentHashMap<>();
+    
+    private long completedRowCount;
+    
+    /**
+     * 根据查询语句创建分页查询的提前终止条件.
+     * 
+     * @param selectStatement 查询语句对象
+     * @param executionUnitSize 执行单元数量
+     * @return 分页查询的提前终止条件, 查询语句或执行单元数量不适用时为空
+     */
+    public static Optional<LimitTerminationCondition> create(final SelectStatement selectStatement, final int executionUnitSize) {
+        Limit limit = selectStatement.getLimit();
+        if (executionUnitSize < 2 || null == limit || limit.getRowCountValue() < 0 
+                || !selectStatement.getGroupByItems().isEmpty() || !selectStatement.getAggregationSelectItems().isEmpty() || !selectStatement.getOrderByItems().isEmpty()) {
+            return Optional.absent();
+        }
+        long requiredRowCount = limit.isRowCountRewriteFlag() ? (long) limit.getOffsetValue() + limit.getRowCountValue() : limit.getRowCountValue();
+        return requiredRowCount > MAX_REQUIRED_ROW_COUNT ? Optional.<LimitTerminationCondition>absent() : Optional.of(new LimitTerminationCondition(requiredRowCount));
+    }
+    
+    /**
+     * 将执行单元的结果集加载至内存并记录行数.
+     * 
+     * @param resultSet 执行单元的结果集
+     * @return 加载至内存的结果集
+     * @throws SQLException SQL异常
+     */
+    public ResultSet load(final ResultSet resultSet) throws SQLException {
+        if (null == resultSet) {
+            return null;
+        }
+        IteratorMemoryResultSetMerger resultSetMerger = MemoryResultSetLoader.loadRows(resultSet);
+        ResultSet result = new ShardingResultSet(Collections.singletonList(resultSet), resultSetMerger);
+        rowCounts.put(result, resultSetMerger.getRowCount());
+        return result;
+    }
+    
+    @Override
+    public boolean isSatisfied(final ResultSet result) {
+        Integer rowCount = null == result ? null : rowCounts.remove(result);
+        if (null != rowCount) {
+            completedRowCount += rowCount;
+        }
+        return completedRowCount >= requiredRowCount;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.executor;
+
+import com.dangdang.ddframe.rdb.sharding.jdbc.core.resultset.ShardingResultSet;
+import com.dangdang.ddframe.rdb.sharding.merger.iterator.IteratorMemoryResultSetMerger;
+import com.dangdang.ddframe.rdb.sharding.util.SQLUtil;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 连接限制模式的结果集加载器.
+ * 
+ * <p>
+ * 同一连接上的执行单元串行执行, 需将上一个执行单元的查询结果全部读取至内存, 连接才能执行下一个执行单元.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class MemoryResultSetLoader {
+    
+    /**
+     * 按连接模式加载结果集.
+     * 
+     * @param connectionMode 连接模式
+     * @param resultSet 结果集
+     * @return 连接限制模式下返回加载至内存的结果集, 否则返回原结果集
+     * @throws SQLException SQL异常
+     */
+    public static ResultSet load(final ConnectionMode connectionMode, final ResultSet resultSet) throws SQLException {
+        if (ConnectionMode.CONNECTION_STRICTLY != connectionMode || null == resultSet) {
+            return resultSet;
+        }
+        return new ShardingResultSet(Collections.singletonList(resultSet), loadRows(resultSet));
+    }
+    
+    /**
+     * 将结果集的全部数据行加载至内存.
+     * 
+     * @param resultSet 结果集
+     * @return 基于内存的迭代归并结果集
+     * @throws SQLException SQL异常
+     */
+    public static IteratorMemoryResultSetMerger loadRows(final ResultSet resultSet) throws SQLException {
+        return new IteratorMemoryResultSetMerger(getColumnLabelIndexMap(resultSet), Collections.singletonList(resultSet));
+    }
+    
+    private static Map<String, Integer> getColumnLabelIndexMap(final ResultSet resultSet) throws SQLException {
+        ResultSetMetaData resultSetMetaData = resultSet.getMetaData();
+        Map<String, Integer> result = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (int i = 1; i <= resultSetMetaData.getColumnCount(); i++) {
+            result.put(SQLUtil.getExactlyValue(resultSetMetaData.getColumnLabel(i)), i);
+        }
+        return result;
+    }
+}
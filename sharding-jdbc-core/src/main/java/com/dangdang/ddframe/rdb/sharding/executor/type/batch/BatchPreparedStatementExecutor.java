@@ -21,6 +21,7 @@ import com.codahale.metrics.Timer.Context;
 import com.dangdang.ddframe.rdb.sharding.constant.SQLType;
 import com.dangdang.ddframe.rdb.sharding.executor.BaseStatementUnit;
 import com.dangdang.ddframe.rdb.sharding.executor.ExecuteCallback;
+import com.dangdang.ddframe.rdb.sharding.executor.ExecutionDeadline;
 import com.dangdang.ddframe.rdb.sharding.executor.ExecutorEngine;
 import com.dangdang.ddframe.rdb.sharding.metrics.MetricsContext;
 import lombok.RequiredArgsConstructor;
@@ -45,6 +46,13 @@ public final class BatchPreparedStatementExecutor {
     
     private final List<List<Object>> parameterSets;
     
+    private final ExecutionDeadline executionDeadline;
+    
+    public BatchPreparedStatementExecutor(final ExecutorEngine executorEngine, final SQLType sqlType, 
+                                          final Collection<BatchPreparedStatementUnit> batchPreparedStatementUnits, final List<List<Object>> parameterSets) {
+        this(executorEngine, sqlType, batchPreparedStatementUnits, parameterSets, ExecutionDeadline.NONE);
+    }
+    
     /**
      * 执行批量SQL.
      * 
@@ -59,7 +67,7 @@ public final class BatchPreparedStatementExecutor {
                 public int[] execute(final BaseStatementUnit baseStatementUnit) throws Exception {
                     return baseStatementUnit.getStatement().executeBatch();
                 }
-            }));
+            }, executionDeadline));
         } finally {
             MetricsContext.stop(context);
         }
@@ -21,8 +21,13 @@ import com.codahale.metrics.Timer.Context;
 import com.dangdang.ddframe.rdb.sharding.constant.SQLType;
 import com.dangdang.ddframe.rdb.sharding.executor.BaseStatementUnit;
 import com.dangdang.ddframe.rdb.sharding.executor.ExecuteCallback;
+import com.dangdang.ddframe.rdb.sharding.executor.ExecuteTerminationCondition;
+import com.dangdang.ddframe.rdb.sharding.executor.ExecutionDeadline;
 import com.dangdang.ddframe.rdb.sharding.executor.ExecutorEngine;
+import com.dangdang.ddframe.rdb.sharding.executor.LimitTerminationCondition;
+import com.dangdang.ddframe.rdb.sharding.executor.MemoryResultSetLoader;
 import com.dangdang.ddframe.rdb.sharding.metrics.MetricsContext;
+import com.google.common.base.Optional;
 import lombok.RequiredArgsConstructor;
 
 import java.sql.PreparedStatement;
@@ -47,6 +52,12 @@ public final class PreparedStatementExecutor {
     
     private final List<Object> parameters;
     
+    private final ExecutionDeadline executionDeadline;
+    
+    public PreparedStatementExecutor(final ExecutorEngine executorEngine, final SQLType sqlType, final Collection<PreparedStatementUnit> preparedStatementUnits, final List<Object> parameters) {
+        this(executorEngine, sqlType, preparedStatementUnits, parameters, ExecutionDeadline.NONE);
+    }
+    
     /**
      * 执行SQL查询.
      * 
@@ -60,9 +71,33 @@ public final class PreparedStatementExecutor {
                 
                 @Override
                 public ResultSet execute(final BaseStatementUnit baseStatementUnit) throws Exception {
-                    return ((PreparedStatement) baseStatementUnit.getStatement()).executeQuery();
+                    ResultSet resultSet = ((PreparedStatement) baseStatementUnit.getStatement()).executeQuery();
+                    return MemoryResultSetLoader.load(((PreparedStatementUnit) baseStatementUnit).getConnectionMode(), resultSet);
+                }
+            }, Optional.<ExecuteTerminationCondition<ResultSet>>absent(), executionDeadline);
+        } finally {
+            MetricsContext.stop(context);
+        }
+        return result;
+    }
+    
+    /**
+     * 执行分页查询, 已完成执行单元的行数满足分页所需行数时取消其余执行单元.
+     * 
+     * @param limitTerminationCondition 分页查询的提前终止条件
+     * @return 未被取消的执行单元的结果集列表
+     */
+    public List<ResultSet> executeQuery(final LimitTerminationCondition limitTerminationCondition) {
+        Context context = MetricsContext.start("ShardingPreparedStatement-executeQuery");
+        List<ResultSet> result;
+        try {
+            result = executorEngine.executePreparedStatement(sqlType, preparedStatementUnits, parameters, new ExecuteCallback<ResultSet>() {
+                
+                @Override
+                public ResultSet execute(final BaseStatementUnit baseStatementUnit) throws Exception {
+                    return limitTerminationCondition.load(((PreparedStatement) baseStatementUnit.getStatement()).executeQuery());
                 }
-            });
+            }, Optional.<ExecuteTerminationCondition<ResultSet>>of(limitTerminationCondition), executionDeadline);
         } finally {
             MetricsContext.stop(context);
         }
@@ -83,7 +118,7 @@ public final class PreparedStatementExecutor {
                 public Integer execute(final BaseStatementUnit baseStatementUnit) throws Exception {
                     return ((PreparedStatement) baseStatementUnit.getStatement()).executeUpdate();
                 }
-            });
+            }, Optional.<ExecuteTerminationCondition<Integer>>absent(), executionDeadline);
             return accumulate(results);
         } finally {
             MetricsContext.stop(context);
@@ -112,7 +147,7 @@ public final class PreparedStatementExecutor {
                 public Boolean execute(final BaseStatementUnit baseStatementUnit) throws Exception {
                     return ((PreparedStatement) baseStatementUnit.getStatement()).execute();
                 }
-            });
+            }, Optional.<ExecuteTerminationCondition<Boolean>>absent(), executionDeadline);
             if (null == result || result.isEmpty() || null == result.get(0)) {
                 return false;
             }
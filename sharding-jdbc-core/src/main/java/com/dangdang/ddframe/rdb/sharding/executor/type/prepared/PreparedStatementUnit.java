@@ -18,6 +18,7 @@
 package com.dangdang.ddframe.rdb.sharding.executor.type.prepared;
 
 import com.dangdang.ddframe.rdb.sharding.executor.BaseStatementUnit;
+import com.dangdang.ddframe.rdb.sharding.executor.ConnectionMode;
 import com.dangdang.ddframe.rdb.sharding.routing.SQLExecutionUnit;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -41,4 +42,12 @@ public final class PreparedStatementUnit implements BaseStatementUnit {
      * 预编译语句对象
      */
     private final PreparedStatement statement;
+    /**
+     * 连接模式
+     */
+    private final ConnectionMode connectionMode;
+    
+    public PreparedStatementUnit(final SQLExecutionUnit sqlExecutionUnit, final PreparedStatement statement) {
+        this(sqlExecutionUnit, statement, ConnectionMode.MEMORY_STRICTLY);
+    }
 }
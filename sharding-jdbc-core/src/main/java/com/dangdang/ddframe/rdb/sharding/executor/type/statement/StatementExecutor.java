@@ -21,8 +21,13 @@ import com.codahale.metrics.Timer.Context;
 import com.dangdang.ddframe.rdb.sharding.constant.SQLType;
 import com.dangdang.ddframe.rdb.sharding.executor.BaseStatementUnit;
 import com.dangdang.ddframe.rdb.sharding.executor.ExecuteCallback;
+import com.dangdang.ddframe.rdb.sharding.executor.ExecuteTerminationCondition;
+import com.dangdang.ddframe.rdb.sharding.executor.ExecutionDeadline;
 import com.dangdang.ddframe.rdb.sharding.executor.ExecutorEngine;
+import com.dangdang.ddframe.rdb.sharding.executor.LimitTerminationCondition;
+import com.dangdang.ddframe.rdb.sharding.executor.MemoryResultSetLoader;
 import com.dangdang.ddframe.rdb.sharding.metrics.MetricsContext;
+import com.google.common.base.Optional;
 import lombok.RequiredArgsConstructor;
 
 import java.sql.ResultSet;
@@ -47,6 +52,12 @@ import java.util.List;
     
     private final Collection<StatementUnit> statementUnits;
     
+    private final ExecutionDeadline executionDeadline;
+    
+    public StatementExecutor(final ExecutorEngine executorEngine, final SQLType sqlType, final Collection<StatementUnit> statementUnits) {
+        this(executorEngine, sqlType, statementUnits, ExecutionDeadline.NONE);
+    }
+    
     /**
      * 执行SQL查询.
      * 
@@ -60,9 +71,33 @@ import java.util.List;
                 
                 @Override
                 public ResultSet execute(final BaseStatementUnit baseStatementUnit) throws Exception {
-                    return baseStatementUnit.getStatement().executeQuery(baseStatementUnit.getSqlExecutionUnit().getSql());
+                    ResultSet resultSet = baseStatementUnit.getStatement().executeQuery(baseStatementUnit.getSqlExecutionUnit().getSql());
+                    return MemoryResultSetLoader.load(((StatementUnit) baseStatementUnit).getConnectionMode(), resultSet);
+                }
+            }, Optional.<ExecuteTerminationCondition<ResultSet>>absent(), executionDeadline);
+        } finally {
+            MetricsContext.stop(context);
+        }
+        return result;
+    }
+    
+    /**
+     * 执行分页查询, 已完成执行单元的行数满足分页所需行数时取消其余执行单元.
+     * 
+     * @param limitTerminationCondition 分页查询的提前终止条件
+     * @return 未被取消的执行单元的结果集列表
+     */
+    public List<ResultSet> executeQuery(final LimitTerminationCondition limitTerminationCondition) {
+        Context context = MetricsContext.start("ShardingStatement-executeQuery");
+        List<ResultSet> result;
+        try {
+            result = executorEngine.executeStatement(sqlType, statementUnits, new ExecuteCallback<ResultSet>() {
+                
+                @Override
+                public ResultSet execute(final BaseStatementUnit baseStatementUnit) throws Exception {
+                    return limitTerminationCondition.load(baseStatementUnit.getStatement().executeQuery(baseStatementUnit.getSqlExecutionUnit().getSql()));
                 }
-            });
+            }, Optional.<ExecuteTerminationCondition<ResultSet>>of(limitTerminationCondition), executionDeadline);
         } finally {
             MetricsContext.stop(context);
         }
@@ -123,7 +158,7 @@ import java.util.List;
                 public Integer execute(final BaseStatementUnit baseStatementUnit) throws Exception {
                     return updater.executeUpdate(baseStatementUnit.getStatement(), baseStatementUnit.getSqlExecutionUnit().getSql());
                 }
-            });
+            }, Optional.<ExecuteTerminationCondition<Integer>>absent(), executionDeadline);
             return accumulate(results);
         } finally {
             MetricsContext.stop(context);
@@ -198,7 +233,7 @@ import java.util.List;
                 public Boolean execute(final BaseStatementUnit baseStatementUnit) throws Exception {
                     return executor.execute(baseStatementUnit.getStatement(), baseStatementUnit.getSqlExecutionUnit().getSql());
                 }
-            });
+            }, Optional.<ExecuteTerminationCondition<Boolean>>absent(), executionDeadline);
             if (null == result || result.isEmpty() || null == result.get(0)) {
                 return false;
             }
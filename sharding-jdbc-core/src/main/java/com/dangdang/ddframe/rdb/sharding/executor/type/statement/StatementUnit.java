@@ -18,6 +18,7 @@
 package com.dangdang.ddframe.rdb.sharding.executor.type.statement;
 
 import com.dangdang.ddframe.rdb.sharding.executor.BaseStatementUnit;
+import com.dangdang.ddframe.rdb.sharding.executor.ConnectionMode;
 import com.dangdang.ddframe.rdb.sharding.routing.SQLExecutionUnit;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -36,4 +37,10 @@ public final class StatementUnit implements BaseStatementUnit {
     private final SQLExecutionUnit sqlExecutionUnit;
     
     private final Statement statement;
+    
+    private final ConnectionMode connectionMode;
+    
+    public StatementUnit(final SQLExecutionUnit sqlExecutionUnit, final Statement statement) {
+        this(sqlExecutionUnit, statement, ConnectionMode.MEMORY_STRICTLY);
+    }
 }
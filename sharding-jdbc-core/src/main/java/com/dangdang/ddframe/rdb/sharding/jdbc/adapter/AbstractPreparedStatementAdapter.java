@@ -37,6 +37,7 @@ import java.sql.Time;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
@@ -325,6 +326,10 @@ public abstract class AbstractPreparedStatementAdapter extends AbstractUnsupport
      * @param arguments 参数
      */
     private void recordSetParameter(final String methodName, final Class[] argumentTypes, final Object... arguments) {
+        recordSetParameter(setParameterMethodInvocations, methodName, argumentTypes, arguments);
+    }
+    
+    private void recordSetParameter(final List<SetParameterMethodInvocation> setParameterMethodInvocations, final String methodName, final Class[] argumentTypes, final Object... arguments) {
         try {
             setParameterMethodInvocations.add(new SetParameterMethodInvocation(PreparedStatement.class.getMethod(methodName, argumentTypes), arguments, arguments[1]));
         } catch (final NoSuchMethodException ex) {
@@ -339,6 +344,19 @@ public abstract class AbstractPreparedStatementAdapter extends AbstractUnsupport
             throw new ShardingJdbcException(ex);
         }
     }
+    
+    /**
+     * 获取记录的设置参数方法调用的快照.
+     * 
+     * <p>
+     * 用于批量操作时暂存每一组参数, 待执行时再回放.
+     * </p>
+     * 
+     * @return 设置参数方法调用的快照
+     */
+    protected final List<SetParameterMethodInvocation> getSetParameterMethodInvocationsSnapshot() {
+        return new ArrayList<>(setParameterMethodInvocations);
+    }
 
     /**
      * 回放记录的设置参数方法调用
@@ -346,19 +364,63 @@ public abstract class AbstractPreparedStatementAdapter extends AbstractUnsupport
      * @param preparedStatement 预编译语句对象
      */
     protected void replaySetParameter(final PreparedStatement preparedStatement) {
-        addParameters();
+        replaySetParameter(preparedStatement, parameters, setParameterMethodInvocations);
+    }
+    
+    private void replaySetParameter(final PreparedStatement preparedStatement, final List<Object> parameters, final List<SetParameterMethodInvocation> setParameterMethodInvocations) {
+        addParameters(parameters, setParameterMethodInvocations);
         for (SetParameterMethodInvocation each : setParameterMethodInvocations) {
             updateParameterValues(each, parameters.get(each.getIndex() - 1)); // 同一个位置多次设置，值可能不一样，需要更新下
             each.invoke(preparedStatement);
         }
     }
 
+    /**
+     * 回放记录的设置参数方法调用, 并跳过已从SQL中移除的参数.
+     *
+     * @param preparedStatement 预编译语句对象
+     * @param excludedParameterIndexes 已从SQL中移除的参数索引
+     */
+    protected void replaySetParameter(final PreparedStatement preparedStatement, final Collection<Integer> excludedParameterIndexes) {
+        replaySetParameter(preparedStatement, parameters, setParameterMethodInvocations, excludedParameterIndexes);
+    }
+    
+    /**
+     * 回放暂存的设置参数方法调用, 并跳过已从SQL中移除的参数.
+     *
+     * @param preparedStatement 预编译语句对象
+     * @param parameters 暂存的参数
+     * @param setParameterMethodInvocations 暂存的设置参数方法调用
+     * @param excludedParameterIndexes 已从SQL中移除的参数索引
+     */
+    protected final void replaySetParameter(final PreparedStatement preparedStatement, final List<Object> parameters, 
+                                            final List<SetParameterMethodInvocation> setParameterMethodInvocations, final Collection<Integer> excludedParameterIndexes) {
+        if (excludedParameterIndexes.isEmpty()) {
+            replaySetParameter(preparedStatement, parameters, setParameterMethodInvocations);
+            return;
+        }
+        addParameters(parameters, setParameterMethodInvocations);
+        int[] actualParameterIndexes = new int[parameters.size()];
+        int actualParameterIndex = 0;
+        for (int i = 0; i < parameters.size(); i++) {
+            actualParameterIndexes[i] = excludedParameterIndexes.contains(i) ? -1 : ++actualParameterIndex;
+        }
+        for (SetParameterMethodInvocation each : setParameterMethodInvocations) {
+            int index = each.getIndex() - 1;
+            if (index >= actualParameterIndexes.length || -1 == actualParameterIndexes[index]) {
+                continue;
+            }
+            updateParameterValues(each, parameters.get(index));
+            each.invoke(preparedStatement, actualParameterIndexes[index]);
+        }
+    }
+    
     /**
      * 当使用分布式主键时，生成后会添加到 parameters，此时 parameters 数量多于 setParameterMethodInvocations，需要生成该分布式主键的 SetParameterMethodInvocation
      */
-    private void addParameters() {
+    private void addParameters(final List<Object> parameters, final List<SetParameterMethodInvocation> setParameterMethodInvocations) {
         for (int i = setParameterMethodInvocations.size(); i < parameters.size(); i++) {
-            recordSetParameter("setObject", new Class[]{int.class, Object.class}, i + 1, parameters.get(i));
+            recordSetParameter(setParameterMethodInvocations, "setObject", new Class[]{int.class, Object.class}, i + 1, parameters.get(i));
         }
     }
     
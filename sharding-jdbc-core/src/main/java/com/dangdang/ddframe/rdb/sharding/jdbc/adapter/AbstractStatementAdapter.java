@@ -42,6 +42,8 @@ public abstract class AbstractStatementAdapter extends AbstractUnsupportedOperat
     
     private int fetchSize;
     
+    private int queryTimeout;
+    
     @Override
     @SuppressWarnings("unchecked")
     public final void close() throws SQLException {
@@ -199,11 +201,22 @@ public abstract class AbstractStatementAdapter extends AbstractUnsupportedOperat
     
     @Override
     public final int getQueryTimeout() throws SQLException {
-        return getRoutedStatements().isEmpty() ? 0 : getRoutedStatements().iterator().next().getQueryTimeout();
+        return queryTimeout;
     }
     
+    /**
+     * 设置查询超时时间.
+     * 
+     * <p>
+     * 超时时间是一次分片执行的整体时限, 执行时各实际语句对象的查询超时时间为剩余时间.
+     * </p>
+     * 
+     * @param seconds 查询超时秒数, 0表示不限制
+     * @throws SQLException SQL异常
+     */
     @Override
     public final void setQueryTimeout(final int seconds) throws SQLException {
+        queryTimeout = seconds;
         if (getRoutedStatements().isEmpty()) {
             recordMethodInvocation(recordTargetClass, "setQueryTimeout", new Class[] {int.class}, new Object[] {seconds});
             return;
@@ -53,4 +53,16 @@ public final class SetParameterMethodInvocation extends JdbcMethodInvocation {
     public void changeValueArgument(final Object value) {
         getArguments()[1] = value;
     }
+    
+    /**
+     * 以指定的参数位置调用方法.
+     * 
+     * @param target 目标对象
+     * @param parameterIndex 参数位置
+     */
+    public void invoke(final Object target, final int parameterIndex) {
+        Object[] arguments = getArguments().clone();
+        arguments[0] = parameterIndex;
+        new JdbcMethodInvocation(getMethod(), arguments).invoke(target);
+    }
 }
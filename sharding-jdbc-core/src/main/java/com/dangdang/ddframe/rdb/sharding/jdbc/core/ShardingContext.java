@@ -20,6 +20,8 @@ package com.dangdang.ddframe.rdb.sharding.jdbc.core;
 import com.dangdang.ddframe.rdb.sharding.api.rule.ShardingRule;
 import com.dangdang.ddframe.rdb.sharding.constant.DatabaseType;
 import com.dangdang.ddframe.rdb.sharding.executor.ExecutorEngine;
+import com.dangdang.ddframe.rdb.sharding.parsing.cache.SQLParsingCache;
+import com.dangdang.ddframe.rdb.sharding.routing.cache.SQLRouteCache;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
@@ -39,4 +41,15 @@ public final class ShardingContext {
     private final ExecutorEngine executorEngine;
     
     private final boolean showSQL;
+    
+    private final SQLParsingCache sqlParsingCache;
+    
+    private final SQLRouteCache sqlRouteCache;
+    
+    private final int maxConnectionsSizePerQuery;
+    
+    public ShardingContext(final ShardingRule shardingRule, final DatabaseType databaseType, final ExecutorEngine executorEngine, 
+                           final boolean showSQL, final SQLParsingCache sqlParsingCache, final SQLRouteCache sqlRouteCache) {
+        this(shardingRule, databaseType, executorEngine, showSQL, sqlParsingCache, sqlRouteCache, 0);
+    }
 }
@@ -19,6 +19,7 @@ package com.dangdang.ddframe.rdb.sharding.jdbc.core.connection;
 
 import com.codahale.metrics.Timer.Context;
 import com.dangdang.ddframe.rdb.sharding.constant.SQLType;
+import com.dangdang.ddframe.rdb.sharding.executor.ConnectionMode;
 import com.dangdang.ddframe.rdb.sharding.hint.HintManagerHolder;
 import com.dangdang.ddframe.rdb.sharding.jdbc.core.ShardingContext;
 import com.dangdang.ddframe.rdb.sharding.jdbc.adapter.AbstractConnectionAdapter;
@@ -26,9 +27,11 @@ import com.dangdang.ddframe.rdb.sharding.jdbc.core.statement.ShardingPreparedSta
 import com.dangdang.ddframe.rdb.sharding.jdbc.core.statement.ShardingStatement;
 import com.dangdang.ddframe.rdb.sharding.jdbc.core.datasource.MasterSlaveDataSource;
 import com.dangdang.ddframe.rdb.sharding.metrics.MetricsContext;
+import com.dangdang.ddframe.rdb.sharding.routing.SQLExecutionUnit;
 import com.google.common.base.Joiner;
-import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.LinkedListMultimap;
+import com.google.common.collect.ListMultimap;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
@@ -38,10 +41,14 @@ import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 
 /**
  * 支持分片的数据库连接.
@@ -55,7 +62,7 @@ public final class ShardingConnection extends AbstractConnectionAdapter {
     @Getter
     private final ShardingContext shardingContext;
     
-    private final Map<String, Connection> connectionMap = new HashMap<>();
+    private final ListMultimap<String, Connection> connectionMap = LinkedListMultimap.create();
     
     /**
      * 根据数据源名称获取全部数据库连接.
@@ -94,11 +101,61 @@ public final class ShardingConnection extends AbstractConnectionAdapter {
      * @throws SQLException SQL异常
      */
     public Connection getConnection(final String dataSourceName, final SQLType sqlType) throws SQLException {
+        return getConnections(dataSourceName, sqlType, 1).get(0);
+    }
+    
+    /**
+     * 为执行单元分配连接.
+     * 
+     * <p>
+     * 自动提交模式下, 按数据源决定连接模式: 执行单元数量不超过maxConnectionsSizePerQuery时每个执行单元独占一个连接,
+     * 否则使用maxConnectionsSizePerQuery个连接, 执行单元依次轮流分配至各连接.
+     * 非自动提交模式或maxConnectionsSizePerQuery小于1时同一数据源只使用一个连接.
+     * </p>
+     * 
+     * @param sqlType SQL类型
+     * @param executionUnits SQL执行单元集合
+     * @return 与执行单元顺序一致的连接列表
+     * @throws SQLException SQL异常
+     */
+    public List<Connection> getConnections(final SQLType sqlType, final Collection<SQLExecutionUnit> executionUnits) throws SQLException {
+        Map<String, Integer> executionUnitSizes = new LinkedHashMap<>();
+        for (SQLExecutionUnit each : executionUnits) {
+            Integer size = executionUnitSizes.get(each.getDataSource());
+            executionUnitSizes.put(each.getDataSource(), null == size ? 1 : size + 1);
+        }
+        int maxConnectionsSizePerQuery = shardingContext.getMaxConnectionsSizePerQuery();
+        Map<String, List<Connection>> dataSourceConnections = new HashMap<>(executionUnitSizes.size(), 1);
+        for (Entry<String, Integer> entry : executionUnitSizes.entrySet()) {
+            int connectionSize = getAutoCommit() && maxConnectionsSizePerQuery > 0 ? getConnectionSize(maxConnectionsSizePerQuery, entry.getValue()) : 1;
+            dataSourceConnections.put(entry.getKey(), getConnections(entry.getKey(), sqlType, connectionSize));
+        }
+        List<Connection> result = new ArrayList<>(executionUnits.size());
+        Map<String, Integer> assignedSizes = new HashMap<>(executionUnitSizes.size(), 1);
+        for (SQLExecutionUnit each : executionUnits) {
+            Integer assignedSize = assignedSizes.get(each.getDataSource());
+            int index = null == assignedSize ? 0 : assignedSize;
+            List<Connection> connections = dataSourceConnections.get(each.getDataSource());
+            result.add(connections.get(index % connections.size()));
+            assignedSizes.put(each.getDataSource(), index + 1);
+        }
+        return result;
+    }
+    
+    private int getConnectionSize(final int maxConnectionsSizePerQuery, final int executionUnitSize) {
+        return ConnectionMode.CONNECTION_STRICTLY == ConnectionMode.decide(maxConnectionsSizePerQuery, executionUnitSize) ? maxConnectionsSizePerQuery : executionUnitSize;
+    }
+    
+    private List<Connection> getConnections(final String dataSourceName, final SQLType sqlType, final int size) throws SQLException {
         // 从连接缓存中获取连接
-        Optional<Connection> connection = getCachedConnection(dataSourceName, sqlType);
-        if (connection.isPresent()) {
-            return connection.get();
+        List<Connection> result = new ArrayList<>(getCachedConnections(dataSourceName, sqlType));
+        while (result.size() < size) {
+            result.add(createConnection(dataSourceName, sqlType));
         }
+        return result.size() == size ? result : new ArrayList<>(result.subList(0, size));
+    }
+    
+    private Connection createConnection(final String dataSourceName, final SQLType sqlType) throws SQLException {
         Context metricsContext = MetricsContext.start(Joiner.on("-").join("ShardingConnection-getConnection", dataSourceName));
         //
         DataSource dataSource = shardingContext.getShardingRule().getDataSourceRule().getDataSource(dataSourceName);
@@ -119,9 +176,9 @@ public final class ShardingConnection extends AbstractConnectionAdapter {
         return result;
     }
     
-    private Optional<Connection> getCachedConnection(final String dataSourceName, final SQLType sqlType) {
+    private List<Connection> getCachedConnections(final String dataSourceName, final SQLType sqlType) {
         String key = connectionMap.containsKey(dataSourceName) ? dataSourceName : MasterSlaveDataSource.getDataSourceName(dataSourceName, sqlType);
-        return Optional.fromNullable(connectionMap.get(key));
+        return connectionMap.get(key);
     }
     
     /**
@@ -23,15 +23,26 @@ import com.dangdang.ddframe.rdb.sharding.config.ShardingPropertiesConstant;
 import com.dangdang.ddframe.rdb.sharding.constant.DatabaseType;
 import com.dangdang.ddframe.rdb.sharding.exception.ShardingJdbcException;
 import com.dangdang.ddframe.rdb.sharding.executor.ExecutorEngine;
+import com.dangdang.ddframe.rdb.sharding.executor.ExecutorMode;
+import com.dangdang.ddframe.rdb.sharding.executor.ExecutorRejectedPolicy;
 import com.dangdang.ddframe.rdb.sharding.jdbc.adapter.AbstractDataSourceAdapter;
 import com.dangdang.ddframe.rdb.sharding.jdbc.core.ShardingContext;
 import com.dangdang.ddframe.rdb.sharding.jdbc.core.connection.ShardingConnection;
 import com.dangdang.ddframe.rdb.sharding.metrics.MetricsContext;
+import com.dangdang.ddframe.rdb.sharding.parsing.cache.SQLParsingCache;
+import com.dangdang.ddframe.rdb.sharding.routing.SQLWarmUpEngine;
+import com.dangdang.ddframe.rdb.sharding.routing.cache.SQLRouteCache;
+import com.google.common.base.Charsets;
 import com.google.common.base.Preconditions;
+import com.google.common.io.Files;
+import com.google.common.io.Resources;
 
 import javax.sql.DataSource;
+import java.io.File;
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.Properties;
 
 /**
@@ -56,16 +67,49 @@ public class ShardingDataSource extends AbstractDataSourceAdapter implements Aut
         Preconditions.checkNotNull(props);
         shardingProperties = new ShardingProperties(props);
         int executorSize = shardingProperties.getValue(ShardingPropertiesConstant.EXECUTOR_SIZE);
+        ExecutorMode executorMode = ExecutorMode.valueFrom(shardingProperties.<String>getValue(ShardingPropertiesConstant.EXECUTOR_MODE));
+        int executorQueueSize = shardingProperties.getValue(ShardingPropertiesConstant.EXECUTOR_QUEUE_SIZE);
+        int maxConcurrencyPerDataSource = shardingProperties.getValue(ShardingPropertiesConstant.EXECUTOR_MAX_CONCURRENCY_PER_DATASOURCE);
+        ExecutorRejectedPolicy rejectedPolicy = ExecutorRejectedPolicy.valueFrom(shardingProperties.<String>getValue(ShardingPropertiesConstant.EXECUTOR_REJECTED_POLICY));
         /**
          * 一个分片数据源独占一个sql执行引擎
          */
-        executorEngine = new ExecutorEngine(executorSize);
+        executorEngine = new ExecutorEngine(executorSize, executorMode, executorQueueSize, maxConcurrencyPerDataSource, rejectedPolicy);
         boolean showSQL = shardingProperties.getValue(ShardingPropertiesConstant.SQL_SHOW);
+        int parsingCacheSize = shardingProperties.getValue(ShardingPropertiesConstant.PARSING_CACHE_SIZE);
+        int routeCacheSize = shardingProperties.getValue(ShardingPropertiesConstant.ROUTE_CACHE_SIZE);
+        int maxConnectionsSizePerQuery = shardingProperties.getValue(ShardingPropertiesConstant.MAX_CONNECTIONS_SIZE_PER_QUERY);
         try {
-            shardingContext = new ShardingContext(shardingRule, DatabaseType.valueFrom(getDatabaseProductName(shardingRule)), executorEngine, showSQL);
+            shardingContext = new ShardingContext(
+                    shardingRule, DatabaseType.valueFrom(getDatabaseProductName(shardingRule)), executorEngine, showSQL, 
+                    new SQLParsingCache(parsingCacheSize), new SQLRouteCache(routeCacheSize), maxConnectionsSizePerQuery);
         } catch (final SQLException ex) {
             throw new ShardingJdbcException(ex);
         }
+        warmUp();
+    }
+    
+    private void warmUp() {
+        Collection<String> logicSQLs = SQLWarmUpEngine.parseCatalog(shardingProperties.<String>getValue(ShardingPropertiesConstant.WARMUP_SQL));
+        String warmUpSQLFile = shardingProperties.getValue(ShardingPropertiesConstant.WARMUP_SQL_FILE);
+        if (!warmUpSQLFile.isEmpty()) {
+            logicSQLs.addAll(SQLWarmUpEngine.parseCatalog(readWarmUpSQLFile(warmUpSQLFile)));
+        }
+        boolean warmUpAsync = shardingProperties.getValue(ShardingPropertiesConstant.WARMUP_ASYNC);
+        if (warmUpAsync) {
+            new SQLWarmUpEngine(shardingContext).warmUpAsync(logicSQLs);
+        } else {
+            new SQLWarmUpEngine(shardingContext).warmUp(logicSQLs);
+        }
+    }
+    
+    private String readWarmUpSQLFile(final String path) {
+        File file = new File(path);
+        try {
+            return file.isFile() ? Files.toString(file, Charsets.UTF_8) : Resources.toString(Resources.getResource(path), Charsets.UTF_8);
+        } catch (final IOException ex) {
+            throw new ShardingJdbcException(ex);
+        }
     }
     
     private String getDatabaseProductName(final ShardingRule shardingRule) throws SQLException {
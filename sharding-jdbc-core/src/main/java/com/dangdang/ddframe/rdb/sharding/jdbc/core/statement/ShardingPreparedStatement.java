@@ -19,10 +19,14 @@ package com.dangdang.ddframe.rdb.sharding.jdbc.core.statement;
 
 import com.dangdang.ddframe.rdb.sharding.constant.SQLType;
 import com.dangdang.ddframe.rdb.sharding.executor.type.batch.BatchPreparedStatementExecutor;
+import com.dangdang.ddframe.rdb.sharding.executor.ConnectionMode;
+import com.dangdang.ddframe.rdb.sharding.executor.ExecutionDeadline;
+import com.dangdang.ddframe.rdb.sharding.executor.LimitTerminationCondition;
 import com.dangdang.ddframe.rdb.sharding.executor.type.batch.BatchPreparedStatementUnit;
 import com.dangdang.ddframe.rdb.sharding.executor.type.prepared.PreparedStatementExecutor;
 import com.dangdang.ddframe.rdb.sharding.executor.type.prepared.PreparedStatementUnit;
 import com.dangdang.ddframe.rdb.sharding.jdbc.adapter.AbstractPreparedStatementAdapter;
+import com.dangdang.ddframe.rdb.sharding.jdbc.adapter.invocation.SetParameterMethodInvocation;
 import com.dangdang.ddframe.rdb.sharding.jdbc.core.connection.ShardingConnection;
 import com.dangdang.ddframe.rdb.sharding.jdbc.core.resultset.ShardingResultSet;
 import com.dangdang.ddframe.rdb.sharding.merger.MergeEngine;
@@ -31,8 +35,6 @@ import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.dql.select.Sel
 import com.dangdang.ddframe.rdb.sharding.routing.PreparedStatementRoutingEngine;
 import com.dangdang.ddframe.rdb.sharding.routing.SQLExecutionUnit;
 import com.google.common.base.Optional;
-import com.google.common.base.Predicate;
-import com.google.common.collect.Iterators;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -41,9 +43,11 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 
 /**
  * 支持分片的预编译语句对象.
@@ -59,6 +63,8 @@ public final class ShardingPreparedStatement extends AbstractPreparedStatementAd
     
     private final List<List<Object>> parameterSets = new LinkedList<>();
     
+    private final List<List<SetParameterMethodInvocation>> setParameterMethodInvocationSets = new LinkedList<>();
+    
     public ShardingPreparedStatement(final ShardingConnection shardingConnection, final String sql) {
         this(shardingConnection, sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, ResultSet.HOLD_CURSORS_OVER_COMMIT);
     }
@@ -83,11 +89,15 @@ public final class ShardingPreparedStatement extends AbstractPreparedStatementAd
     public ResultSet executeQuery() throws SQLException {
         ResultSet result;
         try {
+            // 截止时间包含路由和获取连接的耗时
+            ExecutionDeadline executionDeadline = ExecutionDeadline.fromQueryTimeout(getQueryTimeout());
             // 解析 + 路由   解析sql如何路由执行
             Collection<PreparedStatementUnit> preparedStatementUnits = route();
             // 执行 根据路由信息执行sql
-            List<ResultSet> resultSets = new PreparedStatementExecutor(
-                    getShardingConnection().getShardingContext().getExecutorEngine(), getRouteResult().getSqlStatement().getType(), preparedStatementUnits, getParameters()).executeQuery();
+            PreparedStatementExecutor preparedStatementExecutor = new PreparedStatementExecutor(
+                    getShardingConnection().getShardingContext().getExecutorEngine(), getRouteResult().getSqlStatement().getType(), preparedStatementUnits, getParameters(), executionDeadline);
+            Optional<LimitTerminationCondition> limitTerminationCondition = LimitTerminationCondition.create((SelectStatement) getRouteResult().getSqlStatement(), preparedStatementUnits.size());
+            List<ResultSet> resultSets = limitTerminationCondition.isPresent() ? preparedStatementExecutor.executeQuery(limitTerminationCondition.get()) : preparedStatementExecutor.executeQuery();
             // 结果归并   对返回的结果进行merge合并
             result = new ShardingResultSet(resultSets, new MergeEngine(
                     getShardingConnection().getShardingContext().getDatabaseType(), resultSets, (SelectStatement) getRouteResult().getSqlStatement()).merge());
@@ -102,9 +112,10 @@ public final class ShardingPreparedStatement extends AbstractPreparedStatementAd
     @Override
     public int executeUpdate() throws SQLException {
         try {
+            ExecutionDeadline executionDeadline = ExecutionDeadline.fromQueryTimeout(getQueryTimeout());
             Collection<PreparedStatementUnit> preparedStatementUnits = route();
             return new PreparedStatementExecutor(
-                    getShardingConnection().getShardingContext().getExecutorEngine(), getRouteResult().getSqlStatement().getType(), preparedStatementUnits, getParameters()).executeUpdate();
+                    getShardingConnection().getShardingContext().getExecutorEngine(), getRouteResult().getSqlStatement().getType(), preparedStatementUnits, getParameters(), executionDeadline).executeUpdate();
         } finally {
             clearBatch();
         }
@@ -113,11 +124,12 @@ public final class ShardingPreparedStatement extends AbstractPreparedStatementAd
     @Override
     public boolean execute() throws SQLException {
         try {
+            ExecutionDeadline executionDeadline = ExecutionDeadline.fromQueryTimeout(getQueryTimeout());
             // 路由
             Collection<PreparedStatementUnit> preparedStatementUnits = route();
             // 执行
             return new PreparedStatementExecutor(
-                    getShardingConnection().getShardingContext().getExecutorEngine(), getRouteResult().getSqlStatement().getType(), preparedStatementUnits, getParameters()).execute();
+                    getShardingConnection().getShardingContext().getExecutorEngine(), getRouteResult().getSqlStatement().getType(), preparedStatementUnits, getParameters(), executionDeadline).execute();
         } finally {
             clearBatch();
         }
@@ -133,21 +145,28 @@ public final class ShardingPreparedStatement extends AbstractPreparedStatementAd
         Collection<PreparedStatementUnit> result = new LinkedList<>();
         // 解析 + 路由  调用PreparedStatementRoutingEngine中的route()方法，route()方法调用sqlRouter.route(logicSQL, parameters, sqlStatement)
         setRouteResult(routingEngine.route(getParameters()));
+        SQLType sqlType = getRouteResult().getSqlStatement().getType();
+        // 按连接模式为执行单元分配连接
+        List<Connection> connections = SQLType.DDL == sqlType ? Collections.<Connection>emptyList() : getShardingConnection().getConnections(sqlType, getRouteResult().getExecutionUnits());
+        Iterator<Connection> connectionIterator = connections.iterator();
+        Iterator<ConnectionMode> connectionModes = ConnectionMode.decide(getShardingConnection().getShardingContext().getMaxConnectionsSizePerQuery(), connections).iterator();
         // 遍历 SQL 执行单元
         for (SQLExecutionUnit each : getRouteResult().getExecutionUnits()) {
-            SQLType sqlType = getRouteResult().getSqlStatement().getType();
             Collection<PreparedStatement> preparedStatements;
+            ConnectionMode connectionMode;
             // 创建实际的 PreparedStatement
             if (SQLType.DDL == sqlType) {
                 preparedStatements = generatePreparedStatementForDDL(each);
+                connectionMode = ConnectionMode.MEMORY_STRICTLY;
             } else {
-                preparedStatements = Collections.singletonList(generatePreparedStatement(each));
+                preparedStatements = Collections.singletonList(generatePreparedStatement(each, connectionIterator.next()));
+                connectionMode = connectionModes.next();
             }
             getRoutedStatements().addAll(preparedStatements);
             // 回放设置占位符参数到 PreparedStatement
             for (PreparedStatement preparedStatement : preparedStatements) {
-                replaySetParameter(preparedStatement);
-                result.add(new PreparedStatementUnit(each, preparedStatement));
+                replaySetParameter(preparedStatement, each.getExcludedParameterIndexes());
+                result.add(new PreparedStatementUnit(each, preparedStatement, connectionMode));
             }
         }
         return result;
@@ -166,13 +185,12 @@ public final class ShardingPreparedStatement extends AbstractPreparedStatementAd
      * 创建 PreparedStatement
      *
      * @param sqlExecutionUnit SQL 执行单元
+     * @param connection 执行单元使用的连接
      * @return PreparedStatement
      * @throws SQLException 当 JDBC 操作发生异常时
      */
-    private PreparedStatement generatePreparedStatement(final SQLExecutionUnit sqlExecutionUnit) throws SQLException {
+    private PreparedStatement generatePreparedStatement(final SQLExecutionUnit sqlExecutionUnit, final Connection connection) throws SQLException {
         Optional<GeneratedKey> generatedKey = getGeneratedKey();
-        // 获得连接
-        Connection connection = getShardingConnection().getConnection(sqlExecutionUnit.getDataSource(), getRouteResult().getSqlStatement().getType());
         // 声明返回主键
         if (isReturnGeneratedKeys() || isReturnGeneratedKeys() && generatedKey.isPresent()) {
             return connection.prepareStatement(sqlExecutionUnit.getSql(), RETURN_GENERATED_KEYS);
@@ -190,16 +208,15 @@ public final class ShardingPreparedStatement extends AbstractPreparedStatementAd
         batchStatementUnits.clear();
         // 清理占位符参数
         parameterSets.clear();
+        setParameterMethodInvocationSets.clear();
     }
     
     @Override
     public void addBatch() throws SQLException {
         try {
-            for (BatchPreparedStatementUnit each : routeBatch()) {
-                each.getStatement().addBatch();
-                each.mapAddBatchCount(parameterSets.size());
-            }
-            parameterSets.add(getParameters());
+            // 仅暂存参数, 路由延迟至 executeBatch 时一次完成
+            parameterSets.add(new ArrayList<>(getParameters()));
+            setParameterMethodInvocationSets.add(getSetParameterMethodInvocationsSnapshot());
         } finally {
             setCurrentResultSet(null);
             clearParameters();
@@ -209,37 +226,38 @@ public final class ShardingPreparedStatement extends AbstractPreparedStatementAd
     @Override
     public int[] executeBatch() throws SQLException {
         try {
+            if (parameterSets.isEmpty()) {
+                return new int[0];
+            }
+            ExecutionDeadline executionDeadline = ExecutionDeadline.fromQueryTimeout(getQueryTimeout());
+            routeBatch();
             return new BatchPreparedStatementExecutor(
-                    getShardingConnection().getShardingContext().getExecutorEngine(), getRouteResult().getSqlStatement().getType(), batchStatementUnits, parameterSets).executeBatch();
+                    getShardingConnection().getShardingContext().getExecutorEngine(), getRouteResult().getSqlStatement().getType(), batchStatementUnits, parameterSets, executionDeadline).executeBatch();
         } finally {
             clearBatch();
         }
     }
     
-    private List<BatchPreparedStatementUnit> routeBatch() throws SQLException {
-        List<BatchPreparedStatementUnit> result = new ArrayList<>();
-        setRouteResult(routingEngine.route(getParameters()));
-        for (SQLExecutionUnit each : getRouteResult().getExecutionUnits()) {
-            BatchPreparedStatementUnit batchStatementUnit = getPreparedBatchStatement(each);
-            replaySetParameter(batchStatementUnit.getStatement());
-            result.add(batchStatementUnit);
-        }
-        return result;
-    }
-    
-    private BatchPreparedStatementUnit getPreparedBatchStatement(final SQLExecutionUnit sqlExecutionUnit) throws SQLException {
-        Optional<BatchPreparedStatementUnit> preparedBatchStatement = Iterators.tryFind(batchStatementUnits.iterator(), new Predicate<BatchPreparedStatementUnit>() {
-            
-            @Override
-            public boolean apply(final BatchPreparedStatementUnit input) {
-                return Objects.equals(input.getSqlExecutionUnit(), sqlExecutionUnit);
+    private void routeBatch() throws SQLException {
+        Map<SQLExecutionUnit, BatchPreparedStatementUnit> batchStatementUnitMap = new HashMap<>();
+        int parameterSetIndex = 0;
+        Iterator<List<SetParameterMethodInvocation>> setParameterMethodInvocationSetIterator = setParameterMethodInvocationSets.iterator();
+        for (List<Object> each : parameterSets) {
+            List<SetParameterMethodInvocation> setParameterMethodInvocations = setParameterMethodInvocationSetIterator.next();
+            setRouteResult(routingEngine.route(each));
+            for (SQLExecutionUnit sqlExecutionUnit : getRouteResult().getExecutionUnits()) {
+                BatchPreparedStatementUnit batchStatementUnit = batchStatementUnitMap.get(sqlExecutionUnit);
+                if (null == batchStatementUnit) {
+                    batchStatementUnit = new BatchPreparedStatementUnit(sqlExecutionUnit, generatePreparedStatement(
+                            sqlExecutionUnit, getShardingConnection().getConnection(sqlExecutionUnit.getDataSource(), getRouteResult().getSqlStatement().getType())));
+                    batchStatementUnitMap.put(sqlExecutionUnit, batchStatementUnit);
+                    batchStatementUnits.add(batchStatementUnit);
+                }
+                replaySetParameter(batchStatementUnit.getStatement(), each, setParameterMethodInvocations, sqlExecutionUnit.getExcludedParameterIndexes());
+                batchStatementUnit.getStatement().addBatch();
+                batchStatementUnit.mapAddBatchCount(parameterSetIndex);
             }
-        });
-        if (preparedBatchStatement.isPresent()) {
-            return preparedBatchStatement.get();
+            parameterSetIndex++;
         }
-        BatchPreparedStatementUnit result = new BatchPreparedStatementUnit(sqlExecutionUnit, generatePreparedStatement(sqlExecutionUnit));
-        batchStatementUnits.add(result);
-        return result;
     }
 }
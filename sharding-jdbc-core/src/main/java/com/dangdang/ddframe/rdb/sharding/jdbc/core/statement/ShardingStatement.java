@@ -19,6 +19,9 @@ package com.dangdang.ddframe.rdb.sharding.jdbc.core.statement;
 
 import com.dangdang.ddframe.rdb.sharding.constant.SQLType;
 import com.dangdang.ddframe.rdb.sharding.executor.type.statement.StatementExecutor;
+import com.dangdang.ddframe.rdb.sharding.executor.ConnectionMode;
+import com.dangdang.ddframe.rdb.sharding.executor.ExecutionDeadline;
+import com.dangdang.ddframe.rdb.sharding.executor.LimitTerminationCondition;
 import com.dangdang.ddframe.rdb.sharding.executor.type.statement.StatementUnit;
 import com.dangdang.ddframe.rdb.sharding.jdbc.adapter.AbstractStatementAdapter;
 import com.dangdang.ddframe.rdb.sharding.jdbc.core.connection.ShardingConnection;
@@ -43,6 +46,7 @@ import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -105,7 +109,10 @@ public class ShardingStatement extends AbstractStatementAdapter {
     public ResultSet executeQuery(final String sql) throws SQLException {
         ResultSet result;
         try {
-            List<ResultSet> resultSets = generateExecutor(sql).executeQuery();
+            StatementExecutor statementExecutor = generateExecutor(sql);
+            Optional<LimitTerminationCondition> limitTerminationCondition = LimitTerminationCondition.create(
+                    (SelectStatement) getRouteResult().getSqlStatement(), getRouteResult().getExecutionUnits().size());
+            List<ResultSet> resultSets = limitTerminationCondition.isPresent() ? statementExecutor.executeQuery(limitTerminationCondition.get()) : statementExecutor.executeQuery();
             result = new ShardingResultSet(
                     resultSets, new MergeEngine(shardingConnection.getShardingContext().getDatabaseType(), resultSets, (SelectStatement) getRouteResult().getSqlStatement()).merge());
         } finally {
@@ -202,25 +209,34 @@ public class ShardingStatement extends AbstractStatementAdapter {
     }
     
     private StatementExecutor generateExecutor(final String sql) throws SQLException {
+        // 截止时间包含路由和获取连接的耗时
+        ExecutionDeadline executionDeadline = ExecutionDeadline.fromQueryTimeout(getQueryTimeout());
         clearPrevious();
         routeResult = new StatementRoutingEngine(shardingConnection.getShardingContext()).route(sql);
         Collection<StatementUnit> statementUnits = new LinkedList<>();
+        SQLType sqlType = routeResult.getSqlStatement().getType();
+        // 按连接模式为执行单元分配连接
+        List<Connection> routedConnections = SQLType.DDL == sqlType ? Collections.<Connection>emptyList() : shardingConnection.getConnections(sqlType, routeResult.getExecutionUnits());
+        Iterator<Connection> routedConnectionIterator = routedConnections.iterator();
+        Iterator<ConnectionMode> connectionModes = ConnectionMode.decide(shardingConnection.getShardingContext().getMaxConnectionsSizePerQuery(), routedConnections).iterator();
         for (SQLExecutionUnit each : routeResult.getExecutionUnits()) {
             Collection<Connection> connections;
-            SQLType sqlType = routeResult.getSqlStatement().getType();
+            ConnectionMode connectionMode;
             if (SQLType.DDL == sqlType) {
                 connections = shardingConnection.getConnectionForDDL(each.getDataSource());
+                connectionMode = ConnectionMode.MEMORY_STRICTLY;
             } else {
-                connections = Collections.singletonList(shardingConnection.getConnection(each.getDataSource(), routeResult.getSqlStatement().getType()));
+                connections = Collections.singletonList(routedConnectionIterator.next());
+                connectionMode = connectionModes.next();
             }
             for (Connection connection : connections) {
                 Statement statement = connection.createStatement(resultSetType, resultSetConcurrency, resultSetHoldability);
                 replayMethodsInvocation(statement);
-                statementUnits.add(new StatementUnit(each, statement));
+                statementUnits.add(new StatementUnit(each, statement, connectionMode));
                 routedStatements.add(statement);
             }
         }
-        return new StatementExecutor(shardingConnection.getShardingContext().getExecutorEngine(), routeResult.getSqlStatement().getType(), statementUnits);
+        return new StatementExecutor(shardingConnection.getShardingContext().getExecutorEngine(), routeResult.getSqlStatement().getType(), statementUnits, executionDeadline);
     }
     
     private void clearPrevious() throws SQLException {
@@ -245,6 +261,9 @@ public class ShardingStatement extends AbstractStatementAdapter {
     }
     
     protected final Optional<GeneratedKey> getGeneratedKey() {
+        if (null != routeResult && null != routeResult.getGeneratedKey()) {
+            return Optional.of(routeResult.getGeneratedKey());
+        }
         if (null != routeResult && routeResult.getSqlStatement() instanceof InsertStatement) {
             return Optional.fromNullable(((InsertStatement) routeResult.getSqlStatement()).getGeneratedKey());
         }
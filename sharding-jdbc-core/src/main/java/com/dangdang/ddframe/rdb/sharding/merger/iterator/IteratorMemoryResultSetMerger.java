@@ -0,0 +1,72 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.merger.iterator;
+
+import com.dangdang.ddframe.rdb.sharding.merger.common.AbstractMemoryResultSetMerger;
+import com.dangdang.ddframe.rdb.sharding.merger.common.MemoryResultSetRow;
+import lombok.Getter;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基于内存的迭代归并结果集.
+ * 
+ * <p>
+ * 构造时将结果集全部加载至内存, 按结果集顺序迭代.
+ * </p>
+ *
+ * @author zhangliang
+ */
+public final class IteratorMemoryResultSetMerger extends AbstractMemoryResultSetMerger {
+    
+    private final Iterator<MemoryResultSetRow> memoryResultSetRows;
+    
+    @Getter
+    private final int rowCount;
+    
+    public IteratorMemoryResultSetMerger(final Map<String, Integer> labelAndIndexMap, final List<ResultSet> resultSets) throws SQLException {
+        super(labelAndIndexMap);
+        List<MemoryResultSetRow> rows = init(resultSets);
+        rowCount = rows.size();
+        memoryResultSetRows = rows.iterator();
+    }
+    
+    private List<MemoryResultSetRow> init(final List<ResultSet> resultSets) throws SQLException {
+        List<MemoryResultSetRow> result = new LinkedList<>();
+        for (ResultSet each : resultSets) {
+            while (each.next()) {
+                result.add(new MemoryResultSetRow(each));
+            }
+        }
+        return result;
+    }
+    
+    @Override
+    public boolean next() throws SQLException {
+        if (memoryResultSetRows.hasNext()) {
+            setCurrentResultSetRow(memoryResultSetRows.next());
+            return true;
+        }
+        return false;
+    }
+}
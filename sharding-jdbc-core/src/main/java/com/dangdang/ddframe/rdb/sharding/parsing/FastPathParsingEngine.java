@@ -0,0 +1,345 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.parsing;
+
+import com.dangdang.ddframe.rdb.sharding.api.rule.ShardingRule;
+import com.dangdang.ddframe.rdb.sharding.constant.DatabaseType;
+import com.dangdang.ddframe.rdb.sharding.parsing.lexer.Lexer;
+import com.dangdang.ddframe.rdb.sharding.parsing.lexer.LexerFactory;
+import com.dangdang.ddframe.rdb.sharding.parsing.lexer.token.Assist;
+import com.dangdang.ddframe.rdb.sharding.parsing.lexer.token.DefaultKeyword;
+import com.dangdang.ddframe.rdb.sharding.parsing.lexer.token.Literals;
+import com.dangdang.ddframe.rdb.sharding.parsing.lexer.token.Symbol;
+import com.dangdang.ddframe.rdb.sharding.parsing.lexer.token.TokenType;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.GeneratedKey;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.InsertValue;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.condition.Column;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.condition.Condition;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.selectitem.CommonSelectItem;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.table.Table;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.expression.SQLExpression;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.expression.SQLNumberExpression;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.expression.SQLPlaceholderExpression;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.expression.SQLTextExpression;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.SQLStatement;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.dml.DMLStatement;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.dml.insert.InsertStatement;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.dql.select.SelectStatement;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.token.GeneratedKeyToken;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.token.ItemsToken;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.token.TableToken;
+import com.dangdang.ddframe.rdb.sharding.util.NumberUtil;
+import com.dangdang.ddframe.rdb.sharding.util.SQLUtil;
+import com.google.common.base.Optional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SQL快速解析引擎.
+ * 
+ * <p>
+ * 只识别以下三种最常见的SQL, 一次词法扫描即生成与完整解析结果相同的SQL语句对象:
+ * </p>
+ * 
+ * <ul>
+ *     <li>单表等值查询: SELECT * | col, ... FROM t [[AS] alias] WHERE col = ? [AND col = ?]...</li>
+ *     <li>单表等值更新: UPDATE t [[AS] alias] SET col = ?, ... WHERE col = ? [AND col = ?]...</li>
+ *     <li>单行插入: INSERT INTO t (col, ...) VALUES (?, ...)</li>
+ * </ul>
+ * 
+ * <p>
+ * 值可以是占位符、数字或字符串. 遇到任何不确定的词法标记即放弃, 由 {@link SQLParsingEngine} 使用完整解析器解析.
+ * </p>
+ *
+ * @author zhangliang
+ */
+public final class FastPathParsingEngine {
+    
+    private final ShardingRule shardingRule;
+    
+    private final Lexer lexer;
+    
+    private int parametersIndex;
+    
+    public FastPathParsingEngine(final DatabaseType dbType, final String sql, final ShardingRule shardingRule) {
+        this.shardingRule = shardingRule;
+        lexer = LexerFactory.newInstance(dbType, sql);
+    }
+    
+    /**
+     * 快速解析SQL.
+     * 
+     * @return SQL语句对象, 无法快速解析时返回空
+     */
+    public Optional<SQLStatement> parse() {
+        lexer.nextToken();
+        SQLStatement result;
+        if (skipIfEqual(DefaultKeyword.SELECT)) {
+            result = parseSelect();
+        } else if (skipIfEqual(DefaultKeyword.UPDATE)) {
+            result = parseUpdate();
+        } else if (skipIfEqual(DefaultKeyword.INSERT)) {
+            result = parseInsert();
+        } else {
+            return Optional.absent();
+        }
+        if (null == result || !equalAny(Assist.END)) {
+            return Optional.absent();
+        }
+        result.setParametersIndex(parametersIndex);
+        return Optional.of(result);
+    }
+    
+    private SelectStatement parseSelect() {
+        SelectStatement result = new SelectStatement();
+        if (!parseSelectItems(result)) {
+            return null;
+        }
+        result.setSelectListLastPosition(getBeginPosition());
+        lexer.nextToken();
+        return parseTable(result) && parseWhere(result) ? result : null;
+    }
+    
+    private boolean parseSelectItems(final SelectStatement selectStatement) {
+        if (skipIfEqual(Symbol.STAR)) {
+            selectStatement.setContainStar(true);
+            selectStatement.getItems().add(new CommonSelectItem(Symbol.STAR.getLiterals(), Optional.<String>absent()));
+            return equalAny(DefaultKeyword.FROM);
+        }
+        do {
+            if (!equalAny(Literals.IDENTIFIER)) {
+                return false;
+            }
+            String expression = lexer.getCurrentToken().getLiterals();
+            int beginPosition = getBeginPosition();
+            lexer.nextToken();
+            if (skipIfEqual(Symbol.DOT)) {
+                if (!equalAny(Literals.IDENTIFIER)) {
+                    return false;
+                }
+                selectStatement.getSqlTokens().add(new TableToken(beginPosition, expression));
+                expression = expression + Symbol.DOT.getLiterals() + lexer.getCurrentToken().getLiterals();
+                lexer.nextToken();
+            }
+            selectStatement.getItems().add(new CommonSelectItem(SQLUtil.getExactlyValue(expression), Optional.<String>absent()));
+        } while (skipIfEqual(Symbol.COMMA));
+        return equalAny(DefaultKeyword.FROM);
+    }
+    
+    private DMLStatement parseUpdate() {
+        DMLStatement result = new DMLStatement();
+        if (!parseTable(result) || !skipIfEqual(DefaultKeyword.SET)) {
+            return null;
+        }
+        do {
+            if (!parseSetItem(result)) {
+                return null;
+            }
+        } while (skipIfEqual(Symbol.COMMA));
+        return parseWhere(result) ? result : null;
+    }
+    
+    private boolean parseSetItem(final DMLStatement updateStatement) {
+        if (!equalAny(Literals.IDENTIFIER)) {
+            return false;
+        }
+        String literals = lexer.getCurrentToken().getLiterals();
+        int beginPosition = getBeginPosition();
+        lexer.nextToken();
+        if (skipIfEqual(Symbol.DOT)) {
+            if (!equalAny(Literals.IDENTIFIER)) {
+                return false;
+            }
+            if (updateStatement.getTables().getSingleTableName().equalsIgnoreCase(SQLUtil.getExactlyValue(literals))) {
+                updateStatement.getSqlTokens().add(new TableToken(beginPosition, literals));
+            }
+            lexer.nextToken();
+        }
+        return skipIfEqual(Symbol.EQ) && null != parseValue();
+    }
+    
+    private InsertStatement parseInsert() {
+        InsertStatement result = new InsertStatement();
+        if (!skipIfEqual(DefaultKeyword.INTO) || !parseTable(result) || !equalAny(Symbol.LEFT_PAREN)) {
+            return null;
+        }
+        String tableName = result.getTables().getSingleTableName();
+        do {
+            lexer.nextToken();
+            if (!equalAny(Literals.IDENTIFIER)) {
+                return null;
+            }
+            result.getColumns().add(new Column(SQLUtil.getExactlyValue(lexer.getCurrentToken().getLiterals()), tableName));
+            lexer.nextToken();
+        } while (equalAny(Symbol.COMMA));
+        if (!equalAny(Symbol.RIGHT_PAREN)) {
+            return null;
+        }
+        result.setColumnsListLastPosition(getBeginPosition());
+        lexer.nextToken();
+        if (!skipIfEqual(DefaultKeyword.VALUES) || !skipIfEqual(Symbol.LEFT_PAREN)) {
+            return null;
+        }
+        List<SQLExpression> sqlExpressions = new ArrayList<>(result.getColumns().size());
+        do {
+            SQLExpression sqlExpression = parseValue();
+            if (null == sqlExpression) {
+                return null;
+            }
+            sqlExpressions.add(sqlExpression);
+        } while (skipIfEqual(Symbol.COMMA));
+        if (!equalAny(Symbol.RIGHT_PAREN) || sqlExpressions.size() != result.getColumns().size()) {
+            return null;
+        }
+        result.setValuesListLastPosition(getBeginPosition());
+        result.getInsertValues().add(new InsertValue(sqlExpressions));
+        lexer.nextToken();
+        return appendInsertConditions(result, sqlExpressions) ? result : null;
+    }
+    
+    private boolean appendInsertConditions(final InsertStatement insertStatement, final List<SQLExpression> sqlExpressions) {
+        Optional<String> generateKeyColumn = shardingRule.getGenerateKeyColumn(insertStatement.getTables().getSingleTableName());
+        int count = 0;
+        for (Column each : insertStatement.getColumns()) {
+            SQLExpression sqlExpression = sqlExpressions.get(count++);
+            insertStatement.getConditions().add(new Condition(each, sqlExpression), shardingRule);
+            if (!generateKeyColumn.isPresent() || !generateKeyColumn.get().equalsIgnoreCase(each.getName())) {
+                continue;
+            }
+            if (sqlExpression instanceof SQLPlaceholderExpression) {
+                insertStatement.setGeneratedKey(new GeneratedKey(each.getName(), ((SQLPlaceholderExpression) sqlExpression).getIndex(), null));
+            } else if (sqlExpression instanceof SQLNumberExpression) {
+                insertStatement.setGeneratedKey(new GeneratedKey(each.getName(), -1, ((SQLNumberExpression) sqlExpression).getNumber()));
+            } else {
+                return false;
+            }
+        }
+        if (generateKeyColumn.isPresent() && null == insertStatement.getGeneratedKey()) {
+            ItemsToken columnsToken = new ItemsToken(insertStatement.getColumnsListLastPosition());
+            columnsToken.getItems().add(generateKeyColumn.get());
+            insertStatement.getSqlTokens().add(columnsToken);
+            insertStatement.getSqlTokens().add(new GeneratedKeyToken(insertStatement.getValuesListLastPosition()));
+        }
+        return true;
+    }
+    
+    private boolean parseTable(final SQLStatement sqlStatement) {
+        if (!equalAny(Literals.IDENTIFIER)) {
+            return false;
+        }
+        String literals = lexer.getCurrentToken().getLiterals();
+        int beginPosition = getBeginPosition();
+        lexer.nextToken();
+        Optional<String> alias = Optional.absent();
+        if (skipIfEqual(DefaultKeyword.AS)) {
+            if (!equalAny(Literals.IDENTIFIER)) {
+                return false;
+            }
+            alias = Optional.of(SQLUtil.getExactlyValue(lexer.getCurrentToken().getLiterals()));
+            lexer.nextToken();
+        } else if (equalAny(Literals.IDENTIFIER)) {
+            alias = Optional.of(SQLUtil.getExactlyValue(lexer.getCurrentToken().getLiterals()));
+            lexer.nextToken();
+        }
+        sqlStatement.getSqlTokens().add(new TableToken(beginPosition, literals));
+        sqlStatement.getTables().add(new Table(SQLUtil.getExactlyValue(literals), alias));
+        return true;
+    }
+    
+    private boolean parseWhere(final SQLStatement sqlStatement) {
+        if (!skipIfEqual(DefaultKeyword.WHERE)) {
+            return false;
+        }
+        do {
+            if (!parseEqualCondition(sqlStatement)) {
+                return false;
+            }
+        } while (skipIfEqual(DefaultKeyword.AND));
+        return true;
+    }
+    
+    private boolean parseEqualCondition(final SQLStatement sqlStatement) {
+        if (!equalAny(Literals.IDENTIFIER)) {
+            return false;
+        }
+        String tableName = sqlStatement.getTables().getSingleTableName();
+        String literals = lexer.getCurrentToken().getLiterals();
+        int beginPosition = getBeginPosition();
+        lexer.nextToken();
+        if (skipIfEqual(Symbol.DOT)) {
+            Optional<Table> table = sqlStatement.getTables().find(SQLUtil.getExactlyValue(literals));
+            if (!table.isPresent() || !equalAny(Literals.IDENTIFIER)) {
+                return false;
+            }
+            if (tableName.equalsIgnoreCase(SQLUtil.getExactlyValue(literals))) {
+                sqlStatement.getSqlTokens().add(new TableToken(beginPosition, literals));
+            }
+            literals = lexer.getCurrentToken().getLiterals();
+            lexer.nextToken();
+        }
+        if (!skipIfEqual(Symbol.EQ)) {
+            return false;
+        }
+        SQLExpression sqlExpression = parseValue();
+        if (null == sqlExpression || !equalAny(DefaultKeyword.AND, Assist.END)) {
+            return false;
+        }
+        sqlStatement.getConditions().add(new Condition(new Column(SQLUtil.getExactlyValue(literals), tableName), sqlExpression), shardingRule);
+        return true;
+    }
+    
+    private SQLExpression parseValue() {
+        String literals = lexer.getCurrentToken().getLiterals();
+        SQLExpression result;
+        if (equalAny(Symbol.QUESTION)) {
+            result = new SQLPlaceholderExpression(parametersIndex++);
+        } else if (equalAny(Literals.INT)) {
+            result = new SQLNumberExpression(NumberUtil.getExactlyNumber(literals, 10));
+        } else if (equalAny(Literals.FLOAT)) {
+            result = new SQLNumberExpression(Double.parseDouble(literals));
+        } else if (equalAny(Literals.CHARS)) {
+            result = new SQLTextExpression(literals);
+        } else {
+            return null;
+        }
+        lexer.nextToken();
+        return result;
+    }
+    
+    private int getBeginPosition() {
+        return lexer.getCurrentToken().getEndPosition() - lexer.getCurrentToken().getLiterals().length();
+    }
+    
+    private boolean equalAny(final TokenType... tokenTypes) {
+        for (TokenType each : tokenTypes) {
+            if (each == lexer.getCurrentToken().getType()) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private boolean skipIfEqual(final TokenType tokenType) {
+        if (tokenType == lexer.getCurrentToken().getType()) {
+            lexer.nextToken();
+            return true;
+        }
+        return false;
+    }
+}
@@ -36,6 +36,7 @@ import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.dml.insert.Ins
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.dql.select.SelectParserFactory;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.ddl.truncate.TruncateParserFactory;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.dml.update.UpdateParserFactory;
+import com.google.common.base.Optional;
 import lombok.RequiredArgsConstructor;
 
 /**
@@ -68,8 +69,19 @@ public final class SQLParsingEngine {
      * @return SQL语句对象
      */
     public SQLStatement parse() {
+        // 单表等值查询/更新和单行插入优先快速解析
+        Optional<SQLStatement> fastPathResult = new FastPathParsingEngine(dbType, sql, shardingRule).parse();
+        if (fastPathResult.isPresent()) {
+            return fastPathResult.get();
+        }
         // 获取 SQL解析器
         SQLParser sqlParser = getSQLParser();
+        SQLStatement result = parse(sqlParser);
+        result.setParametersIndex(sqlParser.getParametersIndex());
+        return result;
+    }
+    
+    private SQLStatement parse(final SQLParser sqlParser) {
         //
         sqlParser.skipIfEqual(Symbol.SEMI); // 跳过 ";"
         if (sqlParser.equalAny(DefaultKeyword.WITH)) { // WITH Syntax
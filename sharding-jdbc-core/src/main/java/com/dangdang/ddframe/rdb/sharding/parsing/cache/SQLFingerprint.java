@@ -0,0 +1,62 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.parsing.cache;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * SQL指纹.
+ * 
+ * <p>
+ * 将SQL中的字面量替换为占位符后的SQL, 以及按占位符顺序提取出的字面量值和原始文本.
+ * 字面量不同但结构相同的SQL具有相同的指纹, 可以共享SQL解析结果缓存.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@RequiredArgsConstructor
+@Getter
+public final class SQLFingerprint {
+    
+    /**
+     * 字面量替换为占位符后的SQL
+     */
+    private final String sql;
+    
+    /**
+     * 字面量值, 与解析器对字面量的取值方式一致
+     */
+    private final List<Object> parameters;
+    
+    /**
+     * 字面量在原SQL中的文本
+     */
+    private final List<String> literals;
+    
+    /**
+     * 判断是否有字面量被替换为占位符.
+     * 
+     * @return 是否有字面量被替换为占位符
+     */
+    public boolean isNormalized() {
+        return !parameters.isEmpty();
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.parsing.cache;
+
+import com.dangdang.ddframe.rdb.sharding.constant.DatabaseType;
+import com.dangdang.ddframe.rdb.sharding.parsing.lexer.Lexer;
+import com.dangdang.ddframe.rdb.sharding.parsing.lexer.LexerFactory;
+import com.dangdang.ddframe.rdb.sharding.parsing.lexer.token.Assist;
+import com.dangdang.ddframe.rdb.sharding.parsing.lexer.token.DefaultKeyword;
+import com.dangdang.ddframe.rdb.sharding.parsing.lexer.token.Literals;
+import com.dangdang.ddframe.rdb.sharding.parsing.lexer.token.Symbol;
+import com.dangdang.ddframe.rdb.sharding.parsing.lexer.token.Token;
+import com.dangdang.ddframe.rdb.sharding.parsing.lexer.token.TokenType;
+import com.dangdang.ddframe.rdb.sharding.util.NumberUtil;
+import com.google.common.base.Objects;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * SQL指纹引擎.
+ * 
+ * <p>
+ * 只做词法分析, 将比较运算符(=, &lt;, &gt;, LIKE, BETWEEN ... AND 等)右侧以及 IN / VALUES 列表中的字面量替换为占位符.
+ * 分页(LIMIT, TOP)、排序序号、函数参数等位置的字面量会改变SQL结构, 保持原样.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@RequiredArgsConstructor
+public final class SQLFingerprintEngine {
+    
+    private final DatabaseType databaseType;
+    
+    /**
+     * 计算SQL指纹.
+     * 
+     * <p>
+     * SQL中已有占位符或无法完成词法分析时, 返回未替换的指纹.
+     * </p>
+     * 
+     * @param sql SQL
+     * @return SQL指纹
+     */
+    public SQLFingerprint fingerprint(final String sql) {
+        List<Token> tokens = new ArrayList<>();
+        Lexer lexer = LexerFactory.newInstance(databaseType, sql);
+        lexer.nextToken();
+        while (Assist.END != lexer.getCurrentToken().getType()) {
+            TokenType tokenType = lexer.getCurrentToken().getType();
+            if (Assist.ERROR == tokenType || Symbol.QUESTION == tokenType) {
+                return unnormalized(sql);
+            }
+            tokens.add(lexer.getCurrentToken());
+            lexer.nextToken();
+        }
+        StringBuilder normalizedSQL = new StringBuilder(sql.length());
+        List<Object> parameters = new ArrayList<>();
+        List<String> literals = new ArrayList<>();
+        LinkedList<Boolean> valueListParentheses = new LinkedList<>();
+        boolean isBetween = false;
+        boolean isAfterComparison = false;
+        int lastPosition = 0;
+        for (int i = 0; i < tokens.size(); i++) {
+            Token token = tokens.get(i);
+            TokenType tokenType = token.getType();
+            TokenType previous = 0 == i ? null : tokens.get(i - 1).getType();
+            TokenType next = i + 1 == tokens.size() ? Assist.END : tokens.get(i + 1).getType();
+            if (Symbol.LEFT_PAREN == tokenType) {
+                valueListParentheses.push(DefaultKeyword.IN == previous || DefaultKeyword.VALUES == previous);
+            } else if (Symbol.RIGHT_PAREN == tokenType && !valueListParentheses.isEmpty()) {
+                valueListParentheses.pop();
+            } else if (DefaultKeyword.BETWEEN == tokenType) {
+                isBetween = true;
+            } else if (isNormalizableLiteral(sql, token, previous, next, isAfterComparison, !valueListParentheses.isEmpty() && valueListParentheses.peek())) {
+                int beginPosition = getBeginPosition(token);
+                normalizedSQL.append(sql, lastPosition, beginPosition).append(Symbol.QUESTION.getLiterals());
+                parameters.add(getValue(token));
+                literals.add(sql.substring(beginPosition, token.getEndPosition()));
+                lastPosition = token.getEndPosition();
+            }
+            // BETWEEN ... AND ... 中的 AND 与比较运算符等同
+            isAfterComparison = DefaultKeyword.AND == tokenType && isBetween;
+            if (isAfterComparison) {
+                isBetween = false;
+            }
+        }
+        if (parameters.isEmpty()) {
+            return unnormalized(sql);
+        }
+        normalizedSQL.append(sql, lastPosition, sql.length());
+        return new SQLFingerprint(normalizedSQL.toString(), Collections.unmodifiableList(parameters), Collections.unmodifiableList(literals));
+    }
+    
+    private SQLFingerprint unnormalized(final String sql) {
+        return new SQLFingerprint(sql, Collections.emptyList(), Collections.<String>emptyList());
+    }
+    
+    private boolean isNormalizableLiteral(final String sql, final Token token, final TokenType previous, final TokenType next, final boolean isAfterComparison, final boolean isInValueList) {
+        TokenType tokenType = token.getType();
+        if (Literals.INT != tokenType && Literals.FLOAT != tokenType && Literals.CHARS != tokenType) {
+            return false;
+        }
+        // N'xxx' 的前缀保持原样
+        if (Literals.CHARS == tokenType && getBeginPosition(token) > 0 && 'N' == sql.charAt(getBeginPosition(token) - 1)) {
+            return false;
+        }
+        if (isInValueList && (Symbol.LEFT_PAREN == previous || Symbol.COMMA == previous)) {
+            return Symbol.COMMA == next || Symbol.RIGHT_PAREN == next;
+        }
+        return (isAfterComparison || isComparison(previous)) && !(next instanceof Literals);
+    }
+    
+    private boolean isComparison(final TokenType tokenType) {
+        return Symbol.EQ == tokenType || Symbol.LT == tokenType || Symbol.GT == tokenType || Symbol.LT_EQ == tokenType || Symbol.GT_EQ == tokenType
+                || Symbol.LT_GT == tokenType || Symbol.BANG_EQ == tokenType || DefaultKeyword.LIKE == tokenType || DefaultKeyword.BETWEEN == tokenType;
+    }
+    
+    private int getBeginPosition(final Token token) {
+        int quoteLength = Literals.CHARS == token.getType() ? 2 : 0;
+        return token.getEndPosition() - token.getLiterals().length() - quoteLength;
+    }
+    
+    private Object getValue(final Token token) {
+        if (Literals.INT == token.getType()) {
+            return NumberUtil.getExactlyNumber(token.getLiterals(), 10);
+        }
+        if (Literals.FLOAT == token.getType()) {
+            return Double.parseDouble(token.getLiterals());
+        }
+        return token.getLiterals();
+    }
+    
+    /**
+     * 将路由改写后SQL中的占位符还原为字面量.
+     * 
+     * <p>
+     * 参数未被路由修改时使用原始文本, 被修改(如分页)或新增(如自增主键)的参数按值生成字面量.
+     * </p>
+     * 
+     * @param fingerprint SQL指纹
+     * @param sql 路由改写后的SQL
+     * @param parameters 路由后的参数
+     * @return 还原字面量后的SQL
+     */
+    public String restore(final SQLFingerprint fingerprint, final String sql, final List<Object> parameters) {
+        StringBuilder result = new StringBuilder(sql.length() + 16 * parameters.size());
+        Lexer lexer = LexerFactory.newInstance(databaseType, sql);
+        int lastPosition = 0;
+        int parameterIndex = 0;
+        lexer.nextToken();
+        while (Assist.END != lexer.getCurrentToken().getType() && parameterIndex < parameters.size()) {
+            if (Symbol.QUESTION == lexer.getCurrentToken().getType()) {
+                int beginPosition = lexer.getCurrentToken().getEndPosition() - Symbol.QUESTION.getLiterals().length();
+                result.append(sql, lastPosition, beginPosition).append(getLiterals(fingerprint, parameters, parameterIndex));
+                lastPosition = lexer.getCurrentToken().getEndPosition();
+                parameterIndex++;
+            }
+            lexer.nextToken();
+        }
+        return result.append(sql, lastPosition, sql.length()).toString();
+    }
+    
+    private String getLiterals(final SQLFingerprint fingerprint, final List<Object> parameters, final int parameterIndex) {
+        Object value = parameters.get(parameterIndex);
+        if (parameterIndex < fingerprint.getParameters().size() && Objects.equal(value, fingerprint.getParameters().get(parameterIndex))) {
+            return fingerprint.getLiterals().get(parameterIndex);
+        }
+        return value instanceof Number ? value.toString() : "'" + String.valueOf(value).replace("'", "''") + "'";
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+
+package com.dangdang.ddframe.rdb.sharding.parsing.cache;
+
+import com.dangdang.ddframe.rdb.sharding.constant.DatabaseType;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.SQLStatement;
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * SQL解析结果缓存.
+ * 
+ * <p>
+ * 以数据库类型和逻辑SQL为键, 在数据源范围内共享解析结果, 超过容量时按最近最少使用淘汰.
+ * 缓存中的SQL语句对象仅作为模板, 不会被路由修改, 获取时返回副本.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public final class SQLParsingCache {
+    
+    private final Cache<CacheKey, SQLStatement> cache;
+    
+    /**
+     * 创建SQL解析结果缓存.
+     * 
+     * @param maximumSize 最大缓存条数, 小于等于0时不缓存
+     */
+    public SQLParsingCache(final int maximumSize) {
+        cache = maximumSize > 0 ? CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().<CacheKey, SQLStatement>build() : null;
+    }
+    
+    /**
+     * 判断缓存是否开启.
+     * 
+     * @return 缓存是否开启
+     */
+    public boolean isEnabled() {
+        return null != cache;
+    }
+    
+    /**
+     * 获取SQL语句对象副本.
+     * 
+     * @param databaseType 数据库类型
+     * @param logicSQL 逻辑SQL
+     * @return SQL语句对象副本
+     */
+    public Optional<SQLStatement> get(final DatabaseType databaseType, final String logicSQL) {
+        if (null == cache) {
+            return Optional.absent();
+        }
+        SQLStatement result = cache.getIfPresent(new CacheKey(databaseType, logicSQL));
+        return null == result ? Optional.<SQLStatement>absent() : Optional.of(result.copy());
+    }
+    
+    /**
+     * 缓存SQL语句对象模板.
+     * 
+     * <p>
+     * 模板放入缓存后不可再修改, 调用方应使用副本进行路由.
+     * </p>
+     * 
+     * @param databaseType 数据库类型
+     * @param logicSQL 逻辑SQL
+     * @param sqlStatement SQL语句对象模板
+     */
+    public void put(final DatabaseType databaseType, final String logicSQL, final SQLStatement sqlStatement) {
+        if (null != cache) {
+            cache.put(new CacheKey(databaseType, logicSQL), sqlStatement);
+        }
+    }
+    
+    /**
+     * 获取缓存统计信息, 包括命中次数和未命中次数.
+     * 
+     * @return 缓存统计信息
+     */
+    public CacheStats getStats() {
+        return null == cache ? new CacheStats(0L, 0L, 0L, 0L, 0L, 0L) : cache.stats();
+    }
+    
+    /**
+     * 获取缓存条数.
+     * 
+     * @return 缓存条数
+     */
+    public long size() {
+        return null == cache ? 0L : cache.size();
+    }
+    
+    @RequiredArgsConstructor
+    @EqualsAndHashCode
+    private static final class CacheKey {
+        
+        private final DatabaseType databaseType;
+        
+        private final String logicSQL;
+    }
+}
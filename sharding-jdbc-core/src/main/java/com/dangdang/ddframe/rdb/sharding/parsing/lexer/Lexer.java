@@ -23,7 +23,7 @@ import com.dangdang.ddframe.rdb.sharding.parsing.lexer.analyzer.Tokenizer;
 import com.dangdang.ddframe.rdb.sharding.parsing.lexer.token.Assist;
 import com.dangdang.ddframe.rdb.sharding.parsing.lexer.token.Token;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * 词法解析器. 顺序解析sql 由于不同数据库遵守 SQL 规范略有不同，所以不同的数据库对应不同的 Lexer
@@ -37,7 +37,7 @@ import lombok.RequiredArgsConstructor;
  *  原理：顺序顺序顺序 解析 SQL，将字符串拆解成 N 个词法。
  *
  */
-@RequiredArgsConstructor
+@Slf4j
 public class Lexer {
 
     /**
@@ -50,6 +50,11 @@ public class Lexer {
      * 词法标记字典
      */
     private final Dictionary dictionary;
+    /**
+     * 词法标记器
+     * 整个分词过程复用同一个扫描游标，避免每个词法标记都创建新的标记器
+     */
+    private final Tokenizer tokenizer;
     /**
      * 解析到 SQL 的 offset
      */
@@ -59,6 +64,12 @@ public class Lexer {
      */
     @Getter
     private Token currentToken;
+    
+    public Lexer(final String input, final Dictionary dictionary) {
+        this.input = input;
+        this.dictionary = dictionary;
+        tokenizer = new Tokenizer(input, dictionary, 0);
+    }
 
     /**
      * 分析下一个词法标记.
@@ -67,28 +78,28 @@ public class Lexer {
     public final void nextToken() {
         skipIgnoredToken();
         if (isVariableBegin()) { // 变量
-            currentToken = new Tokenizer(input, dictionary, offset).scanVariable();
+            currentToken = tokenizer.moveTo(offset).scanVariable();
         } else if (isNCharBegin()) { // N\
-            currentToken = new Tokenizer(input, dictionary, ++offset).scanChars();
+            currentToken = tokenizer.moveTo(++offset).scanChars();
         } else if (isIdentifierBegin()) { // Keyword + Literals.IDENTIFIER
-            currentToken = new Tokenizer(input, dictionary, offset).scanIdentifier();
+            currentToken = tokenizer.moveTo(offset).scanIdentifier();
         } else if (isHexDecimalBegin()) { // 十六进制
-            currentToken = new Tokenizer(input, dictionary, offset).scanHexDecimal();
+            currentToken = tokenizer.moveTo(offset).scanHexDecimal();
         } else if (isNumberBegin()) { // 数字（整数+浮点数）
-            currentToken = new Tokenizer(input, dictionary, offset).scanNumber();
+            currentToken = tokenizer.moveTo(offset).scanNumber();
         } else if (isSymbolBegin()) { // 符号
-            currentToken = new Tokenizer(input, dictionary, offset).scanSymbol();
+            currentToken = tokenizer.moveTo(offset).scanSymbol();
         } else if (isCharsBegin()) { // 字符串，例如："abc"
-            currentToken = new Tokenizer(input, dictionary, offset).scanChars();
+            currentToken = tokenizer.moveTo(offset).scanChars();
         } else if (isEnd()) { // 结束
             currentToken = new Token(Assist.END, "", offset);
         } else { // 分析错误，无符合条件的词法标记
             currentToken = new Token(Assist.ERROR, "", offset);
         }
         offset = currentToken.getEndPosition();
-        System.out.println("| " + currentToken.getLiterals() + " | "
-                +  currentToken.getType().getClass().getSimpleName() + " | " + currentToken.getType() + " | "
-                + currentToken.getEndPosition() + " |");
+        if (log.isTraceEnabled()) {
+            log.trace("| {} | {} | {} | {} |", currentToken.getLiterals(), currentToken.getType().getClass().getSimpleName(), currentToken.getType(), currentToken.getEndPosition());
+        }
     }
 
     /**
@@ -99,16 +110,16 @@ public class Lexer {
      */
     private void skipIgnoredToken() {
         // 空格
-        offset = new Tokenizer(input, dictionary, offset).skipWhitespace();
+        offset = tokenizer.moveTo(offset).skipWhitespace();
         // SQL Hint
         while (isHintBegin()) {
-            offset = new Tokenizer(input, dictionary, offset).skipHint();
-            offset = new Tokenizer(input, dictionary, offset).skipWhitespace();
+            offset = tokenizer.moveTo(offset).skipHint();
+            offset = tokenizer.moveTo(offset).skipWhitespace();
         }
         // SQL 注释
         while (isCommentBegin()) {
-            offset = new Tokenizer(input, dictionary, offset).skipComment();
-            offset = new Tokenizer(input, dictionary, offset).skipWhitespace();
+            offset = tokenizer.moveTo(offset).skipComment();
+            offset = tokenizer.moveTo(offset).skipWhitespace();
         }
     }
 
@@ -21,26 +21,53 @@ import com.dangdang.ddframe.rdb.sharding.parsing.lexer.token.DefaultKeyword;
 import com.dangdang.ddframe.rdb.sharding.parsing.lexer.token.Keyword;
 import com.dangdang.ddframe.rdb.sharding.parsing.lexer.token.TokenType;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
  * 词法标记字典.
+ * 
+ * <p>
+ * 构造时为默认词法关键词 + 方言词法关键词预先计算一张不区分大小写的完美哈希表（hash and displace）：
+ * 第一次哈希将关键词分到若干桶，每个桶再选取一个位移值，使桶内关键词落到互不冲突的槽位。
+ * 查询时直接对输入字符串的字符区间计算哈希，只需一次比较即可确定是否为关键词，不再创建大写子串。
+ * </p>
  *
  * @author zhangliang
  */
 public final class Dictionary {
-
+    
+    private static final int KEYS_PER_BUCKET = 4;
+    
+    private static final int MAX_DISPLACEMENT = 1 << 16;
+    
+    /**
+     * 槽位对应的关键词名称（大写）
+     */
+    private String[] names;
+    
     /**
-     * 词法关键词Map
+     * 槽位对应的词法关键词
      */
-    private final Map<String, Keyword> tokens = new HashMap<>(1024);
+    private Keyword[] keywords;
+    
+    /**
+     * 桶对应的位移值
+     */
+    private int[] displacements;
+    
+    private int slotMask;
+    
+    private int bucketMask;
     
     public Dictionary(final Keyword... dialectKeywords) {
-
         fill(dialectKeywords);
     }
-
+    
     /**
      * 装上默认词法关键词 + 方言词法关键词
      * 不同的数据库有相同的默认词法关键词，有有不同的方言关键词
@@ -48,14 +75,147 @@ public final class Dictionary {
      * @param dialectKeywords 方言词法关键词
      */
     private void fill(final Keyword... dialectKeywords) {
+        Map<String, Keyword> tokens = new LinkedHashMap<>(1024);
         for (DefaultKeyword each : DefaultKeyword.values()) {
             tokens.put(each.name(), each);
         }
         for (Keyword each : dialectKeywords) {
             tokens.put(each.toString(), each);
         }
+        int slotSize = tableSizeFor(tokens.size());
+        while (!build(tokens, slotSize)) {
+            slotSize <<= 1;
+        }
     }
-
+    
+    private boolean build(final Map<String, Keyword> tokens, final int slotSize) {
+        int bucketSize = tableSizeFor(Math.max(1, slotSize / KEYS_PER_BUCKET));
+        List<List<String>> buckets = new ArrayList<>(bucketSize);
+        for (int i = 0; i < bucketSize; i++) {
+            buckets.add(new ArrayList<String>(KEYS_PER_BUCKET));
+        }
+        for (String each : tokens.keySet()) {
+            buckets.get(bucketIndex(hash(each, 0, each.length()), bucketSize - 1)).add(each);
+        }
+        List<Integer> bucketOrder = new ArrayList<>(bucketSize);
+        for (int i = 0; i < bucketSize; i++) {
+            bucketOrder.add(i);
+        }
+        final List<List<String>> sortingBuckets = buckets;
+        // 大桶优先放置，越往后空槽越少，小桶更容易找到合适的位移值
+        Collections.sort(bucketOrder, new Comparator<Integer>() {
+            
+            @Override
+            public int compare(final Integer o1, final Integer o2) {
+                return sortingBuckets.get(o2).size() - sortingBuckets.get(o1).size();
+            }
+        });
+        String[] names = new String[slotSize];
+        Keyword[] keywords = new Keyword[slotSize];
+        int[] displacements = new int[bucketSize];
+        for (int each : bucketOrder) {
+            List<String> bucket = buckets.get(each);
+            if (bucket.isEmpty()) {
+                break;
+            }
+            int displacement = findDisplacement(bucket, names, slotSize - 1);
+            if (displacement < 0) {
+                return false;
+            }
+            displacements[each] = displacement;
+            for (String name : bucket) {
+                int slot = slotIndex(hash(name, 0, name.length()), displacement, slotSize - 1);
+                names[slot] = name;
+                keywords[slot] = tokens.get(name);
+            }
+        }
+        this.names = names;
+        this.keywords = keywords;
+        this.displacements = displacements;
+        slotMask = slotSize - 1;
+        bucketMask = bucketSize - 1;
+        return true;
+    }
+    
+    private int findDisplacement(final List<String> bucket, final String[] names, final int slotMask) {
+        int[] slots = new int[bucket.size()];
+        for (int displacement = 0; displacement < MAX_DISPLACEMENT; displacement++) {
+            if (isFreeSlots(bucket, names, slotMask, displacement, slots)) {
+                return displacement;
+            }
+        }
+        return -1;
+    }
+    
+    private boolean isFreeSlots(final List<String> bucket, final String[] names, final int slotMask, final int displacement, final int[] slots) {
+        for (int i = 0; i < bucket.size(); i++) {
+            String name = bucket.get(i);
+            slots[i] = slotIndex(hash(name, 0, name.length()), displacement, slotMask);
+            if (null != names[slots[i]]) {
+                return false;
+            }
+            for (int j = 0; j < i; j++) {
+                if (slots[i] == slots[j]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+    
+    private static int tableSizeFor(final int size) {
+        int result = 1;
+        while (result < size) {
+            result <<= 1;
+        }
+        return result;
+    }
+    
+    /**
+     * 不区分大小写的哈希值, 高32位和低32位分别用于选桶和选槽.
+     */
+    private static long hash(final String input, final int offset, final int length) {
+        int h1 = 0;
+        int h2 = 0x811C9DC5;
+        for (int i = offset; i < offset + length; i++) {
+            char ch = toUpperCase(input.charAt(i));
+            h1 = 31 * h1 + ch;
+            h2 = (h2 ^ ch) * 0x01000193;
+        }
+        return (long) h1 << 32 | h2 & 0xFFFFFFFFL;
+    }
+    
+    private static int bucketIndex(final long hash, final int bucketMask) {
+        int h = (int) (hash >>> 32);
+        return (h ^ h >>> 16) & bucketMask;
+    }
+    
+    private static int slotIndex(final long hash, final int displacement, final int slotMask) {
+        int h = (int) hash;
+        return (h ^ h >>> 16) + displacement * ((int) (hash >>> 32) | 1) & slotMask;
+    }
+    
+    private static char toUpperCase(final char ch) {
+        return ch >= 'a' && ch <= 'z' ? (char) (ch - ('a' - 'A')) : ch;
+    }
+    
+    /**
+     * 获得 输入字符串区间 对应的 词法字面量标记
+     * 当不存在时，返回默认词法字面量标记
+     *
+     * @param input 输入字符串
+     * @param offset 区间开始位置
+     * @param length 区间长度
+     * @param defaultTokenType 默认词法字面量标记
+     * @return 词法字面量标记
+     */
+    TokenType findTokenType(final String input, final int offset, final int length, final TokenType defaultTokenType) {
+        long hash = hash(input, offset, length);
+        int slot = slotIndex(hash, displacements[bucketIndex(hash, bucketMask)], slotMask);
+        String name = names[slot];
+        return null != name && name.length() == length && name.regionMatches(true, 0, input, offset, length) ? keywords[slot] : defaultTokenType;
+    }
+    
     /**
      * 获得 词法字面量 对应的 词法字面量标记
      * 当不存在时，返回默认词法字面量标记
@@ -65,10 +225,9 @@ public final class Dictionary {
      * @return 词法字面量标记
      */
     TokenType findTokenType(final String literals, final TokenType defaultTokenType) {
-        String key = null == literals ? null : literals.toUpperCase();
-        return tokens.containsKey(key) ? tokens.get(key) : defaultTokenType; // TODO 直接get，然后判断是否为空
+        return null == literals ? defaultTokenType : findTokenType(literals, 0, literals.length(), defaultTokenType);
     }
-
+    
     /**
      * 获得 词法字面量 对应的 词法字面量标记
      * 当不存在时，抛出 {@link IllegalArgumentException}
@@ -77,10 +236,10 @@ public final class Dictionary {
      * @return 词法字面量标记
      */
     TokenType findTokenType(final String literals) {
-        String key = null == literals ? null : literals.toUpperCase();
-        if (tokens.containsKey(key)) {
-            return tokens.get(key);
+        TokenType result = findTokenType(literals, null);
+        if (null == result) {
+            throw new IllegalArgumentException();
         }
-        throw new IllegalArgumentException();
+        return result;
     }
 }
@@ -18,18 +18,23 @@
 package com.dangdang.ddframe.rdb.sharding.parsing.lexer.analyzer;
 
 import com.dangdang.ddframe.rdb.sharding.parsing.lexer.token.DefaultKeyword;
+import com.dangdang.ddframe.rdb.sharding.parsing.lexer.token.Keyword;
 import com.dangdang.ddframe.rdb.sharding.parsing.lexer.token.Literals;
 import com.dangdang.ddframe.rdb.sharding.parsing.lexer.token.Symbol;
 import com.dangdang.ddframe.rdb.sharding.parsing.lexer.token.Token;
 import com.dangdang.ddframe.rdb.sharding.parsing.lexer.token.TokenType;
-import lombok.RequiredArgsConstructor;
+import lombok.AllArgsConstructor;
 
 /**
  * 词法标记器.
+ * 
+ * <p>
+ * 词法标记器是可移动的扫描游标, 同一个词法解析器在整个SQL的分词过程中复用同一个实例.
+ * </p>
  *
  * @author zhangliang
  */
-@RequiredArgsConstructor
+@AllArgsConstructor
 public final class Tokenizer {
 
     private static final int MYSQL_SPECIAL_COMMENT_BEGIN_SYMBOL_LENGTH = 1;
@@ -53,7 +58,18 @@ public final class Tokenizer {
     /**
      * 输出字符串的开始分词位置
      */
-    private final int offset;
+    private int offset;
+    
+    /**
+     * 移动开始分词位置.
+     *
+     * @param offset 开始分词位置
+     * @return 词法标记器
+     */
+    public Tokenizer moveTo(final int offset) {
+        this.offset = offset;
+        return this;
+    }
 
     /**
      * 跳过空格.
@@ -167,13 +183,32 @@ public final class Tokenizer {
         while (isIdentifierChar(charAt(offset + length))) {
             length++;
         }
-        String literals = input.substring(offset, offset + length);
+        // 从 词法关键词 查找是否是 Keyword，如果是，则返回 Keyword，否则返回 Literals.IDENTIFIER
+        TokenType tokenType = dictionary.findTokenType(input, offset, length, Literals.IDENTIFIER);
+        String literals = getIdentifierLiterals(tokenType, length);
         // 处理 order / group 作为表名
         if (isAmbiguousIdentifier(literals)) {
             return new Token(processAmbiguousIdentifier(offset + length, literals), literals, offset + length);
         }
-        // 从 词法关键词 查找是否是 Keyword，如果是，则返回 Keyword，否则返回 Literals.IDENTIFIER
-        return new Token(dictionary.findTokenType(literals, Literals.IDENTIFIER), literals, offset + length);
+        return new Token(tokenType, literals, offset + length);
+    }
+    
+    /**
+     * 获得标识符字面量
+     * 与关键词大小写完全一致时，直接复用关键词名称，不再截取子串
+     *
+     * @param tokenType 词法标记类型
+     * @param length 标识符长度
+     * @return 标识符字面量
+     */
+    private String getIdentifierLiterals(final TokenType tokenType, final int length) {
+        if (tokenType instanceof Keyword) {
+            String keywordLiterals = tokenType.toString();
+            if (keywordLiterals.length() == length && input.startsWith(keywordLiterals, offset)) {
+                return keywordLiterals;
+            }
+        }
+        return input.substring(offset, offset + length);
     }
 
     /**
@@ -349,13 +384,10 @@ public final class Tokenizer {
         while (CharType.isSymbol(charAt(offset + length))) {
             length++;
         }
-        String literals = input.substring(offset, offset + length);
         // 倒序遍历，查询符合条件的 符号。例如 literals = ";;"，会是拆分成两个 ";"。如果基于正序，literals = "<="，会被解析成 "<" + "="。
-        Symbol symbol;
-        while (null == (symbol = Symbol.literalsOf(literals))) {
-            literals = input.substring(offset, offset + --length);
-        }
-        return new Token(symbol, literals, offset + length);
+        // 直接在输入上匹配，复用符号自身的字面量，不再截取子串
+        Symbol symbol = Symbol.literalsOf(input, offset, length);
+        return new Token(symbol, symbol.getLiterals(), offset + symbol.getLiterals().length());
     }
 
     private char charAt(final int index) {
@@ -20,8 +20,13 @@ package com.dangdang.ddframe.rdb.sharding.parsing.lexer.token;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 
 /**
  * 词法符号标记.
@@ -75,10 +80,34 @@ public enum Symbol implements TokenType {
     
     private static Map<String, Symbol> symbols = new HashMap<>(128);
     
+    /**
+     * 按首字符索引的符号, 每组按字面量长度倒序排列, 用于最长匹配
+     */
+    private static final Symbol[][] SYMBOLS_BY_FIRST_CHAR = new Symbol[128][];
+    
     static {
         for (Symbol each : Symbol.values()) {
             symbols.put(each.getLiterals(), each);
         }
+        Map<Character, List<Symbol>> groups = new HashMap<>(64, 1);
+        for (Symbol each : Symbol.values()) {
+            char first = each.getLiterals().charAt(0);
+            if (!groups.containsKey(first)) {
+                groups.put(first, new ArrayList<Symbol>(4));
+            }
+            groups.get(first).add(each);
+        }
+        for (Entry<Character, List<Symbol>> entry : groups.entrySet()) {
+            List<Symbol> group = entry.getValue();
+            Collections.sort(group, new Comparator<Symbol>() {
+                
+                @Override
+                public int compare(final Symbol o1, final Symbol o2) {
+                    return o2.getLiterals().length() - o1.getLiterals().length();
+                }
+            });
+            SYMBOLS_BY_FIRST_CHAR[entry.getKey()] = group.toArray(new Symbol[group.size()]);
+        }
     }
     
     private final String literals;
@@ -92,4 +121,26 @@ public enum Symbol implements TokenType {
     public static Symbol literalsOf(final String literals) {
         return symbols.get(literals);
     }
+    
+    /**
+     * 从输入的指定位置开始匹配最长的符号.
+     * 
+     * @param input 输入字符串
+     * @param offset 开始位置
+     * @param maxLength 符号字符的最大长度
+     * @return 词法符号
+     */
+    public static Symbol literalsOf(final String input, final int offset, final int maxLength) {
+        char first = input.charAt(offset);
+        Symbol[] candidates = first < SYMBOLS_BY_FIRST_CHAR.length ? SYMBOLS_BY_FIRST_CHAR[first] : null;
+        if (null != candidates) {
+            for (Symbol each : candidates) {
+                int length = each.literals.length();
+                if (length <= maxLength && input.regionMatches(offset, each.literals, 0, length)) {
+                    return each;
+                }
+            }
+        }
+        throw new IllegalArgumentException(String.valueOf(first));
+    }
 }
@@ -29,9 +29,16 @@ import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.limit.LimitValue
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.table.Table;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.table.Tables;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.exception.SQLParsingUnsupportedException;
-import com.dangdang.ddframe.rdb.sharding.parsing.parser.expression.*;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.expression.SQLExpression;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.expression.SQLIdentifierExpression;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.expression.SQLIgnoreExpression;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.expression.SQLNumberExpression;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.expression.SQLPlaceholderExpression;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.expression.SQLPropertyExpression;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.expression.SQLTextExpression;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.SQLStatement;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.dql.select.SelectStatement;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.token.InValuesToken;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.token.OffsetToken;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.token.RowCountToken;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.token.TableToken;
@@ -39,7 +46,9 @@ import com.dangdang.ddframe.rdb.sharding.util.NumberUtil;
 import com.dangdang.ddframe.rdb.sharding.util.SQLUtil;
 import com.google.common.base.Optional;
 import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -52,6 +61,7 @@ import java.util.List;
  * @author zhangliang
  */
 @Getter
+@Slf4j
 public class SQLParser extends AbstractParser {
     
     private final ShardingRule shardingRule;
@@ -69,38 +79,14 @@ public class SQLParser extends AbstractParser {
      * @return 表达式
      */
     public final SQLExpression parseExpression(final SQLStatement sqlStatement) {
-        // 【调试代码】
-        StackTraceElement stack[] = (new Throwable()).getStackTrace();
-        System.out.println();
-        System.out.println(stack[1].getMethodName()); // 调用方法
-        System.out.println("begin：" + getLexer().getCurrentToken().getLiterals());
-
         int beginPosition = getLexer().getCurrentToken().getEndPosition();
         SQLExpression result = parseExpression();
         if (result instanceof SQLPropertyExpression) {
             setTableToken(sqlStatement, beginPosition, (SQLPropertyExpression) result);
         }
-
-        // 【调试代码】
-        System.out.print("end：");
-        if (result instanceof SQLIdentifierExpression) {
-            SQLIdentifierExpression exp = (SQLIdentifierExpression) result;
-            System.out.println(exp.getClass().getSimpleName() + "：" + exp.getName());
-        } else if (result instanceof SQLIgnoreExpression) {
-            SQLIgnoreExpression exp = (SQLIgnoreExpression) result;
-            System.out.println(exp.getClass().getSimpleName() + "：");
-        } else if (result instanceof SQLNumberExpression) {
-            SQLNumberExpression exp = (SQLNumberExpression) result;
-            System.out.println(exp.getClass().getSimpleName() + "：" + exp.getNumber());
-        } else if (result instanceof SQLPropertyExpression) {
-            SQLPropertyExpression exp = (SQLPropertyExpression) result;
-            System.out.println(exp.getClass().getSimpleName() + "：" + exp.getOwner().getName() + "\t" + exp.getName());
-        } else if (result instanceof SQLTextExpression) {
-            SQLTextExpression exp = (SQLTextExpression) result;
-            System.out.println(exp.getClass().getSimpleName() + "：" + exp.getText());
-        }
-        System.out.println();
-        System.out.println();
+        if (log.isTraceEnabled()) {
+            log.trace("Parsed expression: {} ::: {}", result.getClass().getSimpleName(), result);
+        }
         return result;
     }
     
@@ -111,9 +97,6 @@ public class SQLParser extends AbstractParser {
      */
     // TODO 完善Expression解析的各种场景
     public final SQLExpression parseExpression() {
-        if (!(new Throwable()).getStackTrace()[1].getMethodName().equals("parseExpression")) {
-            System.out.println();
-        }
         // 解析表达式
         String literals = getLexer().getCurrentToken().getLiterals();
         final SQLExpression expression = getExpression(literals);
@@ -347,7 +330,7 @@ public class SQLParser extends AbstractParser {
                     && isRowNumberCondition((SelectStatement) sqlStatement, ((SQLPropertyExpression) left).getName())) {
                 parseRowNumberCondition((SelectStatement) sqlStatement);
             } else {
-                parseOtherCondition(sqlStatement);
+                parseRangeCondition(sqlStatement, left);
             }
         } else if (equalAny(Symbol.LT_GT, DefaultKeyword.LIKE)) {
             parseOtherCondition(sqlStatement);
@@ -373,6 +356,26 @@ public class SQLParser extends AbstractParser {
             if (column.isPresent()) {
                 sqlStatement.getConditions().add(new Condition(column.get(), right), shardingRule);
             }
+        } else {
+            addEqualColumns(sqlStatement, left, right);
+        }
+    }
+    
+    /**
+     * 记录等值关联的列, 例如: o.order_id = i.order_id.
+     *
+     * @param sqlStatement SQL语句对象
+     * @param left 左SQLExpression
+     * @param right 右SQLExpression
+     */
+    public final void addEqualColumns(final SQLStatement sqlStatement, final SQLExpression left, final SQLExpression right) {
+        if (!(left instanceof SQLPropertyExpression) || !(right instanceof SQLPropertyExpression)) {
+            return;
+        }
+        Optional<Column> leftColumn = find(sqlStatement.getTables(), left);
+        Optional<Column> rightColumn = find(sqlStatement.getTables(), right);
+        if (leftColumn.isPresent() && rightColumn.isPresent()) {
+            sqlStatement.getConditions().addEqualColumns(leftColumn.get(), rightColumn.get(), shardingRule);
         }
     }
 
@@ -385,22 +388,52 @@ public class SQLParser extends AbstractParser {
     private void parseInCondition(final SQLStatement sqlStatement, final SQLExpression left) {
         // 解析 IN 条件
         getLexer().nextToken();
+        int valuesBeginPosition = getLexer().getCurrentToken().getEndPosition();
         accept(Symbol.LEFT_PAREN);
         List<SQLExpression> rights = new LinkedList<>();
+        List<String> values = new LinkedList<>();
+        int valueBeginPosition = valuesBeginPosition;
         do {
             if (equalAny(Symbol.COMMA)) {
+                valueBeginPosition = getLexer().getCurrentToken().getEndPosition();
                 getLexer().nextToken();
             }
             rights.add(parseExpression(sqlStatement));
+            if (equalAny(Symbol.COMMA, Symbol.RIGHT_PAREN)) {
+                values.add(getLexer().getInput().substring(valueBeginPosition, getLexer().getCurrentToken().getEndPosition() - 1).trim());
+            }
         } while (!equalAny(Symbol.RIGHT_PAREN));
+        int valuesEndPosition = getLexer().getCurrentToken().getEndPosition() - 1;
         // 添加列
         Optional<Column> column = find(sqlStatement.getTables(), left);
         if (column.isPresent()) {
             sqlStatement.getConditions().add(new Condition(column.get(), rights), shardingRule);
+            if (shardingRule.isShardingColumn(column.get()) && values.size() == rights.size()) {
+                addInValuesToken(sqlStatement, column.get(), rights, values, valuesBeginPosition, valuesEndPosition);
+            }
         }
         // 解析下一个 TOKEN
         getLexer().nextToken();
     }
+    
+    /**
+     * 添加 IN 条件值标记, 仅当全部值都是数字, 字符串或占位符时才能按分片拆分
+     */
+    private void addInValuesToken(final SQLStatement sqlStatement, final Column column, final List<SQLExpression> rights, final List<String> values, 
+                                  final int valuesBeginPosition, final int valuesEndPosition) {
+        List<Integer> parameterIndexes = new ArrayList<>(rights.size());
+        for (SQLExpression each : rights) {
+            if (each instanceof SQLPlaceholderExpression) {
+                parameterIndexes.add(((SQLPlaceholderExpression) each).getIndex());
+            } else if (each instanceof SQLNumberExpression || each instanceof SQLTextExpression) {
+                parameterIndexes.add(-1);
+            } else {
+                return;
+            }
+        }
+        sqlStatement.getSqlTokens().add(new InValuesToken(valuesBeginPosition, getLexer().getInput().substring(valuesBeginPosition, valuesEndPosition), 
+                column, new ArrayList<>(values), parameterIndexes));
+    }
 
     /**
      * 解析 BETWEEN 条件
@@ -422,6 +455,26 @@ public class SQLParser extends AbstractParser {
         }
     }
     
+    /**
+     * 解析 {@code <}, {@code <=}, {@code >}, {@code >=} 条件
+     *
+     * @param sqlStatement SQL
+     * @param left 左SQLExpression
+     */
+    private void parseRangeCondition(final SQLStatement sqlStatement, final SQLExpression left) {
+        Symbol symbol = (Symbol) getLexer().getCurrentToken().getType();
+        getLexer().nextToken();
+        SQLExpression right = parseExpression(sqlStatement);
+        if ((sqlStatement.getTables().isSingleTable() || left instanceof SQLPropertyExpression)
+                && (right instanceof SQLNumberExpression || right instanceof SQLTextExpression || right instanceof SQLPlaceholderExpression)) {
+            Optional<Column> column = find(sqlStatement.getTables(), left);
+            // 仅支持单侧边界区间的分片算法使用比较运算符路由, 其他分片算法仍全路由
+            if (column.isPresent() && shardingRule.isOpenRangeShardingColumn(column.get())) {
+                sqlStatement.getConditions().add(new Condition(column.get(), symbol, right), shardingRule);
+            }
+        }
+    }
+    
     protected boolean isRowNumberCondition(final SelectStatement selectStatement, final String columnLabel) {
         return false;
     }
@@ -455,7 +508,7 @@ public class SQLParser extends AbstractParser {
     }
 
     /**
-     * 解析其他条件。目前其他条件包含 LIKE, <, <=, >, >=
+     * 解析其他条件。目前其他条件包含 LIKE, {@code <>}
      *
      * @param sqlStatement SQL
      */
@@ -80,6 +80,23 @@ public final class OrderItem {
         alias = Optional.absent();
     }
     
+    private OrderItem(final OrderItem template) {
+        owner = template.owner;
+        name = template.name;
+        type = template.type;
+        index = template.index;
+        alias = template.alias;
+    }
+    
+    /**
+     * 复制排序项.
+     * 
+     * @return 排序项副本
+     */
+    public OrderItem copy() {
+        return new OrderItem(this);
+    }
+    
     /**
      * 获取列标签.
      *
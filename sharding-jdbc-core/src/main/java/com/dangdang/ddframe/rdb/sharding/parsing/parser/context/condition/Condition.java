@@ -3,6 +3,7 @@ package com.dangdang.ddframe.rdb.sharding.parsing.parser.context.condition;
 import com.dangdang.ddframe.rdb.sharding.api.ShardingValue;
 import com.dangdang.ddframe.rdb.sharding.constant.ShardingOperator;
 import com.dangdang.ddframe.rdb.sharding.exception.ShardingJdbcException;
+import com.dangdang.ddframe.rdb.sharding.parsing.lexer.token.Symbol;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.expression.SQLExpression;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.expression.SQLNumberExpression;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.expression.SQLPlaceholderExpression;
@@ -15,6 +16,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.ToString;
 import lombok.Getter;
 
+import java.math.BigDecimal;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -44,6 +46,22 @@ public final class Condition {
     
     private final Map<Integer, Integer> positionIndexMap = new LinkedHashMap<>();
     
+    /**
+     * 区间条件的下界类型, 下界位于位置0
+     */
+    private BoundType lowerBoundType = BoundType.CLOSED;
+    
+    /**
+     * 区间条件的上界类型, 上界位于位置1
+     */
+    private BoundType upperBoundType = BoundType.CLOSED;
+    
+    /**
+     * 是否为比较运算符构造的区间条件
+     */
+    @Getter
+    private boolean comparison;
+    
     public Condition(final Column column, final SQLExpression sqlExpression) {
         this(column, ShardingOperator.EQUAL);
         init(sqlExpression, 0);
@@ -55,6 +73,36 @@ public final class Condition {
         init(endSQLExpression, 1);
     }
     
+    /**
+     * 构造单侧边界的区间条件, 例如: {@code create_time >= ?}.
+     * 
+     * @param column 列对象
+     * @param symbol 比较运算符, 支持{@code <}, {@code <=}, {@code >}和{@code >=}
+     * @param sqlExpression 边界的SQL表达式
+     */
+    public Condition(final Column column, final Symbol symbol, final SQLExpression sqlExpression) {
+        this(column, ShardingOperator.BETWEEN);
+        comparison = true;
+        switch (symbol) {
+            case GT:
+                lowerBoundType = BoundType.OPEN;
+                init(sqlExpression, 0);
+                break;
+            case GT_EQ:
+                init(sqlExpression, 0);
+                break;
+            case LT:
+                upperBoundType = BoundType.OPEN;
+                init(sqlExpression, 1);
+                break;
+            case LT_EQ:
+                init(sqlExpression, 1);
+                break;
+            default:
+                throw new UnsupportedOperationException(symbol.getLiterals());
+        }
+    }
+    
     public Condition(final Column column, final List<SQLExpression> sqlExpressions) {
         this(column, ShardingOperator.IN);
         int count = 0;
@@ -64,6 +112,67 @@ public final class Condition {
         }
     }
     
+    /**
+     * 获取条件值相同但作用于其他列的条件对象.
+     *
+     * @param column 列对象
+     * @return 作用于该列的条件对象
+     */
+    public Condition replaceColumn(final Column column) {
+        Condition result = new Condition(column, operator);
+        result.positionValueMap.putAll(positionValueMap);
+        result.positionIndexMap.putAll(positionIndexMap);
+        result.lowerBoundType = lowerBoundType;
+        result.upperBoundType = upperBoundType;
+        result.comparison = comparison;
+        return result;
+    }
+    
+    /**
+     * 判断是否为区间条件.
+     * 
+     * @return 是否为区间条件
+     */
+    public boolean isRange() {
+        return ShardingOperator.BETWEEN == operator;
+    }
+    
+    /**
+     * 合并同一列上的区间条件.
+     * 
+     * <p>
+     * 例如: {@code create_time >= ? AND create_time < ?}合并为一个区间.
+     * 两个条件均有下界或上界时保留当前条件的边界, 路由范围可能大于实际区间, 但不会遗漏数据.
+     * </p>
+     * 
+     * @param other 同一列上的另一个区间条件
+     * @return 合并后的区间条件
+     */
+    public Condition mergeRange(final Condition other) {
+        Condition result = new Condition(column, ShardingOperator.BETWEEN);
+        result.comparison = comparison && other.comparison;
+        Condition lowerBoundCondition = hasEndpoint(0) ? this : other;
+        Condition upperBoundCondition = hasEndpoint(1) ? this : other;
+        result.copyEndpoint(lowerBoundCondition, 0);
+        result.lowerBoundType = lowerBoundCondition.lowerBoundType;
+        result.copyEndpoint(upperBoundCondition, 1);
+        result.upperBoundType = upperBoundCondition.upperBoundType;
+        return result;
+    }
+    
+    private boolean hasEndpoint(final int position) {
+        return positionValueMap.containsKey(position) || positionIndexMap.containsKey(position);
+    }
+    
+    private void copyEndpoint(final Condition condition, final int position) {
+        if (condition.positionValueMap.containsKey(position)) {
+            positionValueMap.put(position, condition.positionValueMap.get(position));
+        }
+        if (condition.positionIndexMap.containsKey(position)) {
+            positionIndexMap.put(position, condition.positionIndexMap.get(position));
+        }
+    }
+    
     private void init(final SQLExpression sqlExpression, final int position) {
         if (sqlExpression instanceof SQLPlaceholderExpression) {
             positionIndexMap.put(position, ((SQLPlaceholderExpression) sqlExpression).getIndex());
@@ -80,20 +189,63 @@ public final class Condition {
      * @param parameters 参数列表
      * @return 分片值
      */
+    @SuppressWarnings("unchecked")
     public ShardingValue<?> getShardingValue(final List<Object> parameters) {
-        List<Comparable<?>> conditionValues = getValues(parameters);
         switch (operator) {
             case EQUAL:
-                return new ShardingValue<Comparable<?>>(column.getTableName(), column.getName(), conditionValues.get(0));
+                return new ShardingValue<Comparable<?>>(column.getTableName(), column.getName(), getValues(parameters).get(0));
             case IN:
-                return new ShardingValue<>(column.getTableName(), column.getName(), conditionValues);
+                return new ShardingValue<>(column.getTableName(), column.getName(), getValues(parameters));
             case BETWEEN:
-                return new ShardingValue<>(column.getTableName(), column.getName(), Range.range(conditionValues.get(0), BoundType.CLOSED, conditionValues.get(1), BoundType.CLOSED));
+                return new ShardingValue<Comparable<?>>(column.getTableName(), column.getName(), getRange(parameters));
             default:
                 throw new UnsupportedOperationException(operator.getExpression());
         }
     }
     
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private Range getRange(final List<Object> parameters) {
+        Comparable lowerEndpoint = getEndpoint(0, parameters);
+        Comparable upperEndpoint = getEndpoint(1, parameters);
+        if (null != lowerEndpoint && null != upperEndpoint) {
+            if (lowerEndpoint instanceof Number && upperEndpoint instanceof Number && lowerEndpoint.getClass() != upperEndpoint.getClass()) {
+                lowerEndpoint = toBigDecimal((Number) lowerEndpoint);
+                upperEndpoint = toBigDecimal((Number) upperEndpoint);
+            }
+            int compareResult = lowerEndpoint.compareTo(upperEndpoint);
+            // 下界大于上界的区间不包含任何值
+            if (compareResult > 0 || 0 == compareResult && (BoundType.OPEN == lowerBoundType || BoundType.OPEN == upperBoundType)) {
+                return Range.closedOpen(lowerEndpoint, lowerEndpoint);
+            }
+            return Range.range(lowerEndpoint, lowerBoundType, upperEndpoint, upperBoundType);
+        }
+        if (null != lowerEndpoint) {
+            return Range.downTo(lowerEndpoint, lowerBoundType);
+        }
+        if (null != upperEndpoint) {
+            return Range.upTo(upperEndpoint, upperBoundType);
+        }
+        return Range.all();
+    }
+    
+    private BigDecimal toBigDecimal(final Number number) {
+        return number instanceof BigDecimal ? (BigDecimal) number : new BigDecimal(number.toString());
+    }
+    
+    private Comparable<?> getEndpoint(final int position, final List<Object> parameters) {
+        if (positionValueMap.containsKey(position)) {
+            return positionValueMap.get(position);
+        }
+        if (!positionIndexMap.containsKey(position)) {
+            return null;
+        }
+        Object parameter = parameters.get(positionIndexMap.get(position));
+        if (!(parameter instanceof Comparable<?>)) {
+            throw new ShardingJdbcException("Parameter `%s` should extends Comparable for sharding value.", parameter);
+        }
+        return (Comparable<?>) parameter;
+    }
+    
     private List<Comparable<?>> getValues(final List<Object> parameters) {
         List<Comparable<?>> result = new LinkedList<>(positionValueMap.values());
         for (Entry<Integer, Integer> entry : positionIndexMap.entrySet()) {
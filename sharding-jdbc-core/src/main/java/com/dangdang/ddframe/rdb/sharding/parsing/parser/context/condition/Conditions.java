@@ -2,22 +2,44 @@ package com.dangdang.ddframe.rdb.sharding.parsing.parser.context.condition;
 
 import com.dangdang.ddframe.rdb.sharding.api.rule.ShardingRule;
 import com.google.common.base.Optional;
-import lombok.RequiredArgsConstructor;
 import lombok.ToString;
 
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.Set;
 
 /**
  * 条件对象集合.
  *
  * @author zhangliang
  */
-@RequiredArgsConstructor
 @ToString
 public final class Conditions {
     
-    private final Map<Column, Condition> conditions = new LinkedHashMap<>();
+    private final Map<Column, Condition> conditions;
+    
+    /**
+     * 等值关联的分片列, 例如: o.order_id = i.order_id, 双向记录
+     */
+    private final Map<Column, Set<Column>> equalColumns;
+    
+    public Conditions() {
+        conditions = new LinkedHashMap<>();
+        equalColumns = new LinkedHashMap<>();
+    }
+    
+    public Conditions(final Conditions conditions) {
+        this.conditions = new LinkedHashMap<>(conditions.conditions);
+        equalColumns = new LinkedHashMap<>(conditions.equalColumns.size());
+        for (Entry<Column, Set<Column>> entry : conditions.equalColumns.entrySet()) {
+            equalColumns.put(entry.getKey(), new LinkedHashSet<>(entry.getValue()));
+        }
+    }
     
     /**
      * 添加条件对象.
@@ -28,9 +50,16 @@ public final class Conditions {
     // TODO 添加condition时进行判断, 比如:如果以存在 等于操作 的condition, 而已存在包含 =符号 的相同column的condition, 则不添加现有的condition, 而且删除原有condition
     public void add(final Condition condition, final ShardingRule shardingRule) {
         // TODO 自关联有问题，表名可考虑使用别名对应
-        if (shardingRule.isShardingColumn(condition.getColumn())) {
+        if (!shardingRule.isShardingColumn(condition.getColumn())) {
+            return;
+        }
+        Condition existed = conditions.get(condition.getColumn());
+        if (null == existed || !condition.isRange() || !condition.isComparison() && existed.isRange()) {
             conditions.put(condition.getColumn(), condition);
+        } else if (existed.isComparison()) {
+            conditions.put(condition.getColumn(), existed.mergeRange(condition));
         }
+        // 已存在 = 或 IN 条件时忽略区间条件, 路由范围更小; BETWEEN 条件优先于比较运算符构造的区间条件
     }
     
     // TODO 引入mockito时去掉该方法
@@ -38,6 +67,34 @@ public final class Conditions {
         conditions.put(condition.getColumn(), condition);
     }
     
+    /**
+     * 添加等值关联的列.
+     * 
+     * <p>
+     * 仅记录不同表的分片列之间的关联, 用于将一侧的分片条件推导至另一侧.
+     * </p>
+     *
+     * @param left 左侧列
+     * @param right 右侧列
+     * @param shardingRule 分库分表规则配置对象
+     */
+    public void addEqualColumns(final Column left, final Column right, final ShardingRule shardingRule) {
+        if (left.getTableName().equalsIgnoreCase(right.getTableName()) || !shardingRule.isShardingColumn(left) || !shardingRule.isShardingColumn(right)) {
+            return;
+        }
+        putEqualColumn(left, right);
+        putEqualColumn(right, left);
+    }
+    
+    private void putEqualColumn(final Column column, final Column equalColumn) {
+        Set<Column> columns = equalColumns.get(column);
+        if (null == columns) {
+            columns = new LinkedHashSet<>();
+            equalColumns.put(column, columns);
+        }
+        columns.add(equalColumn);
+    }
+    
     /**
      * 判断条件对象是否为空.
      * 
@@ -54,6 +111,41 @@ public final class Conditions {
      * @return 条件对象
      */
     public Optional<Condition> find(final Column column) {
-        return Optional.fromNullable(conditions.get(column));
+        Condition result = conditions.get(column);
+        if (null != result || equalColumns.isEmpty()) {
+            return Optional.fromNullable(result);
+        }
+        return findFromEqualColumns(column);
+    }
+    
+    /**
+     * 沿等值关联的列查找条件对象, 并推导为该列的条件.
+     * 例如: o.order_id = i.order_id AND o.order_id = 1, 可推导出 i.order_id = 1.
+     *
+     * @param column 列对象
+     * @return 推导出的条件对象
+     */
+    private Optional<Condition> findFromEqualColumns(final Column column) {
+        Set<Column> visitedColumns = new HashSet<>();
+        visitedColumns.add(column);
+        Queue<Column> columns = new LinkedList<>();
+        columns.add(column);
+        while (!columns.isEmpty()) {
+            Set<Column> currentEqualColumns = equalColumns.get(columns.poll());
+            if (null == currentEqualColumns) {
+                continue;
+            }
+            for (Column each : currentEqualColumns) {
+                if (!visitedColumns.add(each)) {
+                    continue;
+                }
+                Condition condition = conditions.get(each);
+                if (null != condition) {
+                    return Optional.of(condition.replaceColumn(column));
+                }
+                columns.add(each);
+            }
+        }
+        return Optional.absent();
     }
 }
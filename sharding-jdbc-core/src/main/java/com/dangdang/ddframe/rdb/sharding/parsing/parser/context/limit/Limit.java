@@ -70,6 +70,22 @@ public final class Limit {
         return null != rowCount ? rowCount.getValue() : -1;
     }
     
+    /**
+     * 复制分页对象.
+     * 
+     * @return 分页对象副本
+     */
+    public Limit copy() {
+        Limit result = new Limit(rowCountRewriteFlag);
+        if (null != offset) {
+            result.offset = new LimitValue(offset.getValue(), offset.getIndex());
+        }
+        if (null != rowCount) {
+            result.rowCount = new LimitValue(rowCount.getValue(), rowCount.getIndex());
+        }
+        return result;
+    }
+    
     /**
      * 填充改写分页参数.
      *
@@ -74,4 +74,18 @@ public final class AggregationSelectItem implements SelectItem {
     public String getColumnLabel() {
         return alias.isPresent() ? alias.get() : getExpression();
     }
+    
+    /**
+     * 复制聚合选择项.
+     * 
+     * @return 聚合选择项副本
+     */
+    public AggregationSelectItem copy() {
+        AggregationSelectItem result = new AggregationSelectItem(type, innerExpression, alias);
+        for (AggregationSelectItem each : derivedAggregationSelectItems) {
+            result.derivedAggregationSelectItems.add(each.copy());
+        }
+        result.index = index;
+        return result;
+    }
 }
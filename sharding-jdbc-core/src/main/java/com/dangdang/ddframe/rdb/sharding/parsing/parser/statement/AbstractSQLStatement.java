@@ -21,21 +21,22 @@ import com.dangdang.ddframe.rdb.sharding.constant.SQLType;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.condition.Conditions;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.table.Tables;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.token.SQLToken;
+import com.dangdang.ddframe.rdb.sharding.rewrite.SQLRewriteTemplate;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.ToString;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * SQL语句对象抽象类.
  *
  * @author zhangliang
  */
-@RequiredArgsConstructor
 @Getter
-@ToString
+@ToString(exclude = "rewriteTemplate")
 public abstract class AbstractSQLStatement implements SQLStatement {
 
     /**
@@ -45,16 +46,49 @@ public abstract class AbstractSQLStatement implements SQLStatement {
     /**
      * 表
      */
-    private final Tables tables = new Tables();
+    private final Tables tables;
     /**
      * 过滤条件。
      * 只有对路由结果有影响的条件，才添加进数组
      */
-    private final Conditions conditions = new Conditions();
+    private final Conditions conditions;
     /**
      * SQL标记对象
      */
-    private final List<SQLToken> sqlTokens = new LinkedList<>();
+    private final List<SQLToken> sqlTokens;
+    /**
+     * 解析到的占位符数量
+     */
+    @Setter
+    private int parametersIndex;
+    /**
+     * SQL改写模板, 副本间共享
+     */
+    private final AtomicReference<SQLRewriteTemplate> rewriteTemplate;
+    
+    protected AbstractSQLStatement(final SQLType type) {
+        this.type = type;
+        tables = new Tables();
+        conditions = new Conditions();
+        sqlTokens = new LinkedList<>();
+        rewriteTemplate = new AtomicReference<>();
+    }
+    
+    /**
+     * 根据解析模板复制SQL语句对象.
+     * 表集合解析完成后不再变化, 可以共享; 条件对象和SQL标记对象在路由前仍会追加(如自增主键), 需要复制.
+     * SQL改写模板共享, 使模板只编译一次.
+     *
+     * @param template SQL语句对象模板
+     */
+    protected AbstractSQLStatement(final AbstractSQLStatement template) {
+        type = template.type;
+        tables = template.tables;
+        conditions = new Conditions(template.conditions);
+        sqlTokens = new LinkedList<>(template.sqlTokens);
+        parametersIndex = template.parametersIndex;
+        rewriteTemplate = template.rewriteTemplate;
+    }
     
     @Override
     public final SQLType getType() {
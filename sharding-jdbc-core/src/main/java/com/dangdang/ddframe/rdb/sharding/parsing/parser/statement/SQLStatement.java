@@ -21,8 +21,10 @@ import com.dangdang.ddframe.rdb.sharding.constant.SQLType;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.condition.Conditions;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.table.Tables;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.token.SQLToken;
+import com.dangdang.ddframe.rdb.sharding.rewrite.SQLRewriteTemplate;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * SQL语句对象.
@@ -58,4 +60,40 @@ public interface SQLStatement {
      * @return SQL标记集合
      */
     List<SQLToken> getSqlTokens();
+    
+    /**
+     * 获取解析到的占位符数量.
+     * 
+     * @return 解析到的占位符数量
+     */
+    int getParametersIndex();
+    
+    /**
+     * 设置解析到的占位符数量.
+     * 
+     * @param parametersIndex 解析到的占位符数量
+     */
+    void setParametersIndex(int parametersIndex);
+    
+    /**
+     * 获取SQL改写模板.
+     * 
+     * <p>
+     * 同一解析结果的副本共享, 第一次改写时填充.
+     * </p>
+     * 
+     * @return SQL改写模板
+     */
+    AtomicReference<SQLRewriteTemplate> getRewriteTemplate();
+    
+    /**
+     * 复制SQL语句对象.
+     * 
+     * <p>
+     * 路由和归并会修改SQL语句对象(分页参数, 自增主键, 归并列索引等), 缓存的解析结果只作为模板, 每次执行使用独立的副本.
+     * </p>
+     * 
+     * @return SQL语句对象副本
+     */
+    SQLStatement copy();
 }
@@ -25,16 +25,18 @@ import com.dangdang.ddframe.rdb.sharding.parsing.lexer.token.Symbol;
 import com.dangdang.ddframe.rdb.sharding.parsing.lexer.token.TokenType;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.SQLParser;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.GeneratedKey;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.InsertValue;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.condition.Column;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.condition.Condition;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.exception.SQLParsingException;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.exception.SQLParsingUnsupportedException;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.expression.SQLExpression;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.expression.SQLNumberExpression;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.expression.SQLPlaceholderExpression;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.SQLStatementParser;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.dml.DMLStatement;
-import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.dml.DMLStatement;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.token.GeneratedKeyToken;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.token.InsertValuesToken;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.token.ItemsToken;
 import com.dangdang.ddframe.rdb.sharding.util.SQLUtil;
 import com.google.common.base.Optional;
@@ -196,34 +198,50 @@ public abstract class AbstractInsertParser implements SQLStatementParser {
      * 解析值字段
      */
     private void parseValues() {
-        boolean parsed = false;
+        int valuesBeginPosition = -1;
+        int valuesEndPosition = -1;
+        List<String> values = new LinkedList<>();
         do {
-            if (parsed) { // 只允许INSERT INTO 一条
-                throw new UnsupportedOperationException("Cannot support multiple insert");
-            }
             sqlParser.getLexer().nextToken();
+            int valueBeginPosition = sqlParser.getLexer().getCurrentToken().getEndPosition() - Symbol.LEFT_PAREN.getLiterals().length();
+            if (-1 == valuesBeginPosition) {
+                valuesBeginPosition = valueBeginPosition;
+            }
             sqlParser.accept(Symbol.LEFT_PAREN);
             // 解析表达式
             List<SQLExpression> sqlExpressions = new LinkedList<>();
             do {
                 sqlExpressions.add(sqlParser.parseExpression());
             } while (sqlParser.skipIfEqual(Symbol.COMMA));
-            //
-            insertStatement.setValuesListLastPosition(sqlParser.getLexer().getCurrentToken().getEndPosition() - sqlParser.getLexer().getCurrentToken().getLiterals().length());
-            // 解析值字段
-            int count = 0;
-            for (Column each : insertStatement.getColumns()) {
-                SQLExpression sqlExpression = sqlExpressions.get(count);
-                insertStatement.getConditions().add(new Condition(each, sqlExpression), shardingRule);
-                if (generateKeyColumnIndex == count) { // 自动生成键
-                    insertStatement.setGeneratedKey(createGeneratedKey(each, sqlExpression));
-                }
-                count++;
+            if (insertStatement.getInsertValues().isEmpty()) {
+                parseFirstValue(sqlExpressions);
+            } else if (sqlExpressions.size() != insertStatement.getInsertValues().get(0).getSqlExpressions().size()) {
+                throw new SQLParsingException("Column count doesn't match value count of multiple insert.");
             }
+            insertStatement.getInsertValues().add(new InsertValue(sqlExpressions));
+            valuesEndPosition = sqlParser.getLexer().getCurrentToken().getEndPosition();
+            values.add(sqlParser.getLexer().getInput().substring(valueBeginPosition, valuesEndPosition));
             sqlParser.accept(Symbol.RIGHT_PAREN);
-            parsed = true;
         }
         while (sqlParser.equalAny(Symbol.COMMA)); // 字段以 "," 分隔
+        // 多值插入按行拆分至各分片
+        if (insertStatement.isMultipleValues()) {
+            insertStatement.getSqlTokens().add(new InsertValuesToken(valuesBeginPosition, sqlParser.getLexer().getInput().substring(valuesBeginPosition, valuesEndPosition), values));
+        }
+    }
+    
+    private void parseFirstValue(final List<SQLExpression> sqlExpressions) {
+        insertStatement.setValuesListLastPosition(sqlParser.getLexer().getCurrentToken().getEndPosition() - sqlParser.getLexer().getCurrentToken().getLiterals().length());
+        // 解析值字段
+        int count = 0;
+        for (Column each : insertStatement.getColumns()) {
+            SQLExpression sqlExpression = sqlExpressions.get(count);
+            insertStatement.getConditions().add(new Condition(each, sqlExpression), shardingRule);
+            if (generateKeyColumnIndex == count) { // 自动生成键
+                insertStatement.setGeneratedKey(createGeneratedKey(each, sqlExpression));
+            }
+            count++;
+        }
     }
 
     /**
@@ -266,6 +284,10 @@ public abstract class AbstractInsertParser implements SQLStatementParser {
         ItemsToken columnsToken = new ItemsToken(insertStatement.getColumnsListLastPosition());
         columnsToken.getItems().add(generateKeyColumn.get());
         insertStatement.getSqlTokens().add(columnsToken);
+        // 多值插入时, 每行的自增主键在路由时生成
+        if (insertStatement.isMultipleValues()) {
+            return;
+        }
         // GeneratedKeyToken
         insertStatement.getSqlTokens().add(new GeneratedKeyToken(insertStatement.getValuesListLastPosition()));
     }
@@ -20,6 +20,7 @@ package com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.dml.insert;
 import com.dangdang.ddframe.rdb.sharding.api.rule.ShardingRule;
 import com.dangdang.ddframe.rdb.sharding.api.rule.TableRule;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.GeneratedKey;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.InsertValue;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.condition.Column;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.condition.Condition;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.expression.SQLNumberExpression;
@@ -35,6 +36,7 @@ import lombok.ToString;
 
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.List;
 
 /**
  * Insert SQL语句对象.
@@ -43,10 +45,14 @@ import java.util.LinkedList;
  */
 @Getter
 @Setter
-@ToString
+@ToString(exclude = "insertValues")
 public final class InsertStatement extends DMLStatement {
     
     private final Collection<Column> columns = new LinkedList<>();
+    /**
+     * 插入值, 多值插入时每行一个
+     */
+    private final List<InsertValue> insertValues = new LinkedList<>();
     /**
      * 自动生成键
      */
@@ -59,6 +65,23 @@ public final class InsertStatement extends DMLStatement {
      * 值字段 下一个Token 开始位置
      */
     private int valuesListLastPosition;
+    
+    public InsertStatement() {
+    }
+    
+    private InsertStatement(final InsertStatement template) {
+        super(template);
+        columns.addAll(template.columns);
+        insertValues.addAll(template.insertValues);
+        generatedKey = template.generatedKey;
+        columnsListLastPosition = template.columnsListLastPosition;
+        valuesListLastPosition = template.valuesListLastPosition;
+    }
+    
+    @Override
+    public InsertStatement copy() {
+        return new InsertStatement(this);
+    }
 
     /**
      * 追加自增主键标记对象.
@@ -114,6 +137,15 @@ public final class InsertStatement extends DMLStatement {
         generatedKey = new GeneratedKey(tableRule.getGenerateKeyColumn(), parametersSize, null);
     }
     
+    /**
+     * 判断是否为多值插入.
+     *
+     * @return 是否为多值插入
+     */
+    public boolean isMultipleValues() {
+        return insertValues.size() > 1;
+    }
+    
     private Optional<GeneratedKeyToken> findGeneratedKeyToken() {
         for (SQLToken each : getSqlTokens()) {
             if (each instanceof GeneratedKeyToken) {
@@ -478,9 +478,11 @@ public abstract class AbstractSelectParser implements SQLStatementParser {
             parseTable();
             if (sqlParser.skipIfEqual(DefaultKeyword.ON)) { // JOIN 表时 ON 条件
                 do {
-                    parseTableCondition(sqlParser.getLexer().getCurrentToken().getEndPosition());
+                    SQLExpression left = parseTableCondition(sqlParser.getLexer().getCurrentToken().getEndPosition());
                     sqlParser.accept(Symbol.EQ);
-                    parseTableCondition(sqlParser.getLexer().getCurrentToken().getEndPosition() - sqlParser.getLexer().getCurrentToken().getLiterals().length());
+                    SQLExpression right = parseTableCondition(sqlParser.getLexer().getCurrentToken().getEndPosition() - sqlParser.getLexer().getCurrentToken().getLiterals().length());
+                    // 记录关联的分片列, 用于推导另一侧的分片条件
+                    sqlParser.addEqualColumns(selectStatement, left, right);
                 } while (sqlParser.skipIfEqual(DefaultKeyword.AND));
             } else if (sqlParser.skipIfEqual(DefaultKeyword.USING)) { // JOIN 表时 USING 为使用两表相同字段相同时对 ON 的简化。例如以下两条 SQL 等价：
                                                                         // SELECT * FROM t_order o JOIN t_order_item i USING (order_id);
@@ -495,16 +497,18 @@ public abstract class AbstractSelectParser implements SQLStatementParser {
      * 解析 ON 条件里的 TableToken
      *
      * @param startPosition 开始位置
+     * @return 表达式
      */
-    private void parseTableCondition(final int startPosition) {
-        SQLExpression sqlExpression = sqlParser.parseExpression();
-        if (!(sqlExpression instanceof SQLPropertyExpression)) {
-            return;
+    private SQLExpression parseTableCondition(final int startPosition) {
+        SQLExpression result = sqlParser.parseExpression();
+        if (!(result instanceof SQLPropertyExpression)) {
+            return result;
         }
-        SQLPropertyExpression sqlPropertyExpression = (SQLPropertyExpression) sqlExpression;
+        SQLPropertyExpression sqlPropertyExpression = (SQLPropertyExpression) result;
         if (selectStatement.getTables().getTableNames().contains(SQLUtil.getExactlyValue(sqlPropertyExpression.getOwner().getName()))) {
             selectStatement.getSqlTokens().add(new TableToken(startPosition, sqlPropertyExpression.getOwner().getName()));
         }
+        return result;
     }
 
     /**
@@ -27,6 +27,7 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -80,6 +81,37 @@ public final class SelectStatement extends DQLStatement {
      * 分页
      */
     private Limit limit;
+    
+    public SelectStatement() {
+    }
+    
+    private SelectStatement(final SelectStatement template) {
+        super(template);
+        distinct = template.distinct;
+        containStar = template.containStar;
+        containSubQuery = template.containSubQuery;
+        selectListLastPosition = template.selectListLastPosition;
+        groupByLastPosition = template.groupByLastPosition;
+        for (SelectItem each : template.items) {
+            items.add(each instanceof AggregationSelectItem ? ((AggregationSelectItem) each).copy() : each);
+        }
+        // 无 ORDER BY 时排序项与分组项为同一对象, 复制时保持共享
+        Map<OrderItem, OrderItem> copiedOrderItems = new IdentityHashMap<>(template.groupByItems.size());
+        for (OrderItem each : template.groupByItems) {
+            OrderItem copied = each.copy();
+            copiedOrderItems.put(each, copied);
+            groupByItems.add(copied);
+        }
+        for (OrderItem each : template.orderByItems) {
+            orderByItems.add(copiedOrderItems.containsKey(each) ? copiedOrderItems.get(each) : each.copy());
+        }
+        limit = null == template.limit ? null : template.limit.copy();
+    }
+    
+    @Override
+    public SelectStatement copy() {
+        return new SelectStatement(this);
+    }
 
     /**
      * 获取聚合选择项集合.
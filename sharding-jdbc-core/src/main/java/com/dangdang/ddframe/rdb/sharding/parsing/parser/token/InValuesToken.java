@@ -0,0 +1,66 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.parsing.parser.token;
+
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.condition.Column;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * IN条件值标记对象.
+ * 
+ * <p>
+ * 分片列的IN条件值列表: SELECT * FROM t_order WHERE order_id IN (?, ?, ?) 的 ?, ?, ?.
+ * 路由时可以按分片拆分IN条件值列表, 每个分片只携带路由至该分片的值.
+ * </p>
+ *
+ * @author zhangliang
+ */
+@RequiredArgsConstructor
+@Getter
+@ToString
+public final class InValuesToken implements ValuesListToken {
+    
+    /**
+     * 开始位置, 左括号之后
+     */
+    private final int beginPosition;
+    
+    /**
+     * 原始字面量, 左右括号之间的全部内容
+     */
+    private final String originalLiterals;
+    
+    /**
+     * 分片列
+     */
+    private final Column column;
+    
+    /**
+     * 每个值的原始字面量
+     */
+    private final List<String> values;
+    
+    /**
+     * 每个值对应的占位符参数位置, 值不是占位符时为-1
+     */
+    private final List<Integer> parameterIndexes;
+}
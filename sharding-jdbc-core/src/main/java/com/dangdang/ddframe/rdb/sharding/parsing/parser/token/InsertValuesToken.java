@@ -0,0 +1,55 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.parsing.parser.token;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * 多值插入的值列表标记对象.
+ * 
+ * <p>
+ * INSERT INTO t_order (order_id, user_id) VALUES (?, ?), (?, ?) 的 (?, ?), (?, ?).
+ * 路由时按行拆分, 每个分片只插入路由至该分片的行.
+ * </p>
+ *
+ * @author zhangliang
+ */
+@RequiredArgsConstructor
+@Getter
+@ToString
+public final class InsertValuesToken implements ValuesListToken {
+    
+    /**
+     * 开始位置, 第一行的左括号
+     */
+    private final int beginPosition;
+    
+    /**
+     * 原始字面量, 第一行左括号至最后一行右括号的全部内容
+     */
+    private final String originalLiterals;
+    
+    /**
+     * 每行的原始字面量, 包含左右括号
+     */
+    private final List<String> values;
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.parsing.parser.token;
+
+/**
+ * 可按分片拆分的值列表标记对象.
+ * 
+ * <p>
+ * 改写时默认输出原始字面量, 按分片拆分后每个分片只输出路由至该分片的值.
+ * </p>
+ *
+ * @author zhangliang
+ */
+public interface ValuesListToken extends SQLToken {
+    
+    /**
+     * 获取原始字面量.
+     * 
+     * @return 原始字面量
+     */
+    String getOriginalLiterals();
+}
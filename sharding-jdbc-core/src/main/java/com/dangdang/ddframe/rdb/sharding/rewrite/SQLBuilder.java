@@ -17,43 +17,74 @@
 
 package com.dangdang.ddframe.rdb.sharding.rewrite;
 
-import lombok.AccessLevel;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.token.ValuesListToken;
+import com.google.common.base.Preconditions;
 import lombok.RequiredArgsConstructor;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * SQL构建器.
  * 
+ * <p>
+ * 由SQL改写模板生成时, 段数组为模板填充分页值后的结果, 长度固定且不可追加.
+ * 模板不含分页占位符时, 生成的SQL按表映射缓存在模板中, 供后续执行复用.
+ * </p>
+ * 
  * @author gaohongtao
  * @author zhangliang
  */
-@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
 public final class SQLBuilder {
+    
+    private static final int MAX_GENERATED_SQL_CACHE_SIZE = 4096;
 
     /**
      * 段集合
      */
     private final List<Object> segments;
+    /**
+     * 生成SQL的预估长度
+     */
+    private final int estimatedLength;
+    /**
+     * 已生成的SQL缓存, 键为表映射
+     */
+    private final ConcurrentMap<Map<String, String>, String> generatedSQLCache;
     /**
      * 当前段
      */
     private StringBuilder currentSegment;
     
     public SQLBuilder() {
-        segments = new LinkedList<>();
+        segments = new ArrayList<>();
+        estimatedLength = 0;
+        generatedSQLCache = null;
         currentSegment = new StringBuilder();
         segments.add(currentSegment);
     }
     
+    SQLBuilder(final Object[] segments, final int estimatedLength) {
+        this(segments, estimatedLength, null);
+    }
+    
+    SQLBuilder(final Object[] segments, final int estimatedLength, final ConcurrentMap<Map<String, String>, String> generatedSQLCache) {
+        this.segments = Arrays.asList(segments);
+        this.estimatedLength = estimatedLength;
+        this.generatedSQLCache = generatedSQLCache;
+    }
+    
     /**
      * 追加字面量.
      *
      * @param literals 字面量
      */
     public void appendLiterals(final String literals) {
+        Preconditions.checkState(null != currentSegment, "Cannot append to SQL builder generated from rewrite template.");
         currentSegment.append(literals);
     }
     
@@ -63,6 +94,7 @@ public final class SQLBuilder {
      * @param tableName 表名称
      */
     public void appendTable(final String tableName) {
+        Preconditions.checkState(null != currentSegment, "Cannot append to SQL builder generated from rewrite template.");
         // 添加 TableToken
         segments.add(new TableToken(tableName));
         // 新建当前段
@@ -77,19 +109,105 @@ public final class SQLBuilder {
      * @return SQL语句
      */
     public String toSQL(final Map<String, String> tableTokens) {
-        StringBuilder result = new StringBuilder();
+        return toSQL(tableTokens, null, null);
+    }
+    
+    /**
+     * 生成SQL语句, 拆分的值列表替换为指定的字面量.
+     *
+     * @param tableTokens 占位符集合（逻辑表与真实表映射）
+     * @param splitValuesListToken 拆分的值列表标记
+     * @param splitLiterals 拆分后保留的值列表字面量
+     * @return SQL语句
+     */
+    public String toSQL(final Map<String, String> tableTokens, final ValuesListToken splitValuesListToken, final String splitLiterals) {
+        StringBuilder result = 0 == estimatedLength ? new StringBuilder() : new StringBuilder(estimatedLength);
         for (Object each : segments) {
-            if (each instanceof TableToken && tableTokens.containsKey(((TableToken) each).tableName)) {
-                result.append(tableTokens.get(((TableToken) each).tableName));
+            if (each instanceof TableToken) {
+                String tableName = ((TableToken) each).tableName;
+                String actualTableName = tableTokens.get(tableName);
+                result.append(null == actualTableName ? tableName : actualTableName);
+            } else if (each instanceof ValuesListToken) {
+                // 缓存的改写模板与当前语句的标记不一定是同一对象, 按位置匹配
+                if (null != splitValuesListToken && splitValuesListToken.getBeginPosition() == ((ValuesListToken) each).getBeginPosition()) {
+                    result.append(splitLiterals);
+                } else {
+                    result.append(((ValuesListToken) each).getOriginalLiterals());
+                }
             } else {
-                result.append(each);
+                result.append((CharSequence) each);
             }
         }
         return result.toString();
     }
     
+    /**
+     * 批量生成SQL语句.
+     * 
+     * <p>
+     * 表映射相同的路由单元只生成一次SQL. 需要生成的SQL在一次段遍历中同时拼接, 字面量段被所有输出共享.
+     * </p>
+     *
+     * @param tableTokensList 占位符集合列表（每个路由单元的逻辑表与真实表映射）
+     * @return SQL语句列表, 与占位符集合列表顺序一致
+     */
+    public List<String> toSQLs(final List<Map<String, String>> tableTokensList) {
+        Map<Map<String, String>, String> generatedSQLs = new HashMap<>(tableTokensList.size());
+        List<Map<String, String>> pendingTableTokensList = new ArrayList<>(tableTokensList.size());
+        for (Map<String, String> each : tableTokensList) {
+            if (generatedSQLs.containsKey(each)) {
+                continue;
+            }
+            String cachedSQL = null == generatedSQLCache ? null : generatedSQLCache.get(each);
+            generatedSQLs.put(each, cachedSQL);
+            if (null == cachedSQL) {
+                pendingTableTokensList.add(each);
+            }
+        }
+        if (!pendingTableTokensList.isEmpty()) {
+            String[] sqls = generateSQLs(pendingTableTokensList);
+            for (int i = 0; i < sqls.length; i++) {
+                generatedSQLs.put(pendingTableTokensList.get(i), sqls[i]);
+                if (null != generatedSQLCache && generatedSQLCache.size() < MAX_GENERATED_SQL_CACHE_SIZE) {
+                    generatedSQLCache.putIfAbsent(pendingTableTokensList.get(i), sqls[i]);
+                }
+            }
+        }
+        List<String> result = new ArrayList<>(tableTokensList.size());
+        for (Map<String, String> each : tableTokensList) {
+            result.add(generatedSQLs.get(each));
+        }
+        return result;
+    }
+    
+    private String[] generateSQLs(final List<Map<String, String>> tableTokensList) {
+        StringBuilder[] builders = new StringBuilder[tableTokensList.size()];
+        for (int i = 0; i < builders.length; i++) {
+            builders[i] = 0 == estimatedLength ? new StringBuilder() : new StringBuilder(estimatedLength);
+        }
+        for (Object each : segments) {
+            if (each instanceof TableToken) {
+                String tableName = ((TableToken) each).tableName;
+                for (int i = 0; i < builders.length; i++) {
+                    String actualTableName = tableTokensList.get(i).get(tableName);
+                    builders[i].append(null == actualTableName ? tableName : actualTableName);
+                }
+            } else {
+                CharSequence literals = each instanceof ValuesListToken ? ((ValuesListToken) each).getOriginalLiterals() : (CharSequence) each;
+                for (StringBuilder builder : builders) {
+                    builder.append(literals);
+                }
+            }
+        }
+        String[] result = new String[builders.length];
+        for (int i = 0; i < builders.length; i++) {
+            result[i] = builders[i].toString();
+        }
+        return result;
+    }
+    
     @RequiredArgsConstructor
-    private class TableToken {
+    static final class TableToken {
 
         /**
          * 表名
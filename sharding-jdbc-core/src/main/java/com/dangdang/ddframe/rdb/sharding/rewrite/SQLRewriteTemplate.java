@@ -0,0 +1,262 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.rewrite;
+
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.OrderItem;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.SQLStatement;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.dql.select.SelectStatement;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.token.ItemsToken;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.token.OffsetToken;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.token.OrderByToken;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.token.RowCountToken;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.token.SQLToken;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.token.TableToken;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.token.ValuesListToken;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * SQL改写模板.
+ * 
+ * <p>
+ * 按SQL标记的开始位置切分逻辑SQL, 预先计算出由字面量, 表占位符和分页占位符组成的段数组.
+ * 同一解析结果的副本共享模板, 每次改写只需填充分页值, 无需重新排序SQL标记和拼接字面量.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public final class SQLRewriteTemplate {
+    
+    private static final int TABLE_SUFFIX_LENGTH = 4;
+    
+    private static final int LIMIT_VALUE_LENGTH = 10;
+    
+    /**
+     * 原始SQL
+     */
+    private final String originalSQL;
+    
+    /**
+     * 编译模板使用的SQL标记, 按原顺序保存, 用于判断SQL标记的结构是否变化
+     */
+    private final SQLToken[] sqlTokens;
+    
+    /**
+     * 段数组, 元素为字面量, {@link SQLBuilder.TableToken}, {@link ValuesListToken}, {@link RowCountToken} 或 {@link OffsetToken}
+     */
+    private final Object[] segments;
+    
+    /**
+     * 分页占位符数量
+     */
+    private final int limitSegmentCount;
+    
+    /**
+     * 生成SQL的预估长度
+     */
+    private final int estimatedLength;
+    
+    /**
+     * 已生成的SQL缓存, 仅在模板不含分页占位符时使用
+     */
+    private final ConcurrentMap<Map<String, String>, String> generatedSQLCache = new ConcurrentHashMap<>();
+    
+    private SQLRewriteTemplate(final String originalSQL, final SQLToken[] sqlTokens, final List<Object> segments, final int limitSegmentCount, final int estimatedLength) {
+        this.originalSQL = originalSQL;
+        this.sqlTokens = sqlTokens;
+        this.segments = segments.toArray();
+        this.limitSegmentCount = limitSegmentCount;
+        this.estimatedLength = estimatedLength;
+    }
+    
+    /**
+     * 编译SQL改写模板.
+     * 
+     * @param originalSQL 原始SQL
+     * @param sqlStatement SQL语句对象
+     * @return SQL改写模板
+     */
+    static SQLRewriteTemplate compile(final String originalSQL, final SQLStatement sqlStatement) {
+        SQLToken[] sqlTokens = sqlStatement.getSqlTokens().toArray(new SQLToken[sqlStatement.getSqlTokens().size()]);
+        List<SQLToken> sortedSQLTokens = new ArrayList<>(sqlStatement.getSqlTokens());
+        Collections.sort(sortedSQLTokens, new Comparator<SQLToken>() {
+            
+            @Override
+            public int compare(final SQLToken o1, final SQLToken o2) {
+                return o1.getBeginPosition() - o2.getBeginPosition();
+            }
+        });
+        List<Object> segments = new ArrayList<>(sortedSQLTokens.size() * 2 + 1);
+        StringBuilder literals = new StringBuilder(originalSQL.length());
+        literals.append(originalSQL, 0, sortedSQLTokens.isEmpty() ? originalSQL.length() : sortedSQLTokens.get(0).getBeginPosition());
+        int limitSegmentCount = 0;
+        int estimatedLength = 0;
+        for (int i = 0; i < sortedSQLTokens.size(); i++) {
+            SQLToken each = sortedSQLTokens.get(i);
+            int literalsBeginPosition;
+            if (each instanceof TableToken) {
+                TableToken tableToken = (TableToken) each;
+                // 表名前后有特殊字符时(例如 `t_order`), 使用原始字面量
+                String tableName = sqlStatement.getTables().getTableNames().contains(tableToken.getTableName()) ? tableToken.getTableName() : tableToken.getOriginalLiterals();
+                estimatedLength += flush(literals, segments) + tableName.length() + TABLE_SUFFIX_LENGTH;
+                segments.add(new SQLBuilder.TableToken(tableName));
+                literalsBeginPosition = tableToken.getBeginPosition() + tableToken.getOriginalLiterals().length();
+            } else if (each instanceof ItemsToken) {
+                for (String item : ((ItemsToken) each).getItems()) {
+                    literals.append(", ").append(item);
+                }
+                literalsBeginPosition = each.getBeginPosition();
+            } else if (each instanceof ValuesListToken) {
+                ValuesListToken valuesListToken = (ValuesListToken) each;
+                estimatedLength += flush(literals, segments) + valuesListToken.getOriginalLiterals().length();
+                segments.add(valuesListToken);
+                literalsBeginPosition = valuesListToken.getBeginPosition() + valuesListToken.getOriginalLiterals().length();
+            } else if (each instanceof RowCountToken) {
+                estimatedLength += flush(literals, segments) + LIMIT_VALUE_LENGTH;
+                segments.add(each);
+                limitSegmentCount++;
+                literalsBeginPosition = each.getBeginPosition() + String.valueOf(((RowCountToken) each).getRowCount()).length();
+            } else if (each instanceof OffsetToken) {
+                estimatedLength += flush(literals, segments) + LIMIT_VALUE_LENGTH;
+                segments.add(each);
+                limitSegmentCount++;
+                literalsBeginPosition = each.getBeginPosition() + String.valueOf(((OffsetToken) each).getOffset()).length();
+            } else {
+                if (each instanceof OrderByToken) {
+                    appendOrderBy(literals, (SelectStatement) sqlStatement);
+                }
+                continue;
+            }
+            literals.append(originalSQL, literalsBeginPosition, sortedSQLTokens.size() - 1 == i ? originalSQL.length() : sortedSQLTokens.get(i + 1).getBeginPosition());
+        }
+        estimatedLength += flush(literals, segments);
+        return new SQLRewriteTemplate(originalSQL, sqlTokens, segments, limitSegmentCount, estimatedLength);
+    }
+    
+    private static int flush(final StringBuilder literals, final List<Object> segments) {
+        int result = literals.length();
+        if (0 != result) {
+            segments.add(literals.toString());
+            literals.setLength(0);
+        }
+        return result;
+    }
+    
+    /**
+     * 拼接补充的排序项.
+     * 无 ORDER BY 而有 GROUP BY 时, 数据库按 GROUP BY 的列排序, 跨分片归并需要显式的排序项.
+     */
+    private static void appendOrderBy(final StringBuilder literals, final SelectStatement selectStatement) {
+        literals.append(" ORDER BY ");
+        boolean isFirst = true;
+        for (OrderItem each : selectStatement.getOrderByItems()) {
+            if (!isFirst) {
+                literals.append(",");
+            }
+            literals.append(each.getColumnLabel()).append(" ").append(each.getType().name());
+            isFirst = false;
+        }
+        literals.append(" ");
+    }
+    
+    /**
+     * 判断模板是否可由当前的原始SQL和SQL标记复用.
+     * 
+     * <p>
+     * 插入语句补充自增主键时每次都会生成新的SQL标记, 因此按标记的类型和位置比较, 而非对象本身.
+     * 选择项标记的内容会编译进字面量, 需比较内容, 例如无占位符的插入语句每次补充的主键值不同, 模板不可复用.
+     * </p>
+     * 
+     * @param currentSQL 当前的原始SQL
+     * @param currentSQLTokens 当前的SQL标记
+     * @return 是否可复用
+     */
+    boolean isCompiledFrom(final String currentSQL, final List<SQLToken> currentSQLTokens) {
+        if (sqlTokens.length != currentSQLTokens.size() || !originalSQL.equals(currentSQL)) {
+            return false;
+        }
+        int i = 0;
+        for (SQLToken each : currentSQLTokens) {
+            if (!isSameShape(sqlTokens[i++], each)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private boolean isSameShape(final SQLToken sqlToken, final SQLToken currentSQLToken) {
+        if (sqlToken == currentSQLToken) {
+            return true;
+        }
+        if (sqlToken.getClass() != currentSQLToken.getClass() || sqlToken.getBeginPosition() != currentSQLToken.getBeginPosition()) {
+            return false;
+        }
+        return !(sqlToken instanceof ItemsToken) || ((ItemsToken) sqlToken).getItems().equals(((ItemsToken) currentSQLToken).getItems());
+    }
+    
+    /**
+     * 生成SQL构建器.
+     * 
+     * @param limitValueResolver 分页值计算器
+     * @return SQL构建器
+     */
+    SQLBuilder newSQLBuilder(final LimitValueResolver limitValueResolver) {
+        if (0 == limitSegmentCount) {
+            return new SQLBuilder(segments, estimatedLength, generatedSQLCache);
+        }
+        Object[] result = new Object[segments.length];
+        for (int i = 0; i < segments.length; i++) {
+            if (segments[i] instanceof RowCountToken) {
+                result[i] = limitValueResolver.getRowCount((RowCountToken) segments[i]);
+            } else if (segments[i] instanceof OffsetToken) {
+                result[i] = limitValueResolver.getOffset((OffsetToken) segments[i]);
+            } else {
+                result[i] = segments[i];
+            }
+        }
+        return new SQLBuilder(result, estimatedLength);
+    }
+    
+    /**
+     * 分页值计算器.
+     */
+    interface LimitValueResolver {
+        
+        /**
+         * 计算改写后的分页行数.
+         * 
+         * @param rowCountToken 分页行数标记
+         * @return 改写后的分页行数
+         */
+        String getRowCount(RowCountToken rowCountToken);
+        
+        /**
+         * 计算改写后的分页偏移量.
+         * 
+         * @param offsetToken 分页偏移量标记
+         * @return 改写后的分页偏移量
+         */
+        String getOffset(OffsetToken offsetToken);
+    }
+}
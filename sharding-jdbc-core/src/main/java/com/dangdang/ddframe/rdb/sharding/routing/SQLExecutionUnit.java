@@ -22,6 +22,11 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.ToString;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
 /**
  * SQL最小执行单元.
  * 
@@ -29,7 +34,7 @@ import lombok.ToString;
  */
 @RequiredArgsConstructor
 @Getter
-@EqualsAndHashCode
+@EqualsAndHashCode(exclude = "excludedParameterIndexes")
 @ToString
 public final class SQLExecutionUnit {
 
@@ -41,5 +46,32 @@ public final class SQLExecutionUnit {
      * 执行 SQL
      */
     private final String sql;
-
+    /**
+     * 执行时排除的占位符参数位置, 从0开始. IN条件值按分片拆分后, 未路由至该单元的值对应的参数不设置到该单元
+     */
+    private final Set<Integer> excludedParameterIndexes;
+    
+    public SQLExecutionUnit(final String dataSource, final String sql) {
+        this(dataSource, sql, Collections.<Integer>emptySet());
+    }
+    
+    /**
+     * 获取该单元执行时使用的参数.
+     * 
+     * @param parameters 逻辑SQL的参数列表
+     * @param <T> 参数类型
+     * @return 排除未路由至该单元的参数后的参数列表
+     */
+    public <T> List<T> getActualParameters(final List<T> parameters) {
+        if (excludedParameterIndexes.isEmpty()) {
+            return parameters;
+        }
+        List<T> result = new ArrayList<>(parameters.size());
+        for (int i = 0; i < parameters.size(); i++) {
+            if (!excludedParameterIndexes.contains(i)) {
+                result.add(parameters.get(i));
+            }
+        }
+        return result;
+    }
 }
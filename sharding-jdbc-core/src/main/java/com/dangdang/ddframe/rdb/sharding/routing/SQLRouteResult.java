@@ -17,9 +17,11 @@
 
 package com.dangdang.ddframe.rdb.sharding.routing;
 
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.GeneratedKey;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.SQLStatement;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
@@ -48,4 +50,9 @@ public final class SQLRouteResult {
      * 生成主键编号 插入SQL语句生成的主键编号集合。目前不支持批量插入而使用集合的原因，猜测是为了未来支持批量插入做准备。
      */
     private final List<Number> generatedKeys = new LinkedList<>();
+    /**
+     * 路由时生成的主键. 多值插入按行生成主键时设置, 解析结果会被后续路由复用, 因此不写入SQL语句对象
+     */
+    @Setter
+    private GeneratedKey generatedKey;
 }
@@ -0,0 +1,157 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.routing;
+
+import com.dangdang.ddframe.rdb.sharding.constant.SQLType;
+import com.dangdang.ddframe.rdb.sharding.jdbc.core.ShardingContext;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.SQLStatement;
+import com.dangdang.ddframe.rdb.sharding.routing.router.ParsingSQLRouter;
+import com.google.common.base.Function;
+import com.google.common.base.Splitter;
+import com.google.common.base.Strings;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * SQL预热引擎.
+ * 
+ * <p>
+ * 数据源启动时在执行引擎的线程池中并行解析已知的逻辑SQL, 填充SQL解析结果缓存并预热解析, 路由和改写代码.
+ * 不含占位符的查询语句按 {@code Statement} 的方式完整路由一次; 含占位符的SQL缺少参数, 只解析不路由;
+ * 其他语句只解析不路由, 避免插入语句消耗分布式主键.
+ * 预热失败的SQL仅记录日志, 不影响数据源启动.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@RequiredArgsConstructor
+@Slf4j
+public final class SQLWarmUpEngine {
+    
+    private final ShardingContext shardingContext;
+    
+    /**
+     * 解析逻辑SQL目录.
+     * 
+     * <p>
+     * 每行一条SQL, 忽略空行, 以 {@code #} 或 {@code --} 开头的注释行以及重复的SQL, 行尾的分号会被去掉.
+     * </p>
+     * 
+     * @param catalog 逻辑SQL目录
+     * @return 逻辑SQL集合
+     */
+    public static Collection<String> parseCatalog(final String catalog) {
+        Collection<String> result = new LinkedHashSet<>();
+        if (Strings.isNullOrEmpty(catalog)) {
+            return result;
+        }
+        for (String each : Splitter.on('\n').trimResults().omitEmptyStrings().split(catalog)) {
+            if (each.startsWith("#") || each.startsWith("--")) {
+                continue;
+            }
+            String logicSQL = each.endsWith(";") ? each.substring(0, each.length() - 1).trim() : each;
+            if (!logicSQL.isEmpty()) {
+                result.add(logicSQL);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * 预热逻辑SQL, 等待预热完成.
+     * 
+     * @param logicSQLs 逻辑SQL集合
+     * @return 预热成功的SQL数量
+     */
+    public int warmUp(final Collection<String> logicSQLs) {
+        if (logicSQLs.isEmpty()) {
+            return 0;
+        }
+        long startTime = System.nanoTime();
+        return count(shardingContext.getExecutorEngine().execute(createTasks(logicSQLs)), startTime);
+    }
+    
+    /**
+     * 异步预热逻辑SQL, 不等待预热完成.
+     * 
+     * @param logicSQLs 逻辑SQL集合
+     * @return 预热成功的SQL数量
+     */
+    public ListenableFuture<Integer> warmUpAsync(final Collection<String> logicSQLs) {
+        if (logicSQLs.isEmpty()) {
+            return Futures.immediateFuture(0);
+        }
+        final long startTime = System.nanoTime();
+        return Futures.transform(shardingContext.getExecutorEngine().submit(createTasks(logicSQLs)), new Function<List<Boolean>, Integer>() {
+            
+            @Override
+            public Integer apply(final List<Boolean> input) {
+                return count(input, startTime);
+            }
+        });
+    }
+    
+    private List<Callable<Boolean>> createTasks(final Collection<String> logicSQLs) {
+        List<Callable<Boolean>> result = new ArrayList<>(logicSQLs.size());
+        for (final String each : logicSQLs) {
+            result.add(new Callable<Boolean>() {
+                
+                @Override
+                public Boolean call() {
+                    return warmUp(each);
+                }
+            });
+        }
+        return result;
+    }
+    
+    private int count(final List<Boolean> warmUpResults, final long startTime) {
+        int result = 0;
+        for (Boolean each : warmUpResults) {
+            if (each) {
+                result++;
+            }
+        }
+        log.info("Warm up {} of {} SQL in {} ms.", result, warmUpResults.size(), (System.nanoTime() - startTime) / 1000000L);
+        return result;
+    }
+    
+    private boolean warmUp(final String logicSQL) {
+        try {
+            // 解析和路由插入语句均会生成分布式主键, 预热时只解析不处理自增主键, 且只路由查询语句
+            SQLStatement sqlStatement = new ParsingSQLRouter(shardingContext).parseWithCache(logicSQL);
+            if (SQLType.DQL == sqlStatement.getType() && 0 == sqlStatement.getParametersIndex()) {
+                new StatementRoutingEngine(shardingContext).route(logicSQL);
+            }
+            return true;
+            //CHECKSTYLE:OFF
+        } catch (final Exception ex) {
+            //CHECKSTYLE:ON
+            log.warn("Warm up SQL failure: '{}', cause: {}", logicSQL, ex.getMessage());
+            return false;
+        }
+    }
+}
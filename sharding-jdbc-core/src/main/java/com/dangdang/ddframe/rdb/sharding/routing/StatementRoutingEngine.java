@@ -18,23 +18,41 @@
 package com.dangdang.ddframe.rdb.sharding.routing;
 
 import com.dangdang.ddframe.rdb.sharding.jdbc.core.ShardingContext;
+import com.dangdang.ddframe.rdb.sharding.parsing.cache.SQLFingerprint;
+import com.dangdang.ddframe.rdb.sharding.parsing.cache.SQLFingerprintEngine;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.SQLStatement;
+import com.dangdang.ddframe.rdb.sharding.routing.router.ParsingSQLRouter;
 import com.dangdang.ddframe.rdb.sharding.routing.router.SQLRouter;
 import com.dangdang.ddframe.rdb.sharding.routing.router.SQLRouterFactory;
+import com.dangdang.ddframe.rdb.sharding.util.SQLLogger;
+import com.google.common.base.Optional;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 
 /**
  * SQL路由器.
  * 
+ * <p>
+ * 开启SQL解析结果缓存时, 先将SQL中的字面量替换为占位符, 使仅字面量不同的SQL共享同一个解析结果,
+ * 路由改写完成后再将占位符还原为字面量.
+ * </p>
+ * 
  * @author zhangiang
  */
 public final class StatementRoutingEngine {
     
     private final SQLRouter sqlRouter;
     
+    private final SQLFingerprintEngine sqlFingerprintEngine;
+    
+    private final boolean showSQL;
+    
     public StatementRoutingEngine(final ShardingContext shardingContext) {
         sqlRouter = SQLRouterFactory.createSQLRouter(shardingContext);
+        showSQL = shardingContext.isShowSQL();
+        sqlFingerprintEngine = sqlRouter instanceof ParsingSQLRouter && shardingContext.getSqlParsingCache().isEnabled() ? new SQLFingerprintEngine(shardingContext.getDatabaseType()) : null;
     }
     
     /**
@@ -44,7 +62,46 @@ public final class StatementRoutingEngine {
      * @return 路由结果
      */
     public SQLRouteResult route(final String logicSQL) {
+        if (null != sqlFingerprintEngine) {
+            SQLFingerprint fingerprint = sqlFingerprintEngine.fingerprint(logicSQL);
+            if (fingerprint.isNormalized()) {
+                Optional<SQLRouteResult> result = route(logicSQL, fingerprint);
+                if (result.isPresent()) {
+                    return result.get();
+                }
+            }
+        }
         SQLStatement sqlStatement = sqlRouter.parse(logicSQL, 0);
         return sqlRouter.route(logicSQL, Collections.emptyList(), sqlStatement);
     }
+    
+    /**
+     * 按SQL指纹路由.
+     * 解析器跳过了部分占位符时(例如不支持解析的语法), 占位符序号与参数无法对应, 返回空以便按原SQL路由.
+     * 
+     * @param logicSQL 逻辑SQL
+     * @param fingerprint SQL指纹
+     * @return 路由结果
+     */
+    private Optional<SQLRouteResult> route(final String logicSQL, final SQLFingerprint fingerprint) {
+        List<Object> parameters = new ArrayList<>(fingerprint.getParameters());
+        SQLStatement sqlStatement = sqlRouter.parse(fingerprint.getSql(), parameters.size());
+        if (sqlStatement.getParametersIndex() != parameters.size()) {
+            return Optional.absent();
+        }
+        // 路由的是指纹SQL, 还原字面量后再打印SQL
+        SQLRouteResult result = ((ParsingSQLRouter) sqlRouter).route(fingerprint.getSql(), parameters, sqlStatement, false);
+        List<SQLExecutionUnit> executionUnits = new ArrayList<>(result.getExecutionUnits());
+        result.getExecutionUnits().clear();
+        for (SQLExecutionUnit each : executionUnits) {
+            // IN条件值按分片拆分后, 只还原该单元保留的字面量
+            SQLFingerprint actualFingerprint = each.getExcludedParameterIndexes().isEmpty() ? fingerprint 
+                    : new SQLFingerprint(fingerprint.getSql(), each.getActualParameters(fingerprint.getParameters()), each.getActualParameters(fingerprint.getLiterals()));
+            result.getExecutionUnits().add(new SQLExecutionUnit(each.getDataSource(), sqlFingerprintEngine.restore(actualFingerprint, each.getSql(), each.getActualParameters(parameters))));
+        }
+        if (showSQL) {
+            SQLLogger.logSQL(logicSQL, sqlStatement, result.getExecutionUnits(), Collections.emptyList());
+        }
+        return Optional.of(result);
+    }
 }
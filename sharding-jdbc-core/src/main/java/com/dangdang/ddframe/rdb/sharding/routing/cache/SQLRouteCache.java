@@ -0,0 +1,121 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.routing.cache;
+
+import com.dangdang.ddframe.rdb.sharding.api.ShardingValue;
+import com.dangdang.ddframe.rdb.sharding.routing.type.TableUnit;
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableList;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * SQL路由结果缓存.
+ * 
+ * <p>
+ * 以逻辑表和分库、分表的分片值为键, 在数据源范围内共享路由表单元, 超过容量时按最近最少使用淘汰.
+ * 命中时跳过分片策略和分片算法的计算, 因此仅适用于结果只由分片值决定的分片算法.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public final class SQLRouteCache {
+    
+    private final Cache<CacheKey, List<TableUnit>> cache;
+    
+    /**
+     * 创建SQL路由结果缓存.
+     * 
+     * @param maximumSize 最大缓存条数, 小于等于0时不缓存
+     */
+    public SQLRouteCache(final int maximumSize) {
+        cache = maximumSize > 0 ? CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().<CacheKey, List<TableUnit>>build() : null;
+    }
+    
+    /**
+     * 判断缓存是否开启.
+     * 
+     * @return 缓存是否开启
+     */
+    public boolean isEnabled() {
+        return null != cache;
+    }
+    
+    /**
+     * 获取路由表单元.
+     * 
+     * @param logicTableName 逻辑表名称
+     * @param databaseShardingValues 分库分片值集合
+     * @param tableShardingValues 分表分片值集合
+     * @return 路由表单元集合, 不可修改
+     */
+    public Optional<List<TableUnit>> get(final String logicTableName, final List<ShardingValue<?>> databaseShardingValues, final List<ShardingValue<?>> tableShardingValues) {
+        if (null == cache) {
+            return Optional.absent();
+        }
+        return Optional.fromNullable(cache.getIfPresent(new CacheKey(logicTableName, databaseShardingValues, tableShardingValues)));
+    }
+    
+    /**
+     * 缓存路由表单元.
+     * 
+     * @param logicTableName 逻辑表名称
+     * @param databaseShardingValues 分库分片值集合
+     * @param tableShardingValues 分表分片值集合
+     * @param tableUnits 路由表单元集合
+     */
+    public void put(final String logicTableName, final List<ShardingValue<?>> databaseShardingValues, final List<ShardingValue<?>> tableShardingValues, final List<TableUnit> tableUnits) {
+        if (null != cache) {
+            cache.put(new CacheKey(logicTableName, databaseShardingValues, tableShardingValues), ImmutableList.copyOf(tableUnits));
+        }
+    }
+    
+    /**
+     * 获取缓存统计信息, 包括命中次数, 未命中次数和淘汰次数.
+     * 
+     * @return 缓存统计信息
+     */
+    public CacheStats getStats() {
+        return null == cache ? new CacheStats(0L, 0L, 0L, 0L, 0L, 0L) : cache.stats();
+    }
+    
+    /**
+     * 获取缓存条数.
+     * 
+     * @return 缓存条数
+     */
+    public long size() {
+        return null == cache ? 0L : cache.size();
+    }
+    
+    @RequiredArgsConstructor
+    @EqualsAndHashCode
+    private static final class CacheKey {
+        
+        private final String logicTableName;
+        
+        private final List<ShardingValue<?>> databaseShardingValues;
+        
+        private final List<ShardingValue<?>> tableShardingValues;
+    }
+}
@@ -20,31 +20,45 @@ package com.dangdang.ddframe.rdb.sharding.routing.router;
 import com.codahale.metrics.Timer.Context;
 import com.dangdang.ddframe.rdb.sharding.api.rule.ShardingRule;
 import com.dangdang.ddframe.rdb.sharding.constant.DatabaseType;
+import com.dangdang.ddframe.rdb.sharding.exception.ShardingJdbcException;
 import com.dangdang.ddframe.rdb.sharding.jdbc.core.ShardingContext;
 import com.dangdang.ddframe.rdb.sharding.metrics.MetricsContext;
 import com.dangdang.ddframe.rdb.sharding.parsing.SQLParsingEngine;
+import com.dangdang.ddframe.rdb.sharding.parsing.cache.SQLParsingCache;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.GeneratedKey;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.InsertValue;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.condition.Column;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.expression.SQLExpression;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.expression.SQLNumberExpression;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.expression.SQLPlaceholderExpression;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.SQLStatement;
-import com.dangdang.ddframe.rdb.sharding.parsing.parser.token.RowCountToken;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.dml.insert.InsertStatement;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.dql.select.SelectStatement;
 import com.dangdang.ddframe.rdb.sharding.rewrite.SQLBuilder;
 import com.dangdang.ddframe.rdb.sharding.rewrite.SQLRewriteEngine;
 import com.dangdang.ddframe.rdb.sharding.routing.SQLExecutionUnit;
 import com.dangdang.ddframe.rdb.sharding.routing.SQLRouteResult;
+import com.dangdang.ddframe.rdb.sharding.routing.cache.SQLRouteCache;
 import com.dangdang.ddframe.rdb.sharding.routing.type.RoutingEngine;
 import com.dangdang.ddframe.rdb.sharding.routing.type.RoutingResult;
+import com.dangdang.ddframe.rdb.sharding.routing.type.SplitValues;
 import com.dangdang.ddframe.rdb.sharding.routing.type.TableUnit;
+import com.dangdang.ddframe.rdb.sharding.routing.type.broadcast.BroadcastRoutingEngine;
 import com.dangdang.ddframe.rdb.sharding.routing.type.complex.CartesianDataSource;
 import com.dangdang.ddframe.rdb.sharding.routing.type.complex.CartesianRoutingResult;
 import com.dangdang.ddframe.rdb.sharding.routing.type.complex.CartesianTableReference;
 import com.dangdang.ddframe.rdb.sharding.routing.type.complex.ComplexRoutingEngine;
+import com.dangdang.ddframe.rdb.sharding.routing.type.simple.InsertValuesRoutingEngine;
 import com.dangdang.ddframe.rdb.sharding.routing.type.simple.SimpleRoutingEngine;
 import com.dangdang.ddframe.rdb.sharding.util.SQLLogger;
+import com.google.common.base.Optional;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.TreeSet;
 
 /**
  * 需要解析的SQL路由器.
@@ -62,12 +76,20 @@ public final class ParsingSQLRouter implements SQLRouter {
     //是否显示sql
     private final boolean showSQL;
     
+    //解析结果缓存
+    private final SQLParsingCache sqlParsingCache;
+    
+    //路由结果缓存
+    private final SQLRouteCache sqlRouteCache;
+    
     private final List<Number> generatedKeys;
     
     public ParsingSQLRouter(final ShardingContext shardingContext) {
         shardingRule = shardingContext.getShardingRule();
         databaseType = shardingContext.getDatabaseType();
         showSQL = shardingContext.isShowSQL();
+        sqlParsingCache = shardingContext.getSqlParsingCache();
+        sqlRouteCache = shardingContext.getSqlRouteCache();
         generatedKeys = new LinkedList<>();
     }
 
@@ -79,11 +101,8 @@ public final class ParsingSQLRouter implements SQLRouter {
      */
     @Override
     public SQLStatement parse(final String logicSQL, final int parametersSize) {
-        //构建sql解析引擎
-        SQLParsingEngine parsingEngine = new SQLParsingEngine(databaseType, logicSQL, shardingRule);
         Context context = MetricsContext.start("Parse SQL");
-        //解析sql
-        SQLStatement result = parsingEngine.parse();
+        SQLStatement result = parseWithCache(logicSQL);
         if (result instanceof InsertStatement) { // 处理 GenerateKeyToken
             // 如果是insert操作，需要额外对主键做处理
             ((InsertStatement) result).appendGenerateKeyToken(shardingRule, parametersSize);
@@ -92,21 +111,66 @@ public final class ParsingSQLRouter implements SQLRouter {
         return result;
     }
 
+    /**
+     * 解析SQL, 优先使用缓存的解析结果.
+     * 缓存中只保存未经修改的模板, 返回的总是副本, 因此自增主键等后续处理不会污染缓存.
+     * 与{@link #parse(String, int)}不同, 不处理自增主键, 不会生成分布式主键.
+     *
+     * @param logicSQL 逻辑SQL
+     * @return SQL语句对象
+     */
+    public SQLStatement parseWithCache(final String logicSQL) {
+        Optional<SQLStatement> cached = sqlParsingCache.get(databaseType, logicSQL);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        //解析sql
+        SQLStatement result = new SQLParsingEngine(databaseType, logicSQL, shardingRule).parse();
+        if (!sqlParsingCache.isEnabled()) {
+            return result;
+        }
+        sqlParsingCache.put(databaseType, logicSQL, result);
+        return result.copy();
+    }
+
     /**
      * 需要解析的SQL路由器
      */
     @Override
     public SQLRouteResult route(final String logicSQL, final List<Object> parameters, final SQLStatement sqlStatement) {
+        return route(logicSQL, parameters, sqlStatement, showSQL);
+    }
+    
+    /**
+     * SQL路由.
+     * 
+     * <p>
+     * 路由的SQL与用户提交的SQL不同时(例如字面量已被替换为占位符), 由调用方在还原后打印SQL.
+     * </p>
+     * 
+     * @param logicSQL 逻辑SQL
+     * @param parameters 参数
+     * @param sqlStatement 解析结果
+     * @param showSQL 是否打印SQL
+     * @return 路由结果
+     */
+    public SQLRouteResult route(final String logicSQL, final List<Object> parameters, final SQLStatement sqlStatement, final boolean showSQL) {
         final Context context = MetricsContext.start("Route SQL");
         SQLRouteResult result = new SQLRouteResult(sqlStatement);
-        // 处理 插入SQL 主键字段
-        if (sqlStatement instanceof InsertStatement && null != ((InsertStatement) sqlStatement).getGeneratedKey()) {
-            processGeneratedKey(parameters, (InsertStatement) sqlStatement, result);
+        RoutingResult routingResult;
+        if (isShardingMultipleValuesInsert(sqlStatement)) {
+            // 多值插入按行路由
+            routingResult = routeMultipleValuesInsert(parameters, (InsertStatement) sqlStatement, result);
+        } else {
+            // 处理 插入SQL 主键字段
+            if (sqlStatement instanceof InsertStatement && null != ((InsertStatement) sqlStatement).getGeneratedKey()) {
+                processGeneratedKey(parameters, (InsertStatement) sqlStatement, result);
+            }
+            /**
+             * 路由
+             */
+            routingResult = route(parameters, sqlStatement);
         }
-        /**
-         * 路由
-         */
-        RoutingResult routingResult = route(parameters, sqlStatement);
         // SQL重写引擎
         SQLRewriteEngine rewriteEngine = new SQLRewriteEngine(shardingRule, logicSQL, sqlStatement);
         boolean isSingleRouting = routingResult.isSingleRouting();
@@ -121,15 +185,31 @@ public final class ParsingSQLRouter implements SQLRouter {
          * 对于笛卡尔积路由结果和简单路由结果传递的参数略有不同：前者使用 CartesianDataSource ( CartesianTableReference )，后者使用路由表单元 ( TableUnit )
          */
         if (routingResult instanceof CartesianRoutingResult) {
+            List<String> dataSources = new ArrayList<>();
+            List<CartesianTableReference> cartesianTableReferences = new ArrayList<>();
             for (CartesianDataSource cartesianDataSource : ((CartesianRoutingResult) routingResult).getRoutingDataSources()) {
                 for (CartesianTableReference cartesianTableReference : cartesianDataSource.getRoutingTableReferences()) {
-                    result.getExecutionUnits().add(new SQLExecutionUnit(cartesianDataSource.getDataSource(), rewriteEngine.generateSQL(cartesianTableReference, sqlBuilder))); // 生成 SQL
+                    dataSources.add(cartesianDataSource.getDataSource());
+                    cartesianTableReferences.add(cartesianTableReference);
                 }
             }
-        } else {
+            // 批量生成 SQL
+            addExecutionUnits(result, dataSources, rewriteEngine.generateCartesianSQLs(cartesianTableReferences, sqlBuilder));
+        } else if (routingResult.getSplitValues().isPresent()) {
+            // IN条件值或多值插入的行按分片拆分, 每个单元的SQL和参数不同, 逐个生成
+            SplitValues splitValues = routingResult.getSplitValues().get();
             for (TableUnit each : routingResult.getTableUnits().getTableUnits()) {
-                result.getExecutionUnits().add(new SQLExecutionUnit(each.getDataSourceName(), rewriteEngine.generateSQL(each, sqlBuilder))); // 生成 SQL
+                result.getExecutionUnits().add(new SQLExecutionUnit(
+                        each.getDataSourceName(), rewriteEngine.generateSQL(each, sqlBuilder, splitValues), splitValues.getExcludedParameterIndexes(each)));
+            }
+        } else {
+            List<TableUnit> tableUnits = routingResult.getTableUnits().getTableUnits();
+            List<String> dataSources = new ArrayList<>(tableUnits.size());
+            for (TableUnit each : tableUnits) {
+                dataSources.add(each.getDataSourceName());
             }
+            // 批量生成 SQL
+            addExecutionUnits(result, dataSources, rewriteEngine.generateSQLs(tableUnits, sqlBuilder));
         }
         MetricsContext.stop(context);
         // 打印 SQL
@@ -139,6 +219,12 @@ public final class ParsingSQLRouter implements SQLRouter {
         return result;
     }
 
+    private void addExecutionUnits(final SQLRouteResult routeResult, final List<String> dataSources, final List<String> sqls) {
+        for (int i = 0; i < dataSources.size(); i++) {
+            routeResult.getExecutionUnits().add(new SQLExecutionUnit(dataSources.get(i), sqls.get(i)));
+        }
+    }
+    
     /**
      * 根据表情况使用 SimpleRoutingEngine 或 CartesianRoutingEngine
      *
@@ -148,6 +234,12 @@ public final class ParsingSQLRouter implements SQLRouter {
      */
     private RoutingResult route(final List<Object> parameters, final SQLStatement sqlStatement) {
         Collection<String> tableNames = sqlStatement.getTables().getTableNames();
+        // 仅包含广播表时, 查询路由至任一数据源, 其他操作路由至全部数据源
+        if (shardingRule.isAllBroadcastTables(tableNames)) {
+            return new BroadcastRoutingEngine(shardingRule.getDataSourceRule(), tableNames.iterator().next(), sqlStatement.getType()).route();
+        }
+        // 广播表在每个数据源均存在, 不参与路由, 随关联的表路由至同一数据源, 避免笛卡尔积
+        tableNames = filterBroadcastTables(tableNames);
         RoutingEngine routingEngine;
         /**
          *  如果sql中只有一个表名，或者多个表名之间是绑定表关系，或者所有表都在默认数据源指定的数据库中（即不参与分库分表的表），
@@ -160,14 +252,84 @@ public final class ParsingSQLRouter implements SQLRouter {
              * tableNames.iterator().next() 返回的是 t_order。当 t_order 和 t_order_item 为 BindingTable关系 时，计算的是 t_order 路由分片
              * TreeSet的排序
              */
-            routingEngine = new SimpleRoutingEngine(shardingRule, parameters, tableNames.iterator().next(), sqlStatement);
+            routingEngine = new SimpleRoutingEngine(shardingRule, parameters, tableNames.iterator().next(), sqlStatement, sqlRouteCache);
         } else {
             // TODO 可配置是否执行笛卡尔积
-            routingEngine = new ComplexRoutingEngine(shardingRule, parameters, tableNames, sqlStatement);
+            routingEngine = new ComplexRoutingEngine(shardingRule, parameters, tableNames, sqlStatement, sqlRouteCache);
         }
         return routingEngine.route();
     }
 
+    private Collection<String> filterBroadcastTables(final Collection<String> tableNames) {
+        if (shardingRule.getBroadcastTables().isEmpty()) {
+            return tableNames;
+        }
+        Collection<String> result = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        for (String each : tableNames) {
+            if (!shardingRule.isBroadcastTable(each)) {
+                result.add(each);
+            }
+        }
+        return result;
+    }
+    
+    private boolean isShardingMultipleValuesInsert(final SQLStatement sqlStatement) {
+        return sqlStatement instanceof InsertStatement && ((InsertStatement) sqlStatement).isMultipleValues()
+                && shardingRule.tryFindTableRule(sqlStatement.getTables().getSingleTableName()).isPresent();
+    }
+    
+    /**
+     * 多值插入按行路由, 并处理每行的主键字段.
+     * 主键列不存在时为每行生成主键编号, 以字面量追加在每行末尾.
+     * 同一解析结果会被多次路由, 生成的主键只记录在路由结果中, 不修改SQL语句对象.
+     *
+     * @param parameters 占位符参数
+     * @param insertStatement Insert SQL语句对象
+     * @param sqlRouteResult SQL路由结果
+     * @return 路由结果
+     */
+    private RoutingResult routeMultipleValuesInsert(final List<Object> parameters, final InsertStatement insertStatement, final SQLRouteResult sqlRouteResult) {
+        String logicTableName = insertStatement.getTables().getSingleTableName();
+        List<Number> generatedKeys = new ArrayList<>(insertStatement.getInsertValues().size());
+        Optional<String> generateKeyColumn = shardingRule.getGenerateKeyColumn(logicTableName);
+        if (generateKeyColumn.isPresent() && null == insertStatement.getGeneratedKey()) {
+            for (int i = 0; i < insertStatement.getInsertValues().size(); i++) {
+                generatedKeys.add(shardingRule.generateKey(logicTableName));
+            }
+            sqlRouteResult.setGeneratedKey(new GeneratedKey(generateKeyColumn.get(), -1, generatedKeys.get(0)));
+            setGeneratedKeys(sqlRouteResult, generatedKeys);
+        } else if (generateKeyColumn.isPresent()) {
+            int generateKeyColumnIndex = getGenerateKeyColumnIndex(insertStatement, generateKeyColumn.get());
+            List<Number> keys = new ArrayList<>(insertStatement.getInsertValues().size());
+            for (InsertValue each : insertStatement.getInsertValues()) {
+                keys.add(getGeneratedKey(parameters, each.getSqlExpressions().get(generateKeyColumnIndex)));
+            }
+            setGeneratedKeys(sqlRouteResult, keys);
+        }
+        return new InsertValuesRoutingEngine(shardingRule, parameters, logicTableName, insertStatement, generatedKeys).route();
+    }
+    
+    private int getGenerateKeyColumnIndex(final InsertStatement insertStatement, final String generateKeyColumn) {
+        int result = 0;
+        for (Column each : insertStatement.getColumns()) {
+            if (generateKeyColumn.equalsIgnoreCase(each.getName())) {
+                return result;
+            }
+            result++;
+        }
+        throw new IllegalStateException(String.format("Cannot find generate key column `%s`.", generateKeyColumn));
+    }
+    
+    private Number getGeneratedKey(final List<Object> parameters, final SQLExpression sqlExpression) {
+        if (sqlExpression instanceof SQLPlaceholderExpression) {
+            return (Number) parameters.get(((SQLPlaceholderExpression) sqlExpression).getIndex());
+        }
+        if (sqlExpression instanceof SQLNumberExpression) {
+            return ((SQLNumberExpression) sqlExpression).getNumber();
+        }
+        throw new ShardingJdbcException("Generated key only support number.");
+    }
+    
     /**
      * 处理 插入SQL 主键字段
      * 当 主键编号 未生成时，{@link ShardingRule#generateKey(String)} 进行生成
@@ -196,15 +358,19 @@ public final class ParsingSQLRouter implements SQLRouter {
      * @param generatedKey 主键编号
      */
     private void setGeneratedKeys(final SQLRouteResult sqlRouteResult, final Number generatedKey) {
-        generatedKeys.add(generatedKey);
+        setGeneratedKeys(sqlRouteResult, Collections.singletonList(generatedKey));
+    }
+    
+    private void setGeneratedKeys(final SQLRouteResult sqlRouteResult, final Collection<Number> generatedKeys) {
+        this.generatedKeys.addAll(generatedKeys);
         sqlRouteResult.getGeneratedKeys().clear();
-        sqlRouteResult.getGeneratedKeys().addAll(generatedKeys);
+        sqlRouteResult.getGeneratedKeys().addAll(this.generatedKeys);
     }
 
     /**
      * 处理分页条件
      *
-     * @see SQLRewriteEngine#appendLimitRowCount(SQLBuilder, RowCountToken, int, List, boolean)
+     * @see SQLRewriteEngine#rewrite(boolean)
      * @param parameters 占位符对应参数列表
      * @param selectStatement Select SQL语句对象
      * @param isSingleRouting 是否单表路由
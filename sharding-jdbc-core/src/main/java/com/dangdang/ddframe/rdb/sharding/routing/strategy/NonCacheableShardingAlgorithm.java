@@ -0,0 +1,29 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+package com.dangdang.ddframe.rdb.sharding.routing.strategy;
+
+/**
+ * 不可缓存路由结果的分片算法的标识接口.
+ * 
+ * <p>
+ * 分片结果不只由分片值决定的算法(如依赖时间或外部状态)应实现该接口, 使用该算法的逻辑表将不使用路由结果缓存.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public interface NonCacheableShardingAlgorithm extends ShardingAlgorithm {
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.routing.strategy;
+
+/**
+ * 支持单侧边界区间的分片算法的标识接口.
+ * 
+ * <p>
+ * {@code <}, {@code <=}, {@code >}和{@code >=}条件解析为只有单侧边界的区间分片值, 仅传递给实现该接口的分片算法.
+ * 其他分片算法不会收到此类分片值, 路由结果与不带该条件时一致.
+ * 动态表未提供分片值时, 实现该接口的分片算法将收到无边界的区间分片值.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public interface OpenRangeShardingAlgorithm extends ShardingAlgorithm {
+}
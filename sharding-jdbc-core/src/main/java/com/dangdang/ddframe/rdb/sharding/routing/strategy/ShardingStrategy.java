@@ -69,6 +69,24 @@ public class ShardingStrategy {
         return result;
     }
     
+    /**
+     * 判断分片结果是否可以缓存.
+     *
+     * @return 分片算法未标识为{@link NonCacheableShardingAlgorithm}时返回true
+     */
+    public boolean isCacheable() {
+        return !(shardingAlgorithm instanceof NonCacheableShardingAlgorithm);
+    }
+    
+    /**
+     * 判断分片算法是否支持单侧边界的区间分片值.
+     *
+     * @return 分片算法实现{@link OpenRangeShardingAlgorithm}时返回true
+     */
+    public boolean isOpenRangeSupported() {
+        return shardingAlgorithm instanceof OpenRangeShardingAlgorithm;
+    }
+    
     /**
      * 计算动态分片.
      *
@@ -17,7 +17,9 @@
 
 package com.dangdang.ddframe.rdb.sharding.routing.type;
 
+import com.google.common.base.Optional;
 import lombok.Getter;
+import lombok.Setter;
 
 /**
  * 路由结果.
@@ -34,6 +36,21 @@ public class RoutingResult {
      */
     private final TableUnits tableUnits = new TableUnits();
     
+    /**
+     * 按路由表单元拆分的值列表(IN条件值或多值插入的行), 无法拆分时为空
+     */
+    @Setter
+    private SplitValues splitValues;
+    
+    /**
+     * 获取按路由表单元拆分的值列表.
+     *
+     * @return 按路由表单元拆分的值列表
+     */
+    public Optional<SplitValues> getSplitValues() {
+        return Optional.fromNullable(splitValues);
+    }
+    
     /**
      * 判断是否为单库表路由.
      *
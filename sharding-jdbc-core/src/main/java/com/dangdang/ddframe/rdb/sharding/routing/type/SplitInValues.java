@@ -0,0 +1,85 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.routing.type;
+
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.token.InValuesToken;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 按路由表单元拆分的IN条件值.
+ * 
+ * @author zhangliang
+ */
+@RequiredArgsConstructor
+@Getter
+public final class SplitInValues implements SplitValues {
+    
+    /**
+     * IN条件值标记
+     */
+    private final InValuesToken valuesListToken;
+    
+    /**
+     * 路由表单元与路由至该单元的IN条件值位置的映射
+     */
+    private final Map<TableUnit, List<Integer>> valueIndexesMap;
+    
+    /**
+     * 获取路由至该单元的IN条件值位置.
+     * 
+     * @param tableUnit 路由表单元
+     * @return IN条件值位置列表
+     */
+    public List<Integer> getValueIndexes(final TableUnit tableUnit) {
+        return valueIndexesMap.get(tableUnit);
+    }
+    
+    @Override
+    public String getLiterals(final TableUnit tableUnit) {
+        StringBuilder result = new StringBuilder();
+        for (int each : valueIndexesMap.get(tableUnit)) {
+            if (0 != result.length()) {
+                result.append(", ");
+            }
+            result.append(valuesListToken.getValues().get(each));
+        }
+        return result.toString();
+    }
+    
+    @Override
+    public Set<Integer> getExcludedParameterIndexes(final TableUnit tableUnit) {
+        List<Integer> parameterIndexes = valuesListToken.getParameterIndexes();
+        boolean[] included = new boolean[parameterIndexes.size()];
+        for (int each : valueIndexesMap.get(tableUnit)) {
+            included[each] = true;
+        }
+        Set<Integer> result = new HashSet<>();
+        for (int i = 0; i < included.length; i++) {
+            if (!included[i] && -1 != parameterIndexes.get(i)) {
+                result.add(parameterIndexes.get(i));
+            }
+        }
+        return result;
+    }
+}
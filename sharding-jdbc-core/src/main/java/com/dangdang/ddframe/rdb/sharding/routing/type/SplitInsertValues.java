@@ -0,0 +1,97 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.routing.type;
+
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.InsertValue;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.expression.SQLExpression;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.expression.SQLPlaceholderExpression;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.token.InsertValuesToken;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 按路由表单元拆分的多值插入行.
+ * 
+ * @author zhangliang
+ */
+@RequiredArgsConstructor
+@Getter
+public final class SplitInsertValues implements SplitValues {
+    
+    /**
+     * 多值插入的值列表标记
+     */
+    private final InsertValuesToken valuesListToken;
+    
+    /**
+     * 插入值
+     */
+    private final List<InsertValue> insertValues;
+    
+    /**
+     * 自动生成的主键, 与插入值一一对应, 追加在每行末尾. SQL中已有主键列时为空
+     */
+    private final List<Number> generatedKeys;
+    
+    /**
+     * 路由表单元与路由至该单元的行位置的映射
+     */
+    private final Map<TableUnit, List<Integer>> valueIndexesMap;
+    
+    @Override
+    public String getLiterals(final TableUnit tableUnit) {
+        StringBuilder result = new StringBuilder();
+        for (int each : valueIndexesMap.get(tableUnit)) {
+            if (0 != result.length()) {
+                result.append(", ");
+            }
+            String value = valuesListToken.getValues().get(each);
+            if (generatedKeys.isEmpty()) {
+                result.append(value);
+            } else {
+                result.append(value, 0, value.length() - 1).append(", ").append(generatedKeys.get(each)).append(')');
+            }
+        }
+        return result.toString();
+    }
+    
+    @Override
+    public Set<Integer> getExcludedParameterIndexes(final TableUnit tableUnit) {
+        boolean[] included = new boolean[insertValues.size()];
+        for (int each : valueIndexesMap.get(tableUnit)) {
+            included[each] = true;
+        }
+        Set<Integer> result = new HashSet<>();
+        for (int i = 0; i < included.length; i++) {
+            if (included[i]) {
+                continue;
+            }
+            for (SQLExpression each : insertValues.get(i).getSqlExpressions()) {
+                if (each instanceof SQLPlaceholderExpression) {
+                    result.add(((SQLPlaceholderExpression) each).getIndex());
+                }
+            }
+        }
+        return result;
+    }
+}
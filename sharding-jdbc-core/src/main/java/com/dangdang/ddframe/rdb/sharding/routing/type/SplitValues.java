@@ -0,0 +1,53 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.routing.type;
+
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.token.ValuesListToken;
+
+import java.util.Set;
+
+/**
+ * 按路由表单元拆分的值列表.
+ * 
+ * @author zhangliang
+ */
+public interface SplitValues {
+    
+    /**
+     * 获取被拆分的值列表标记.
+     * 
+     * @return 值列表标记
+     */
+    ValuesListToken getValuesListToken();
+    
+    /**
+     * 获取路由表单元保留的值列表字面量.
+     * 
+     * @param tableUnit 路由表单元
+     * @return 值列表字面量
+     */
+    String getLiterals(TableUnit tableUnit);
+    
+    /**
+     * 获取该单元执行时需要排除的占位符参数位置.
+     * 
+     * @param tableUnit 路由表单元
+     * @return 未路由至该单元的值对应的占位符参数位置
+     */
+    Set<Integer> getExcludedParameterIndexes(TableUnit tableUnit);
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.routing.type.broadcast;
+
+import com.dangdang.ddframe.rdb.sharding.api.rule.DataSourceRule;
+import com.dangdang.ddframe.rdb.sharding.constant.SQLType;
+import com.dangdang.ddframe.rdb.sharding.routing.type.RoutingEngine;
+import com.dangdang.ddframe.rdb.sharding.routing.type.RoutingResult;
+import com.dangdang.ddframe.rdb.sharding.routing.type.TableUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 广播表路由引擎.
+ * 
+ * <p>
+ * 广播表在每个数据源中均存在且表名与逻辑表名相同.
+ * 查询路由至任一数据源即可, 其他操作需路由至全部数据源以保证各副本一致.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@RequiredArgsConstructor
+@Slf4j
+public final class BroadcastRoutingEngine implements RoutingEngine {
+    
+    private final DataSourceRule dataSourceRule;
+    
+    private final String logicTableName;
+    
+    private final SQLType sqlType;
+    
+    @Override
+    public RoutingResult route() {
+        List<String> dataSourceNames = new ArrayList<>(dataSourceRule.getDataSourceNames());
+        RoutingResult result = new RoutingResult();
+        if (SQLType.DQL == sqlType) {
+            // 随机选择数据源, 避免查询集中于同一数据源
+            String dataSourceName = dataSourceNames.get(ThreadLocalRandom.current().nextInt(dataSourceNames.size()));
+            result.getTableUnits().getTableUnits().add(new TableUnit(dataSourceName, logicTableName, logicTableName));
+        } else {
+            for (String each : dataSourceNames) {
+                result.getTableUnits().getTableUnits().add(new TableUnit(each, logicTableName, logicTableName));
+            }
+        }
+        log.trace("broadcast table sharding result: {}", result.getTableUnits());
+        return result;
+    }
+}
@@ -47,7 +47,6 @@ public final class CartesianRoutingResult extends RoutingResult {
             //each:属于某个逻辑表的真实表集合组对应的TableUnit集合组
             merge(dataSource, each);
         }
-        System.out.println(routingDataSources);
     }
     
     private void merge(final String dataSource, final CartesianTableReference routingTableReference) {
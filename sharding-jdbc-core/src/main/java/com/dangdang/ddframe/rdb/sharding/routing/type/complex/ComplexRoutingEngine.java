@@ -22,6 +22,7 @@ import com.dangdang.ddframe.rdb.sharding.api.rule.ShardingRule;
 import com.dangdang.ddframe.rdb.sharding.api.rule.TableRule;
 import com.dangdang.ddframe.rdb.sharding.exception.ShardingJdbcException;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.SQLStatement;
+import com.dangdang.ddframe.rdb.sharding.routing.cache.SQLRouteCache;
 import com.dangdang.ddframe.rdb.sharding.routing.type.RoutingResult;
 import com.dangdang.ddframe.rdb.sharding.routing.type.RoutingEngine;
 import com.dangdang.ddframe.rdb.sharding.routing.type.simple.SimpleRoutingEngine;
@@ -52,6 +53,8 @@ public final class ComplexRoutingEngine implements RoutingEngine {
     private final Collection<String> logicTables;
     
     private final SQLStatement sqlStatement;
+    
+    private final SQLRouteCache sqlRouteCache;
 
     /**
      * ComplexRoutingEngine 计算每个逻辑表的简单路由分片，路由结果交给 CartesianRoutingEngine 继续路由形成笛卡尔积结果。
@@ -69,7 +72,7 @@ public final class ComplexRoutingEngine implements RoutingEngine {
                     /**
                      *  计算每个逻辑表的简单路由分片
                      */
-                    result.add(new SimpleRoutingEngine(shardingRule, parameters, tableRule.get().getLogicTable(), sqlStatement).route());
+                    result.add(new SimpleRoutingEngine(shardingRule, parameters, tableRule.get().getLogicTable(), sqlStatement, sqlRouteCache).route());
                 }
                 // 互为 BindingTable 关系的表加到 bindingTableNames 里，不重复计算分片
                 Optional<BindingTableRule> bindingTableRule = shardingRule.findBindingTableRule(each);
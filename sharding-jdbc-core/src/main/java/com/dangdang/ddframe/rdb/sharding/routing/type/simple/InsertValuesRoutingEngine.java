@@ -0,0 +1,112 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.routing.type.simple;
+
+import com.dangdang.ddframe.rdb.sharding.api.rule.ShardingRule;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.InsertValue;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.condition.Column;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.condition.Condition;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.expression.SQLExpression;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.expression.SQLNumberExpression;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.dml.insert.InsertStatement;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.token.InsertValuesToken;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.token.SQLToken;
+import com.dangdang.ddframe.rdb.sharding.routing.cache.SQLRouteCache;
+import com.dangdang.ddframe.rdb.sharding.routing.type.RoutingEngine;
+import com.dangdang.ddframe.rdb.sharding.routing.type.RoutingResult;
+import com.dangdang.ddframe.rdb.sharding.routing.type.SplitInsertValues;
+import com.dangdang.ddframe.rdb.sharding.routing.type.TableUnit;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 多值插入路由引擎.
+ * 
+ * <p>
+ * 每行按自身的分片值单独路由, 相同路由表单元的行合并为一条多值插入SQL.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@RequiredArgsConstructor
+public final class InsertValuesRoutingEngine implements RoutingEngine {
+    
+    private final ShardingRule shardingRule;
+    
+    private final List<Object> parameters;
+    
+    private final String logicTableName;
+    
+    private final InsertStatement insertStatement;
+    
+    /**
+     * 自动生成的主键, 与插入值一一对应. SQL中已有主键列时为空
+     */
+    private final List<Number> generatedKeys;
+    
+    @Override
+    public RoutingResult route() {
+        // 每行的分片值各不相同, 缓存无法命中, 不使用路由缓存
+        SQLRouteCache sqlRouteCache = new SQLRouteCache(0);
+        Map<TableUnit, List<Integer>> valueIndexesMap = new LinkedHashMap<>();
+        int index = 0;
+        for (InsertValue each : insertStatement.getInsertValues()) {
+            InsertStatement valueStatement = createValueStatement(each, index);
+            for (TableUnit tableUnit : new SimpleRoutingEngine(shardingRule, parameters, logicTableName, valueStatement, sqlRouteCache).route().getTableUnits().getTableUnits()) {
+                List<Integer> valueIndexes = valueIndexesMap.get(tableUnit);
+                if (null == valueIndexes) {
+                    valueIndexes = new ArrayList<>();
+                    valueIndexesMap.put(tableUnit, valueIndexes);
+                }
+                valueIndexes.add(index);
+            }
+            index++;
+        }
+        RoutingResult result = new RoutingResult();
+        result.getTableUnits().getTableUnits().addAll(valueIndexesMap.keySet());
+        result.setSplitValues(new SplitInsertValues(findInsertValuesToken(), insertStatement.getInsertValues(), generatedKeys, valueIndexesMap));
+        return result;
+    }
+    
+    private InsertStatement createValueStatement(final InsertValue insertValue, final int index) {
+        InsertStatement result = new InsertStatement();
+        Iterator<SQLExpression> sqlExpressions = insertValue.getSqlExpressions().iterator();
+        for (Column each : insertStatement.getColumns()) {
+            result.getConditions().add(new Condition(each, sqlExpressions.next()), shardingRule);
+        }
+        if (!generatedKeys.isEmpty()) {
+            String generateKeyColumn = shardingRule.getTableRule(logicTableName).getGenerateKeyColumn();
+            result.getConditions().add(new Condition(new Column(generateKeyColumn, logicTableName), new SQLNumberExpression(generatedKeys.get(index))), shardingRule);
+        }
+        return result;
+    }
+    
+    private InsertValuesToken findInsertValuesToken() {
+        for (SQLToken each : insertStatement.getSqlTokens()) {
+            if (each instanceof InsertValuesToken) {
+                return (InsertValuesToken) each;
+            }
+        }
+        throw new IllegalStateException("Cannot find insert values token.");
+    }
+}
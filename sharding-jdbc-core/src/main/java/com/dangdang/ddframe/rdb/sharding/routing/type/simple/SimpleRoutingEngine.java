@@ -18,6 +18,7 @@
 package com.dangdang.ddframe.rdb.sharding.routing.type.simple;
 
 import com.dangdang.ddframe.rdb.sharding.api.ShardingValue;
+import com.dangdang.ddframe.rdb.sharding.api.ShardingValue.ShardingValueType;
 import com.dangdang.ddframe.rdb.sharding.api.rule.DataNode;
 import com.dangdang.ddframe.rdb.sharding.api.rule.ShardingRule;
 import com.dangdang.ddframe.rdb.sharding.api.rule.TableRule;
@@ -28,15 +29,24 @@ import com.dangdang.ddframe.rdb.sharding.hint.ShardingKey;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.condition.Column;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.condition.Condition;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.SQLStatement;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.token.InValuesToken;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.token.SQLToken;
+import com.dangdang.ddframe.rdb.sharding.routing.cache.SQLRouteCache;
+import com.dangdang.ddframe.rdb.sharding.routing.strategy.ShardingStrategy;
 import com.dangdang.ddframe.rdb.sharding.routing.type.RoutingEngine;
 import com.dangdang.ddframe.rdb.sharding.routing.type.RoutingResult;
+import com.dangdang.ddframe.rdb.sharding.routing.type.SplitInValues;
 import com.dangdang.ddframe.rdb.sharding.routing.type.TableUnit;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Range;
 import lombok.RequiredArgsConstructor;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -57,6 +67,8 @@ public final class SimpleRoutingEngine implements RoutingEngine {
     private final String logicTableName;
     
     private final SQLStatement sqlStatement;
+    
+    private final SQLRouteCache sqlRouteCache;
 
 
     /**
@@ -69,8 +81,66 @@ public final class SimpleRoutingEngine implements RoutingEngine {
          *   根据逻辑表得到tableRule，逻辑表为t_order；表规则的配置为：.actualTables(Arrays.asList("t_order_0", "t_order_1"))，所以有两个实际表；
          */
         TableRule tableRule = shardingRule.getTableRule(logicTableName);
+        DatabaseShardingStrategy databaseShardingStrategy = shardingRule.getDatabaseShardingStrategy(tableRule);
+        TableShardingStrategy tableShardingStrategy = shardingRule.getTableShardingStrategy(tableRule);
+        //可以使用 HintManager 设置库分片值进行强制路由。
+        /**
+         * 获取分片值 分片键对应的value   以计算该value对应的库和表
+         */
+        List<ShardingValue<?>> databaseShardingValues = HintManagerHolder.isUseShardingHint() ? getDatabaseShardingValuesFromHint(databaseShardingStrategy.getShardingColumns())
+                : getShardingValues(databaseShardingStrategy);
+        List<ShardingValue<?>> tableShardingValues = HintManagerHolder.isUseShardingHint() ? getTableShardingValuesFromHint(tableShardingStrategy.getShardingColumns())
+                : getShardingValues(tableShardingStrategy);
+        RoutingResult result = new RoutingResult();
+        // 下界大于上界的区间条件不会命中数据, 仅路由至一个数据单元以返回空结果
+        if (!tableRule.isDynamic() && (containsEmptyRange(databaseShardingValues) || containsEmptyRange(tableShardingValues))) {
+            DataNode dataNode = tableRule.getActualTables().get(0);
+            result.getTableUnits().getTableUnits().add(new TableUnit(dataNode.getDataSourceName(), logicTableName, dataNode.getTableName()));
+            return result;
+        }
+        result.getTableUnits().getTableUnits().addAll(route(tableRule, databaseShardingStrategy, tableShardingStrategy, databaseShardingValues, tableShardingValues));
+        // IN条件路由至多个分片时, 按分片拆分IN条件值
+        if (!HintManagerHolder.isUseShardingHint() && !result.isSingleRouting()) {
+            Optional<SplitInValues> splitInValues = splitInValues(
+                    tableRule, databaseShardingStrategy, tableShardingStrategy, databaseShardingValues, tableShardingValues, result.getTableUnits().getTableUnits());
+            if (splitInValues.isPresent()) {
+                result.getTableUnits().getTableUnits().retainAll(splitInValues.get().getValueIndexesMap().keySet());
+                result.setSplitValues(splitInValues.get());
+            }
+        }
+        return result;
+    }
+    
+    private boolean containsEmptyRange(final List<ShardingValue<?>> shardingValues) {
+        for (ShardingValue<?> each : shardingValues) {
+            if (ShardingValueType.RANGE == each.getType() && each.getValueRange().isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private List<TableUnit> route(final TableRule tableRule, final DatabaseShardingStrategy databaseShardingStrategy, final TableShardingStrategy tableShardingStrategy, 
+                                  final List<ShardingValue<?>> databaseShardingValues, final List<ShardingValue<?>> tableShardingValues) {
+        // 分片值相同则路由结果相同, 命中缓存时跳过分片算法
+        boolean cacheable = sqlRouteCache.isEnabled() && databaseShardingStrategy.isCacheable() && tableShardingStrategy.isCacheable();
+        if (cacheable) {
+            Optional<List<TableUnit>> cachedTableUnits = sqlRouteCache.get(logicTableName, databaseShardingValues, tableShardingValues);
+            if (cachedTableUnits.isPresent()) {
+                return cachedTableUnits.get();
+            }
+        }
+        List<TableUnit> result = doRoute(tableRule, databaseShardingStrategy, tableShardingStrategy, databaseShardingValues, tableShardingValues);
+        if (cacheable) {
+            sqlRouteCache.put(logicTableName, databaseShardingValues, tableShardingValues, result);
+        }
+        return result;
+    }
+    
+    private List<TableUnit> doRoute(final TableRule tableRule, final DatabaseShardingStrategy databaseShardingStrategy, final TableShardingStrategy tableShardingStrategy, 
+                                    final List<ShardingValue<?>> databaseShardingValues, final List<ShardingValue<?>> tableShardingValues) {
         // 根据规则先路由数据源：即根据user_id取模路由
-        Collection<String> routedDataSources = routeDataSources(tableRule);
+        Collection<String> routedDataSources = routeDataSources(tableRule, databaseShardingStrategy, databaseShardingValues);
         Map<String, Collection<String>> routedMap = new LinkedHashMap<>(routedDataSources.size());
         /**
          * 遍历路由到的目标数据源
@@ -81,29 +151,108 @@ public final class SimpleRoutingEngine implements RoutingEngine {
              *   k - datasource
              *   v - datasource对应的表集合  目前这些表集合是根据分片规则计算出来的 对应的真实数据表不一定存在
              */
-            routedMap.put(each, routeTables(tableRule, each));
+            routedMap.put(each, routeTables(tableRule, each, tableShardingStrategy, tableShardingValues));
         }
 
         /**
-         *   将得到的路由数据源和表信息封装到RoutingResult中，RoutingResult中有个TableUnits类型属性，
-         *   TableUnits类中有个List<TableUnit> tableUnits属性，TableUnit包含三个属性：
+         *   将得到的路由数据源和表信息封装到TableUnit中，TableUnit包含三个属性：
          *   dataSourceName--数据源名称，logicTableName--逻辑表名称，actualTableName--实际表名称，
          *   例如：TableUnit:{dataSourceName:ds_jdbc_1, logicTableName:t_order, actualTableName: t_order_1}
          */
-        return generateRoutingResult(tableRule, routedMap);
+        return generateTableUnits(tableRule, routedMap);
     }
     
-    private Collection<String> routeDataSources(final TableRule tableRule) {
-        /**
-         * 拿到分库策略
-         */
-        DatabaseShardingStrategy strategy = shardingRule.getDatabaseShardingStrategy(tableRule);
-        //可以使用 HintManager 设置库分片值进行强制路由。
-        /**
-         * 获取分片值 分片键对应的value   以计算该value对应的库
-         */
-        List<ShardingValue<?>> shardingValues = HintManagerHolder.isUseShardingHint() ? getDatabaseShardingValuesFromHint(strategy.getShardingColumns())
-                : getShardingValues(strategy.getShardingColumns());
+    /**
+     * 按分片拆分IN条件值.
+     * 
+     * <p>
+     * 仅当分片列中只有一个IN条件, 且每个值单独路由的结果均包含在整体路由结果中时才拆分, 否则各分片仍使用完整的IN条件值.
+     * 拆分后没有分配到任何值的路由表单元将被移除.
+     * 每个值直接计算分片, 不读写路由结果缓存, 避免单个IN条件值占用缓存.
+     * </p>
+     */
+    private Optional<SplitInValues> splitInValues(final TableRule tableRule, final DatabaseShardingStrategy databaseShardingStrategy, final TableShardingStrategy tableShardingStrategy, 
+                                                  final List<ShardingValue<?>> databaseShardingValues, final List<ShardingValue<?>> tableShardingValues, final List<TableUnit> tableUnits) {
+        Optional<ShardingValue<?>> inShardingValue = findInShardingValue(databaseShardingValues, tableShardingValues);
+        if (!inShardingValue.isPresent()) {
+            return Optional.absent();
+        }
+        String columnName = inShardingValue.get().getColumnName();
+        Optional<InValuesToken> inValuesToken = findInValuesToken(columnName);
+        if (!inValuesToken.isPresent() || inValuesToken.get().getValues().size() != inShardingValue.get().getValues().size()) {
+            return Optional.absent();
+        }
+        Map<TableUnit, List<Integer>> valueIndexesMap = new LinkedHashMap<>(tableUnits.size(), 1);
+        for (TableUnit each : tableUnits) {
+            valueIndexesMap.put(each, new ArrayList<Integer>());
+        }
+        int index = 0;
+        for (Comparable<?> each : inShardingValue.get().getValues()) {
+            ShardingValue<?> shardingValue = new ShardingValue<Comparable<?>>(logicTableName, columnName, each);
+            List<TableUnit> routedTableUnits;
+            try {
+                routedTableUnits = doRoute(tableRule, databaseShardingStrategy, tableShardingStrategy, 
+                        replaceShardingValue(databaseShardingValues, shardingValue), replaceShardingValue(tableShardingValues, shardingValue));
+            } catch (final UnsupportedOperationException ex) {
+                // 分片算法不支持单值路由时, 不拆分IN条件值
+                return Optional.absent();
+            }
+            for (TableUnit routedTableUnit : routedTableUnits) {
+                List<Integer> valueIndexes = valueIndexesMap.get(routedTableUnit);
+                if (null == valueIndexes) {
+                    return Optional.absent();
+                }
+                valueIndexes.add(index);
+            }
+            index++;
+        }
+        // 没有任何IN条件值路由至的单元不会命中数据, 无需执行
+        Iterator<List<Integer>> valueIndexesIterator = valueIndexesMap.values().iterator();
+        while (valueIndexesIterator.hasNext()) {
+            if (valueIndexesIterator.next().isEmpty()) {
+                valueIndexesIterator.remove();
+            }
+        }
+        return valueIndexesMap.isEmpty() ? Optional.<SplitInValues>absent() : Optional.of(new SplitInValues(inValuesToken.get(), valueIndexesMap));
+    }
+    
+    private Optional<ShardingValue<?>> findInShardingValue(final List<ShardingValue<?>> databaseShardingValues, final List<ShardingValue<?>> tableShardingValues) {
+        ShardingValue<?> result = null;
+        for (ShardingValue<?> each : Iterables.concat(databaseShardingValues, tableShardingValues)) {
+            if (ShardingValueType.LIST != each.getType()) {
+                continue;
+            }
+            if (null != result && !result.getColumnName().equalsIgnoreCase(each.getColumnName())) {
+                return Optional.absent();
+            }
+            result = each;
+        }
+        return Optional.<ShardingValue<?>>fromNullable(result);
+    }
+    
+    private Optional<InValuesToken> findInValuesToken(final String columnName) {
+        Column column = new Column(columnName, logicTableName);
+        InValuesToken result = null;
+        for (SQLToken each : sqlStatement.getSqlTokens()) {
+            if (each instanceof InValuesToken && column.equals(((InValuesToken) each).getColumn())) {
+                if (null != result) {
+                    return Optional.absent();
+                }
+                result = (InValuesToken) each;
+            }
+        }
+        return Optional.fromNullable(result);
+    }
+    
+    private List<ShardingValue<?>> replaceShardingValue(final List<ShardingValue<?>> shardingValues, final ShardingValue<?> shardingValue) {
+        List<ShardingValue<?>> result = new ArrayList<>(shardingValues.size());
+        for (ShardingValue<?> each : shardingValues) {
+            result.add(each.getColumnName().equalsIgnoreCase(shardingValue.getColumnName()) ? shardingValue : each);
+        }
+        return result;
+    }
+    
+    private Collection<String> routeDataSources(final TableRule tableRule, final DatabaseShardingStrategy strategy, final List<ShardingValue<?>> shardingValues) {
         /**
          * 静态路由     计算静态分片  返回分库后指向的数据源集合
          */
@@ -112,26 +261,24 @@ public final class SimpleRoutingEngine implements RoutingEngine {
         return result;
     }
     
-    private Collection<String> routeTables(final TableRule tableRule, final String routedDataSource) {
-        /**
-         * 获取表分片策略
-         */
-        TableShardingStrategy strategy = shardingRule.getTableShardingStrategy(tableRule);
-
-        /**
-         *    获取分片值 分片键对应的value   以计算该value对应的表
-         */
-        List<ShardingValue<?>> shardingValues = HintManagerHolder.isUseShardingHint() ? getTableShardingValuesFromHint(strategy.getShardingColumns())
-                : getShardingValues(strategy.getShardingColumns());
-
+    private Collection<String> routeTables(final TableRule tableRule, final String routedDataSource, final TableShardingStrategy strategy, final List<ShardingValue<?>> shardingValues) {
         /**
          *   计算分片 返回分表后的指向的表集合
          */
-        Collection<String> result = tableRule.isDynamic() ? strategy.doDynamicSharding(shardingValues) : strategy.doStaticSharding(tableRule.getActualTableNames(routedDataSource), shardingValues);
+        Collection<String> result = tableRule.isDynamic() ? strategy.doDynamicSharding(getDynamicShardingValues(strategy, shardingValues))
+                : strategy.doStaticSharding(tableRule.getActualTableNames(routedDataSource), shardingValues);
         Preconditions.checkState(!result.isEmpty(), "no table route info");
         return result;
     }
     
+    private List<ShardingValue<?>> getDynamicShardingValues(final TableShardingStrategy strategy, final List<ShardingValue<?>> shardingValues) {
+        if (!shardingValues.isEmpty() || !strategy.isOpenRangeSupported() || 1 != strategy.getShardingColumns().size()) {
+            return shardingValues;
+        }
+        // 未提供分片值时, 由支持区间的分片算法决定动态表的范围
+        return Collections.<ShardingValue<?>>singletonList(new ShardingValue<>(logicTableName, strategy.getShardingColumns().iterator().next(), Range.<Comparable>all()));
+    }
+    
     private List<ShardingValue<?>> getDatabaseShardingValuesFromHint(final Collection<String> shardingColumns) {
         List<ShardingValue<?>> result = new ArrayList<>(shardingColumns.size());
         for (String each : shardingColumns) {
@@ -154,29 +301,30 @@ public final class SimpleRoutingEngine implements RoutingEngine {
         return result;
     }
     
-    private List<ShardingValue<?>> getShardingValues(final Collection<String> shardingColumns) {
-        List<ShardingValue<?>> result = new ArrayList<>(shardingColumns.size());
+    private List<ShardingValue<?>> getShardingValues(final ShardingStrategy strategy) {
+        List<ShardingValue<?>> result = new ArrayList<>(strategy.getShardingColumns().size());
         //遍历分片列
-        for (String each : shardingColumns) {
+        for (String each : strategy.getShardingColumns()) {
             /**
              * Condition 里只放明确影响路由的条件，例如：order_id = 1, order_id IN (1, 2), order_id BETWEEN (1, 3)，
              * 不放无法计算的条件，例如：o.order_id = i.order_id。该方法里，使用分片键从 Condition 查找 分片值
              */
             Optional<Condition> condition = sqlStatement.getConditions().find(new Column(each, logicTableName));
-            if (condition.isPresent()) {
+            // 比较运算符构造的区间条件仅传递给支持单侧边界区间的分片算法, 其他分片算法仍全路由
+            if (condition.isPresent() && (!condition.get().isComparison() || strategy.isOpenRangeSupported())) {
                 result.add(condition.get().getShardingValue(parameters));
             }
         }
         return result;
     }
     
-    private RoutingResult generateRoutingResult(final TableRule tableRule, final Map<String, Collection<String>> routedMap) {
-        RoutingResult result = new RoutingResult();
+    private List<TableUnit> generateTableUnits(final TableRule tableRule, final Map<String, Collection<String>> routedMap) {
+        List<TableUnit> result = new ArrayList<>();
         for (Entry<String, Collection<String>> entry : routedMap.entrySet()) {
             //根据数据源名称过滤（根据分片规则计算出来的数据表不一定真实存在）获取真实数据单元.
             Collection<DataNode> dataNodes = tableRule.getActualDataNodes(entry.getKey(), entry.getValue());
             for (DataNode each : dataNodes) {
-                result.getTableUnits().getTableUnits().add(new TableUnit(each.getDataSourceName(), logicTableName, each.getTableName()));
+                result.add(new TableUnit(each.getDataSourceName(), logicTableName, each.getTableName()));
             }
         }
         return result;
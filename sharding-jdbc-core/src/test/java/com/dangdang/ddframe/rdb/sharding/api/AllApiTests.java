@@ -23,12 +23,16 @@ import com.dangdang.ddframe.rdb.sharding.api.rule.DataSourceRuleTest;
 import com.dangdang.ddframe.rdb.sharding.api.rule.DynamicDataNodeTest;
 import com.dangdang.ddframe.rdb.sharding.api.rule.ShardingRuleTest;
 import com.dangdang.ddframe.rdb.sharding.api.rule.TableRuleTest;
+import com.dangdang.ddframe.rdb.sharding.api.strategy.common.ConsistentHashShardingAlgorithmTest;
+import com.dangdang.ddframe.rdb.sharding.api.strategy.common.JumpHashShardingAlgorithmTest;
+import com.dangdang.ddframe.rdb.sharding.api.strategy.common.RangeShardingAlgorithmTest;
 import com.dangdang.ddframe.rdb.sharding.api.strategy.common.ShardingStrategyTest;
 import com.dangdang.ddframe.rdb.sharding.api.strategy.database.DatabaseShardingStrategyTest;
 import com.dangdang.ddframe.rdb.sharding.api.strategy.database.NoneDatabaseShardingAlgorithmTest;
 import com.dangdang.ddframe.rdb.sharding.api.strategy.slave.RoundRobinSlaveLoadBalanceStrategyTest;
 import com.dangdang.ddframe.rdb.sharding.api.strategy.table.NoneTableShardingAlgorithmTest;
 import com.dangdang.ddframe.rdb.sharding.api.strategy.table.TableShardingStrategyTest;
+import com.dangdang.ddframe.rdb.sharding.api.strategy.table.TimeBucketTableShardingAlgorithmTest;
 import com.dangdang.ddframe.rdb.sharding.config.ShardingPropertiesConstantTest;
 import com.dangdang.ddframe.rdb.sharding.config.ShardingPropertiesTest;
 import org.junit.runner.RunWith;
@@ -47,9 +51,13 @@ import org.junit.runners.Suite;
     DynamicDataNodeTest.class, 
     BindingTableRuleTest.class, 
     ShardingStrategyTest.class, 
+    RangeShardingAlgorithmTest.class, 
+    JumpHashShardingAlgorithmTest.class, 
+    ConsistentHashShardingAlgorithmTest.class, 
     DatabaseShardingStrategyTest.class, 
     NoneDatabaseShardingAlgorithmTest.class, 
     TableShardingStrategyTest.class, 
+    TimeBucketTableShardingAlgorithmTest.class, 
     NoneTableShardingAlgorithmTest.class, 
     HintManagerTest.class, 
     MasterSlaveDataSourceFactoryTest.class, 
@@ -86,7 +86,25 @@ public final class ShardingRuleTest {
                 .databaseShardingStrategy(createDatabaseShardingStrategy())
                 .tableShardingStrategy(createTableShardingStrategy()).build();
         assertTrue(actual.tryFindTableRule("logicTable").isPresent());
+        assertTrue(actual.tryFindTableRule("LOGICTABLE").isPresent());
         assertFalse(actual.tryFindTableRule("null").isPresent());
+        assertFalse(actual.tryFindTableRule(null).isPresent());
+    }
+    
+    @Test
+    public void assertIsBroadcastTable() {
+        ShardingRule actual = ShardingRule.builder().dataSourceRule(createDataSourceRule())
+                .tableRules(Collections.singletonList(createTableRule())).broadcastTables(Arrays.asList("region", "currency")).build();
+        assertTrue(actual.isBroadcastTable("REGION"));
+        assertFalse(actual.isBroadcastTable("logicTable"));
+        assertTrue(actual.isAllBroadcastTables(Arrays.asList("region", "Currency")));
+        assertFalse(actual.isAllBroadcastTables(Arrays.asList("region", "logicTable")));
+        assertFalse(actual.isAllBroadcastTables(Collections.<String>emptyList()));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void assertBroadcastTableWithTableRule() {
+        ShardingRule.builder().dataSourceRule(createDataSourceRule()).tableRules(Collections.singletonList(createTableRule())).broadcastTables(Collections.singletonList("logicTable")).build();
     }
     
     @Test
@@ -154,6 +172,7 @@ public final class ShardingRuleTest {
         ShardingRule actual = ShardingRule.builder().dataSourceRule(createDataSourceRule()).tableRules(Collections.singletonList(createTableRule()))
                 .bindingTableRules(Collections.singletonList(bindingTableRule)).build();
         assertThat(actual.findBindingTableRule("logicTable").get(), is(bindingTableRule));
+        assertThat(actual.findBindingTableRule("LOGICTABLE").get(), is(bindingTableRule));
     }
     
     @Test
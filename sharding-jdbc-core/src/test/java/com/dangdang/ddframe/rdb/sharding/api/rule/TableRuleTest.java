@@ -27,8 +27,10 @@ import org.junit.Ignore;
 import org.junit.Test;
 
 import javax.sql.DataSource;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -178,6 +180,43 @@ public final class TableRuleTest {
         assertThat(actual.findActualTableIndex("ds1", "table_1"), is(4));
     }
     
+    @Test
+    public void assertFindActualTableIndexIgnoreCase() {
+        TableRule actual = TableRule.builder("logicTable")
+                .actualTables(Arrays.asList("ds0.table_0", "ds0.table_1", "ds0.table_2", "ds1.table_0", "ds1.table_1", "ds1.table_2")).build();
+        assertThat(actual.findActualTableIndex("DS1", "Table_1"), is(4));
+    }
+    
+    @Test
+    public void assertGetActualDataNodesForStaticKeepConfiguredOrder() {
+        TableRule actual = TableRule.builder("logicTable")
+                .actualTables(Arrays.asList("ds0.table_0", "ds0.table_1", "ds0.table_2", "ds1.table_0", "ds1.table_1", "ds1.table_2")).build();
+        assertThat(new ArrayList<>(actual.getActualDataNodes("ds1", Arrays.asList("table_2", "table_0", "table_3"))), 
+                is(Arrays.asList(new DataNode("ds1", "table_0"), new DataNode("ds1", "table_2"))));
+        assertTrue(actual.getActualDataNodes("ds2", Collections.singletonList("table_0")).isEmpty());
+        assertTrue(actual.getActualTableNames("ds2").isEmpty());
+    }
+    
+    @Test
+    public void assertGetActualDataNodesForStaticCaseSensitive() {
+        TableRule actual = TableRule.builder("logicTable")
+                .actualTables(Arrays.asList("ds0.table_0", "ds0.table_1", "ds0.table_2", "ds1.table_0", "ds1.table_1", "ds1.table_2")).build();
+        assertTrue(actual.getActualDataNodes("ds1", Arrays.asList("TABLE_0", "Table_1")).isEmpty());
+        assertTrue(actual.getActualDataNodes("DS1", Arrays.asList("table_0", "table_1")).isEmpty());
+    }
+    
+    @Test
+    public void assertGetActualNamesReturnCopies() {
+        TableRule actual = TableRule.builder("logicTable")
+                .actualTables(Arrays.asList("ds0.table_0", "ds0.table_1", "ds0.table_2", "ds1.table_0", "ds1.table_1", "ds1.table_2")).build();
+        actual.getActualDatasourceNames().remove("ds0");
+        actual.getActualTableNames("ds1").remove("table_0");
+        actual.getActualTableNames("ds2").add("table_0");
+        assertThat(actual.getActualDatasourceNames(), is((Collection<String>) Sets.newLinkedHashSet(Arrays.asList("ds0", "ds1"))));
+        assertThat(actual.getActualTableNames("ds1"), is((Collection<String>) Sets.newLinkedHashSet(Arrays.asList("table_0", "table_1", "table_2"))));
+        assertTrue(actual.getActualTableNames("ds2").isEmpty());
+    }
+    
     @Test
     public void assertFindActualTableIndexForNotFound() {
         TableRule actual = TableRule.builder("logicTable")
@@ -0,0 +1,105 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.api.strategy.common;
+
+import com.dangdang.ddframe.rdb.sharding.api.ShardingValue;
+import com.google.common.collect.Range;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public final class ConsistentHashShardingAlgorithmTest {
+    
+    private final ConsistentHashShardingAlgorithm<String> consistentHashShardingAlgorithm = new ConsistentHashShardingAlgorithm<>();
+    
+    private final List<String> targets = Arrays.asList("ds_0", "ds_1", "ds_2", "ds_3");
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void assertNewWithoutVirtualNode() {
+        new ConsistentHashShardingAlgorithm<>(0);
+    }
+    
+    @Test
+    public void assertDoEqualShardingIndependentOfTargetOrder() {
+        List<String> reversedTargets = new ArrayList<>(targets);
+        Collections.reverse(reversedTargets);
+        for (int i = 0; i < 1000; i++) {
+            ShardingValue<String> shardingValue = new ShardingValue<>("t_order", "user_name", "user_" + i);
+            String actual = consistentHashShardingAlgorithm.doEqualSharding(targets, shardingValue);
+            assertTrue(targets.contains(actual));
+            assertThat(consistentHashShardingAlgorithm.doEqualSharding(reversedTargets, shardingValue), is(actual));
+        }
+    }
+    
+    @Test
+    public void assertDoInSharding() {
+        List<String> values = Arrays.asList("user_0", "user_1", "user_2");
+        Collection<String> expected = new TreeSet<>();
+        for (String each : values) {
+            expected.add(consistentHashShardingAlgorithm.doEqualSharding(targets, new ShardingValue<>("t_order", "user_name", each)));
+        }
+        Collection<String> actual = consistentHashShardingAlgorithm.doInSharding(targets, new ShardingValue<>("t_order", "user_name", values));
+        assertThat(actual.size(), is(expected.size()));
+        assertTrue(actual.containsAll(expected));
+    }
+    
+    @Test
+    public void assertDoBetweenSharding() {
+        assertThat(consistentHashShardingAlgorithm.doBetweenSharding(targets, new ShardingValue<>("t_order", "user_name", Range.closed("a", "b"))), is((Collection<String>) targets));
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void assertDoInShardingForDynamicTable() {
+        consistentHashShardingAlgorithm.doInSharding(Collections.<String>emptyList(), new ShardingValue<>("t_order", "user_name", Collections.singletonList("user_0")));
+    }
+    
+    @Test
+    public void assertDistribution() {
+        Map<String, Integer> counts = new HashMap<>(targets.size(), 1);
+        for (int i = 0; i < 100000; i++) {
+            String target = consistentHashShardingAlgorithm.doEqualSharding(targets, new ShardingValue<>("t_order", "user_name", "user_" + i));
+            counts.put(target, null == counts.get(target) ? 1 : counts.get(target) + 1);
+        }
+        for (String each : targets) {
+            assertTrue(counts.get(each) > 15000 && counts.get(each) < 35000);
+        }
+    }
+    
+    @Test
+    public void assertRemoveTarget() {
+        List<String> removedTargets = Arrays.asList("ds_0", "ds_2", "ds_3");
+        for (int i = 0; i < 10000; i++) {
+            ShardingValue<String> shardingValue = new ShardingValue<>("t_order", "user_name", "user_" + i);
+            String before = consistentHashShardingAlgorithm.doEqualSharding(targets, shardingValue);
+            if (!"ds_1".equals(before)) {
+                assertThat(consistentHashShardingAlgorithm.doEqualSharding(removedTargets, shardingValue), is(before));
+            }
+        }
+    }
+}
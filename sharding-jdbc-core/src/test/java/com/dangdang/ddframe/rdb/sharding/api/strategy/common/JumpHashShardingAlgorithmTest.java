@@ -0,0 +1,109 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.api.strategy.common;
+
+import com.dangdang.ddframe.rdb.sharding.api.ShardingValue;
+import com.google.common.collect.Range;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public final class JumpHashShardingAlgorithmTest {
+    
+    private final JumpHashShardingAlgorithm<Long> jumpHashShardingAlgorithm = new JumpHashShardingAlgorithm<>();
+    
+    private final List<String> targets = Arrays.asList("t_order_0", "t_order_1", "t_order_2", "t_order_3");
+    
+    @Test
+    public void assertDoEqualSharding() {
+        String actual = jumpHashShardingAlgorithm.doEqualSharding(targets, new ShardingValue<>("t_order", "order_id", 1L));
+        assertTrue(targets.contains(actual));
+        assertThat(jumpHashShardingAlgorithm.doEqualSharding(new ArrayList<>(targets), new ShardingValue<>("t_order", "order_id", 1L)), is(actual));
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Test
+    public void assertDoEqualShardingWithDifferentIntegralTypes() {
+        for (int i = 0; i < 100; i++) {
+            ShardingValue integerValue = new ShardingValue<>("t_order", "order_id", i);
+            assertThat(jumpHashShardingAlgorithm.doEqualSharding(targets, integerValue), is(jumpHashShardingAlgorithm.doEqualSharding(targets, new ShardingValue<>("t_order", "order_id", (long) i))));
+        }
+    }
+    
+    @Test
+    public void assertDoInSharding() {
+        List<Long> values = new ArrayList<>(100);
+        Collection<String> expected = new TreeSet<>();
+        for (long i = 0; i < 3; i++) {
+            values.add(i);
+            expected.add(jumpHashShardingAlgorithm.doEqualSharding(targets, new ShardingValue<>("t_order", "order_id", i)));
+        }
+        Collection<String> actual = jumpHashShardingAlgorithm.doInSharding(targets, new ShardingValue<>("t_order", "order_id", values));
+        assertThat(actual.size(), is(expected.size()));
+        assertTrue(actual.containsAll(expected));
+    }
+    
+    @Test
+    public void assertDoBetweenSharding() {
+        assertThat(jumpHashShardingAlgorithm.doBetweenSharding(targets, new ShardingValue<>("t_order", "order_id", Range.closed(1L, 2L))), is((Collection<String>) targets));
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void assertDoEqualShardingForDynamicTable() {
+        jumpHashShardingAlgorithm.doEqualSharding(Collections.<String>emptyList(), new ShardingValue<>("t_order", "order_id", 1L));
+    }
+    
+    @Test
+    public void assertDistribution() {
+        Map<String, Integer> counts = new HashMap<>(targets.size(), 1);
+        for (long i = 0; i < 100000; i++) {
+            String target = jumpHashShardingAlgorithm.doEqualSharding(targets, new ShardingValue<>("t_order", "order_id", i));
+            counts.put(target, null == counts.get(target) ? 1 : counts.get(target) + 1);
+        }
+        for (String each : targets) {
+            assertTrue(counts.get(each) > 23000 && counts.get(each) < 27000);
+        }
+    }
+    
+    @Test
+    public void assertAppendTarget() {
+        List<String> appendedTargets = new ArrayList<>(targets);
+        appendedTargets.add("t_order_4");
+        int movedCount = 0;
+        for (long i = 0; i < 10000; i++) {
+            String before = jumpHashShardingAlgorithm.doEqualSharding(targets, new ShardingValue<>("t_order", "order_id", i));
+            String after = jumpHashShardingAlgorithm.doEqualSharding(appendedTargets, new ShardingValue<>("t_order", "order_id", i));
+            if (!before.equals(after)) {
+                assertThat(after, is("t_order_4"));
+                movedCount++;
+            }
+        }
+        assertTrue(movedCount > 1500 && movedCount < 2500);
+    }
+}
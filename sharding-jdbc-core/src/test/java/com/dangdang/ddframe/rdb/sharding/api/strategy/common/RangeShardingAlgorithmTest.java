@@ -0,0 +1,127 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.api.strategy.common;
+
+import com.dangdang.ddframe.rdb.sharding.api.ShardingValue;
+import com.google.common.collect.BoundType;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Range;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public final class RangeShardingAlgorithmTest {
+    
+    private final RangeShardingAlgorithm<Integer> rangeShardingAlgorithm = new RangeShardingAlgorithm<>(ImmutableMap.of(2000, "t_order_2", 0, "t_order_0", 1000, "t_order_1"));
+    
+    private final Collection<String> targets = Arrays.asList("t_order_0", "t_order_1", "t_order_2");
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void assertNewWithoutRange() {
+        new RangeShardingAlgorithm<>(Collections.<Integer, String>emptyMap());
+    }
+    
+    @Test
+    public void assertDoEqualSharding() {
+        assertThat(rangeShardingAlgorithm.doEqualSharding(targets, new ShardingValue<>("t_order", "order_id", 0)), is("t_order_0"));
+        assertThat(rangeShardingAlgorithm.doEqualSharding(targets, new ShardingValue<>("t_order", "order_id", 999)), is("t_order_0"));
+        assertThat(rangeShardingAlgorithm.doEqualSharding(targets, new ShardingValue<>("t_order", "order_id", 1000)), is("t_order_1"));
+        assertThat(rangeShardingAlgorithm.doEqualSharding(targets, new ShardingValue<>("t_order", "order_id", 100000)), is("t_order_2"));
+    }
+    
+    @Test
+    public void assertDoEqualShardingForDynamicTable() {
+        assertThat(rangeShardingAlgorithm.doEqualSharding(Collections.<String>emptyList(), new ShardingValue<>("t_order", "order_id", 1500)), is("t_order_1"));
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void assertDoEqualShardingForValueLessThanAllRanges() {
+        rangeShardingAlgorithm.doEqualSharding(targets, new ShardingValue<>("t_order", "order_id", -1));
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void assertDoEqualShardingForUnavailableTarget() {
+        rangeShardingAlgorithm.doEqualSharding(Arrays.asList("t_order_0", "t_order_1"), new ShardingValue<>("t_order", "order_id", 2000));
+    }
+    
+    @Test
+    public void assertDoInSharding() {
+        assertThat(new ArrayList<>(rangeShardingAlgorithm.doInSharding(targets, new ShardingValue<>("t_order", "order_id", Arrays.asList(1, 2001, 999)))), 
+                is(toList("t_order_0", "t_order_2")));
+    }
+    
+    @Test
+    public void assertDoBetweenSharding() {
+        assertBetween(Range.closed(500, 1500), "t_order_0", "t_order_1");
+        assertBetween(Range.closed(1000, 1999), "t_order_1");
+        assertBetween(Range.closedOpen(500, 1000), "t_order_0");
+        assertBetween(Range.closed(500, 1000), "t_order_0", "t_order_1");
+        assertBetween(Range.closed(-500, 100), "t_order_0");
+        assertBetween(Range.closed(-500, -100));
+        assertBetween(Range.closed(5000, 6000), "t_order_2");
+        assertBetween(Range.downTo(1500, BoundType.CLOSED), "t_order_1", "t_order_2");
+        assertBetween(Range.upTo(1000, BoundType.OPEN), "t_order_0");
+    }
+    
+    @Test
+    public void assertDoBetweenShardingWithUnavailableTargets() {
+        assertThat(new ArrayList<>(rangeShardingAlgorithm.doBetweenSharding(Collections.singletonList("t_order_1"), new ShardingValue<>("t_order", "order_id", Range.closed(0, 3000)))), 
+                is(toList("t_order_1")));
+    }
+    
+    @Test
+    public void assertDoBetweenShardingForManyRanges() {
+        Map<Integer, String> lowerBounds = new HashMap<>(10000, 1);
+        for (int i = 0; i < 10000; i++) {
+            lowerBounds.put(i * 100, "t_order_" + i);
+        }
+        Collection<String> actual = new RangeShardingAlgorithm<>(lowerBounds).doBetweenSharding(Collections.<String>emptyList(), new ShardingValue<>("t_order", "order_id", Range.closed(512050, 512250)));
+        assertThat(new ArrayList<>(actual), is(toList("t_order_5120", "t_order_5121", "t_order_5122")));
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Test
+    public void assertConvert() {
+        RangeShardingAlgorithm<Long> longRangeShardingAlgorithm = new RangeShardingAlgorithm<Long>(ImmutableMap.of(0L, "t_order_0", 1000L, "t_order_1")) {
+            
+            @Override
+            protected Long convert(final Comparable<?> value) {
+                return ((Number) value).longValue();
+            }
+        };
+        ShardingValue shardingValue = new ShardingValue<>("t_order", "order_id", Range.closed(10, 1010));
+        assertThat(new ArrayList<String>(longRangeShardingAlgorithm.doBetweenSharding(targets, shardingValue)), is(toList("t_order_0", "t_order_1")));
+    }
+    
+    private void assertBetween(final Range<Integer> range, final String... expected) {
+        assertThat(new ArrayList<>(rangeShardingAlgorithm.doBetweenSharding(targets, new ShardingValue<>("t_order", "order_id", range))), is(toList(expected)));
+    }
+    
+    private List<String> toList(final String... values) {
+        return Arrays.asList(values);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.api.strategy.table;
+
+import com.dangdang.ddframe.rdb.sharding.api.ShardingValue;
+import com.dangdang.ddframe.rdb.sharding.api.strategy.table.TimeBucketTableShardingAlgorithm.TimeBucket;
+import com.google.common.collect.Range;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public final class TimeBucketTableShardingAlgorithmTest {
+    
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+    
+    private final Collection<String> dynamicTargets = Collections.emptyList();
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void assertNewWithoutMaxFanOut() {
+        new TimeBucketTableShardingAlgorithm("t_log_", TimeBucket.DAY, createDate(2017, 1, 1), 0, UTC);
+    }
+    
+    @Test
+    public void assertDoEqualSharding() {
+        assertThat(createAlgorithm(TimeBucket.DAY).doEqualSharding(dynamicTargets, createShardingValue("2017-01-05 23:59:59")), is("t_log_20170105"));
+        assertThat(createAlgorithm(TimeBucket.WEEK).doEqualSharding(dynamicTargets, createShardingValue("2017-01-08")), is("t_log_20170102"));
+        assertThat(createAlgorithm(TimeBucket.WEEK).doEqualSharding(dynamicTargets, createShardingValue("2017-01-09")), is("t_log_20170109"));
+        assertThat(createAlgorithm(TimeBucket.MONTH).doEqualSharding(dynamicTargets, createShardingValue("2017-02-28")), is("t_log_201702"));
+    }
+    
+    @Test
+    public void assertDoEqualShardingWithDateAndMillis() {
+        TimeBucketTableShardingAlgorithm algorithm = createAlgorithm(TimeBucket.DAY);
+        Date date = createDate(2017, 3, 1);
+        assertThat(algorithm.doEqualSharding(dynamicTargets, new ShardingValue<Comparable<?>>("t_log", "create_time", date)), is("t_log_20170301"));
+        assertThat(algorithm.doEqualSharding(dynamicTargets, new ShardingValue<Comparable<?>>("t_log", "create_time", date.getTime())), is("t_log_20170301"));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void assertDoEqualShardingWithIllegalValue() {
+        createAlgorithm(TimeBucket.DAY).doEqualSharding(dynamicTargets, createShardingValue("2017/01/05"));
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void assertDoEqualShardingForUnavailableTarget() {
+        createAlgorithm(TimeBucket.DAY).doEqualSharding(Collections.singletonList("t_log_20170101"), createShardingValue("2017-01-05"));
+    }
+    
+    @Test
+    public void assertDoInSharding() {
+        Collection<String> actual = createAlgorithm(TimeBucket.MONTH).doInSharding(dynamicTargets, 
+                new ShardingValue<Comparable<?>>("t_log", "create_time", Arrays.<Comparable<?>>asList("2017-01-05", "2017-03-01", "2017-01-31 23:00:00")));
+        assertThat(new ArrayList<>(actual), is(toList("t_log_201701", "t_log_201703")));
+    }
+    
+    @Test
+    public void assertDoBetweenSharding() {
+        assertBetween(TimeBucket.DAY, Range.<Comparable<?>>closed("2017-01-30", "2017-02-02"), "t_log_20170130", "t_log_20170131", "t_log_20170201", "t_log_20170202");
+        assertBetween(TimeBucket.DAY, Range.<Comparable<?>>closedOpen("2017-01-30", "2017-02-01"), "t_log_20170130", "t_log_20170131");
+        assertBetween(TimeBucket.DAY, Range.<Comparable<?>>closedOpen("2017-01-30", "2017-02-01 00:00:01"), "t_log_20170130", "t_log_20170131", "t_log_20170201");
+        assertBetween(TimeBucket.WEEK, Range.<Comparable<?>>closed("2017-01-01", "2017-01-10"), "t_log_20161226", "t_log_20170102", "t_log_20170109");
+        assertBetween(TimeBucket.MONTH, Range.<Comparable<?>>closed("2016-12-01", "2017-02-15"), "t_log_201612", "t_log_201701", "t_log_201702");
+    }
+    
+    @Test
+    public void assertDoBetweenShardingWithoutLowerBound() {
+        assertBetween(TimeBucket.MONTH, Range.<Comparable<?>>lessThan("2016-03-01"), "t_log_201601", "t_log_201602");
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void assertDoBetweenShardingExceedsMaxFanOut() {
+        assertBetween(TimeBucket.DAY, Range.<Comparable<?>>atLeast("2016-01-01"));
+    }
+    
+    @Test
+    public void assertDoBetweenShardingWithUnavailableTargets() {
+        List<String> targets = Arrays.asList("t_log_20170101", "t_log_20170103");
+        Collection<String> actual = createAlgorithm(TimeBucket.DAY).doBetweenSharding(targets, 
+                new ShardingValue<>("t_log", "create_time", Range.<Comparable<?>>closed("2017-01-01", "2017-01-02")));
+        assertThat(new ArrayList<>(actual), is(toList("t_log_20170101")));
+    }
+    
+    private TimeBucketTableShardingAlgorithm createAlgorithm(final TimeBucket timeBucket) {
+        return new TimeBucketTableShardingAlgorithm("t_log_", timeBucket, createDate(2016, 1, 1), 31, UTC);
+    }
+    
+    private ShardingValue<Comparable<?>> createShardingValue(final String value) {
+        return new ShardingValue<Comparable<?>>("t_log", "create_time", value);
+    }
+    
+    private void assertBetween(final TimeBucket timeBucket, final Range<Comparable<?>> range, final String... expected) {
+        Collection<String> actual = createAlgorithm(timeBucket).doBetweenSharding(dynamicTargets, new ShardingValue<>("t_log", "create_time", range));
+        assertThat(new ArrayList<>(actual), is(toList(expected)));
+    }
+    
+    private Date createDate(final int year, final int month, final int day) {
+        Calendar result = Calendar.getInstance(UTC);
+        result.clear();
+        result.set(year, month - 1, day);
+        return result.getTime();
+    }
+    
+    private List<String> toList(final String... values) {
+        return Arrays.asList(values);
+    }
+}
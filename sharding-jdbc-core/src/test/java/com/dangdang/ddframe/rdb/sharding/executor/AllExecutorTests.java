@@ -27,6 +27,7 @@ import org.junit.runners.Suite;
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
         ExecutorExceptionHandlerTest.class, 
+        ExecutorEngineTest.class, 
         StatementExecutorTest.class, 
         PreparedStatementExecutorTest.class,
         BatchPreparedStatementExecutorTest.class
@@ -0,0 +1,488 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.executor;
+
+import com.dangdang.ddframe.rdb.sharding.constant.SQLType;
+import com.dangdang.ddframe.rdb.sharding.exception.ShardingJdbcException;
+import com.dangdang.ddframe.rdb.sharding.executor.fixture.ExecutorTestUtil;
+import com.dangdang.ddframe.rdb.sharding.executor.threadlocal.ExecutorDataMap;
+import com.dangdang.ddframe.rdb.sharding.executor.threadlocal.ExecutorExceptionHandler;
+import com.dangdang.ddframe.rdb.sharding.executor.type.statement.StatementUnit;
+import com.dangdang.ddframe.rdb.sharding.routing.SQLExecutionUnit;
+import com.google.common.base.Optional;
+import com.google.common.collect.Sets;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public final class ExecutorEngineTest {
+    
+    private ExecutorEngine executorEngine;
+    
+    @After
+    public void tearDown() throws NoSuchFieldException, IllegalAccessException {
+        ExecutorTestUtil.clear();
+        ExecutorDataMap.setDataMap(new HashMap<String, Object>());
+        if (null != executorEngine) {
+            executorEngine.close();
+        }
+    }
+    
+    @Test
+    public void assertExecutorModeValueFrom() {
+        assertThat(ExecutorMode.valueFrom("platform"), is(ExecutorMode.PLATFORM));
+        assertThat(ExecutorMode.valueFrom(" Virtual "), is(ExecutorMode.VIRTUAL));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void assertExecutorModeValueFromFailure() {
+        ExecutorMode.valueFrom("fork_join");
+    }
+    
+    @Test
+    public void assertExecutorModeForPlatform() {
+        executorEngine = new ExecutorEngine(2);
+        assertThat(executorEngine.getExecutorMode(), is(ExecutorMode.PLATFORM));
+    }
+    
+    @Test
+    public void assertExecutorModeForVirtual() {
+        executorEngine = new ExecutorEngine(2, ExecutorMode.VIRTUAL);
+        assertThat(executorEngine.getExecutorMode(), is(isVirtualThreadSupported() ? ExecutorMode.VIRTUAL : ExecutorMode.PLATFORM));
+    }
+    
+    @Test
+    public void assertExecuteStatementWithThreadLocalsForPlatform() throws SQLException {
+        assertExecuteStatementWithThreadLocals(ExecutorMode.PLATFORM);
+    }
+    
+    @Test
+    public void assertExecuteStatementWithThreadLocalsForVirtual() throws SQLException {
+        assertExecuteStatementWithThreadLocals(ExecutorMode.VIRTUAL);
+    }
+    
+    private void assertExecuteStatementWithThreadLocals(final ExecutorMode executorMode) throws SQLException {
+        executorEngine = new ExecutorEngine(2, executorMode);
+        ExecutorDataMap.getDataMap().put("key", "value");
+        ExecutorExceptionHandler.setExceptionThrown(false);
+        List<String> actual = executorEngine.executeStatement(SQLType.DQL, createStatementUnits(8, false), new ExecuteCallback<String>() {
+            
+            @Override
+            public String execute(final BaseStatementUnit baseStatementUnit) throws Exception {
+                return ExecutorDataMap.getDataMap().get("key") + ":" + ExecutorExceptionHandler.isExceptionThrown();
+            }
+        });
+        assertThat(actual, is(Collections.nCopies(8, "value:false")));
+    }
+    
+    @Test
+    public void assertExecuteStatementInParallelForDifferentConnections() throws SQLException {
+        executorEngine = new ExecutorEngine(4, ExecutorMode.VIRTUAL);
+        final CountDownLatch latch = new CountDownLatch(4);
+        List<Boolean> actual = executorEngine.executeStatement(SQLType.DQL, createStatementUnits(4, false), new ExecuteCallback<Boolean>() {
+            
+            @Override
+            public Boolean execute(final BaseStatementUnit baseStatementUnit) throws Exception {
+                latch.countDown();
+                return latch.await(5, TimeUnit.SECONDS);
+            }
+        });
+        assertThat(actual, is(Collections.nCopies(4, true)));
+    }
+    
+    @Test
+    public void assertExecuteStatementSeriallyForSameConnection() throws SQLException {
+        executorEngine = new ExecutorEngine(4, ExecutorMode.VIRTUAL);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        executorEngine.executeStatement(SQLType.DQL, createStatementUnits(4, true), new ExecuteCallback<Void>() {
+            
+            @Override
+            public Void execute(final BaseStatementUnit baseStatementUnit) throws Exception {
+                int current = running.incrementAndGet();
+                if (current > maxRunning.get()) {
+                    maxRunning.set(current);
+                }
+                Thread.sleep(20L);
+                running.decrementAndGet();
+                return null;
+            }
+        });
+        assertThat(maxRunning.get(), is(1));
+    }
+    
+    @Test
+    public void assertGetBulkheadsAfterExecute() throws SQLException {
+        executorEngine = new ExecutorEngine(2, ExecutorMode.PLATFORM, 0, 1, ExecutorRejectedPolicy.ABORT);
+        executorEngine.executeStatement(SQLType.DQL, createStatementUnits(3, false), new ExecuteCallback<Void>() {
+            
+            @Override
+            public Void execute(final BaseStatementUnit baseStatementUnit) throws Exception {
+                return null;
+            }
+        });
+        assertThat(executorEngine.getBulkheads().keySet(), is((Set<String>) Sets.newHashSet("ds_1", "ds_2")));
+        DataSourceBulkhead actual = executorEngine.getBulkheads().get("ds_1");
+        assertThat(actual.getMaxConcurrency(), is(1));
+        assertThat(actual.getQueueDepth(), is(0));
+        assertThat(actual.getActiveCount(), is(0));
+        assertThat(actual.getRejectedCount(), is(0L));
+    }
+    
+    @Test
+    public void assertExecuteAbortWhenDataSourceSaturated() throws SQLException {
+        executorEngine = new ExecutorEngine(2, ExecutorMode.PLATFORM, 0, 1, ExecutorRejectedPolicy.ABORT);
+        final AtomicInteger executedCount = new AtomicInteger();
+        ExecuteCallback<Void> executeCallback = new ExecuteCallback<Void>() {
+            
+            @Override
+            public Void execute(final BaseStatementUnit baseStatementUnit) throws Exception {
+                executedCount.incrementAndGet();
+                return null;
+            }
+        };
+        try {
+            executorEngine.executeStatement(SQLType.DQL, createStatementUnits("ds_0", "ds_1", "ds_1"), executeCallback);
+            fail("Expected ShardingJdbcException");
+        } catch (final ShardingJdbcException ex) {
+            assertThat(executedCount.get(), is(0));
+        }
+        assertThat(executorEngine.getBulkheads().get("ds_1").getRejectedCount(), is(1L));
+        executorEngine.executeStatement(SQLType.DQL, createStatementUnits("ds_0", "ds_1"), executeCallback);
+        assertThat(executedCount.get(), is(2));
+    }
+    
+    @Test
+    public void assertExecuteCallerRunsWhenDataSourceSaturated() throws SQLException {
+        executorEngine = new ExecutorEngine(2, ExecutorMode.PLATFORM, 0, 1, ExecutorRejectedPolicy.CALLER_RUNS);
+        final Thread callerThread = Thread.currentThread();
+        List<Boolean> actual = executorEngine.executeStatement(SQLType.DQL, createStatementUnits("ds_0", "ds_1", "ds_1", "ds_1"), new ExecuteCallback<Boolean>() {
+            
+            @Override
+            public Boolean execute(final BaseStatementUnit baseStatementUnit) throws Exception {
+                return callerThread == Thread.currentThread();
+            }
+        });
+        assertThat(actual, is(Arrays.asList(true, false, true, true)));
+        assertThat(executorEngine.getBulkheads().get("ds_1").getRejectedCount(), is(2L));
+    }
+    
+    @Test
+    public void assertExecuteAbortWhenQueueIsFull() throws SQLException, InterruptedException {
+        executorEngine = new ExecutorEngine(1, ExecutorMode.PLATFORM, 1, 0, ExecutorRejectedPolicy.ABORT);
+        final AtomicInteger executedCount = new AtomicInteger();
+        ExecuteCallback<Void> executeCallback = new ExecuteCallback<Void>() {
+            
+            @Override
+            public Void execute(final BaseStatementUnit baseStatementUnit) throws Exception {
+                executedCount.incrementAndGet();
+                return null;
+            }
+        };
+        try {
+            executorEngine.executeStatement(SQLType.DQL, createStatementUnits("ds_0", "ds_1", "ds_2", "ds_3"), executeCallback);
+            fail("Expected ShardingJdbcException");
+        } catch (final ShardingJdbcException ex) {
+            Thread.sleep(50L);
+            assertThat(executedCount.get(), is(0));
+        }
+        for (DataSourceBulkhead each : executorEngine.getBulkheads().values()) {
+            assertThat(each.getQueueDepth() + each.getActiveCount(), is(0));
+        }
+        executorEngine.executeStatement(SQLType.DQL, createStatementUnits("ds_0", "ds_1", "ds_2"), executeCallback);
+        assertThat(executedCount.get(), is(3));
+    }
+    
+    @Test
+    public void assertExecuteCallerRunsWhenQueueIsFull() throws SQLException {
+        executorEngine = new ExecutorEngine(1, ExecutorMode.PLATFORM, 1, 0, ExecutorRejectedPolicy.CALLER_RUNS);
+        final Thread callerThread = Thread.currentThread();
+        List<Boolean> actual = executorEngine.executeStatement(SQLType.DQL, createStatementUnits("ds_0", "ds_1", "ds_2", "ds_3"), new ExecuteCallback<Boolean>() {
+            
+            @Override
+            public Boolean execute(final BaseStatementUnit baseStatementUnit) throws Exception {
+                return callerThread == Thread.currentThread();
+            }
+        });
+        assertThat(actual, is(Arrays.asList(true, false, false, true)));
+    }
+    
+    @Test
+    public void assertExecuteCancelOutstandingWhenTerminationConditionSatisfied() throws SQLException, InterruptedException {
+        executorEngine = new ExecutorEngine(2, ExecutorMode.PLATFORM, 0, 1, ExecutorRejectedPolicy.ABORT);
+        List<StatementUnit> statementUnits = new ArrayList<>(createStatementUnits("ds_0", "ds_1"));
+        final Statement slowStatement = statementUnits.get(1).getStatement();
+        ExecuteCallback<String> executeCallback = new ExecuteCallback<String>() {
+            
+            @Override
+            public String execute(final BaseStatementUnit baseStatementUnit) throws Exception {
+                if (slowStatement == baseStatementUnit.getStatement()) {
+                    new CountDownLatch(1).await(5, TimeUnit.SECONDS);
+                }
+                return baseStatementUnit.getSqlExecutionUnit().getDataSource();
+            }
+        };
+        long startTime = System.nanoTime();
+        List<String> actual = executorEngine.executeStatement(SQLType.DQL, statementUnits, executeCallback, Optional.<ExecuteTerminationCondition<String>>of(new ExecuteTerminationCondition<String>() {
+            
+            @Override
+            public boolean isSatisfied(final String result) {
+                return true;
+            }
+        }), ExecutionDeadline.NONE);
+        assertTrue(System.nanoTime() - startTime < TimeUnit.SECONDS.toNanos(5));
+        assertThat(actual, is(Collections.singletonList("ds_0")));
+        verify(slowStatement).cancel();
+        DataSourceBulkhead bulkhead = executorEngine.getBulkheads().get("ds_1");
+        while (bulkhead.getQueueDepth() + bulkhead.getActiveCount() > 0) {
+            Thread.sleep(10L);
+        }
+        assertThat(executorEngine.executeStatement(SQLType.DQL, createStatementUnits("ds_0", "ds_1"), executeCallback), is(Arrays.asList("ds_0", "ds_1")));
+    }
+    
+    @Test
+    public void assertExecuteCancelOutstandingWhenUnitFailed() throws SQLException {
+        executorEngine = new ExecutorEngine(2);
+        List<StatementUnit> statementUnits = new ArrayList<>(createStatementUnits("ds_0", "ds_1"));
+        final Statement callerRunsStatement = statementUnits.get(0).getStatement();
+        final CountDownLatch cancelLatch = new CountDownLatch(1);
+        doAnswer(new Answer<Void>() {
+            
+            @Override
+            public Void answer(final InvocationOnMock invocation) throws Throwable {
+                cancelLatch.countDown();
+                return null;
+            }
+        }).when(callerRunsStatement).cancel();
+        long startTime = System.nanoTime();
+        try {
+            executorEngine.executeStatement(SQLType.DQL, statementUnits, new ExecuteCallback<Void>() {
+                
+                @Override
+                public Void execute(final BaseStatementUnit baseStatementUnit) throws Exception {
+                    if (callerRunsStatement == baseStatementUnit.getStatement() && !cancelLatch.await(5, TimeUnit.SECONDS)) {
+                        return null;
+                    }
+                    throw new SQLException("Query execution was interrupted");
+                }
+            });
+            fail("Expected ShardingJdbcException");
+        } catch (final ShardingJdbcException ex) {
+            assertTrue(System.nanoTime() - startTime < TimeUnit.SECONDS.toNanos(5));
+        }
+        verify(callerRunsStatement).cancel();
+    }
+    
+    @Test
+    public void assertExecuteEvaluateTerminationConditionOncePerUnit() throws SQLException {
+        executorEngine = new ExecutorEngine(2);
+        final AtomicInteger evaluatedCount = new AtomicInteger();
+        List<String> actual = executorEngine.executeStatement(SQLType.DQL, createStatementUnits("ds_0", "ds_1", "ds_2"), new ExecuteCallback<String>() {
+            
+            @Override
+            public String execute(final BaseStatementUnit baseStatementUnit) throws Exception {
+                return baseStatementUnit.getSqlExecutionUnit().getDataSource();
+            }
+        }, Optional.<ExecuteTerminationCondition<String>>of(new ExecuteTerminationCondition<String>() {
+            
+            @Override
+            public boolean isSatisfied(final String result) {
+                evaluatedCount.incrementAndGet();
+                return false;
+            }
+        }), ExecutionDeadline.NONE);
+        assertThat(actual, is(Arrays.asList("ds_0", "ds_1", "ds_2")));
+        assertThat(evaluatedCount.get(), is(3));
+    }
+    
+    @Test
+    public void assertExecuteSwallowTimeoutWithoutSwallowedFailureResult() throws SQLException {
+        ExecutorExceptionHandler.setExceptionThrown(false);
+        executorEngine = new ExecutorEngine(2);
+        List<StatementUnit> statementUnits = new ArrayList<>(createStatementUnits("ds_0", "ds_1", "ds_2"));
+        final Statement failedStatement = statementUnits.get(1).getStatement();
+        final Statement slowStatement = statementUnits.get(2).getStatement();
+        List<String> actual = executorEngine.executeStatement(SQLType.DQL, statementUnits, new ExecuteCallback<String>() {
+            
+            @Override
+            public String execute(final BaseStatementUnit baseStatementUnit) throws Exception {
+                if (failedStatement == baseStatementUnit.getStatement()) {
+                    throw new SQLException("Table 't_order' doesn't exist");
+                }
+                if (slowStatement == baseStatementUnit.getStatement()) {
+                    new CountDownLatch(1).await(5, TimeUnit.SECONDS);
+                }
+                return baseStatementUnit.getSqlExecutionUnit().getDataSource();
+            }
+        }, Optional.<ExecuteTerminationCondition<String>>absent(), ExecutionDeadline.fromQueryTimeout(1));
+        assertThat(actual, is(Collections.singletonList("ds_0")));
+        verify(slowStatement).cancel();
+    }
+    
+    @Test
+    public void assertExecutionDeadline() {
+        assertFalse(ExecutionDeadline.fromQueryTimeout(0).isPresent());
+        assertFalse(ExecutionDeadline.NONE.isExpired());
+        ExecutionDeadline actual = ExecutionDeadline.fromQueryTimeout(2);
+        assertTrue(actual.isPresent());
+        assertFalse(actual.isExpired());
+        assertThat(actual.getRemainingQueryTimeout(), is(2));
+    }
+    
+    @Test
+    public void assertExecuteTimeoutWhenDeadlineExceeded() throws SQLException {
+        executorEngine = new ExecutorEngine(2);
+        List<StatementUnit> statementUnits = new ArrayList<>(createStatementUnits("ds_0", "ds_1"));
+        final Statement slowStatement = statementUnits.get(1).getStatement();
+        long startTime = System.nanoTime();
+        try {
+            executorEngine.executeStatement(SQLType.DQL, statementUnits, new ExecuteCallback<Void>() {
+                
+                @Override
+                public Void execute(final BaseStatementUnit baseStatementUnit) throws Exception {
+                    if (slowStatement == baseStatementUnit.getStatement()) {
+                        new CountDownLatch(1).await(5, TimeUnit.SECONDS);
+                    }
+                    return null;
+                }
+            }, Optional.<ExecuteTerminationCondition<Void>>absent(), ExecutionDeadline.fromQueryTimeout(1));
+            fail("Expected ExecutionTimeoutException");
+        } catch (final ExecutionTimeoutException ex) {
+            assertTrue(System.nanoTime() - startTime < TimeUnit.SECONDS.toNanos(5));
+            assertThat(ex.getDataSourceNames(), is((Collection<String>) Collections.singleton("ds_1")));
+        }
+        verify(statementUnits.get(0).getStatement()).setQueryTimeout(1);
+        verify(slowStatement).setQueryTimeout(1);
+        verify(slowStatement).cancel();
+    }
+    
+    @Test
+    public void assertExecuteSwallowTimeoutWhenExceptionNotThrown() throws SQLException {
+        ExecutorExceptionHandler.setExceptionThrown(false);
+        executorEngine = new ExecutorEngine(2);
+        List<StatementUnit> statementUnits = new ArrayList<>(createStatementUnits("ds_0", "ds_1"));
+        final Statement slowStatement = statementUnits.get(1).getStatement();
+        List<String> actual = executorEngine.executeStatement(SQLType.DQL, statementUnits, new ExecuteCallback<String>() {
+            
+            @Override
+            public String execute(final BaseStatementUnit baseStatementUnit) throws Exception {
+                if (slowStatement == baseStatementUnit.getStatement()) {
+                    new CountDownLatch(1).await(5, TimeUnit.SECONDS);
+                }
+                return baseStatementUnit.getSqlExecutionUnit().getDataSource();
+            }
+        }, Optional.<ExecuteTerminationCondition<String>>absent(), ExecutionDeadline.fromQueryTimeout(1));
+        assertThat(actual, is(Collections.singletonList("ds_0")));
+        verify(slowStatement).cancel();
+    }
+    
+    @Test
+    public void assertExecuteTimeoutWhenDriverTimeoutExceeded() throws SQLException {
+        executorEngine = new ExecutorEngine(2);
+        List<StatementUnit> statementUnits = new ArrayList<>(createStatementUnits("ds_0", "ds_1"));
+        try {
+            executorEngine.executeStatement(SQLType.DQL, statementUnits, createDriverTimeoutCallback(statementUnits.get(0).getStatement()), 
+                    Optional.<ExecuteTerminationCondition<String>>absent(), ExecutionDeadline.fromQueryTimeout(1));
+            fail("Expected ExecutionTimeoutException");
+        } catch (final ExecutionTimeoutException ex) {
+            assertThat(ex.getDataSourceNames(), is((Collection<String>) Collections.singleton("ds_0")));
+            assertTrue(ex.getCause() instanceof SQLTimeoutException);
+        }
+    }
+    
+    @Test
+    public void assertExecuteSwallowDriverTimeoutWhenExceptionNotThrown() throws SQLException {
+        ExecutorExceptionHandler.setExceptionThrown(false);
+        executorEngine = new ExecutorEngine(2);
+        List<StatementUnit> statementUnits = new ArrayList<>(createStatementUnits("ds_0", "ds_1"));
+        List<String> actual = executorEngine.executeStatement(SQLType.DQL, statementUnits, createDriverTimeoutCallback(statementUnits.get(0).getStatement()), 
+                Optional.<ExecuteTerminationCondition<String>>absent(), ExecutionDeadline.fromQueryTimeout(1));
+        assertThat(actual, is(Collections.singletonList("ds_1")));
+    }
+    
+    private ExecuteCallback<String> createDriverTimeoutCallback(final Statement timeoutStatement) {
+        return new ExecuteCallback<String>() {
+            
+            @Override
+            public String execute(final BaseStatementUnit baseStatementUnit) throws Exception {
+                if (timeoutStatement == baseStatementUnit.getStatement()) {
+                    Thread.sleep(1100L);
+                    throw new SQLTimeoutException("Statement cancelled due to timeout");
+                }
+                return baseStatementUnit.getSqlExecutionUnit().getDataSource();
+            }
+        };
+    }
+    
+    private Collection<StatementUnit> createStatementUnits(final String... dataSourceNames) throws SQLException {
+        Collection<StatementUnit> result = new ArrayList<>(dataSourceNames.length);
+        for (String each : dataSourceNames) {
+            Statement statement = mock(Statement.class);
+            when(statement.getConnection()).thenReturn(mock(Connection.class));
+            result.add(new StatementUnit(new SQLExecutionUnit(each, "SELECT 1"), statement));
+        }
+        return result;
+    }
+    
+    private Collection<StatementUnit> createStatementUnits(final int size, final boolean isSameConnection) throws SQLException {
+        Collection<StatementUnit> result = new ArrayList<>(size);
+        Connection sharedConnection = mock(Connection.class);
+        for (int i = 0; i < size; i++) {
+            Statement statement = mock(Statement.class);
+            when(statement.getConnection()).thenReturn(isSameConnection ? sharedConnection : mock(Connection.class));
+            result.add(new StatementUnit(new SQLExecutionUnit("ds_" + i, "SELECT 1"), statement));
+        }
+        return result;
+    }
+    
+    private boolean isVirtualThreadSupported() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (final NoSuchMethodException ex) {
+            return false;
+        }
+    }
+}
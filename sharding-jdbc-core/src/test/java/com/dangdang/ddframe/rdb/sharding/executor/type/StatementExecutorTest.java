@@ -17,16 +17,26 @@
 
 package com.dangdang.ddframe.rdb.sharding.executor.type;
 
+import com.dangdang.ddframe.rdb.sharding.constant.OrderType;
 import com.dangdang.ddframe.rdb.sharding.constant.SQLType;
+import com.dangdang.ddframe.rdb.sharding.executor.ConnectionMode;
+import com.dangdang.ddframe.rdb.sharding.executor.LimitTerminationCondition;
 import com.dangdang.ddframe.rdb.sharding.executor.event.EventExecutionType;
 import com.dangdang.ddframe.rdb.sharding.executor.type.statement.StatementExecutor;
 import com.dangdang.ddframe.rdb.sharding.executor.type.statement.StatementUnit;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.OrderItem;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.limit.Limit;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.limit.LimitValue;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.dql.select.SelectStatement;
 import com.dangdang.ddframe.rdb.sharding.rewrite.SQLBuilder;
 import com.dangdang.ddframe.rdb.sharding.routing.SQLExecutionUnit;
 import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 import java.sql.Connection;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Arrays;
@@ -34,13 +44,17 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsCollectionContaining.hasItem;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -103,6 +117,148 @@ public final class StatementExecutorTest extends AbstractBaseExecutorTest {
         verify(getEventCaller(), times(0)).verifyException(null);
     }
     
+    @Test
+    public void assertExecuteQueryForConnectionStrictly() throws SQLException {
+        Connection connection = mock(Connection.class);
+        ResultSet resultSet1 = mockResultSet(1, 2);
+        ResultSet resultSet2 = mockResultSet(3);
+        Statement statement1 = mock(Statement.class);
+        Statement statement2 = mock(Statement.class);
+        when(statement1.executeQuery(DQL_SQL)).thenReturn(resultSet1);
+        when(statement1.getConnection()).thenReturn(connection);
+        when(statement2.executeQuery(DQL_SQL)).thenReturn(resultSet2);
+        when(statement2.getConnection()).thenReturn(connection);
+        Collection<StatementUnit> statementUnits = Arrays.asList(new StatementUnit(new SQLExecutionUnit("ds_0", DQL_SQL), statement1, ConnectionMode.CONNECTION_STRICTLY), 
+                new StatementUnit(new SQLExecutionUnit("ds_0", DQL_SQL), statement2, ConnectionMode.CONNECTION_STRICTLY));
+        List<ResultSet> actual = new StatementExecutor(getExecutorEngine(), SQLType.DQL, statementUnits).executeQuery();
+        verify(resultSet1, times(3)).next();
+        verify(resultSet2, times(2)).next();
+        assertThat(actual.size(), is(2));
+        assertTrue(actual.get(0).next());
+        assertThat(actual.get(0).getInt("ID"), is(1));
+        assertTrue(actual.get(0).next());
+        assertThat(actual.get(0).getLong(1), is(2L));
+        assertFalse(actual.get(0).next());
+        assertTrue(actual.get(1).next());
+        assertThat(actual.get(1).getInt("id"), is(3));
+        assertFalse(actual.get(1).next());
+    }
+    
+    @Test
+    public void assertExecuteQueryForLimitTermination() throws SQLException {
+        ResultSet resultSet1 = mockResultSet(1, 2);
+        final ResultSet resultSet2 = mockResultSet(3);
+        Statement statement1 = mock(Statement.class);
+        Statement statement2 = mock(Statement.class);
+        final CountDownLatch cancelLatch = new CountDownLatch(1);
+        when(statement1.executeQuery(DQL_SQL)).thenReturn(resultSet1);
+        when(statement1.getConnection()).thenReturn(mock(Connection.class));
+        when(statement2.executeQuery(DQL_SQL)).thenAnswer(new Answer<ResultSet>() {
+            
+            @Override
+            public ResultSet answer(final InvocationOnMock invocation) throws Throwable {
+                cancelLatch.await(5, TimeUnit.SECONDS);
+                return resultSet2;
+            }
+        });
+        doAnswer(new Answer<Void>() {
+            
+            @Override
+            public Void answer(final InvocationOnMock invocation) throws Throwable {
+                cancelLatch.countDown();
+                return null;
+            }
+        }).when(statement2).cancel();
+        when(statement2.getConnection()).thenReturn(mock(Connection.class));
+        Collection<StatementUnit> statementUnits = Arrays.asList(new StatementUnit(new SQLExecutionUnit("ds_0", DQL_SQL), statement1), new StatementUnit(new SQLExecutionUnit("ds_1", DQL_SQL), statement2));
+        SelectStatement selectStatement = new SelectStatement();
+        selectStatement.setLimit(new Limit(true));
+        selectStatement.getLimit().setRowCount(new LimitValue(2, -1));
+        List<ResultSet> actual = new StatementExecutor(getExecutorEngine(), SQLType.DQL, statementUnits).executeQuery(LimitTerminationCondition.create(selectStatement, 2).get());
+        verify(statement2).cancel();
+        assertThat(actual.size(), is(1));
+        assertTrue(actual.get(0).next());
+        assertThat(actual.get(0).getInt("id"), is(1));
+        assertTrue(actual.get(0).next());
+        assertThat(actual.get(0).getInt("id"), is(2));
+        assertFalse(actual.get(0).next());
+        selectStatement.getOrderByItems().add(new OrderItem(1, OrderType.ASC));
+        assertFalse(LimitTerminationCondition.create(selectStatement, 2).isPresent());
+    }
+    
+    @Test
+    public void assertCreateLimitTerminationCondition() {
+        SelectStatement selectStatement = new SelectStatement();
+        selectStatement.setLimit(new Limit(true));
+        selectStatement.getLimit().setRowCount(new LimitValue(10, -1));
+        assertTrue(LimitTerminationCondition.create(selectStatement, 2).isPresent());
+        assertFalse(LimitTerminationCondition.create(selectStatement, 1).isPresent());
+        selectStatement.getLimit().setOffset(new LimitValue(100000, -1));
+        assertFalse(LimitTerminationCondition.create(selectStatement, 2).isPresent());
+    }
+    
+    @Test
+    public void assertExecuteQueryForLimitTerminationWhenCancelledUnitFailed() throws SQLException {
+        final ResultSet resultSet = mockResultSet(1, 2);
+        Statement statement1 = mock(Statement.class);
+        Statement statement2 = mock(Statement.class);
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final CountDownLatch cancelLatch = new CountDownLatch(1);
+        when(statement1.executeQuery(DQL_SQL)).thenAnswer(new Answer<ResultSet>() {
+            
+            @Override
+            public ResultSet answer(final InvocationOnMock invocation) throws Throwable {
+                startLatch.await(5, TimeUnit.SECONDS);
+                return resultSet;
+            }
+        });
+        when(statement1.getConnection()).thenReturn(mock(Connection.class));
+        when(statement2.executeQuery(DQL_SQL)).thenAnswer(new Answer<ResultSet>() {
+            
+            @Override
+            public ResultSet answer(final InvocationOnMock invocation) throws Throwable {
+                startLatch.countDown();
+                cancelLatch.await(5, TimeUnit.SECONDS);
+                throw new SQLException("Query execution was interrupted");
+            }
+        });
+        doAnswer(new Answer<Void>() {
+            
+            @Override
+            public Void answer(final InvocationOnMock invocation) throws Throwable {
+                cancelLatch.countDown();
+                return null;
+            }
+        }).when(statement2).cancel();
+        when(statement2.getConnection()).thenReturn(mock(Connection.class));
+        Collection<StatementUnit> statementUnits = Arrays.asList(new StatementUnit(new SQLExecutionUnit("ds_0", DQL_SQL), statement1), new StatementUnit(new SQLExecutionUnit("ds_1", DQL_SQL), statement2));
+        SelectStatement selectStatement = new SelectStatement();
+        selectStatement.setLimit(new Limit(true));
+        selectStatement.getLimit().setRowCount(new LimitValue(2, -1));
+        List<ResultSet> actual = new StatementExecutor(getExecutorEngine(), SQLType.DQL, statementUnits).executeQuery(LimitTerminationCondition.create(selectStatement, 2).get());
+        assertThat(actual.size(), is(1));
+        verify(statement2, timeout(5000)).cancel();
+        verify(getEventCaller(), timeout(5000).times(2)).verifyEventExecutionType(EventExecutionType.BEFORE_EXECUTE);
+        verify(getEventCaller(), timeout(5000)).verifyEventExecutionType(EventExecutionType.EXECUTE_SUCCESS);
+        verify(getEventCaller(), timeout(5000)).verifyEventExecutionType(EventExecutionType.EXECUTE_FAILURE);
+    }
+    
+    private ResultSet mockResultSet(final Integer... values) throws SQLException {
+        ResultSet result = mock(ResultSet.class);
+        ResultSetMetaData resultSetMetaData = mock(ResultSetMetaData.class);
+        when(resultSetMetaData.getColumnCount()).thenReturn(1);
+        when(resultSetMetaData.getColumnLabel(1)).thenReturn("id");
+        when(result.getMetaData()).thenReturn(resultSetMetaData);
+        List<Boolean> nexts = new LinkedList<>();
+        for (int i = 1; i < values.length; i++) {
+            nexts.add(true);
+        }
+        nexts.add(false);
+        when(result.next()).thenReturn(true, nexts.toArray(new Boolean[nexts.size()]));
+        when(result.getObject(1)).thenReturn(values[0], Arrays.copyOfRange(values, 1, values.length));
+        return result;
+    }
+    
     @Test
     public void assertExecuteQueryForSingleStatementFailure() throws SQLException {
         Statement statement = mock(Statement.class);
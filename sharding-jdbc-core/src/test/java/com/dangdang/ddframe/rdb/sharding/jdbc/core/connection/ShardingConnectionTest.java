@@ -21,8 +21,12 @@ import com.dangdang.ddframe.rdb.sharding.api.rule.DataSourceRule;
 import com.dangdang.ddframe.rdb.sharding.api.rule.ShardingRule;
 import com.dangdang.ddframe.rdb.sharding.api.rule.TableRule;
 import com.dangdang.ddframe.rdb.sharding.constant.SQLType;
+import com.dangdang.ddframe.rdb.sharding.executor.ConnectionMode;
 import com.dangdang.ddframe.rdb.sharding.fixture.TestDataSource;
 import com.dangdang.ddframe.rdb.sharding.jdbc.core.ShardingContext;
+import com.dangdang.ddframe.rdb.sharding.parsing.cache.SQLParsingCache;
+import com.dangdang.ddframe.rdb.sharding.routing.SQLExecutionUnit;
+import com.dangdang.ddframe.rdb.sharding.routing.cache.SQLRouteCache;
 import com.dangdang.ddframe.rdb.sharding.jdbc.core.datasource.MasterSlaveDataSource;
 import org.junit.After;
 import org.junit.Before;
@@ -32,12 +36,16 @@ import org.junit.Test;
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
 
 public final class ShardingConnectionTest {
     
@@ -63,7 +71,7 @@ public final class ShardingConnectionTest {
         DataSourceRule dataSourceRule = new DataSourceRule(dataSourceMap);
         ShardingRule rule = new ShardingRule.ShardingRuleBuilder().dataSourceRule(dataSourceRule)
                 .tableRules(Collections.singleton(new  TableRule.TableRuleBuilder("test").dataSourceRule(dataSourceRule).build())).build();
-        ShardingContext shardingContext = new ShardingContext(rule, null, null, false);
+        ShardingContext shardingContext = new ShardingContext(rule, null, null, false, new SQLParsingCache(0), new SQLRouteCache(0));
         connection = new ShardingConnection(shardingContext);
     }
     
@@ -112,4 +120,55 @@ public final class ShardingConnectionTest {
         connection.release(conn);
         assertNotSame(conn, connection.getConnection(DS_NAME, SQLType.DML));
     }
+    
+    @Test
+    public void assertGetConnectionsForMemoryStrictly() throws SQLException {
+        ShardingConnection shardingConnection = createShardingConnection(2);
+        List<Connection> actual = shardingConnection.getConnections(SQLType.DQL, 
+                Arrays.asList(new SQLExecutionUnit("ds_0", "SELECT 0"), new SQLExecutionUnit("ds_0", "SELECT 1"), new SQLExecutionUnit("ds_1", "SELECT 2")));
+        assertThat(actual.size(), is(3));
+        assertNotSame(actual.get(0), actual.get(1));
+        assertNotSame(actual.get(0), actual.get(2));
+        assertThat(ConnectionMode.decide(2, actual), is(Arrays.asList(ConnectionMode.MEMORY_STRICTLY, ConnectionMode.MEMORY_STRICTLY, ConnectionMode.MEMORY_STRICTLY)));
+        assertThat(shardingConnection.getConnections().size(), is(3));
+    }
+    
+    @Test
+    public void assertGetConnectionsForConnectionStrictly() throws SQLException {
+        ShardingConnection shardingConnection = createShardingConnection(2);
+        List<Connection> actual = shardingConnection.getConnections(SQLType.DQL, 
+                Arrays.asList(new SQLExecutionUnit("ds_0", "SELECT 0"), new SQLExecutionUnit("ds_0", "SELECT 1"), new SQLExecutionUnit("ds_0", "SELECT 2")));
+        assertNotSame(actual.get(0), actual.get(1));
+        assertSame(actual.get(0), actual.get(2));
+        assertThat(ConnectionMode.decide(2, actual), is(Arrays.asList(ConnectionMode.CONNECTION_STRICTLY, ConnectionMode.MEMORY_STRICTLY, ConnectionMode.CONNECTION_STRICTLY)));
+        assertSame(actual.get(0), shardingConnection.getConnection("ds_0", SQLType.DQL));
+        assertThat(shardingConnection.getConnections().size(), is(2));
+    }
+    
+    @Test
+    public void assertGetConnectionsWithoutAutoCommit() throws SQLException {
+        ShardingConnection shardingConnection = createShardingConnection(2);
+        shardingConnection.setAutoCommit(false);
+        List<Connection> actual = shardingConnection.getConnections(SQLType.DML, Arrays.asList(new SQLExecutionUnit("ds_0", "UPDATE t_0"), new SQLExecutionUnit("ds_0", "UPDATE t_1")));
+        assertSame(actual.get(0), actual.get(1));
+        assertThat(ConnectionMode.decide(2, actual), is(Arrays.asList(ConnectionMode.CONNECTION_STRICTLY, ConnectionMode.CONNECTION_STRICTLY)));
+    }
+    
+    @Test
+    public void assertGetConnectionsWithoutMaxConnectionsSizePerQuery() throws SQLException {
+        ShardingConnection shardingConnection = createShardingConnection(0);
+        List<Connection> actual = shardingConnection.getConnections(SQLType.DQL, Arrays.asList(new SQLExecutionUnit("ds_0", "SELECT 0"), new SQLExecutionUnit("ds_0", "SELECT 1")));
+        assertSame(actual.get(0), actual.get(1));
+        assertThat(ConnectionMode.decide(0, actual), is(Arrays.asList(ConnectionMode.MEMORY_STRICTLY, ConnectionMode.MEMORY_STRICTLY)));
+    }
+    
+    private ShardingConnection createShardingConnection(final int maxConnectionsSizePerQuery) {
+        Map<String, DataSource> dataSourceMap = new HashMap<>(2, 1);
+        dataSourceMap.put("ds_0", new TestDataSource("ds_0"));
+        dataSourceMap.put("ds_1", new TestDataSource("ds_1"));
+        DataSourceRule dataSourceRule = new DataSourceRule(dataSourceMap);
+        ShardingRule rule = new ShardingRule.ShardingRuleBuilder().dataSourceRule(dataSourceRule)
+                .tableRules(Collections.singleton(new TableRule.TableRuleBuilder("test").dataSourceRule(dataSourceRule).build())).build();
+        return new ShardingConnection(new ShardingContext(rule, null, null, false, new SQLParsingCache(0), new SQLRouteCache(0), maxConnectionsSizePerQuery));
+    }
 }
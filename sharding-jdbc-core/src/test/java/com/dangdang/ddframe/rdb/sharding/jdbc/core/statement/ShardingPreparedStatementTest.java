@@ -35,8 +35,11 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static com.dangdang.ddframe.rdb.common.util.SqlPlaceholderUtil.replacePreparedStatement;
 import static org.hamcrest.CoreMatchers.hasItem;
@@ -451,4 +454,167 @@ public final class ShardingPreparedStatementTest extends AbstractShardingJDBCDat
             }
         }
     }
+    
+    @Test
+    public void assertExecuteBatchRoutesDeferredParameterSetsToShards() throws SQLException {
+        final List<DMLExecutionEvent> beforeEvents = Collections.synchronizedList(new ArrayList<DMLExecutionEvent>());
+        Object listener = new Object() {
+            
+            @Subscribe
+            public void subscribe(final DMLExecutionEvent event) {
+                if (event.getEventExecutionType() == EventExecutionType.BEFORE_EXECUTE) {
+                    beforeEvents.add(event);
+                }
+            }
+        };
+        EventBusInstance.getInstance().register(listener);
+        try {
+            for (ShardingDataSource each : shardingDataSources.values()) {
+                beforeEvents.clear();
+                try (
+                        Connection connection = each.getConnection();
+                        PreparedStatement preparedStatement = connection.prepareStatement(DatabaseTestSQL.INSERT_ORDER_ITEM_WITH_ALL_PLACEHOLDERS_SQL);
+                        Statement queryStatement = connection.createStatement()) {
+                    addOrderItemBatch(preparedStatement, 3201, 11, 11);
+                    addOrderItemBatch(preparedStatement, 3202, 12, 12);
+                    addOrderItemBatch(preparedStatement, 3203, 21, 21);
+                    addOrderItemBatch(preparedStatement, 3204, 22, 22);
+                    assertTrue(beforeEvents.isEmpty());
+                    int[] result = preparedStatement.executeBatch();
+                    assertThat(result.length, is(4));
+                    for (int rs : result) {
+                        assertThat(rs, is(1));
+                    }
+                    Set<String> routedUnits = new HashSet<>();
+                    for (DMLExecutionEvent event : beforeEvents) {
+                        routedUnits.add(event.getDataSource() + ":" + event.getSql());
+                    }
+                    assertThat(routedUnits.size(), is(2));
+                    assertOrderItem(queryStatement, 11, 11, 3201);
+                    assertOrderItem(queryStatement, 12, 12, 3202);
+                    assertOrderItem(queryStatement, 21, 21, 3203);
+                    assertOrderItem(queryStatement, 22, 22, 3204);
+                }
+            }
+        } finally {
+            EventBusInstance.getInstance().unregister(listener);
+        }
+    }
+    
+    @Test
+    public void assertClearBatchBeforeExecuteBatch() throws SQLException {
+        for (ShardingDataSource each : shardingDataSources.values()) {
+            try (
+                    Connection connection = each.getConnection();
+                    PreparedStatement preparedStatement = connection.prepareStatement(DatabaseTestSQL.INSERT_ORDER_ITEM_WITH_ALL_PLACEHOLDERS_SQL);
+                    Statement queryStatement = connection.createStatement()) {
+                addOrderItemBatch(preparedStatement, 3301, 11, 11);
+                addOrderItemBatch(preparedStatement, 3302, 12, 12);
+                preparedStatement.clearBatch();
+                addOrderItemBatch(preparedStatement, 3303, 22, 22);
+                int[] result = preparedStatement.executeBatch();
+                assertThat(result.length, is(1));
+                assertThat(result[0], is(1));
+                assertOrderItem(queryStatement, 22, 22, 3303);
+                assertNoOrderItem(queryStatement, 11, 11);
+                assertNoOrderItem(queryStatement, 12, 12);
+            }
+        }
+    }
+    
+    @Test
+    public void assertExecuteBatchWithGeneratedKeysAfterClearBatch() throws SQLException {
+        String sql = replacePreparedStatement(DatabaseTestSQL.INSERT_WITH_AUTO_INCREMENT_COLUMN_SQL);
+        for (ShardingDataSource each : shardingDataSources.values()) {
+            try (
+                    Connection connection = each.getConnection();
+                    PreparedStatement preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+                    Statement queryStatement = connection.createStatement()) {
+                preparedStatement.setInt(1, 11);
+                preparedStatement.setInt(2, 11);
+                preparedStatement.setString(3, "BATCH");
+                preparedStatement.addBatch();
+                preparedStatement.clearBatch();
+                preparedStatement.setInt(1, 12);
+                preparedStatement.setInt(2, 12);
+                preparedStatement.setString(3, "BATCH");
+                preparedStatement.addBatch();
+                preparedStatement.setInt(1, 21);
+                preparedStatement.setInt(2, 21);
+                preparedStatement.setString(3, "BATCH");
+                preparedStatement.addBatch();
+                int[] result = preparedStatement.executeBatch();
+                assertThat(result.length, is(2));
+                ResultSet generateKeyResultSet = preparedStatement.getGeneratedKeys();
+                assertTrue(generateKeyResultSet.next());
+                int firstGeneratedKey = generateKeyResultSet.getInt(1);
+                assertTrue(generateKeyResultSet.next());
+                assertThat(generateKeyResultSet.getInt(1), is(firstGeneratedKey + 1));
+                assertFalse(generateKeyResultSet.next());
+                assertOrderItem(queryStatement, 12, 12, firstGeneratedKey);
+                assertOrderItem(queryStatement, 21, 21, firstGeneratedKey + 1);
+                assertNoOrderItem(queryStatement, 11, 11);
+            }
+        }
+    }
+    
+    @Test
+    public void assertExecuteBatchForMultipleValuesInsertWithGeneratedKeys() throws SQLException {
+        String sql = "INSERT INTO t_order_item (order_id, user_id, status) VALUES (?, ?, ?), (?, ?, ?)";
+        for (ShardingDataSource each : shardingDataSources.values()) {
+            try (
+                    Connection connection = each.getConnection();
+                    PreparedStatement preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+                    Statement queryStatement = connection.createStatement()) {
+                addMultipleValuesOrderItemBatch(preparedStatement, 13, 24);
+                addMultipleValuesOrderItemBatch(preparedStatement, 33, 44);
+                int[] result = preparedStatement.executeBatch();
+                assertThat(result.length, is(2));
+                ResultSet generateKeyResultSet = preparedStatement.getGeneratedKeys();
+                assertTrue(generateKeyResultSet.next());
+                int firstGeneratedKey = generateKeyResultSet.getInt(1);
+                for (int i = 1; i < 4; i++) {
+                    assertTrue(generateKeyResultSet.next());
+                    assertThat(generateKeyResultSet.getInt(1), is(firstGeneratedKey + i));
+                }
+                assertFalse(generateKeyResultSet.next());
+                assertOrderItem(queryStatement, 13, 13, firstGeneratedKey);
+                assertOrderItem(queryStatement, 24, 24, firstGeneratedKey + 1);
+                assertOrderItem(queryStatement, 33, 33, firstGeneratedKey + 2);
+                assertOrderItem(queryStatement, 44, 44, firstGeneratedKey + 3);
+            }
+        }
+    }
+    
+    private void addMultipleValuesOrderItemBatch(final PreparedStatement preparedStatement, final int firstOrderId, final int secondOrderId) throws SQLException {
+        preparedStatement.setInt(1, firstOrderId);
+        preparedStatement.setInt(2, firstOrderId);
+        preparedStatement.setString(3, "BATCH");
+        preparedStatement.setInt(4, secondOrderId);
+        preparedStatement.setInt(5, secondOrderId);
+        preparedStatement.setString(6, "BATCH");
+        preparedStatement.addBatch();
+    }
+    
+    private void addOrderItemBatch(final PreparedStatement preparedStatement, final int itemId, final int orderId, final int userId) throws SQLException {
+        preparedStatement.setInt(1, itemId);
+        preparedStatement.setInt(2, orderId);
+        preparedStatement.setInt(3, userId);
+        preparedStatement.setString(4, "BATCH");
+        preparedStatement.addBatch();
+    }
+    
+    private void assertOrderItem(final Statement queryStatement, final int userId, final int orderId, final int expectedItemId) throws SQLException {
+        try (ResultSet rs = queryStatement.executeQuery(String.format(DatabaseTestSQL.SELECT_WITH_AUTO_INCREMENT_COLUMN_SQL, userId, orderId))) {
+            assertTrue(rs.next());
+            assertThat(rs.getInt(1), is(expectedItemId));
+            assertFalse(rs.next());
+        }
+    }
+    
+    private void assertNoOrderItem(final Statement queryStatement, final int userId, final int orderId) throws SQLException {
+        try (ResultSet rs = queryStatement.executeQuery(String.format(DatabaseTestSQL.SELECT_WITH_AUTO_INCREMENT_COLUMN_SQL, userId, orderId))) {
+            assertFalse(rs.next());
+        }
+    }
 }
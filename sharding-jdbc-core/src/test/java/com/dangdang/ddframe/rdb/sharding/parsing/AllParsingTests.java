@@ -17,7 +17,10 @@
 
 package com.dangdang.ddframe.rdb.sharding.parsing;
 
+import com.dangdang.ddframe.rdb.sharding.parsing.cache.SQLFingerprintEngineTest;
+import com.dangdang.ddframe.rdb.sharding.parsing.cache.SQLParsingCacheTest;
 import com.dangdang.ddframe.rdb.sharding.parsing.lexer.AllLexerTests;
+import com.dangdang.ddframe.rdb.sharding.parsing.lexer.analyzer.DictionaryTest;
 import com.dangdang.ddframe.rdb.sharding.parsing.lexer.analyzer.TokenizerTest;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.dialect.AllSQLParserTests;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.AllStatementParserTests;
@@ -26,12 +29,16 @@ import org.junit.runners.Suite;
 
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
+        DictionaryTest.class,
         TokenizerTest.class,
         AllLexerTests.class,
         AllStatementParserTests.class,
         AllSQLParserTests.class,
         SQLParsingEngineTest.class,
-        UnsupportedParseTest.class
+        FastPathParsingEngineTest.class,
+        UnsupportedParseTest.class,
+        SQLParsingCacheTest.class,
+        SQLFingerprintEngineTest.class
     })
 public class AllParsingTests {
 }
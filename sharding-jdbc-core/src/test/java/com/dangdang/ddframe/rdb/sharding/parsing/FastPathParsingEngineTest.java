@@ -0,0 +1,169 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.parsing;
+
+import com.dangdang.ddframe.rdb.sharding.api.rule.DataSourceRule;
+import com.dangdang.ddframe.rdb.sharding.api.rule.ShardingRule;
+import com.dangdang.ddframe.rdb.sharding.api.rule.TableRule;
+import com.dangdang.ddframe.rdb.sharding.api.strategy.table.NoneTableShardingAlgorithm;
+import com.dangdang.ddframe.rdb.sharding.api.strategy.table.TableShardingStrategy;
+import com.dangdang.ddframe.rdb.sharding.constant.DatabaseType;
+import com.dangdang.ddframe.rdb.sharding.parsing.lexer.token.DefaultKeyword;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.SQLParser;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.dialect.mysql.MySQLParser;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.dialect.oracle.OracleParser;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.dialect.postgresql.PostgreSQLParser;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.dialect.sqlserver.SQLServerParser;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.SQLStatement;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.dml.insert.InsertParserFactory;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.dml.update.UpdateParserFactory;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.dql.select.SelectParserFactory;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.token.SQLToken;
+import com.google.common.base.Optional;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public final class FastPathParsingEngineTest {
+    
+    private final ShardingRule shardingRule = createShardingRule();
+    
+    private ShardingRule createShardingRule() {
+        Map<String, DataSource> dataSourceMap = new HashMap<>(1);
+        dataSourceMap.put("ds", null);
+        DataSourceRule dataSourceRule = new DataSourceRule(dataSourceMap);
+        TableRule tableRule = TableRule.builder("t_order").actualTables(Arrays.asList("t_order_0", "t_order_1")).dataSourceRule(dataSourceRule).generateKeyColumn("order_id")
+                .tableShardingStrategy(new TableShardingStrategy(Arrays.asList("order_id", "user_id"), new NoneTableShardingAlgorithm())).build();
+        return ShardingRule.builder().dataSourceRule(dataSourceRule).tableRules(Collections.singletonList(tableRule)).build();
+    }
+    
+    @Test
+    public void assertParseSelect() {
+        assertSameAsFullParser("SELECT * FROM t_order WHERE order_id = ?");
+        assertSameAsFullParser("SELECT * FROM t_order WHERE user_id = ? AND order_id = ?");
+        assertSameAsFullParser("select order_id, status from t_order where order_id = 1 and status = 'INIT'");
+        assertSameAsFullParser("SELECT o.order_id, o.status FROM t_order o WHERE o.order_id = ?");
+        assertSameAsFullParser("SELECT t_order.order_id FROM t_order AS o WHERE t_order.order_id = 1.5");
+        assertSameAsFullParser("SELECT `order_id` FROM `t_order` WHERE `user_id` = ?");
+    }
+    
+    @Test
+    public void assertParseUpdate() {
+        assertSameAsFullParser("UPDATE t_order SET status = ? WHERE order_id = ?");
+        assertSameAsFullParser("UPDATE t_order SET status = 'PAID', price = 1.2 WHERE order_id = ? AND user_id = ?");
+        assertSameAsFullParser("UPDATE t_order o SET t_order.status = ? WHERE o.order_id = 10");
+    }
+    
+    @Test
+    public void assertParseInsert() {
+        assertSameAsFullParser("INSERT INTO t_order (order_id, user_id, status) VALUES (?, ?, ?)");
+        assertSameAsFullParser("INSERT INTO t_order (order_id, user_id, status) VALUES (1, 10, 'INIT')");
+        assertSameAsFullParser("INSERT INTO t_order (user_id, status) VALUES (?, ?)");
+        assertSameAsFullParser("INSERT INTO t_order (user_id, status) VALUES (10, 'INIT')");
+    }
+    
+    @Test
+    public void assertParseForAllDatabaseTypes() {
+        for (DatabaseType each : Arrays.asList(DatabaseType.MySQL, DatabaseType.Oracle, DatabaseType.SQLServer, DatabaseType.PostgreSQL)) {
+            assertSameAsFullParser(each, "SELECT order_id FROM t_order WHERE order_id = ?");
+            assertSameAsFullParser(each, "UPDATE t_order SET user_id = ? WHERE order_id = ?");
+            assertSameAsFullParser(each, "INSERT INTO t_order (user_id) VALUES (?)");
+        }
+    }
+    
+    @Test
+    public void assertParseUnsupportedShapes() {
+        assertNotFastPath("SELECT * FROM t_order");
+        assertNotFastPath("SELECT * FROM t_order WHERE order_id IN (?, ?)");
+        assertNotFastPath("SELECT * FROM t_order WHERE order_id = ? OR user_id = ?");
+        assertNotFastPath("SELECT * FROM t_order WHERE order_id = ? ORDER BY user_id");
+        assertNotFastPath("SELECT * FROM t_order WHERE order_id = ? LIMIT 1");
+        assertNotFastPath("SELECT COUNT(*) FROM t_order WHERE order_id = ?");
+        assertNotFastPath("SELECT order_id AS id FROM t_order WHERE order_id = ?");
+        assertNotFastPath("SELECT o.* FROM t_order o WHERE o.order_id = ?");
+        assertNotFastPath("SELECT * FROM t_order o JOIN t_order_item i ON o.order_id = i.order_id WHERE o.order_id = ?");
+        assertNotFastPath("SELECT * FROM t_order WHERE x.order_id = ?");
+        assertNotFastPath("SELECT * FROM t_order WHERE order_id = ? + 1");
+        assertNotFastPath("UPDATE t_order SET count = count + 1 WHERE order_id = ?");
+        assertNotFastPath("UPDATE t_order SET status = ?");
+        assertNotFastPath("INSERT INTO t_order (order_id, user_id) VALUES (?, ?), (?, ?)");
+        assertNotFastPath("INSERT INTO t_order (order_id, user_id) VALUES (?, NOW())");
+        assertNotFastPath("INSERT INTO t_order (order_id, user_id) VALUES (?)");
+        assertNotFastPath("INSERT INTO t_order VALUES (?, ?)");
+        assertNotFastPath("DELETE FROM t_order WHERE order_id = ?");
+    }
+    
+    private void assertSameAsFullParser(final String sql) {
+        assertSameAsFullParser(DatabaseType.MySQL, sql);
+    }
+    
+    private void assertSameAsFullParser(final DatabaseType dbType, final String sql) {
+        Optional<SQLStatement> actual = new FastPathParsingEngine(dbType, sql, shardingRule).parse();
+        assertTrue(sql, actual.isPresent());
+        assertThat(sql, describe(actual.get()), is(describe(parseWithFullParser(dbType, sql))));
+    }
+    
+    private void assertNotFastPath(final String sql) {
+        assertFalse(sql, new FastPathParsingEngine(DatabaseType.MySQL, sql, shardingRule).parse().isPresent());
+    }
+    
+    private SQLStatement parseWithFullParser(final DatabaseType dbType, final String sql) {
+        SQLParser sqlParser = getSQLParser(dbType, sql);
+        SQLStatement result;
+        if (sqlParser.equalAny(DefaultKeyword.SELECT)) {
+            result = SelectParserFactory.newInstance(sqlParser).parse();
+        } else if (sqlParser.equalAny(DefaultKeyword.INSERT)) {
+            result = InsertParserFactory.newInstance(shardingRule, sqlParser).parse();
+        } else {
+            result = UpdateParserFactory.newInstance(sqlParser).parse();
+        }
+        result.setParametersIndex(sqlParser.getParametersIndex());
+        return result;
+    }
+    
+    private SQLParser getSQLParser(final DatabaseType dbType, final String sql) {
+        switch (dbType) {
+            case Oracle:
+                return new OracleParser(sql, shardingRule);
+            case SQLServer:
+                return new SQLServerParser(sql, shardingRule);
+            case PostgreSQL:
+                return new PostgreSQLParser(sql, shardingRule);
+            default:
+                return new MySQLParser(sql, shardingRule);
+        }
+    }
+    
+    private String describe(final SQLStatement sqlStatement) {
+        StringBuilder result = new StringBuilder(sqlStatement.toString().replaceAll("GeneratedKeyToken@\\w+", "GeneratedKeyToken"));
+        result.append(", parametersIndex=").append(sqlStatement.getParametersIndex());
+        for (SQLToken each : sqlStatement.getSqlTokens()) {
+            result.append(", ").append(each.getClass().getSimpleName()).append('@').append(each.getBeginPosition());
+        }
+        return result.toString();
+    }
+}
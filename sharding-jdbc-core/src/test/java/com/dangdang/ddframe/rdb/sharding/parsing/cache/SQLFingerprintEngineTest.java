@@ -0,0 +1,100 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.parsing.cache;
+
+import com.dangdang.ddframe.rdb.sharding.constant.DatabaseType;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public final class SQLFingerprintEngineTest {
+    
+    private final SQLFingerprintEngine engine = new SQLFingerprintEngine(DatabaseType.MySQL);
+    
+    @Test
+    public void assertFingerprintComparison() {
+        SQLFingerprint actual = engine.fingerprint("SELECT * FROM t_order WHERE user_id = 42 AND status <> 'it''s' AND price >= 1.5");
+        assertThat(actual.getSql(), is("SELECT * FROM t_order WHERE user_id = ? AND status <> ? AND price >= ?"));
+        assertThat(actual.getParameters(), is(Arrays.<Object>asList(42, "it''s", 1.5D)));
+        assertThat(actual.getLiterals(), is(Arrays.asList("42", "'it''s'", "1.5")));
+    }
+    
+    @Test
+    public void assertFingerprintSameForDifferentLiterals() {
+        assertThat(engine.fingerprint("SELECT * FROM t_order WHERE order_id = 1").getSql(), is(engine.fingerprint("SELECT * FROM t_order WHERE order_id = 1000").getSql()));
+    }
+    
+    @Test
+    public void assertFingerprintInAndBetween() {
+        SQLFingerprint actual = engine.fingerprint("SELECT * FROM t_order WHERE order_id IN (1, 2, 3) AND user_id BETWEEN 10 AND 20 AND status LIKE 'A%'");
+        assertThat(actual.getSql(), is("SELECT * FROM t_order WHERE order_id IN (?, ?, ?) AND user_id BETWEEN ? AND ? AND status LIKE ?"));
+        assertThat(actual.getParameters(), is(Arrays.<Object>asList(1, 2, 3, 10, 20, "A%")));
+    }
+    
+    @Test
+    public void assertFingerprintInsertValues() {
+        SQLFingerprint actual = engine.fingerprint("INSERT INTO t_order (order_id, user_id, status) VALUES (1, 10, 'INIT')");
+        assertThat(actual.getSql(), is("INSERT INTO t_order (order_id, user_id, status) VALUES (?, ?, ?)"));
+        assertThat(actual.getParameters(), is(Arrays.<Object>asList(1, 10, "INIT")));
+    }
+    
+    @Test
+    public void assertFingerprintKeepStructuralLiterals() {
+        SQLFingerprint actual = engine.fingerprint("SELECT SUBSTR(status, 1, 2), COUNT(*) FROM t_order WHERE user_id = 10 GROUP BY 1 ORDER BY 2 LIMIT 5, 10");
+        assertThat(actual.getSql(), is("SELECT SUBSTR(status, 1, 2), COUNT(*) FROM t_order WHERE user_id = ? GROUP BY 1 ORDER BY 2 LIMIT 5, 10"));
+        assertThat(actual.getParameters(), is(Collections.<Object>singletonList(10)));
+    }
+    
+    @Test
+    public void assertFingerprintWithoutLiterals() {
+        SQLFingerprint actual = engine.fingerprint("SELECT * FROM t_order o JOIN t_order_item i ON o.order_id = i.order_id");
+        assertFalse(actual.isNormalized());
+        assertThat(actual.getSql(), is("SELECT * FROM t_order o JOIN t_order_item i ON o.order_id = i.order_id"));
+    }
+    
+    @Test
+    public void assertFingerprintWithPlaceholder() {
+        assertFalse(engine.fingerprint("SELECT * FROM t_order WHERE order_id = ? AND user_id = 10").isNormalized());
+    }
+    
+    @Test
+    public void assertRestore() {
+        SQLFingerprint fingerprint = engine.fingerprint("SELECT * FROM t_order WHERE order_id = 1 AND status = 'x?y'");
+        assertTrue(fingerprint.isNormalized());
+        List<Object> parameters = new ArrayList<>(fingerprint.getParameters());
+        assertThat(engine.restore(fingerprint, "SELECT * FROM t_order_1 WHERE order_id = ? AND status = ?", parameters), is("SELECT * FROM t_order_1 WHERE order_id = 1 AND status = 'x?y'"));
+    }
+    
+    @Test
+    public void assertRestoreWithChangedAndAppendedParameters() {
+        SQLFingerprint fingerprint = engine.fingerprint("INSERT INTO t_order (user_id, status) VALUES (10, 'INIT')");
+        List<Object> parameters = new ArrayList<>(fingerprint.getParameters());
+        parameters.set(1, "DONE");
+        parameters.add(100L);
+        assertThat(engine.restore(fingerprint, "INSERT INTO t_order_0 (user_id, status, order_id) VALUES (?, ?, ?)", parameters),
+                is("INSERT INTO t_order_0 (user_id, status, order_id) VALUES (10, 'DONE', 100)"));
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+
+package com.dangdang.ddframe.rdb.sharding.parsing.cache;
+
+import com.dangdang.ddframe.rdb.sharding.constant.DatabaseType;
+import com.dangdang.ddframe.rdb.sharding.constant.OrderType;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.OrderItem;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.limit.Limit;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.limit.LimitValue;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.SQLStatement;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.dql.select.SelectStatement;
+import com.google.common.base.Optional;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public final class SQLParsingCacheTest {
+    
+    private static final String SQL = "SELECT * FROM t_order ORDER BY order_id LIMIT ?, ?";
+    
+    @Test
+    public void assertGetWhenDisabled() {
+        SQLParsingCache actual = new SQLParsingCache(0);
+        actual.put(DatabaseType.MySQL, SQL, new SelectStatement());
+        assertFalse(actual.isEnabled());
+        assertFalse(actual.get(DatabaseType.MySQL, SQL).isPresent());
+        assertThat(actual.size(), is(0L));
+    }
+    
+    @Test
+    public void assertGetWithHitAndMiss() {
+        SQLParsingCache actual = new SQLParsingCache(16);
+        assertFalse(actual.get(DatabaseType.MySQL, SQL).isPresent());
+        SelectStatement template = new SelectStatement();
+        actual.put(DatabaseType.MySQL, SQL, template);
+        Optional<SQLStatement> cached = actual.get(DatabaseType.MySQL, SQL);
+        assertTrue(cached.isPresent());
+        assertThat(cached.get(), not(sameInstance((SQLStatement) template)));
+        assertFalse(actual.get(DatabaseType.Oracle, SQL).isPresent());
+        assertThat(actual.getStats().hitCount(), is(1L));
+        assertThat(actual.getStats().missCount(), is(2L));
+    }
+    
+    @Test
+    public void assertEvictWhenExceedMaximumSize() {
+        SQLParsingCache actual = new SQLParsingCache(1);
+        actual.put(DatabaseType.MySQL, "SELECT 1", new SelectStatement());
+        actual.put(DatabaseType.MySQL, "SELECT 2", new SelectStatement());
+        assertThat(actual.size(), is(1L));
+        assertFalse(actual.get(DatabaseType.MySQL, "SELECT 1").isPresent());
+        assertTrue(actual.get(DatabaseType.MySQL, "SELECT 2").isPresent());
+    }
+    
+    @Test
+    public void assertCopyNotModifyTemplate() {
+        SQLParsingCache cache = new SQLParsingCache(16);
+        SelectStatement template = new SelectStatement();
+        OrderItem orderItem = new OrderItem("order_id", OrderType.ASC, Optional.<String>absent());
+        template.getGroupByItems().add(orderItem);
+        template.getOrderByItems().add(orderItem);
+        Limit limit = new Limit(true);
+        limit.setOffset(new LimitValue(-1, 0));
+        limit.setRowCount(new LimitValue(-1, 1));
+        template.setLimit(limit);
+        cache.put(DatabaseType.MySQL, SQL, template);
+        SelectStatement actual = (SelectStatement) cache.get(DatabaseType.MySQL, SQL).get();
+        actual.getLimit().processParameters(Arrays.<Object>asList(10, 20), true, false);
+        actual.setIndexForItems(Collections.singletonMap("order_id", 1));
+        assertThat(actual.getLimit().getOffsetValue(), is(10));
+        assertThat(actual.getGroupByItems().get(0), sameInstance(actual.getOrderByItems().get(0)));
+        assertThat(actual.getOrderByItems().get(0).getIndex(), is(1));
+        assertThat(template.getLimit().getOffsetValue(), is(-1));
+        assertThat(template.getOrderByItems().get(0).getIndex(), is(-1));
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.parsing.lexer.analyzer;
+
+import com.dangdang.ddframe.rdb.sharding.parsing.lexer.dialect.mysql.MySQLKeyword;
+import com.dangdang.ddframe.rdb.sharding.parsing.lexer.dialect.oracle.OracleKeyword;
+import com.dangdang.ddframe.rdb.sharding.parsing.lexer.dialect.postgresql.PostgreSQLKeyword;
+import com.dangdang.ddframe.rdb.sharding.parsing.lexer.dialect.sqlserver.SQLServerKeyword;
+import com.dangdang.ddframe.rdb.sharding.parsing.lexer.token.DefaultKeyword;
+import com.dangdang.ddframe.rdb.sharding.parsing.lexer.token.Keyword;
+import com.dangdang.ddframe.rdb.sharding.parsing.lexer.token.Literals;
+import com.dangdang.ddframe.rdb.sharding.parsing.lexer.token.TokenType;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public final class DictionaryTest {
+    
+    @Test
+    public void assertFindDefaultKeywordIgnoreCase() {
+        Dictionary dictionary = new Dictionary();
+        for (DefaultKeyword each : DefaultKeyword.values()) {
+            assertThat(dictionary.findTokenType(each.name(), Literals.IDENTIFIER), is((TokenType) each));
+            assertThat(dictionary.findTokenType(each.name().toLowerCase(), Literals.IDENTIFIER), is((TokenType) each));
+        }
+    }
+    
+    @Test
+    public void assertFindDialectKeyword() {
+        assertFindDialectKeyword(MySQLKeyword.values());
+        assertFindDialectKeyword(OracleKeyword.values());
+        assertFindDialectKeyword(SQLServerKeyword.values());
+        assertFindDialectKeyword(PostgreSQLKeyword.values());
+    }
+    
+    private void assertFindDialectKeyword(final Keyword... dialectKeywords) {
+        Dictionary dictionary = new Dictionary(dialectKeywords);
+        for (Keyword each : dialectKeywords) {
+            assertThat(dictionary.findTokenType(each.toString().toLowerCase(), Literals.IDENTIFIER), is((TokenType) each));
+        }
+    }
+    
+    @Test
+    public void assertFindTokenTypeInRange() {
+        Dictionary dictionary = new Dictionary(MySQLKeyword.values());
+        String sql = "select user_id from t_order";
+        assertThat(dictionary.findTokenType(sql, 0, 6, Literals.IDENTIFIER), is((TokenType) DefaultKeyword.SELECT));
+        assertThat(dictionary.findTokenType(sql, 7, 4, Literals.IDENTIFIER), is((TokenType) DefaultKeyword.USER));
+        assertThat(dictionary.findTokenType(sql, 7, 7, Literals.IDENTIFIER), is((TokenType) Literals.IDENTIFIER));
+        assertThat(dictionary.findTokenType(sql, 15, 4, Literals.IDENTIFIER), is((TokenType) DefaultKeyword.FROM));
+        assertThat(dictionary.findTokenType(sql, 22, 5, Literals.IDENTIFIER), is((TokenType) DefaultKeyword.ORDER));
+    }
+    
+    @Test
+    public void assertFindNotKeyword() {
+        Dictionary dictionary = new Dictionary(MySQLKeyword.values());
+        assertThat(dictionary.findTokenType("t_order", Literals.IDENTIFIER), is((TokenType) Literals.IDENTIFIER));
+        assertThat(dictionary.findTokenType("selec", Literals.IDENTIFIER), is((TokenType) Literals.IDENTIFIER));
+        assertThat(dictionary.findTokenType("selectx", Literals.IDENTIFIER), is((TokenType) Literals.IDENTIFIER));
+        assertThat(dictionary.findTokenType("", Literals.IDENTIFIER), is((TokenType) Literals.IDENTIFIER));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void assertFindTokenTypeFailure() {
+        new Dictionary().findTokenType("t_order");
+    }
+}
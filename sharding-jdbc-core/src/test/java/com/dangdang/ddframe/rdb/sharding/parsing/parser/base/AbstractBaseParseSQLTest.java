@@ -38,7 +38,7 @@ public abstract class AbstractBaseParseSQLTest extends AbstractBaseParseTest {
     }
     
     private void assertExpectedConditions(final SQLStatement actual) {
-        assertTrue(new ReflectionEquals(getExpectedConditions()).matches(actual.getConditions()));
+        assertTrue(new ReflectionEquals(getExpectedConditions(), "equalColumns").matches(actual.getConditions()));
     }
     
     private void assertOrderBy(final SelectStatement actual) {
@@ -1,16 +1,21 @@
 package com.dangdang.ddframe.rdb.sharding.parsing.parser.context.condition;
 
 import com.dangdang.ddframe.rdb.sharding.api.ShardingValue;
+import com.dangdang.ddframe.rdb.sharding.parsing.lexer.token.Symbol;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.expression.SQLExpression;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.expression.SQLNumberExpression;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.expression.SQLPlaceholderExpression;
+import com.google.common.collect.Range;
 import org.junit.Test;
 
+import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 
 public final class ConditionTest {
     
@@ -32,4 +37,39 @@ public final class ConditionTest {
         assertThat((Integer) shardingValue.getValueRange().lowerEndpoint(), is(1));
         assertThat((Integer) shardingValue.getValueRange().upperEndpoint(), is(2));
     }
+    
+    @Test
+    public void assertGetShardingValueForOpenRange() {
+        Condition condition = new Condition(new Column("test", "test"), Symbol.GT, new SQLNumberExpression(1));
+        ShardingValue<?> shardingValue = condition.getShardingValue(Collections.emptyList());
+        assertThat(shardingValue.getType(), is(ShardingValue.ShardingValueType.RANGE));
+        assertThat(shardingValue.getValueRange(), is((Range) Range.greaterThan(1)));
+        condition = new Condition(new Column("test", "test"), Symbol.LT_EQ, new SQLPlaceholderExpression(0));
+        assertThat(condition.getShardingValue(Collections.<Object>singletonList(5)).getValueRange(), is((Range) Range.atMost(5)));
+    }
+    
+    @Test
+    public void assertMergeRange() {
+        Condition lower = new Condition(new Column("test", "test"), Symbol.GT_EQ, new SQLPlaceholderExpression(1));
+        Condition upper = new Condition(new Column("test", "test"), Symbol.LT, new SQLNumberExpression(10));
+        assertThat(lower.mergeRange(upper).getShardingValue(Arrays.<Object>asList(0, 2)).getValueRange(), is((Range) Range.closedOpen(2, 10)));
+        assertThat(upper.mergeRange(lower).getShardingValue(Arrays.<Object>asList(0, 2)).getValueRange(), is((Range) Range.closedOpen(2, 10)));
+    }
+    
+    @Test
+    public void assertGetShardingValueForMixedNumericRange() {
+        Condition condition = new Condition(new Column("test", "test"), Symbol.GT, new SQLNumberExpression(1))
+                .mergeRange(new Condition(new Column("test", "test"), Symbol.LT, new SQLPlaceholderExpression(0)));
+        assertThat(condition.getShardingValue(Collections.<Object>singletonList(10L)).getValueRange(), is((Range) Range.open(new BigDecimal("1"), new BigDecimal("10"))));
+    }
+    
+    @Test
+    public void assertGetShardingValueForInvertedRange() {
+        Condition condition = new Condition(new Column("test", "test"), Symbol.GT_EQ, new SQLNumberExpression(10))
+                .mergeRange(new Condition(new Column("test", "test"), Symbol.LT_EQ, new SQLNumberExpression(1)));
+        assertTrue(condition.getShardingValue(Collections.emptyList()).getValueRange().isEmpty());
+        condition = new Condition(new Column("test", "test"), Symbol.GT, new SQLNumberExpression(1))
+                .mergeRange(new Condition(new Column("test", "test"), Symbol.LT, new SQLNumberExpression(1)));
+        assertTrue(condition.getShardingValue(Collections.emptyList()).getValueRange().isEmpty());
+    }
 }
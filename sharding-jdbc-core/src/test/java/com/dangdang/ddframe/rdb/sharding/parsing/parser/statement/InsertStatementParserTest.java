@@ -28,8 +28,10 @@ import com.dangdang.ddframe.rdb.sharding.keygen.fixture.IncrementKeyGenerator;
 import com.dangdang.ddframe.rdb.sharding.parsing.SQLParsingEngine;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.condition.Column;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.condition.Condition;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.exception.SQLParsingException;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.exception.SQLParsingUnsupportedException;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.dml.insert.InsertStatement;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.token.InsertValuesToken;
 import org.junit.Test;
 
 import javax.sql.DataSource;
@@ -44,6 +46,7 @@ import java.util.Map;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -142,10 +145,23 @@ public final class InsertStatementParserTest extends AbstractStatementParserTest
         assertThat(condition.getShardingValue(Collections.emptyList()).getValue(), is((Comparable) 1));
     }
     
-    @Test(expected = UnsupportedOperationException.class)
+    @Test
     public void parseMultipleInsertForMySQL() {
         ShardingRule shardingRule = createShardingRule();
-        new SQLParsingEngine(DatabaseType.Oracle, "INSERT INTO TABLE_XXX (`field1`, `field2`) VALUES (1, 'value_char'), (2, 'value_char')", shardingRule).parse();
+        String sql = "INSERT INTO TABLE_XXX (`field1`, `field2`) VALUES (1, 'value_char'), (2, 'value_char') ON DUPLICATE KEY UPDATE field2 = 'value_char'";
+        InsertStatement insertStatement = (InsertStatement) new SQLParsingEngine(DatabaseType.MySQL, sql, shardingRule).parse();
+        assertTrue(insertStatement.isMultipleValues());
+        assertThat(insertStatement.getInsertValues().size(), is(2));
+        InsertValuesToken insertValuesToken = (InsertValuesToken) insertStatement.getSqlTokens().get(1);
+        assertThat(insertValuesToken.getBeginPosition(), is(sql.indexOf("(1,")));
+        assertThat(insertValuesToken.getOriginalLiterals(), is("(1, 'value_char'), (2, 'value_char')"));
+        assertThat(insertValuesToken.getValues(), is(Arrays.asList("(1, 'value_char')", "(2, 'value_char')")));
+    }
+    
+    @Test(expected = SQLParsingException.class)
+    public void parseMultipleInsertWithDifferentValueCount() {
+        ShardingRule shardingRule = createShardingRule();
+        new SQLParsingEngine(DatabaseType.MySQL, "INSERT INTO TABLE_XXX (`field1`, `field2`) VALUES (1, 'value_char'), (2)", shardingRule).parse();
     }
     
     @Test(expected = SQLParsingUnsupportedException.class)
@@ -19,11 +19,16 @@ package com.dangdang.ddframe.rdb.sharding.rewrite;
 
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 public final class SQLBuilderTest {
@@ -62,4 +67,40 @@ public final class SQLBuilderTest {
         tableTokens.put("table_x", "table_x_1");
         assertThat(sqlBuilder.toSQL(tableTokens), is("SELECT table_x_1.id FROM table_x_1"));
     }
+    
+    @Test(expected = IllegalStateException.class)
+    public void assertAppendLiteralsToTemplateSQLBuilder() {
+        new SQLBuilder(new Object[] {"SELECT * FROM ", new SQLBuilder.TableToken("table_x")}, 32).appendLiterals(" WHERE id = ?");
+    }
+    
+    @Test
+    public void assertToSQLForTemplateSQLBuilder() {
+        SQLBuilder sqlBuilder = new SQLBuilder(new Object[] {"SELECT * FROM ", new SQLBuilder.TableToken("table_x"), " WHERE id = ?"}, 32);
+        assertThat(sqlBuilder.toSQL(Collections.singletonMap("table_x", "table_x_1")), is("SELECT * FROM table_x_1 WHERE id = ?"));
+    }
+    
+    @Test
+    public void assertToSQLsWithDuplicatedTableTokens() {
+        SQLBuilder sqlBuilder = new SQLBuilder();
+        sqlBuilder.appendLiterals("SELECT * FROM ");
+        sqlBuilder.appendTable("table_x");
+        sqlBuilder.appendLiterals(" WHERE id = ?");
+        Map<String, String> tableTokens0 = Collections.singletonMap("table_x", "table_x_0");
+        Map<String, String> tableTokens1 = Collections.singletonMap("table_x", "table_x_1");
+        List<String> actual = sqlBuilder.toSQLs(Arrays.asList(tableTokens0, tableTokens1, tableTokens0, Collections.<String, String>emptyMap()));
+        assertThat(actual, is(Arrays.asList(
+                "SELECT * FROM table_x_0 WHERE id = ?", "SELECT * FROM table_x_1 WHERE id = ?", "SELECT * FROM table_x_0 WHERE id = ?", "SELECT * FROM table_x WHERE id = ?")));
+        assertThat(actual.get(2), sameInstance(actual.get(0)));
+    }
+    
+    @Test
+    public void assertToSQLsWithGeneratedSQLCache() {
+        ConcurrentMap<Map<String, String>, String> generatedSQLCache = new ConcurrentHashMap<>();
+        Object[] segments = new Object[] {"SELECT * FROM ", new SQLBuilder.TableToken("table_x"), " WHERE id = ?"};
+        Map<String, String> tableTokens = Collections.singletonMap("table_x", "table_x_1");
+        String expected = new SQLBuilder(segments, 32, generatedSQLCache).toSQLs(Collections.singletonList(tableTokens)).get(0);
+        assertThat(expected, is("SELECT * FROM table_x_1 WHERE id = ?"));
+        assertThat(generatedSQLCache.get(tableTokens), sameInstance(expected));
+        assertThat(new SQLBuilder(segments, 32, generatedSQLCache).toSQLs(Collections.singletonList(tableTokens)).get(0), sameInstance(expected));
+    }
 }
@@ -21,15 +21,18 @@ import com.dangdang.ddframe.rdb.sharding.api.fixture.ShardingRuleMockBuilder;
 import com.dangdang.ddframe.rdb.sharding.api.rule.ShardingRule;
 import com.dangdang.ddframe.rdb.sharding.constant.OrderType;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.OrderItem;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.condition.Column;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.limit.Limit;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.limit.LimitValue;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.context.table.Table;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.statement.dql.select.SelectStatement;
+import com.dangdang.ddframe.rdb.sharding.parsing.parser.token.InValuesToken;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.token.ItemsToken;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.token.OffsetToken;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.token.OrderByToken;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.token.RowCountToken;
 import com.dangdang.ddframe.rdb.sharding.parsing.parser.token.TableToken;
+import com.dangdang.ddframe.rdb.sharding.routing.type.SplitInValues;
 import com.dangdang.ddframe.rdb.sharding.routing.type.TableUnit;
 import com.dangdang.ddframe.rdb.sharding.routing.type.complex.CartesianTableReference;
 import com.google.common.base.Optional;
@@ -39,9 +42,14 @@ import org.junit.Test;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 public final class SQLRewriteEngineTest {
@@ -119,6 +127,63 @@ public final class SQLRewriteEngineTest {
         assertThat(rewriteEngine.rewrite(true).toSQL(tableTokens), is("SELECT x.id FROM table_1 x LIMIT 0, 4"));
     }
     
+    @Test
+    public void assertRewriteTemplateSharedByCopies() {
+        selectStatement.setLimit(new Limit(true));
+        selectStatement.getLimit().setOffset(new LimitValue(2, -1));
+        selectStatement.getLimit().setRowCount(new LimitValue(2, -1));
+        selectStatement.getSqlTokens().add(new TableToken(17, "table_x"));
+        selectStatement.getSqlTokens().add(new OffsetToken(33, 2));
+        selectStatement.getSqlTokens().add(new RowCountToken(36, 2));
+        String sql = "SELECT x.id FROM table_x x LIMIT 2, 2";
+        assertThat(new SQLRewriteEngine(shardingRule, sql, selectStatement).rewrite(true).toSQL(tableTokens), is("SELECT x.id FROM table_1 x LIMIT 0, 4"));
+        SelectStatement copiedSelectStatement = (SelectStatement) selectStatement.copy();
+        assertThat(new SQLRewriteEngine(shardingRule, sql, copiedSelectStatement).rewrite(false).toSQL(tableTokens), is("SELECT x.id FROM table_1 x LIMIT 2, 2"));
+        assertThat(copiedSelectStatement.getRewriteTemplate().get(), sameInstance(selectStatement.getRewriteTemplate().get()));
+    }
+    
+    @Test
+    public void assertRewriteTemplateRecompiledWhenTokensChanged() {
+        selectStatement.getSqlTokens().add(new TableToken(12, "table_x"));
+        String sql = "INSERT INTO table_x (name, age) VALUES (?, ?)";
+        assertThat(new SQLRewriteEngine(shardingRule, sql, selectStatement).rewrite(true).toSQL(tableTokens), is("INSERT INTO table_1 (name, age) VALUES (?, ?)"));
+        SQLRewriteTemplate rewriteTemplate = selectStatement.getRewriteTemplate().get();
+        SelectStatement copiedSelectStatement = (SelectStatement) selectStatement.copy();
+        ItemsToken itemsToken1 = new ItemsToken(30);
+        itemsToken1.getItems().add("id");
+        ItemsToken itemsToken2 = new ItemsToken(44);
+        itemsToken2.getItems().add("?");
+        copiedSelectStatement.getSqlTokens().addAll(Arrays.asList(itemsToken1, itemsToken2));
+        assertThat(new SQLRewriteEngine(shardingRule, sql, copiedSelectStatement).rewrite(true).toSQL(tableTokens), is("INSERT INTO table_1 (name, age, id) VALUES (?, ?, ?)"));
+        assertThat(selectStatement.getRewriteTemplate().get(), sameInstance(rewriteTemplate));
+        assertThat(new SQLRewriteEngine(shardingRule, sql, selectStatement).rewrite(true).toSQL(tableTokens), is("INSERT INTO table_1 (name, age) VALUES (?, ?)"));
+    }
+    
+    @Test
+    public void assertRewriteTemplateReusedForNewTokensWithSameShape() {
+        selectStatement.getSqlTokens().add(new TableToken(12, "table_x"));
+        String sql = "INSERT INTO table_x (name, age) VALUES (?, ?)";
+        SelectStatement copiedSelectStatement = (SelectStatement) selectStatement.copy();
+        selectStatement.getSqlTokens().addAll(createGeneratedKeyTokens("?"));
+        assertThat(new SQLRewriteEngine(shardingRule, sql, selectStatement).rewrite(true).toSQL(tableTokens), is("INSERT INTO table_1 (name, age, id) VALUES (?, ?, ?)"));
+        SQLRewriteTemplate rewriteTemplate = selectStatement.getRewriteTemplate().get();
+        SelectStatement sameShapeSelectStatement = (SelectStatement) copiedSelectStatement.copy();
+        sameShapeSelectStatement.getSqlTokens().addAll(createGeneratedKeyTokens("?"));
+        assertThat(new SQLRewriteEngine(shardingRule, sql, sameShapeSelectStatement).rewrite(true).toSQL(tableTokens), is("INSERT INTO table_1 (name, age, id) VALUES (?, ?, ?)"));
+        assertThat(sameShapeSelectStatement.getRewriteTemplate().get(), sameInstance(rewriteTemplate));
+        SelectStatement literalKeySelectStatement = (SelectStatement) copiedSelectStatement.copy();
+        literalKeySelectStatement.getSqlTokens().addAll(createGeneratedKeyTokens("100"));
+        assertThat(new SQLRewriteEngine(shardingRule, sql, literalKeySelectStatement).rewrite(true).toSQL(tableTokens), is("INSERT INTO table_1 (name, age, id) VALUES (?, ?, 100)"));
+    }
+    
+    private List<ItemsToken> createGeneratedKeyTokens(final String generatedKey) {
+        ItemsToken columnsToken = new ItemsToken(30);
+        columnsToken.getItems().add("id");
+        ItemsToken valuesToken = new ItemsToken(44);
+        valuesToken.getItems().add(generatedKey);
+        return Arrays.asList(columnsToken, valuesToken);
+    }
+    
     @Test
     public void assertRewriteForRowNum() {
         selectStatement.setLimit(new Limit(false));
@@ -262,4 +327,42 @@ public final class SQLRewriteEngineTest {
         CartesianTableReference cartesianTableReference = new CartesianTableReference(Collections.singletonList(new TableUnit("db0", "table_x", "table_x")));
         assertThat(sqlRewriteEngine.generateSQL(cartesianTableReference, sqlBuilder), is("SELECT table_x.id, x.name FROM table_x x WHERE table_x.id=? AND x.name=?"));
     }
+    
+    @Test
+    public void assertGenerateSQLs() {
+        selectStatement.getSqlTokens().add(new TableToken(17, "table_x"));
+        SQLRewriteEngine sqlRewriteEngine = new SQLRewriteEngine(shardingRule, "SELECT x.id FROM table_x x WHERE x.id=?", selectStatement);
+        SQLBuilder sqlBuilder = sqlRewriteEngine.rewrite(true);
+        assertThat(sqlRewriteEngine.generateSQLs(Arrays.asList(new TableUnit("db0", "table_x", "table_0"), new TableUnit("db1", "table_x", "table_1"), new TableUnit("db1", "table_x", "table_0")), sqlBuilder),
+                is(Arrays.asList("SELECT x.id FROM table_0 x WHERE x.id=?", "SELECT x.id FROM table_1 x WHERE x.id=?", "SELECT x.id FROM table_0 x WHERE x.id=?")));
+    }
+    
+    @Test
+    public void assertGenerateCartesianSQLs() {
+        selectStatement.getSqlTokens().add(new TableToken(17, "table_x"));
+        SQLRewriteEngine sqlRewriteEngine = new SQLRewriteEngine(shardingRule, "SELECT x.id FROM table_x x WHERE x.id=?", selectStatement);
+        SQLBuilder sqlBuilder = sqlRewriteEngine.rewrite(true);
+        CartesianTableReference cartesianTableReference0 = new CartesianTableReference(Collections.singletonList(new TableUnit("db0", "table_x", "table_0")));
+        CartesianTableReference cartesianTableReference1 = new CartesianTableReference(Collections.singletonList(new TableUnit("db0", "table_x", "table_1")));
+        assertThat(sqlRewriteEngine.generateCartesianSQLs(Arrays.asList(cartesianTableReference0, cartesianTableReference1), sqlBuilder),
+                is(Arrays.asList("SELECT x.id FROM table_0 x WHERE x.id=?", "SELECT x.id FROM table_1 x WHERE x.id=?")));
+    }
+    
+    @Test
+    public void assertGenerateSQLForSplitInValues() {
+        selectStatement.getSqlTokens().add(new TableToken(17, "table_x"));
+        selectStatement.getSqlTokens().add(new InValuesToken(42, "?, ?, ?", new Column("id", "table_x"), Arrays.asList("?", "?", "?"), Arrays.asList(0, 1, 2)));
+        SQLRewriteEngine sqlRewriteEngine = new SQLRewriteEngine(shardingRule, "SELECT x.id FROM table_x x WHERE x.id IN (?, ?, ?)", selectStatement);
+        SQLBuilder sqlBuilder = sqlRewriteEngine.rewrite(true);
+        TableUnit tableUnit0 = new TableUnit("db0", "table_x", "table_0");
+        TableUnit tableUnit1 = new TableUnit("db0", "table_x", "table_1");
+        Map<TableUnit, List<Integer>> valueIndexesMap = new LinkedHashMap<>(2, 1);
+        valueIndexesMap.put(tableUnit0, Arrays.asList(0, 2));
+        valueIndexesMap.put(tableUnit1, Collections.singletonList(1));
+        SplitInValues splitInValues = new SplitInValues((InValuesToken) selectStatement.getSqlTokens().get(1), valueIndexesMap);
+        assertThat(sqlRewriteEngine.generateSQL(tableUnit0, sqlBuilder, splitInValues), is("SELECT x.id FROM table_0 x WHERE x.id IN (?, ?)"));
+        assertThat(sqlRewriteEngine.generateSQL(tableUnit1, sqlBuilder, splitInValues), is("SELECT x.id FROM table_1 x WHERE x.id IN (?)"));
+        assertThat(splitInValues.getExcludedParameterIndexes(tableUnit1), is((Set<Integer>) new HashSet<>(Arrays.asList(0, 2))));
+        assertThat(sqlRewriteEngine.generateSQL(tableUnit0, sqlBuilder), is("SELECT x.id FROM table_0 x WHERE x.id IN (?, ?, ?)"));
+    }
 }
@@ -23,8 +23,12 @@ import com.dangdang.ddframe.rdb.sharding.api.rule.ShardingRule;
 import com.dangdang.ddframe.rdb.sharding.api.rule.TableRule;
 import com.dangdang.ddframe.rdb.sharding.api.strategy.database.DatabaseShardingStrategy;
 import com.dangdang.ddframe.rdb.sharding.api.strategy.table.TableShardingStrategy;
+import com.dangdang.ddframe.rdb.sharding.api.strategy.table.TimeBucketTableShardingAlgorithm;
+import com.dangdang.ddframe.rdb.sharding.api.strategy.table.TimeBucketTableShardingAlgorithm.TimeBucket;
 import com.dangdang.ddframe.rdb.sharding.constant.DatabaseType;
 import com.dangdang.ddframe.rdb.sharding.jdbc.core.ShardingContext;
+import com.dangdang.ddframe.rdb.sharding.parsing.cache.SQLParsingCache;
+import com.dangdang.ddframe.rdb.sharding.routing.cache.SQLRouteCache;
 import com.dangdang.ddframe.rdb.sharding.routing.fixture.OrderAttrShardingAlgorithm;
 import com.dangdang.ddframe.rdb.sharding.routing.fixture.OrderShardingAlgorithm;
 import com.google.common.base.Function;
@@ -35,9 +39,12 @@ import lombok.Getter;
 import org.junit.Before;
 
 import javax.sql.DataSource;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Calendar;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -63,19 +70,36 @@ public abstract class AbstractBaseRouteSqlTest {
         TableRule orderItemTableRule = TableRule.builder("order_item").actualTables(Lists.newArrayList("order_item_0", "order_item_1")).dataSourceRule(dataSourceRule).build();
         TableRule orderAttrTableRule = TableRule.builder("order_attr").actualTables(Lists.newArrayList("ds_0.order_attr_a", "ds_1.order_attr_b")).dataSourceRule(dataSourceRule)
                 .tableShardingStrategy(new TableShardingStrategy("order_id", new OrderAttrShardingAlgorithm())).build();
-        shardingRule = ShardingRule.builder().dataSourceRule(dataSourceRule).tableRules(Lists.newArrayList(orderTableRule, orderItemTableRule, orderAttrTableRule))
+        TableRule orderExtTableRule = TableRule.builder("order_ext").actualTables(Lists.newArrayList("order_ext_0", "order_ext_1")).dataSourceRule(dataSourceRule).build();
+        TableRule logTableRule = TableRule.builder("log").dynamic(true).dataSourceRule(dataSourceRule).dataSourceNames(Collections.singletonList("ds_0"))
+                .tableShardingStrategy(new TableShardingStrategy("create_time", new TimeBucketTableShardingAlgorithm("log_", TimeBucket.DAY, createDate(2017, 1, 1), 31))).build();
+        shardingRule = ShardingRule.builder().dataSourceRule(dataSourceRule).tableRules(Lists.newArrayList(orderTableRule, orderItemTableRule, orderAttrTableRule, orderExtTableRule, logTableRule))
                 .bindingTableRules(Collections.singletonList(new BindingTableRule(Arrays.asList(orderTableRule, orderItemTableRule))))
+                .broadcastTables(Collections.singletonList("region"))
                 .databaseShardingStrategy(new DatabaseShardingStrategy("order_id", new OrderShardingAlgorithm()))
                 .tableShardingStrategy(new TableShardingStrategy("order_id", new OrderShardingAlgorithm())).build();
     }
     
+    private Date createDate(final int year, final int month, final int day) {
+        Calendar result = Calendar.getInstance();
+        result.clear();
+        result.set(year, month - 1, day);
+        return result.getTime();
+    }
+    
     protected void assertSingleTargetWithoutParameter(final String originSql, final String targetDataSource, final String targetSQL) {
         assertMultipleTargetsWithoutParameter(originSql, 1, Collections.singletonList(targetDataSource), Collections.singletonList(targetSQL));
     }
     
     protected void assertMultipleTargetsWithoutParameter(final String originSql, final int expectedSize, final Collection<String> targetDataSources, final Collection<String> targetSQLs) {
-        ShardingContext shardingContext = new ShardingContext(getShardingRule(), DatabaseType.MySQL, null, false);
-        SQLRouteResult actual = new StatementRoutingEngine(shardingContext).route(originSql);
+        ShardingContext shardingContext = new ShardingContext(getShardingRule(), DatabaseType.MySQL, null, false, new SQLParsingCache(0), new SQLRouteCache(0));
+        assertRouteResult(new StatementRoutingEngine(shardingContext).route(originSql), expectedSize, targetDataSources, targetSQLs);
+        ShardingContext cachedShardingContext = new ShardingContext(getShardingRule(), DatabaseType.MySQL, null, false, new SQLParsingCache(16), new SQLRouteCache(16));
+        assertRouteResult(new StatementRoutingEngine(cachedShardingContext).route(originSql), expectedSize, targetDataSources, targetSQLs);
+        assertRouteResult(new StatementRoutingEngine(cachedShardingContext).route(originSql), expectedSize, targetDataSources, targetSQLs);
+    }
+    
+    private void assertRouteResult(final SQLRouteResult actual, final int expectedSize, final Collection<String> targetDataSources, final Collection<String> targetSQLs) {
         assertThat(actual.getExecutionUnits().size(), is(expectedSize));
         Set<String> actualDataSources = new HashSet<>(Collections2.transform(actual.getExecutionUnits(), new Function<SQLExecutionUnit, String>() {
             
@@ -101,24 +125,10 @@ public abstract class AbstractBaseRouteSqlTest {
     
     protected void assertMultipleTargetsWithParameters(
             final String originSql, final List<Object> parameters, final int expectedSize, final Collection<String> targetDataSources, final Collection<String> targetSQLs) {
-        ShardingContext shardingContext = new ShardingContext(getShardingRule(), DatabaseType.MySQL, null, false);
-        SQLRouteResult actual = new PreparedStatementRoutingEngine(originSql, shardingContext).route(parameters);
-        assertThat(actual.getExecutionUnits().size(), is(expectedSize));
-        Set<String> actualDataSources = new HashSet<>(Collections2.transform(actual.getExecutionUnits(), new Function<SQLExecutionUnit, String>() {
-            
-            @Override
-            public String apply(final SQLExecutionUnit input) {
-                return input.getDataSource();
-            }
-        }));
-        assertThat(actualDataSources, hasItems(targetDataSources.toArray(new String[targetDataSources.size()])));
-        Collection<String> actualSQLs = Collections2.transform(actual.getExecutionUnits(), new Function<SQLExecutionUnit, String>() {
-            
-            @Override
-            public String apply(final SQLExecutionUnit input) {
-                return input.getSql();
-            }
-        });
-        assertThat(actualSQLs, hasItems(targetSQLs.toArray(new String[targetSQLs.size()])));
+        ShardingContext cachedShardingContext = new ShardingContext(getShardingRule(), DatabaseType.MySQL, null, false, new SQLParsingCache(16), new SQLRouteCache(16));
+        assertRouteResult(new PreparedStatementRoutingEngine(originSql, cachedShardingContext).route(new ArrayList<>(parameters)), expectedSize, targetDataSources, targetSQLs);
+        assertRouteResult(new PreparedStatementRoutingEngine(originSql, cachedShardingContext).route(new ArrayList<>(parameters)), expectedSize, targetDataSources, targetSQLs);
+        ShardingContext shardingContext = new ShardingContext(getShardingRule(), DatabaseType.MySQL, null, false, new SQLParsingCache(0), new SQLRouteCache(0));
+        assertRouteResult(new PreparedStatementRoutingEngine(originSql, shardingContext).route(parameters), expectedSize, targetDataSources, targetSQLs);
     }
 }
@@ -17,6 +17,7 @@
 
 package com.dangdang.ddframe.rdb.sharding.routing;
 
+import com.dangdang.ddframe.rdb.sharding.routing.cache.SQLRouteCacheTest;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
@@ -26,7 +27,11 @@ import org.junit.runners.Suite;
         SelectBindingTableTest.class, 
         SelectMixedTablesTest.class, 
         DMLTest.class, 
-        DatabaseTest.class
+        BroadcastTableTest.class, 
+        TimeBucketTableTest.class, 
+        DatabaseTest.class, 
+        SQLWarmUpEngineTest.class, 
+        SQLRouteCacheTest.class
     })
 public class AllRoutingTests {
 }
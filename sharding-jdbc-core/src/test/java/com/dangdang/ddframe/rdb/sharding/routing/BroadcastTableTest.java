@@ -0,0 +1,61 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.routing;
+
+import com.dangdang.ddframe.rdb.sharding.constant.DatabaseType;
+import com.dangdang.ddframe.rdb.sharding.jdbc.core.ShardingContext;
+import com.dangdang.ddframe.rdb.sharding.parsing.cache.SQLParsingCache;
+import com.dangdang.ddframe.rdb.sharding.routing.cache.SQLRouteCache;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.hamcrest.CoreMatchers.anyOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public final class BroadcastTableTest extends AbstractBaseRouteSqlTest {
+    
+    @Test
+    public void assertSelectBroadcastTable() {
+        ShardingContext shardingContext = new ShardingContext(getShardingRule(), DatabaseType.MySQL, null, false, new SQLParsingCache(0), new SQLRouteCache(0));
+        SQLRouteResult actual = new StatementRoutingEngine(shardingContext).route("select * from region where region_id = 1");
+        assertThat(actual.getExecutionUnits().size(), is(1));
+        SQLExecutionUnit executionUnit = actual.getExecutionUnits().iterator().next();
+        assertThat(executionUnit.getDataSource(), anyOf(is("ds_0"), is("ds_1")));
+        assertThat(executionUnit.getSql(), is("select * from region where region_id = 1"));
+    }
+    
+    @Test
+    public void assertModifyBroadcastTable() {
+        assertMultipleTargetsWithoutParameter("insert into region (region_id, name) values (1, 'a')", 2, Arrays.asList("ds_0", "ds_1"), 
+                Arrays.asList("insert into region (region_id, name) values (1, 'a')", "insert into region (region_id, name) values (1, 'a')"));
+        assertMultipleTargetsWithParameters("update region set name = ? where region_id = ?", Arrays.<Object>asList("b", 1), 2, Arrays.asList("ds_0", "ds_1"), 
+                Arrays.asList("update region set name = ? where region_id = ?", "update region set name = ? where region_id = ?"));
+    }
+    
+    @Test
+    public void assertJoinShardingTableWithBroadcastTable() {
+        assertSingleTargetWithoutParameter("select * from order o join region r on o.region_id = r.region_id where o.order_id = 1", "ds_1", 
+                "select * from order_1 o join region r on o.region_id = r.region_id where o.order_id = 1");
+        assertSingleTargetWithoutParameter("select * from order o join order_item i using(order_id) join region r on o.region_id = r.region_id where o.order_id = 1", "ds_1", 
+                "select * from order_1 o join order_item_1 i using(order_id) join region r on o.region_id = r.region_id where o.order_id = 1");
+        assertMultipleTargetsWithoutParameter("select * from order o join region r on o.region_id = r.region_id", 4, Arrays.asList("ds_0", "ds_1"), 
+                Arrays.asList("select * from order_0 o join region r on o.region_id = r.region_id", "select * from order_1 o join region r on o.region_id = r.region_id"));
+    }
+}
@@ -17,11 +17,26 @@
 
 package com.dangdang.ddframe.rdb.sharding.routing;
 
+import com.dangdang.ddframe.rdb.sharding.api.rule.ShardingRule;
+import com.dangdang.ddframe.rdb.sharding.api.rule.TableRule;
+import com.dangdang.ddframe.rdb.sharding.api.strategy.database.DatabaseShardingStrategy;
+import com.dangdang.ddframe.rdb.sharding.api.strategy.table.TableShardingStrategy;
+import com.dangdang.ddframe.rdb.sharding.constant.DatabaseType;
+import com.dangdang.ddframe.rdb.sharding.jdbc.core.ShardingContext;
+import com.dangdang.ddframe.rdb.sharding.keygen.fixture.IncrementKeyGenerator;
+import com.dangdang.ddframe.rdb.sharding.parsing.cache.SQLParsingCache;
+import com.dangdang.ddframe.rdb.sharding.routing.cache.SQLRouteCache;
+import com.dangdang.ddframe.rdb.sharding.routing.fixture.OrderShardingAlgorithm;
 import com.google.common.collect.Lists;
 import org.junit.Test;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
 
 public final class DMLTest extends AbstractDynamicRouteSqlTest {
     
@@ -33,6 +48,76 @@ public final class DMLTest extends AbstractDynamicRouteSqlTest {
                 Lists.newArrayList(new ShardingValuePair("order", 2)), "insert into `order` value (?,?)", Arrays.<Object>asList(2, "test"), "ds_0", "insert into order_0 value (?,?)");
     }
     
+    @Test
+    public void assertMultipleValuesInsert() {
+        assertMultipleTargetsWithoutParameter("insert into `order` (order_id, name) values (1, 'a'), (2, 'b'), (3, 'c')", 2, Arrays.asList("ds_0", "ds_1"), 
+                Arrays.asList("insert into order_1 (order_id, name) values (1, 'a'), (3, 'c')", "insert into order_0 (order_id, name) values (2, 'b')"));
+        assertMultipleTargetsWithParameters("insert into `order` (order_id, name) values (?, ?), (?, ?), (?, ?)", Arrays.<Object>asList(1, "a", 2, "b", 3, "c"), 2, 
+                Arrays.asList("ds_0", "ds_1"), Arrays.asList("insert into order_1 (order_id, name) values (?, ?), (?, ?)", "insert into order_0 (order_id, name) values (?, ?)"));
+    }
+    
+    @Test
+    public void assertMultipleValuesInsertParameters() {
+        ShardingContext shardingContext = new ShardingContext(getShardingRule(), DatabaseType.MySQL, null, false, new SQLParsingCache(0), new SQLRouteCache(0));
+        List<Object> parameters = Arrays.<Object>asList(1, "a", 2, "b", 3, "c");
+        SQLRouteResult actual = new PreparedStatementRoutingEngine("insert into `order` (order_id, name) values (?, ?), (?, ?), (?, ?)", shardingContext).route(parameters);
+        assertThat(actual.getExecutionUnits().size(), is(2));
+        Iterator<SQLExecutionUnit> executionUnits = actual.getExecutionUnits().iterator();
+        assertThat(executionUnits.next().getActualParameters(parameters), is(Arrays.<Object>asList(1, "a", 3, "c")));
+        assertThat(executionUnits.next().getActualParameters(parameters), is(Arrays.<Object>asList(2, "b")));
+    }
+    
+    @Test
+    public void assertMultipleValuesInsertWithGeneratedKeys() {
+        TableRule tableRule = TableRule.builder("order").actualTables(Lists.newArrayList("order_0", "order_1")).dataSourceRule(getShardingRule().getDataSourceRule())
+                .generateKeyColumn("order_id").build();
+        ShardingRule shardingRule = ShardingRule.builder().dataSourceRule(getShardingRule().getDataSourceRule()).tableRules(Collections.singletonList(tableRule))
+                .databaseShardingStrategy(new DatabaseShardingStrategy("order_id", new OrderShardingAlgorithm()))
+                .tableShardingStrategy(new TableShardingStrategy("order_id", new OrderShardingAlgorithm())).keyGenerator(IncrementKeyGenerator.class).build();
+        ShardingContext shardingContext = new ShardingContext(shardingRule, DatabaseType.MySQL, null, false, new SQLParsingCache(0), new SQLRouteCache(0));
+        SQLRouteResult actual = new PreparedStatementRoutingEngine("insert into `order` (name) values (?), (?), (?)", shardingContext).route(Arrays.<Object>asList("a", "b", "c"));
+        assertThat(actual.getGeneratedKeys().size(), is(3));
+        assertThat(actual.getExecutionUnits().size(), is(2));
+        for (SQLExecutionUnit each : actual.getExecutionUnits()) {
+            int parity = "ds_0".equals(each.getDataSource()) ? 0 : 1;
+            StringBuilder expected = new StringBuilder("insert into order_" + parity + " (name, order_id) values ");
+            for (int i = 0; i < 3; i++) {
+                if (parity == actual.getGeneratedKeys().get(i).intValue() % 2) {
+                    expected.append(expected.toString().endsWith(" ") ? "" : ", ").append("(?, ").append(actual.getGeneratedKeys().get(i)).append(")");
+                }
+            }
+            assertThat(each.getSql(), is(expected.toString()));
+        }
+    }
+    
+    @Test
+    public void assertMultipleValuesInsertWithGeneratedKeysRoutedTwice() {
+        TableRule tableRule = TableRule.builder("order").actualTables(Lists.newArrayList("order_0", "order_1")).dataSourceRule(getShardingRule().getDataSourceRule())
+                .generateKeyColumn("order_id").build();
+        ShardingRule shardingRule = ShardingRule.builder().dataSourceRule(getShardingRule().getDataSourceRule()).tableRules(Collections.singletonList(tableRule))
+                .databaseShardingStrategy(new DatabaseShardingStrategy("order_id", new OrderShardingAlgorithm()))
+                .tableShardingStrategy(new TableShardingStrategy("order_id", new OrderShardingAlgorithm())).keyGenerator(IncrementKeyGenerator.class).build();
+        ShardingContext shardingContext = new ShardingContext(shardingRule, DatabaseType.MySQL, null, false, new SQLParsingCache(0), new SQLRouteCache(0));
+        PreparedStatementRoutingEngine routingEngine = new PreparedStatementRoutingEngine("insert into `order` (name) values (?), (?), (?)", shardingContext);
+        SQLRouteResult first = routingEngine.route(Arrays.<Object>asList("a", "b", "c"));
+        SQLRouteResult second = routingEngine.route(Arrays.<Object>asList("d", "e", "f"));
+        assertThat(first.getGeneratedKey().getColumn(), is("order_id"));
+        assertThat(second.getGeneratedKey().getColumn(), is("order_id"));
+        assertThat(second.getGeneratedKeys().size(), is(6));
+        assertThat(second.getGeneratedKeys().subList(0, 3), is(first.getGeneratedKeys()));
+        assertThat(second.getExecutionUnits().size(), is(2));
+        for (SQLExecutionUnit each : second.getExecutionUnits()) {
+            int parity = "ds_0".equals(each.getDataSource()) ? 0 : 1;
+            StringBuilder expected = new StringBuilder("insert into order_" + parity + " (name, order_id) values ");
+            for (int i = 3; i < 6; i++) {
+                if (parity == second.getGeneratedKeys().get(i).intValue() % 2) {
+                    expected.append(expected.toString().endsWith(" ") ? "" : ", ").append("(?, ").append(second.getGeneratedKeys().get(i)).append(")");
+                }
+            }
+            assertThat(each.getSql(), is(expected.toString()));
+        }
+    }
+    
     @Test
     public void assertUpdate() {
         assertSingleTargetWithoutParameter("update `order` set name = 'test' where order_id = 1", "ds_1", "update order_1 set name = 'test' where order_id = 1");
@@ -23,6 +23,8 @@ import com.dangdang.ddframe.rdb.sharding.api.rule.ShardingRule;
 import com.dangdang.ddframe.rdb.sharding.api.strategy.database.DatabaseShardingStrategy;
 import com.dangdang.ddframe.rdb.sharding.constant.DatabaseType;
 import com.dangdang.ddframe.rdb.sharding.jdbc.core.ShardingContext;
+import com.dangdang.ddframe.rdb.sharding.parsing.cache.SQLParsingCache;
+import com.dangdang.ddframe.rdb.sharding.routing.cache.SQLRouteCache;
 import com.dangdang.ddframe.rdb.sharding.routing.fixture.OrderDatabaseShardingAlgorithm;
 import com.google.common.base.Function;
 import com.google.common.collect.Collections2;
@@ -68,7 +70,7 @@ public class DatabaseTest {
     }
     
     private void assertTarget(final String originSql, final String targetDataSource) {
-        ShardingContext shardingContext = new ShardingContext(shardingRule, DatabaseType.MySQL, null, false);
+        ShardingContext shardingContext = new ShardingContext(shardingRule, DatabaseType.MySQL, null, false, new SQLParsingCache(0), new SQLRouteCache(0));
         SQLRouteResult actual = new StatementRoutingEngine(shardingContext).route(originSql);
         assertThat(actual.getExecutionUnits().size(), is(1));
         Set<String> actualDataSources = new HashSet<>(Collections2.transform(actual.getExecutionUnits(), new Function<SQLExecutionUnit, String>() {
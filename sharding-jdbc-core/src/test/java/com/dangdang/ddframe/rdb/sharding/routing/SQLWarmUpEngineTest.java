@@ -0,0 +1,103 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.routing;
+
+import com.dangdang.ddframe.rdb.sharding.api.rule.DataSourceRule;
+import com.dangdang.ddframe.rdb.sharding.api.rule.ShardingRule;
+import com.dangdang.ddframe.rdb.sharding.api.rule.TableRule;
+import com.dangdang.ddframe.rdb.sharding.api.strategy.database.DatabaseShardingStrategy;
+import com.dangdang.ddframe.rdb.sharding.api.strategy.table.TableShardingStrategy;
+import com.dangdang.ddframe.rdb.sharding.constant.DatabaseType;
+import com.dangdang.ddframe.rdb.sharding.executor.ExecutorEngine;
+import com.dangdang.ddframe.rdb.sharding.jdbc.core.ShardingContext;
+import com.dangdang.ddframe.rdb.sharding.keygen.fixture.IncrementKeyGenerator;
+import com.dangdang.ddframe.rdb.sharding.parsing.cache.SQLParsingCache;
+import com.dangdang.ddframe.rdb.sharding.routing.cache.SQLRouteCache;
+import com.dangdang.ddframe.rdb.sharding.routing.fixture.OrderShardingAlgorithm;
+import org.junit.After;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public final class SQLWarmUpEngineTest extends AbstractBaseRouteSqlTest {
+    
+    private final ExecutorEngine executorEngine = new ExecutorEngine(2);
+    
+    @After
+    public void tearDown() {
+        executorEngine.close();
+    }
+    
+    @Test
+    public void assertParseCatalog() {
+        assertTrue(SQLWarmUpEngine.parseCatalog(null).isEmpty());
+        String catalog = "# orders\n\nSELECT * FROM order WHERE order_id = ?;\r\n  -- items\nSELECT * FROM order_item\nSELECT * FROM order WHERE order_id = ?\n;";
+        assertThat(new ArrayList<>(SQLWarmUpEngine.parseCatalog(catalog)), is(Arrays.asList("SELECT * FROM order WHERE order_id = ?", "SELECT * FROM order_item")));
+    }
+    
+    @Test
+    public void assertWarmUp() {
+        SQLParsingCache sqlParsingCache = new SQLParsingCache(16);
+        ShardingContext shardingContext = new ShardingContext(getShardingRule(), DatabaseType.MySQL, executorEngine, false, sqlParsingCache, new SQLRouteCache(0));
+        int actual = new SQLWarmUpEngine(shardingContext).warmUp(Arrays.asList(
+                "SELECT * FROM order WHERE order_id = ?", "SELECT * FROM order_item WHERE order_id = 1", "UNKNOWN SQL"));
+        assertThat(actual, is(2));
+        assertTrue(sqlParsingCache.get(DatabaseType.MySQL, "SELECT * FROM order WHERE order_id = ?").isPresent());
+        assertTrue(sqlParsingCache.get(DatabaseType.MySQL, "SELECT * FROM order_item WHERE order_id = ?").isPresent());
+    }
+    
+    @Test
+    public void assertWarmUpAsync() throws InterruptedException, ExecutionException {
+        SQLParsingCache sqlParsingCache = new SQLParsingCache(16);
+        ShardingContext shardingContext = new ShardingContext(getShardingRule(), DatabaseType.MySQL, executorEngine, false, sqlParsingCache, new SQLRouteCache(0));
+        assertThat(new SQLWarmUpEngine(shardingContext).warmUpAsync(Arrays.asList("SELECT * FROM order WHERE order_id = ?", "UNKNOWN SQL")).get(), is(1));
+        assertTrue(sqlParsingCache.get(DatabaseType.MySQL, "SELECT * FROM order WHERE order_id = ?").isPresent());
+    }
+    
+    @Test
+    public void assertWarmUpInsertWithoutGeneratingKey() {
+        Map<String, DataSource> dataSourceMap = new HashMap<>(2, 1);
+        dataSourceMap.put("ds_0", null);
+        dataSourceMap.put("ds_1", null);
+        DataSourceRule dataSourceRule = new DataSourceRule(dataSourceMap);
+        TableRule orderTableRule = TableRule.builder("order").actualTables(Arrays.asList("order_0", "order_1")).dataSourceRule(dataSourceRule)
+                .generateKeyColumn("order_id", IncrementKeyGenerator.class).build();
+        ShardingRule shardingRule = ShardingRule.builder().dataSourceRule(dataSourceRule).tableRules(Collections.singletonList(orderTableRule))
+                .databaseShardingStrategy(new DatabaseShardingStrategy("order_id", new OrderShardingAlgorithm()))
+                .tableShardingStrategy(new TableShardingStrategy("order_id", new OrderShardingAlgorithm())).build();
+        ShardingContext shardingContext = new ShardingContext(shardingRule, DatabaseType.MySQL, executorEngine, false, new SQLParsingCache(16), new SQLRouteCache(0));
+        assertThat(new SQLWarmUpEngine(shardingContext).warmUp(Collections.singletonList("INSERT INTO order (user_id) VALUES (1)")), is(1));
+        assertThat(shardingRule.generateKey("order"), is((Number) 1));
+    }
+    
+    @Test
+    public void assertWarmUpWithoutSQL() {
+        ShardingContext shardingContext = new ShardingContext(getShardingRule(), DatabaseType.MySQL, executorEngine, false, new SQLParsingCache(16), new SQLRouteCache(0));
+        assertThat(new SQLWarmUpEngine(shardingContext).warmUp(Collections.<String>emptyList()), is(0));
+    }
+}
@@ -22,6 +22,7 @@ import com.google.common.collect.Lists;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.Collections;
 
 public final class SelectMixedTablesTest extends AbstractDynamicRouteSqlTest {
     
@@ -43,6 +44,31 @@ public final class SelectMixedTablesTest extends AbstractDynamicRouteSqlTest {
                 "select * from order_1 o join order_attr_b a using(order_id)");
     }
     
+    @Test
+    public void assertConditionFromJoinOn() {
+        assertSingleTargetWithoutParameter("select * from order o join order_ext e on o.order_id = e.order_id where o.order_id = 1", "ds_1",
+                "select * from order_1 o join order_ext_1 e on o.order_id = e.order_id where o.order_id = 1");
+        assertSingleTargetWithoutParameter("select * from order o join order_ext e on e.order_id = o.order_id where e.order_id = 1", "ds_1",
+                "select * from order_1 o join order_ext_1 e on e.order_id = o.order_id where e.order_id = 1");
+        assertSingleTargetWithParameters("select * from order o join order_ext e on o.order_id = e.order_id where o.order_id = ?", Collections.<Object>singletonList(2), "ds_0",
+                "select * from order_0 o join order_ext_0 e on o.order_id = e.order_id where o.order_id = ?");
+    }
+    
+    @Test
+    public void assertConditionFromWhereEqualColumns() {
+        assertSingleTargetWithoutParameter("select * from order o, order_ext e where o.order_id = e.order_id and o.order_id = 1", "ds_1",
+                "select * from order_1 o, order_ext_1 e where o.order_id = e.order_id and o.order_id = 1");
+    }
+    
+    @Test
+    public void assertSelectWithoutConditionFromJoinOn() {
+        assertMultipleTargetsWithoutParameter("select * from order o join order_ext e on o.order_id = e.order_id", 8, Arrays.asList("ds_0", "ds_1"),
+                Arrays.asList("select * from order_0 o join order_ext_1 e on o.order_id = e.order_id", "select * from order_1 o join order_ext_0 e on o.order_id = e.order_id"));
+        assertMultipleTargetsWithoutParameter("select * from order o join order_ext e on o.user_id = e.user_id where o.order_id = 1", 2, Collections.singletonList("ds_1"),
+                Arrays.asList("select * from order_1 o join order_ext_0 e on o.user_id = e.user_id where o.order_id = 1", 
+                        "select * from order_1 o join order_ext_1 e on o.user_id = e.user_id where o.order_id = 1"));
+    }
+    
     @Test
     public void assertSelectWithCartesianProductAllPartitions() {
         assertMultipleTargetsWithoutParameter("select * from order o, order_attr a", 4, Arrays.asList("ds_0", "ds_1"), 
@@ -17,7 +17,11 @@
 
 package com.dangdang.ddframe.rdb.sharding.routing;
 
+import com.dangdang.ddframe.rdb.sharding.constant.DatabaseType;
 import com.dangdang.ddframe.rdb.sharding.constant.ShardingOperator;
+import com.dangdang.ddframe.rdb.sharding.jdbc.core.ShardingContext;
+import com.dangdang.ddframe.rdb.sharding.parsing.cache.SQLParsingCache;
+import com.dangdang.ddframe.rdb.sharding.routing.cache.SQLRouteCache;
 import org.junit.Ignore;
 import org.junit.Test;
 
@@ -63,12 +67,31 @@ public final class SelectSingleTableTest extends AbstractDynamicRouteSqlTest {
     
     @Test
     public void assertSelectWithIn() {
-        assertMultipleTargetsWithParameters("select * from order where order_id in (?,?,?)", Arrays.<Object>asList(1, 2, 100), 4, 
-                Arrays.asList("ds_0", "ds_1"), Arrays.asList("select * from order_0 where order_id in (?,?,?)", "select * from order_1 where order_id in (?,?,?)"));
+        assertMultipleTargetsWithParameters("select * from order where order_id in (?,?,?)", Arrays.<Object>asList(1, 2, 100), 2, 
+                Arrays.asList("ds_0", "ds_1"), Arrays.asList("select * from order_0 where order_id in (?, ?)", "select * from order_1 where order_id in (?)"));
         assertMultipleTargetsWithoutParameter(Collections.singletonList(new ShardingValuePair("order", ShardingOperator.IN, 1, 2, 100)), "select * from order", 4,
                 Arrays.asList("ds_0", "ds_1"), Arrays.asList("select * from order_0", "select * from order_1"));
     }
     
+    @Test
+    public void assertSelectWithInSplitByShard() {
+        assertMultipleTargetsWithoutParameter("select * from order where order_id in (1, 2, 100)", 2,
+                Arrays.asList("ds_0", "ds_1"), Arrays.asList("select * from order_0 where order_id in (2, 100)", "select * from order_1 where order_id in (1)"));
+        ShardingContext shardingContext = new ShardingContext(getShardingRule(), DatabaseType.MySQL, null, false, new SQLParsingCache(0), new SQLRouteCache(0));
+        List<Object> parameters = Arrays.<Object>asList(1, 2, 100, 5);
+        SQLRouteResult actual = new PreparedStatementRoutingEngine("select * from order where order_id in (?,?,?) and status = ?", shardingContext).route(parameters);
+        assertThat(actual.getExecutionUnits().size(), is(2));
+        for (SQLExecutionUnit each : actual.getExecutionUnits()) {
+            if ("ds_0".equals(each.getDataSource())) {
+                assertThat(each.getSql(), is("select * from order_0 where order_id in (?, ?) and status = ?"));
+                assertThat(each.getActualParameters(parameters), is(Arrays.<Object>asList(2, 100, 5)));
+            } else {
+                assertThat(each.getSql(), is("select * from order_1 where order_id in (?) and status = ?"));
+                assertThat(each.getActualParameters(parameters), is(Arrays.<Object>asList(1, 5)));
+            }
+        }
+    }
+    
     @Test
     @Ignore
     // TODO or
@@ -86,6 +109,37 @@ public final class SelectSingleTableTest extends AbstractDynamicRouteSqlTest {
                 Arrays.asList("ds_0", "ds_1"), Arrays.asList("select * from order_0", "select * from order_1"));
     }
     
+    @Test
+    public void assertSelectWithOpenRangeForUnsupportedAlgorithm() {
+        assertMultipleTargetsWithParameters("select * from order where order_id > ? and order_id <= ?", Arrays.<Object>asList(1, 100), 4, 
+                Arrays.asList("ds_0", "ds_1"), Arrays.asList("select * from order_0 where order_id > ? and order_id <= ?", "select * from order_1 where order_id > ? and order_id <= ?"));
+        assertSingleTargetWithoutParameter("select * from order where order_id >= 0 and order_id = 1", "ds_1", "select * from order_1 where order_id >= 0 and order_id = 1");
+    }
+    
+    @Test
+    public void assertSelectWithClosedRangeForUnsupportedAlgorithm() {
+        assertMultipleTargetsWithoutParameter("select * from order where order_id >= 2 and order_id <= 2", 4, 
+                Arrays.asList("ds_0", "ds_1"), Arrays.asList("select * from order_0 where order_id >= 2 and order_id <= 2", "select * from order_1 where order_id >= 2 and order_id <= 2"));
+    }
+    
+    @Test
+    public void assertSelectWithInvertedRangeForUnsupportedAlgorithm() {
+        assertMultipleTargetsWithoutParameter("select * from order where order_id >= 10 and order_id <= 1", 4, 
+                Arrays.asList("ds_0", "ds_1"), Arrays.asList("select * from order_0 where order_id >= 10 and order_id <= 1", "select * from order_1 where order_id >= 10 and order_id <= 1"));
+    }
+    
+    @Test
+    public void assertSelectWithMixedNumericRangeForUnsupportedAlgorithm() {
+        assertMultipleTargetsWithParameters("select * from order where order_id > 1 and order_id < ?", Collections.<Object>singletonList(10L), 4, 
+                Arrays.asList("ds_0", "ds_1"), Arrays.asList("select * from order_0 where order_id > 1 and order_id < ?", "select * from order_1 where order_id > 1 and order_id < ?"));
+    }
+    
+    @Test
+    public void assertSelectWithInvertedBetween() {
+        assertMultipleTargetsWithoutParameter("select * from order where order_id between 10 and 1", 1, 
+                Collections.<String>emptyList(), Collections.singletonList("select * from order_0 where order_id between 10 and 1"));
+    }
+    
     @Test
     @Ignore
     // TODO or
@@ -120,31 +174,31 @@ public final class SelectSingleTableTest extends AbstractDynamicRouteSqlTest {
     
     @Test
     public void assertSelectInLimit() {
-        assertMultipleTargetsWithParameters("select * from order where order_id in (?,?,?) limit 5", Arrays.<Object>asList(1, 2, 100), 4,
-                Arrays.asList("ds_0", "ds_1"), Arrays.asList("select * from order_0 where order_id in (?,?,?) limit 5", "select * from order_1 where order_id in (?,?,?) limit 5"));
-        assertMultipleTargetsWithParameters("select * from order where order_id in (?,?,?) limit 2,5", Arrays.<Object>asList(1, 2, 100), 4,
-                Arrays.asList("ds_0", "ds_1"), Arrays.asList("select * from order_0 where order_id in (?,?,?) limit 0,7", "select * from order_1 where order_id in (?,?,?) limit 0,7"));
-        assertMultipleTargetsWithParameters("select * from order where order_id in (?,?,?) limit 5 offset 2", Arrays.<Object>asList(1, 2, 100), 4,
-                Arrays.asList("ds_0", "ds_1"), Arrays.asList("select * from order_0 where order_id in (?,?,?) limit 7 offset 0", "select * from order_1 where order_id in (?,?,?) limit 7 offset 0"));
+        assertMultipleTargetsWithParameters("select * from order where order_id in (?,?,?) limit 5", Arrays.<Object>asList(1, 2, 100), 2,
+                Arrays.asList("ds_0", "ds_1"), Arrays.asList("select * from order_0 where order_id in (?, ?) limit 5", "select * from order_1 where order_id in (?) limit 5"));
+        assertMultipleTargetsWithParameters("select * from order where order_id in (?,?,?) limit 2,5", Arrays.<Object>asList(1, 2, 100), 2,
+                Arrays.asList("ds_0", "ds_1"), Arrays.asList("select * from order_0 where order_id in (?, ?) limit 0,7", "select * from order_1 where order_id in (?) limit 0,7"));
+        assertMultipleTargetsWithParameters("select * from order where order_id in (?,?,?) limit 5 offset 2", Arrays.<Object>asList(1, 2, 100), 2,
+                Arrays.asList("ds_0", "ds_1"), Arrays.asList("select * from order_0 where order_id in (?, ?) limit 7 offset 0", "select * from order_1 where order_id in (?) limit 7 offset 0"));
         List<Object> parameters = Arrays.<Object>asList(1, 2, 100, 5);
-        assertMultipleTargetsWithParameters("select * from order where order_id in (?,?,?) limit ?", parameters, 4,
-                Arrays.asList("ds_0", "ds_1"), Arrays.asList("select * from order_0 where order_id in (?,?,?) limit ?", "select * from order_1 where order_id in (?,?,?) limit ?"));
+        assertMultipleTargetsWithParameters("select * from order where order_id in (?,?,?) limit ?", parameters, 2,
+                Arrays.asList("ds_0", "ds_1"), Arrays.asList("select * from order_0 where order_id in (?, ?) limit ?", "select * from order_1 where order_id in (?) limit ?"));
         assertThat(parameters, is(Arrays.<Object>asList(1, 2, 100, 5)));
         parameters = Arrays.<Object>asList(1, 2, 100, 2, 5);
-        assertMultipleTargetsWithParameters("select * from order where order_id in (?,?,?) limit ?,?", parameters, 4,
-                Arrays.asList("ds_0", "ds_1"), Arrays.asList("select * from order_0 where order_id in (?,?,?) limit ?,?", "select * from order_1 where order_id in (?,?,?) limit ?,?"));
+        assertMultipleTargetsWithParameters("select * from order where order_id in (?,?,?) limit ?,?", parameters, 2,
+                Arrays.asList("ds_0", "ds_1"), Arrays.asList("select * from order_0 where order_id in (?, ?) limit ?,?", "select * from order_1 where order_id in (?) limit ?,?"));
         assertThat(parameters, is(Arrays.<Object>asList(1, 2, 100, 0, 7)));
         parameters = Arrays.<Object>asList(1, 2, 100, 5, 2);
-        assertMultipleTargetsWithParameters("select * from order where order_id in (?,?,?) limit ? offset ?", parameters, 4,
-                Arrays.asList("ds_0", "ds_1"), Arrays.asList("select * from order_0 where order_id in (?,?,?) limit ? offset ?", "select * from order_1 where order_id in (?,?,?) limit ? offset ?"));
+        assertMultipleTargetsWithParameters("select * from order where order_id in (?,?,?) limit ? offset ?", parameters, 2,
+                Arrays.asList("ds_0", "ds_1"), Arrays.asList("select * from order_0 where order_id in (?, ?) limit ? offset ?", "select * from order_1 where order_id in (?) limit ? offset ?"));
         assertThat(parameters, is(Arrays.<Object>asList(1, 2, 100, 7, 0)));
         parameters = Arrays.<Object>asList(1, 2, 100, 5);
-        assertMultipleTargetsWithParameters("select * from order where order_id in (?,?,?) limit 2,?", parameters, 4,
-                Arrays.asList("ds_0", "ds_1"), Arrays.asList("select * from order_0 where order_id in (?,?,?) limit 0,?", "select * from order_1 where order_id in (?,?,?) limit 0,?"));
+        assertMultipleTargetsWithParameters("select * from order where order_id in (?,?,?) limit 2,?", parameters, 2,
+                Arrays.asList("ds_0", "ds_1"), Arrays.asList("select * from order_0 where order_id in (?, ?) limit 0,?", "select * from order_1 where order_id in (?) limit 0,?"));
         assertThat(parameters, is(Arrays.<Object>asList(1, 2, 100, 7)));
         parameters = Arrays.<Object>asList(1, 2, 100, 2);
-        assertMultipleTargetsWithParameters("select * from order where order_id in (?,?,?) limit ?,5", parameters, 4,
-                Arrays.asList("ds_0", "ds_1"), Arrays.asList("select * from order_0 where order_id in (?,?,?) limit ?,7", "select * from order_1 where order_id in (?,?,?) limit ?,7"));
+        assertMultipleTargetsWithParameters("select * from order where order_id in (?,?,?) limit ?,5", parameters, 2,
+                Arrays.asList("ds_0", "ds_1"), Arrays.asList("select * from order_0 where order_id in (?, ?) limit ?,7", "select * from order_1 where order_id in (?) limit ?,7"));
         assertThat(parameters, is(Arrays.<Object>asList(1, 2, 100, 0)));
     }
     
@@ -0,0 +1,68 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.routing;
+
+import org.junit.Test;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collections;
+
+public final class TimeBucketTableTest extends AbstractBaseRouteSqlTest {
+    
+    @Test
+    public void assertSelectWithEqual() {
+        assertSingleTargetWithoutParameter("select * from log where create_time = '2017-01-05 10:00:00'", "ds_0", "select * from log_20170105 where create_time = '2017-01-05 10:00:00'");
+    }
+    
+    @Test
+    public void assertSelectWithRange() {
+        assertMultipleTargetsWithoutParameter("select * from log where create_time >= '2017-01-05' and create_time < '2017-01-08'", 3, Collections.singletonList("ds_0"), 
+                Arrays.asList("select * from log_20170105 where create_time >= '2017-01-05' and create_time < '2017-01-08'", 
+                        "select * from log_20170106 where create_time >= '2017-01-05' and create_time < '2017-01-08'", 
+                        "select * from log_20170107 where create_time >= '2017-01-05' and create_time < '2017-01-08'"));
+        assertMultipleTargetsWithoutParameter("select * from log where create_time between '2017-01-31' and '2017-02-01 12:00:00'", 2, Collections.singletonList("ds_0"), 
+                Arrays.asList("select * from log_20170131 where create_time between '2017-01-31' and '2017-02-01 12:00:00'", 
+                        "select * from log_20170201 where create_time between '2017-01-31' and '2017-02-01 12:00:00'"));
+        assertMultipleTargetsWithParameters("select * from log where create_time > ? and create_time <= ?", 
+                Arrays.<Object>asList(Timestamp.valueOf("2017-03-01 23:00:00"), Timestamp.valueOf("2017-03-02 01:00:00")), 2, Collections.singletonList("ds_0"), 
+                Arrays.asList("select * from log_20170301 where create_time > ? and create_time <= ?", "select * from log_20170302 where create_time > ? and create_time <= ?"));
+    }
+    
+    @Test
+    public void assertSelectWithInvertedRange() {
+        assertSingleTargetWithoutParameter("select * from log where create_time >= '2017-01-05' and create_time < '2017-01-03'", "ds_0", 
+                "select * from log_20170105 where create_time >= '2017-01-05' and create_time < '2017-01-03'");
+    }
+    
+    @Test
+    public void assertSelectWithoutLowerBound() {
+        assertMultipleTargetsWithoutParameter("select * from log where create_time < '2017-01-03'", 2, Collections.singletonList("ds_0"), 
+                Arrays.asList("select * from log_20170101 where create_time < '2017-01-03'", "select * from log_20170102 where create_time < '2017-01-03'"));
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void assertSelectWithoutRange() {
+        assertMultipleTargetsWithoutParameter("select * from log", 0, Collections.<String>emptyList(), Collections.<String>emptyList());
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void assertSelectWithoutUpperBound() {
+        assertMultipleTargetsWithoutParameter("select * from log where create_time >= '2017-01-01'", 0, Collections.<String>emptyList(), Collections.<String>emptyList());
+    }
+}
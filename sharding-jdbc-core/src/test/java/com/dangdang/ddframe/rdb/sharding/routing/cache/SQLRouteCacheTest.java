@@ -0,0 +1,158 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.rdb.sharding.routing.cache;
+
+import com.dangdang.ddframe.rdb.sharding.api.ShardingValue;
+import com.dangdang.ddframe.rdb.sharding.api.rule.DataSourceRule;
+import com.dangdang.ddframe.rdb.sharding.api.rule.ShardingRule;
+import com.dangdang.ddframe.rdb.sharding.api.rule.TableRule;
+import com.dangdang.ddframe.rdb.sharding.api.strategy.database.DatabaseShardingStrategy;
+import com.dangdang.ddframe.rdb.sharding.api.strategy.table.SingleKeyTableShardingAlgorithm;
+import com.dangdang.ddframe.rdb.sharding.api.strategy.table.TableShardingStrategy;
+import com.dangdang.ddframe.rdb.sharding.constant.DatabaseType;
+import com.dangdang.ddframe.rdb.sharding.jdbc.core.ShardingContext;
+import com.dangdang.ddframe.rdb.sharding.parsing.cache.SQLParsingCache;
+import com.dangdang.ddframe.rdb.sharding.routing.PreparedStatementRoutingEngine;
+import com.dangdang.ddframe.rdb.sharding.routing.SQLExecutionUnit;
+import com.dangdang.ddframe.rdb.sharding.routing.SQLRouteResult;
+import com.dangdang.ddframe.rdb.sharding.routing.fixture.EqualUnsupportedOrderShardingAlgorithm;
+import com.dangdang.ddframe.rdb.sharding.routing.fixture.NonCacheableOrderShardingAlgorithm;
+import com.dangdang.ddframe.rdb.sharding.routing.fixture.OrderShardingAlgorithm;
+import com.dangdang.ddframe.rdb.sharding.routing.type.TableUnit;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public final class SQLRouteCacheTest {
+    
+    private static final String SQL = "SELECT * FROM order WHERE order_id = ?";
+    
+    private static final String IN_SQL = "SELECT * FROM order WHERE order_id IN (?, ?, ?)";
+    
+    private final List<ShardingValue<?>> databaseShardingValues = Collections.<ShardingValue<?>>singletonList(new ShardingValue<>("order", "order_id", 1));
+    
+    private final List<ShardingValue<?>> tableShardingValues = Collections.<ShardingValue<?>>singletonList(new ShardingValue<>("order", "order_id", 1));
+    
+    private final List<TableUnit> tableUnits = Collections.singletonList(new TableUnit("ds_1", "order", "order_1"));
+    
+    @Test
+    public void assertGetWhenDisabled() {
+        SQLRouteCache actual = new SQLRouteCache(0);
+        actual.put("order", databaseShardingValues, tableShardingValues, tableUnits);
+        assertFalse(actual.isEnabled());
+        assertFalse(actual.get("order", databaseShardingValues, tableShardingValues).isPresent());
+        assertThat(actual.size(), is(0L));
+    }
+    
+    @Test
+    public void assertGetWithHitAndMiss() {
+        SQLRouteCache actual = new SQLRouteCache(16);
+        assertFalse(actual.get("order", databaseShardingValues, tableShardingValues).isPresent());
+        actual.put("order", databaseShardingValues, tableShardingValues, tableUnits);
+        List<ShardingValue<?>> equalShardingValues = Collections.<ShardingValue<?>>singletonList(new ShardingValue<>("order", "order_id", 1));
+        assertThat(actual.get("order", equalShardingValues, equalShardingValues).get(), is(tableUnits));
+        List<ShardingValue<?>> otherShardingValues = Collections.<ShardingValue<?>>singletonList(new ShardingValue<>("order", "order_id", Arrays.asList(1, 2)));
+        assertFalse(actual.get("order", otherShardingValues, tableShardingValues).isPresent());
+        assertThat(actual.getStats().hitCount(), is(1L));
+        assertThat(actual.getStats().missCount(), is(2L));
+    }
+    
+    @Test
+    public void assertEvictWhenExceedMaximumSize() {
+        SQLRouteCache actual = new SQLRouteCache(1);
+        actual.put("order", databaseShardingValues, tableShardingValues, tableUnits);
+        actual.put("order_item", databaseShardingValues, tableShardingValues, tableUnits);
+        assertThat(actual.size(), is(1L));
+        assertFalse(actual.get("order", databaseShardingValues, tableShardingValues).isPresent());
+        assertTrue(actual.get("order_item", databaseShardingValues, tableShardingValues).isPresent());
+    }
+    
+    @Test
+    public void assertRouteWithCache() {
+        SQLRouteCache sqlRouteCache = new SQLRouteCache(16);
+        ShardingContext shardingContext = createShardingContext(new OrderShardingAlgorithm(), sqlRouteCache);
+        assertRoute(new PreparedStatementRoutingEngine(SQL, shardingContext).route(new ArrayList<Object>(Collections.singletonList(1))), "ds_1", "SELECT * FROM order_1 WHERE order_id = ?");
+        assertRoute(new PreparedStatementRoutingEngine(SQL, shardingContext).route(new ArrayList<Object>(Collections.singletonList(1))), "ds_1", "SELECT * FROM order_1 WHERE order_id = ?");
+        assertRoute(new PreparedStatementRoutingEngine(SQL, shardingContext).route(new ArrayList<Object>(Collections.singletonList(2))), "ds_0", "SELECT * FROM order_0 WHERE order_id = ?");
+        assertThat(sqlRouteCache.size(), is(2L));
+        assertThat(sqlRouteCache.getStats().hitCount(), is(1L));
+    }
+    
+    @Test
+    public void assertRouteWithNonCacheableShardingAlgorithm() {
+        SQLRouteCache sqlRouteCache = new SQLRouteCache(16);
+        ShardingContext shardingContext = createShardingContext(new NonCacheableOrderShardingAlgorithm(), sqlRouteCache);
+        assertRoute(new PreparedStatementRoutingEngine(SQL, shardingContext).route(new ArrayList<Object>(Collections.singletonList(1))), "ds_1", "SELECT * FROM order_1 WHERE order_id = ?");
+        assertRoute(new PreparedStatementRoutingEngine(SQL, shardingContext).route(new ArrayList<Object>(Collections.singletonList(1))), "ds_1", "SELECT * FROM order_1 WHERE order_id = ?");
+        assertThat(sqlRouteCache.size(), is(0L));
+        assertThat(sqlRouteCache.getStats().requestCount(), is(0L));
+    }
+    
+    @Test
+    public void assertRouteSplitInValuesWithoutCachingEachValue() {
+        SQLRouteCache sqlRouteCache = new SQLRouteCache(16);
+        ShardingContext shardingContext = createShardingContext(new OrderShardingAlgorithm(), sqlRouteCache);
+        SQLRouteResult actual = new PreparedStatementRoutingEngine(IN_SQL, shardingContext).route(new ArrayList<Object>(Arrays.asList(1, 2, 3)));
+        assertThat(actual.getExecutionUnits().size(), is(2));
+        for (SQLExecutionUnit each : actual.getExecutionUnits()) {
+            assertThat(each.getSql(), is("ds_0".equals(each.getDataSource()) ? "SELECT * FROM order_0 WHERE order_id IN (?)" : "SELECT * FROM order_1 WHERE order_id IN (?, ?)"));
+        }
+        assertThat(sqlRouteCache.size(), is(1L));
+    }
+    
+    @Test
+    public void assertRouteInValuesWhenEqualShardingUnsupported() {
+        SQLRouteCache sqlRouteCache = new SQLRouteCache(16);
+        ShardingContext shardingContext = createShardingContext(new EqualUnsupportedOrderShardingAlgorithm(), sqlRouteCache);
+        SQLRouteResult actual = new PreparedStatementRoutingEngine(IN_SQL, shardingContext).route(new ArrayList<Object>(Arrays.asList(1, 2, 3)));
+        assertThat(actual.getExecutionUnits().size(), is(4));
+        for (SQLExecutionUnit each : actual.getExecutionUnits()) {
+            assertTrue(each.getSql().endsWith("WHERE order_id IN (?, ?, ?)"));
+        }
+        assertThat(sqlRouteCache.size(), is(1L));
+    }
+    
+    private ShardingContext createShardingContext(final SingleKeyTableShardingAlgorithm<?> tableShardingAlgorithm, final SQLRouteCache sqlRouteCache) {
+        Map<String, DataSource> dataSourceMap = new HashMap<>(2, 1);
+        dataSourceMap.put("ds_0", null);
+        dataSourceMap.put("ds_1", null);
+        DataSourceRule dataSourceRule = new DataSourceRule(dataSourceMap);
+        TableRule orderTableRule = TableRule.builder("order").actualTables(Arrays.asList("order_0", "order_1")).dataSourceRule(dataSourceRule).build();
+        ShardingRule shardingRule = ShardingRule.builder().dataSourceRule(dataSourceRule).tableRules(Collections.singletonList(orderTableRule))
+                .databaseShardingStrategy(new DatabaseShardingStrategy("order_id", new OrderShardingAlgorithm()))
+                .tableShardingStrategy(new TableShardingStrategy("order_id", tableShardingAlgorithm)).build();
+        return new ShardingContext(shardingRule, DatabaseType.MySQL, null, false, new SQLParsingCache(0), sqlRouteCache);
+    }
+    
+    private void assertRoute(final SQLRouteResult actual, final String expectedDataSource, final String expectedSQL) {
+        assertThat(actual.getExecutionUnits().size(), is(1));
+        assertThat(actual.getExecutionUnits().iterator().next().getDataSource(), is(expectedDataSource));
+        assertThat(actual.getExecutionUnits().iterator().next().getSql(), is(expectedSQL));
+    }
+}